@@ -0,0 +1,66 @@
+package api.dto;
+
+import bench.Fixtures;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import model.News;
+import model.NewsCollection;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Sérialisation JSON des réponses, avec la configuration du mapper
+ * de {@code PreferencesApi}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SerializationBenchmark {
+
+    /** Nombre d'articles de la réponse. */
+    @Param({"20", "200", "2000"})
+    private int articles;
+
+    private final ObjectMapper mapper = new ObjectMapper()
+            .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false)
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+            .registerModule(new JavaTimeModule());
+
+    private NewsCollection collection;
+    private NewsPage page;
+
+    @Setup
+    public void setUp() {
+        List<News> news = Fixtures.scoredNews(articles);
+        collection = new NewsCollection(news);
+        page = new NewsPage(news, "MTI6MjA");
+    }
+
+    @Benchmark
+    public byte[] newsCollection() throws JsonProcessingException {
+        return mapper.writeValueAsBytes(collection);
+    }
+
+    @Benchmark
+    public byte[] newsPage() throws JsonProcessingException {
+        return mapper.writeValueAsBytes(page);
+    }
+}
@@ -0,0 +1,62 @@
+package api.service;
+
+import bench.Fixtures;
+import model.News;
+import model.ScoreVector;
+import model.Theme;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Prédiction du classifieur distillé ({@link NaiveBayesClassifier})
+ * pour un article, après apprentissage sur {@code examples} articles
+ * scorés.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class NaiveBayesClassifierBenchmark {
+
+    /** Nombre d'articles appris. */
+    @Param({"1000", "10000"})
+    private int examples;
+
+    private NaiveBayesClassifier classifier;
+    private List<String> texts;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        classifier = new NaiveBayesClassifier(Theme.values().length, 100_000);
+        for (News news : Fixtures.scoredNews(examples)) {
+            int[] levels = new int[Theme.values().length];
+            for (Theme theme : Theme.values()) {
+                levels[theme.ordinal()] = ScoreVector.get(news.getScoreVector(), theme);
+            }
+            classifier.train(news.getTitle() + ". " + news.getDescription(), levels);
+        }
+        texts = Fixtures.scoredNews(1024).stream()
+                .map(news -> news.getTitle() + ". " + news.getDescription())
+                .toList();
+    }
+
+    @Benchmark
+    public NaiveBayesClassifier.Prediction predict() {
+        return classifier.predict(texts.get(next++ & (texts.size() - 1)));
+    }
+}
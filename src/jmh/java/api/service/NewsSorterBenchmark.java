@@ -0,0 +1,71 @@
+package api.service;
+
+import api.util.ApiException;
+import bench.Fixtures;
+import model.News;
+import model.PreferenceVector;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Classement d'un index d'articles ({@link NewsSorter}) : tri complet
+ * (réponse sans limite) et sélection de la première page.
+ * <p>
+ * Chaque appel utilise le profil de préférences suivant d'un jeu de
+ * {@value #PROFILES} profils, pour ne pas mesurer un seul cas.
+ * </p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class NewsSorterBenchmark {
+
+    /** Nombre de profils de préférences (puissance de 2). */
+    static final int PROFILES = 64;
+
+    /** Nombre d'articles de l'index. */
+    @Param({"100", "1000", "10000", "100000"})
+    private int articles;
+
+    /** Taille de la page demandée (0 : tous les articles). */
+    @Param({"20", "0"})
+    private int limit;
+
+    private List<News> news;
+    private long[] profiles;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        news = Fixtures.scoredNews(articles);
+        profiles = Fixtures.preferenceProfiles(PROFILES).stream()
+                .mapToLong(PreferenceVector::fromLevels)
+                .toArray();
+    }
+
+    @Benchmark
+    public List<News> sortByPreferences() {
+        long profile = profiles[next++ & (PROFILES - 1)];
+        try {
+            return NewsSorter.sortByPreferences(news, profile,
+                    limit == 0 ? Integer.MAX_VALUE : limit);
+        } catch (ApiException e) {
+            return List.of();
+        }
+    }
+}
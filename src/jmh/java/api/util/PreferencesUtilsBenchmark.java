@@ -0,0 +1,60 @@
+package api.util;
+
+import api.dto.Themes;
+import bench.Fixtures;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Lecture des préférences d'une requête ({@link PreferencesUtils}).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PreferencesUtilsBenchmark {
+
+    /** Nombre de thèmes renseignés dans la requête. */
+    @Param({"1", "6", "12"})
+    private int themes;
+
+    private Themes request;
+
+    @Setup
+    public void setUp() throws IOException {
+        request = new ObjectMapper().readValue(Fixtures.themesJson(themes),
+                Themes.class);
+    }
+
+    @Benchmark
+    public long preferenceVector() {
+        return PreferencesUtils.preferenceVector(request);
+    }
+
+    @Benchmark
+    public Map<String, Integer> flattenPreferences() {
+        return PreferencesUtils.flattenPreferences(request);
+    }
+
+    @Benchmark
+    public Set<String> collectFeeds() {
+        return PreferencesUtils.collectFeeds(request);
+    }
+}
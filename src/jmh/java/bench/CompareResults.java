@@ -0,0 +1,111 @@
+package bench;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Compare deux résultats JMH au format JSON ({@code -rf json}).
+ * <p>
+ * Affiche, pour chaque benchmark et jeu de paramètres présent dans les
+ * deux fichiers, le score de référence, le nouveau score et l'écart.
+ * Un écart est signalé ({@code <<}/{@code >>}) quand il dépasse la
+ * somme des marges d'erreur des deux mesures.
+ * </p>
+ * <p>
+ * Usage : {@code CompareResults reference.json nouveau.json}
+ * </p>
+ */
+public final class CompareResults {
+
+    private CompareResults() {
+        // utilitaire
+    }
+
+    /**
+     * Point d'entrée.
+     *
+     * @param args fichier de référence, nouveau fichier
+     * @throws IOException si un fichier est illisible
+     */
+    public static void main(final String[] args) throws IOException {
+        if (args.length != 2) {
+            System.err.println(
+                    "Usage : CompareResults reference.json nouveau.json");
+            System.exit(2);
+        }
+        Map<String, JsonNode> baseline = load(new File(args[0]));
+        Map<String, JsonNode> candidate = load(new File(args[1]));
+
+        System.out.printf("%-70s %14s %14s %9s%n",
+                "Benchmark", "Reference", "Nouveau", "Ecart");
+        for (Map.Entry<String, JsonNode> entry : baseline.entrySet()) {
+            JsonNode after = candidate.get(entry.getKey());
+            if (after == null) {
+                continue;
+            }
+            JsonNode before = entry.getValue();
+            double scoreBefore = before.path("score").asDouble();
+            double scoreAfter = after.path("score").asDouble();
+            double error = error(before) + error(after);
+            double delta = scoreBefore == 0
+                    ? 0
+                    : (scoreAfter - scoreBefore) * 100 / scoreBefore;
+            String flag = "";
+            if (Math.abs(scoreAfter - scoreBefore) > error) {
+                flag = scoreAfter < scoreBefore ? " <<" : " >>";
+            }
+            String unit = before.path("scoreUnit").asText();
+            System.out.printf("%-70s %10.3f %-3s %10.3f %-3s %+8.1f%%%s%n",
+                    entry.getKey(), scoreBefore, shortUnit(unit),
+                    scoreAfter, shortUnit(unit), delta, flag);
+        }
+    }
+
+    /**
+     * Lit un fichier de résultats JMH.
+     *
+     * @param file le fichier
+     * @return les métriques principales, par benchmark et paramètres
+     * @throws IOException si le fichier est illisible
+     */
+    private static Map<String, JsonNode> load(final File file)
+            throws IOException {
+        Map<String, JsonNode> metrics = new LinkedHashMap<>();
+        for (JsonNode run : new ObjectMapper().readTree(file)) {
+            StringBuilder name = new StringBuilder(
+                    run.path("benchmark").asText()
+                            .replaceFirst("^.*\\.(\\w+\\.\\w+)$", "$1"));
+            run.path("params").fields().forEachRemaining(param ->
+                    name.append(' ').append(param.getKey()).append('=')
+                            .append(param.getValue().asText()));
+            metrics.put(name.toString(), run.path("primaryMetric"));
+        }
+        return metrics;
+    }
+
+    /**
+     * Retourne la marge d'erreur d'une mesure (0 si non calculée).
+     *
+     * @param metric la métrique principale
+     * @return la marge d'erreur
+     */
+    private static double error(final JsonNode metric) {
+        double error = metric.path("scoreError").asDouble();
+        return Double.isNaN(error) ? 0 : error;
+    }
+
+    /**
+     * Abrège une unité JMH ({@code us/op} devient {@code us}).
+     *
+     * @param unit l'unité
+     * @return l'unité abrégée
+     */
+    private static String shortUnit(final String unit) {
+        return unit.replace("/op", "");
+    }
+}
@@ -0,0 +1,210 @@
+package bench;
+
+import model.News;
+import model.ScoreVector;
+import model.Theme;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Jeux de données des benchmarks.
+ * <p>
+ * Tous les jeux sont générés à partir d'une graine fixe : deux
+ * exécutions (avant / après une modification) mesurent exactement les
+ * mêmes données. Les documents RSS reprennent la structure des flux du
+ * Monde (CDATA, {@code media:content}, {@code guid} permanent).
+ * </p>
+ */
+public final class Fixtures {
+
+    /** Graine des générateurs. */
+    public static final long SEED = 20_240_601L;
+
+    /** Niveau de préférence maximal. */
+    private static final int MAX_LEVEL = 5;
+
+    /** Proportion d'articles non scorés (en pourcentage). */
+    private static final int UNSCORED_PERCENT = 5;
+
+    /** Nombre maximal de thèmes pertinents par article. */
+    private static final int MAX_THEMES_PER_ARTICLE = 3;
+
+    /** Mots utilisés pour les titres et descriptions. */
+    private static final String[] WORDS = {
+        "gouvernement", "réforme", "élections", "marché", "climat",
+        "équipe", "finale", "festival", "recherche", "hôpital",
+        "école", "tribune", "accord", "crise", "données", "numérique",
+        "européen", "budget", "température", "record", "procès",
+        "enquête", "salon", "ministre", "victoire", "exposition"
+    };
+
+    private Fixtures() {
+        // utilitaire
+    }
+
+    /**
+     * Génère un document RSS.
+     *
+     * @param items nombre d'articles du flux
+     * @return le document RSS
+     */
+    public static String rssDocument(final int items) {
+        Random random = new Random(SEED + items);
+        StringBuilder xml = new StringBuilder(items * 900 + 600);
+        xml.append("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n")
+                .append("<rss version=\"2.0\"")
+                .append(" xmlns:media=\"http://search.yahoo.com/mrss/\"")
+                .append(" xmlns:dc=\"http://purl.org/dc/elements/1.1/\">\n")
+                .append("<channel>\n")
+                .append("<title>Le Monde.fr - Actualités et Infos en France")
+                .append(" et dans le monde</title>\n")
+                .append("<link>https://www.lemonde.fr/rss/une.xml</link>\n")
+                .append("<description>Le Monde.fr - 1er site d'information.")
+                .append("</description>\n")
+                .append("<language>fr</language>\n");
+        for (int i = 0; i < items; i++) {
+            Theme theme = Theme.values()[random.nextInt(Theme.values().length)];
+            String link = "https://www.lemonde.fr/" + theme.getJsonName()
+                    + "/article/2024/06/01/" + slug(random) + "_" + (6_000_000 + i)
+                    + "_3242.html";
+            xml.append("<item>\n")
+                    .append("<title><![CDATA[").append(sentence(random, 10))
+                    .append("]]></title>\n")
+                    .append("<pubDate>Sat, 01 Jun 2024 08:")
+                    .append(String.format("%02d", i % 60))
+                    .append(":00 +0200</pubDate>\n")
+                    .append("<description><![CDATA[")
+                    .append(sentence(random, 35))
+                    .append("]]></description>\n")
+                    .append("<guid isPermaLink=\"true\">").append(link)
+                    .append("</guid>\n")
+                    .append("<link>").append(link).append("</link>\n")
+                    .append("<media:content url=\"https://img.lemde.fr/2024/06/01/")
+                    .append(i).append(".jpg\" width=\"644\" height=\"322\">\n")
+                    .append("<media:description type=\"plain\">")
+                    .append(sentence(random, 12))
+                    .append("</media:description>\n")
+                    .append("<media:credit scheme=\"urn:ebu\">AFP")
+                    .append("</media:credit>\n")
+                    .append("</media:content>\n")
+                    .append("</item>\n");
+        }
+        xml.append("</channel>\n</rss>\n");
+        return xml.toString();
+    }
+
+    /**
+     * Génère des articles scorés : 1 à 3 thèmes pertinents par article
+     * (score 1 à 4), et quelques articles non scorés.
+     *
+     * @param count nombre d'articles
+     * @return les articles
+     */
+    public static List<News> scoredNews(final int count) {
+        Random random = new Random(SEED + count);
+        List<News> news = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            News article = new News(sentence(random, 10),
+                    "https://www.lemonde.fr/article/" + i + ".html",
+                    sentence(random, 35));
+            if (random.nextInt(100) >= UNSCORED_PERCENT) {
+                long vector = ScoreVector.EMPTY;
+                int themes = 1 + random.nextInt(MAX_THEMES_PER_ARTICLE);
+                for (int t = 0; t < themes; t++) {
+                    Theme theme = Theme.values()[
+                            random.nextInt(Theme.values().length)];
+                    vector = ScoreVector.with(vector, theme,
+                            1 + random.nextInt(ScoreVector.MAX_SCORE));
+                }
+                article.setScoreVector(vector);
+            }
+            news.add(article);
+        }
+        return news;
+    }
+
+    /**
+     * Génère des profils de préférences : chaque thème est renseigné
+     * avec une probabilité d'un sur deux, à un niveau de 1 à 5 (au
+     * moins un thème par profil).
+     *
+     * @param count nombre de profils
+     * @return les profils (thème -> niveau)
+     */
+    public static List<Map<String, Integer>> preferenceProfiles(
+            final int count) {
+        Random random = new Random(SEED);
+        List<Map<String, Integer>> profiles = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            Map<String, Integer> profile = new LinkedHashMap<>();
+            for (Theme theme : Theme.values()) {
+                if (random.nextBoolean()) {
+                    profile.put(theme.getJsonName(),
+                            1 + random.nextInt(MAX_LEVEL));
+                }
+            }
+            if (profile.isEmpty()) {
+                profile.put(Theme.values()[i % Theme.values().length]
+                        .getJsonName(), MAX_LEVEL);
+            }
+            profiles.add(profile);
+        }
+        return profiles;
+    }
+
+    /**
+     * Construit le JSON {@code themes} d'une requête de préférences,
+     * avec un flux RSS par thème renseigné.
+     *
+     * @param themes nombre de thèmes renseignés (premiers thèmes
+     *               canoniques)
+     * @return l'objet JSON des thèmes
+     */
+    public static String themesJson(final int themes) {
+        StringBuilder json = new StringBuilder("{");
+        for (int i = 0; i < themes; i++) {
+            String name = Theme.values()[i].getJsonName();
+            if (i > 0) {
+                json.append(',');
+            }
+            json.append('"').append(name).append("\":{\"level\":")
+                    .append(1 + i % MAX_LEVEL)
+                    .append(",\"rss\":\"https://www.lemonde.fr/")
+                    .append(name).append("/rss_full.xml\"}");
+        }
+        return json.append('}').toString();
+    }
+
+    /**
+     * Génère une phrase.
+     *
+     * @param random générateur
+     * @param words  nombre de mots
+     * @return la phrase
+     */
+    private static String sentence(final Random random, final int words) {
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < words; i++) {
+            if (i > 0) {
+                text.append(' ');
+            }
+            text.append(WORDS[random.nextInt(WORDS.length)]);
+        }
+        return text.append('.').toString();
+    }
+
+    /**
+     * Génère un identifiant d'URL.
+     *
+     * @param random générateur
+     * @return l'identifiant
+     */
+    private static String slug(final Random random) {
+        return WORDS[random.nextInt(WORDS.length)] + "-"
+                + WORDS[random.nextInt(WORDS.length)];
+    }
+}
@@ -0,0 +1,84 @@
+package rss;
+
+import bench.Fixtures;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Découpage d'un document RSS en articles : lecteur StAX
+ * ({@link RssParser}) et découpage textuel via
+ * {@link LeMondeRSSFetcher#extractTagContent(String, String)}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RssParsingBenchmark {
+
+    /** Nombre d'articles du flux (un flux du Monde en compte ~20). */
+    @Param({"20", "100", "1000"})
+    private int items;
+
+    private String document;
+    private byte[] bytes;
+
+    @Setup
+    public void setUp() {
+        document = Fixtures.rssDocument(items);
+        bytes = document.getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Benchmark
+    public List<Map<String, String>> parseString() throws IOException {
+        return RssParser.parse(document);
+    }
+
+    @Benchmark
+    public List<Map<String, String>> parseStream() throws IOException {
+        List<Map<String, String>> parsed = new ArrayList<>();
+        RssParser.parse(new ByteArrayInputStream(bytes), parsed::add);
+        return parsed;
+    }
+
+    @Benchmark
+    public List<Map<String, String>> extractTagContent() {
+        List<Map<String, String>> parsed = new ArrayList<>();
+        String[] parts = document.split("<item>");
+        for (int i = 1; i < parts.length; i++) {
+            int end = parts[i].indexOf("</item>");
+            if (end == -1) {
+                continue;
+            }
+            String item = parts[i].substring(0, end);
+            Map<String, String> data = new HashMap<>();
+            data.put("title", LeMondeRSSFetcher.extractTagContent(item, "title"));
+            data.put("link", LeMondeRSSFetcher.extractTagContent(item, "link"));
+            data.put("description",
+                    LeMondeRSSFetcher.extractTagContent(item, "description"));
+            data.put("category",
+                    LeMondeRSSFetcher.extractTagContent(item, "category"));
+            parsed.add(data);
+        }
+        return parsed;
+    }
+}
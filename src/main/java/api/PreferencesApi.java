@@ -1,26 +1,42 @@
 package api;
 
 import api.dto.ErrorResponse;
+import api.dto.NewsPage;
 import api.dto.PreferencesRequest;
 import api.util.ApiException;
-import dev.langchain4j.model.chat.ChatLanguageModel;
+import api.util.EnvConfig;
+import api.util.Metrics;
 import dev.langchain4j.model.ollama.OllamaChatModel;
+import dev.langchain4j.model.ollama.OllamaStreamingChatModel;
+import io.javalin.http.ContentType;
 import io.javalin.http.Context;
 import io.javalin.http.HttpStatus;
 import main.Main;
-import model.News;
-import model.NewsCollection;
+import api.service.LLMScorer;
+import api.service.NewsIngestionService;
 import api.service.NewsService;
+import api.service.OllamaPool;
+import api.service.ScoreCache;
+import api.service.ScoredNewsIndex;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.DeserializationFeature;
 import com.fasterxml.jackson.databind.SerializationFeature;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
 import com.fasterxml.jackson.core.JsonProcessingException;
+import rss.FeedCache;
 import rss.LeMondeRSSFetcher;
-import rss.RssFetcher;
+import rss.MultiFeedRssFetcher;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
 import java.time.Duration;
+import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
 import java.util.logging.Logger;
 
 /**
@@ -43,40 +59,222 @@ public final class PreferencesApi {
     private static final Logger LOGGER =
             Logger.getLogger(Main.class.getName());
 
+    /** Nombre maximal par défaut de flux enregistrés. */
+    private static final int DEFAULT_FEED_MAX_FEEDS = 64;
+
+    /** Nombre maximal par défaut de requêtes simultanées par hôte. */
+    private static final int DEFAULT_FEED_MAX_PER_HOST = 4;
+
+    /** Nombre par défaut de flux récupérés en parallèle. */
+    private static final int DEFAULT_FEED_FETCH_THREADS = 8;
+
+    /** Délai maximal par défaut de récupération d'un flux, en secondes. */
+    private static final int DEFAULT_FEED_TIMEOUT_SECONDS = 20;
+
     /**
-     * Initialisation du fetcher.
+     * Initialisation du fetcher : flux du Monde (une et thèmes) récupérés
+     * en parallèle, enrichis des flux demandés par les clients.
      */
-    private static final RssFetcher RSS_FETCHER = LeMondeRSSFetcher.INSTANCE;
+    private static final MultiFeedRssFetcher RSS_FETCHER =
+            new MultiFeedRssFetcher(
+                    FeedCache.INSTANCE,
+                    csv(EnvConfig.getString("FEED_URLS",
+                            String.join(",", LeMondeRSSFetcher.ALL_FEEDS))),
+                    csv(EnvConfig.getString("FEED_ALLOWED_URLS",
+                            String.join(",", LeMondeRSSFetcher.ALL_FEEDS))),
+                    EnvConfig.getInt("FEED_MAX_FEEDS",
+                            DEFAULT_FEED_MAX_FEEDS),
+                    EnvConfig.getInt("FEED_MAX_PER_HOST",
+                            DEFAULT_FEED_MAX_PER_HOST),
+                    EnvConfig.getInt("FEED_FETCH_THREADS",
+                            DEFAULT_FEED_FETCH_THREADS),
+                    Duration.ofSeconds(EnvConfig.getLong(
+                            "FEED_TIMEOUT_SECONDS",
+                            DEFAULT_FEED_TIMEOUT_SECONDS))
+            );
 
     /**
      * time out du llm.
      */
     private static final int LLM_TIMEOUT_MINUTES = 5;
 
+    /** Échecs consécutifs par défaut avant d'écarter un serveur Ollama. */
+    private static final int DEFAULT_OLLAMA_BREAKER_FAILURES = 3;
+
+    /** Durée par défaut de mise à l'écart d'un serveur, en secondes. */
+    private static final int DEFAULT_OLLAMA_BREAKER_OPEN_SECONDS = 30;
+
+    /**
+     * Durée par défaut au-delà de laquelle un appel compte comme un
+     * échec, en secondes.
+     */
+    private static final int DEFAULT_OLLAMA_SLOW_CALL_SECONDS = 120;
+
+    /**
+     * Initialisation du LLM : un ou plusieurs serveurs Ollama
+     * ({@code OLLAMA_HOSTS}, à défaut {@code OLLAMA_HOST}), en réponse
+     * complète comme en streaming.
+     */
+    private static final OllamaPool LLM = new OllamaPool(
+            csv(EnvConfig.getString("OLLAMA_HOSTS",
+                    EnvConfig.getString("OLLAMA_HOST",
+                            "http://localhost:11434"))),
+            host -> OllamaChatModel.builder()
+                    .baseUrl(host)
+                    .modelName(LLMScorer.MODEL_NAME)
+                    .numCtx(LLMScorer.CONTEXT_TOKENS)
+                    .timeout(Duration.ofMinutes(LLM_TIMEOUT_MINUTES))
+                    .maxRetries(0)
+                    .build(),
+            host -> OllamaStreamingChatModel.builder()
+                    .baseUrl(host)
+                    .modelName(LLMScorer.MODEL_NAME)
+                    .numCtx(LLMScorer.CONTEXT_TOKENS)
+                    .timeout(Duration.ofMinutes(LLM_TIMEOUT_MINUTES))
+                    .build(),
+            EnvConfig.getInt("OLLAMA_BREAKER_FAILURES",
+                    DEFAULT_OLLAMA_BREAKER_FAILURES),
+            Duration.ofSeconds(EnvConfig.getLong(
+                    "OLLAMA_BREAKER_OPEN_SECONDS",
+                    DEFAULT_OLLAMA_BREAKER_OPEN_SECONDS)),
+            Duration.ofSeconds(EnvConfig.getLong("OLLAMA_SLOW_CALL_SECONDS",
+                    DEFAULT_OLLAMA_SLOW_CALL_SECONDS)),
+            EnvConfig.getDouble("OLLAMA_HEDGE_PERCENTILE", 0));
+
+    /** Intervalle par défaut entre deux ingestions, en secondes. */
+    private static final int DEFAULT_INGESTION_INTERVAL_SECONDS = 300;
+
+    /** Durée maximale par défaut d'une diffusion SSE, en secondes. */
+    private static final int DEFAULT_STREAM_MAX_SECONDS = 600;
+
+    /** Intervalle de maintien de connexion SSE, en secondes. */
+    private static final int STREAM_HEARTBEAT_SECONDS = 15;
+
+    /** Durée maximale d'une diffusion SSE. */
+    private static final Duration STREAM_MAX_DURATION = Duration.ofSeconds(
+            EnvConfig.getLong("STREAM_MAX_SECONDS",
+                    DEFAULT_STREAM_MAX_SECONDS));
+
+    /** Nombre maximal par défaut de diffusions SSE simultanées. */
+    private static final int DEFAULT_STREAM_MAX_CLIENTS = 64;
+
+    /**
+     * Places de diffusion SSE : au-delà, les clients reçoivent un 503
+     * au lieu d'attendre.
+     */
+    private static final Semaphore STREAM_SLOTS = new Semaphore(Math.max(1,
+            EnvConfig.getInt("STREAM_MAX_CLIENTS",
+                    DEFAULT_STREAM_MAX_CLIENTS)));
+
+    /**
+     * Threads des diffusions SSE (démons), bornés par
+     * {@link #STREAM_SLOTS} : une diffusion attend les publications de
+     * l'index sans occuper un thread de requêtes de Jetty.
+     */
+    private static final ExecutorService STREAM_EXECUTOR =
+            Executors.newCachedThreadPool(runnable -> {
+                Thread thread = new Thread(runnable, "sse-stream");
+                thread.setDaemon(true);
+                return thread;
+            });
+
+    /** Âge maximal par défaut de l'index, en secondes. */
+    private static final int DEFAULT_MAX_STALENESS_SECONDS = 900;
+
     /**
-     * Initialisation du LLM.
+     * Index des articles scorés, alimenté en arrière-plan.
      */
-    private static final ChatLanguageModel LLM = OllamaChatModel.builder()
-            .baseUrl(System.getenv().getOrDefault(
-                    "OLLAMA_HOST",
-                    "http://localhost:11434"
-            ))
-            .modelName("qwen2.5:7b")
-            .timeout(Duration.ofMinutes(LLM_TIMEOUT_MINUTES))
-            .build();
+    private static final ScoredNewsIndex NEWS_INDEX = new ScoredNewsIndex();
+
+    /**
+     * Ingestion périodique des flux : récupération, scoring, publication.
+     */
+    private static final NewsIngestionService INGESTION_SERVICE =
+            new NewsIngestionService(
+                    List.of(RSS_FETCHER),
+                    LLMScorer.configuredScorer(LLM, LLM),
+                    NEWS_INDEX,
+                    Duration.ofSeconds(EnvConfig.getLong(
+                            "INGESTION_INTERVAL_SECONDS",
+                            DEFAULT_INGESTION_INTERVAL_SECONDS))
+            );
 
     /**
      * Service qui contient toute la logique métier.
      */
     private static final NewsService NEWS_SERVICE = new NewsService(
-            RSS_FETCHER,
-            LLM
+            NEWS_INDEX,
+            INGESTION_SERVICE,
+            Duration.ofSeconds(EnvConfig.getLong(
+                    "INDEX_MAX_STALENESS_SECONDS",
+                    DEFAULT_MAX_STALENESS_SECONDS)),
+            RSS_FETCHER
     );
 
     private PreferencesApi() {
         // Classe utilitaire, pas d'instance
     }
 
+    /**
+     * Découpe une liste séparée par des virgules.
+     *
+     * @param value la liste
+     * @return les éléments non vides
+     */
+    private static List<String> csv(final String value) {
+        return Arrays.stream(value.split(","))
+                .map(String::trim)
+                .filter(item -> !item.isEmpty())
+                .toList();
+    }
+
+    /**
+     * Démarre l'ingestion des flux en arrière-plan.
+     */
+    public static void startIngestion() {
+        registerMetrics();
+        INGESTION_SERVICE.start();
+    }
+
+    /**
+     * Publie les compteurs des caches et la taille de l'index.
+     */
+    private static void registerMetrics() {
+        Metrics.functionCounter("cache.gets", "Lectures du cache",
+                ScoreCache.INSTANCE, ScoreCache::getHits,
+                "cache", "score", "result", "hit");
+        Metrics.functionCounter("cache.gets", "Lectures du cache",
+                ScoreCache.INSTANCE, ScoreCache::getMisses,
+                "cache", "score", "result", "miss");
+        Metrics.functionCounter("cache.gets", "Lectures du cache",
+                NEWS_SERVICE, NewsService::getCachedRankings,
+                "cache", "ranking", "result", "hit");
+        Metrics.functionCounter("cache.gets", "Lectures du cache",
+                NEWS_SERVICE, NewsService::getUncachedRankings,
+                "cache", "ranking", "result", "miss");
+        Metrics.functionCounter("cache.gets", "Lectures du cache",
+                FeedCache.INSTANCE, FeedCache::getCacheHits,
+                "cache", "feed", "result", "hit");
+        Metrics.functionCounter("cache.gets", "Lectures du cache",
+                FeedCache.INSTANCE, FeedCache::getCacheMisses,
+                "cache", "feed", "result", "miss");
+        Metrics.functionCounter("feed.not.modified",
+                "Revalidations de flux répondues par HTTP 304",
+                FeedCache.INSTANCE, FeedCache::getNotModified);
+        Metrics.functionCounter("ranking.coalesced",
+                "Requêtes ayant partagé un classement en cours",
+                NEWS_SERVICE, NewsService::getCoalescedRankings);
+        Metrics.gauge("news.index.articles", "Articles de l'index courant",
+                NEWS_INDEX, index -> index.snapshot().getNews().size());
+    }
+
+    /**
+     * Arrête l'ingestion des flux en arrière-plan.
+     */
+    public static void stopIngestion() {
+        INGESTION_SERVICE.stop();
+    }
+
     /**
      * Gère la requête POST /api/preferences.
      * Délègue la récupération, catégorisation et tri des news
@@ -92,11 +290,15 @@ public final class PreferencesApi {
                     PreferencesRequest.class
             );
 
-            // Appel du service métier
-            List<News> news = NEWS_SERVICE.getNewsForPreferences(req);
+            // Appel du service métier (JSON mis en cache avec le
+            // classement)
+            byte[] page = NEWS_SERVICE.getNewsJsonForPreferences(
+                    req, MAPPER::writeValueAsBytes);
 
             // Retourne la réponse JSON
-            ctx.status(HttpStatus.OK).json(new NewsCollection(news));
+            ctx.status(HttpStatus.OK)
+                    .contentType(ContentType.APPLICATION_JSON)
+                    .result(page);
 
         } catch (JsonProcessingException e) {
             ctx.status(HttpStatus.BAD_REQUEST)
@@ -107,7 +309,7 @@ public final class PreferencesApi {
 
         } catch (ApiException e) {
             // Erreur métier personnalisée
-            ctx.status(HttpStatus.INTERNAL_SERVER_ERROR)
+            ctx.status(e.getStatus())
                     .json(new ErrorResponse(e.getCode(), e.getMessage()));
 
         } catch (Exception e) {
@@ -122,4 +324,118 @@ public final class PreferencesApi {
             );
         }
     }
+
+    /**
+     * Gère la requête POST /api/preferences/stream.
+     * <p>
+     * Répond en Server-Sent Events : un événement {@code partial} est
+     * émis à chaque lot d'articles scorés (classement provisoire), puis
+     * un événement {@code final} avec le classement définitif. Une
+     * erreur survenant en cours de diffusion est émise sous forme
+     * d'événement {@code error}.
+     * </p>
+     * <p>
+     * La diffusion est asynchrone : le thread de requêtes est rendu à
+     * Jetty, et au plus {@code STREAM_MAX_CLIENTS} diffusions tournent
+     * à la fois (503 {@code too_many_streams} au-delà).
+     * </p>
+     *
+     * @param ctx contexte HTTP de Javalin
+     */
+    public static void handlePreferencesStream(final Context ctx) {
+        PreferencesRequest req;
+        try {
+            req = MAPPER.readValue(ctx.body(), PreferencesRequest.class);
+        } catch (JsonProcessingException e) {
+            ctx.status(HttpStatus.BAD_REQUEST)
+                    .json(new ErrorResponse(
+                            "invalid_json",
+                            e.getOriginalMessage()
+                    ));
+            return;
+        }
+        if (!STREAM_SLOTS.tryAcquire()) {
+            ctx.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .json(new ErrorResponse(
+                            "too_many_streams",
+                            "Trop de diffusions en cours, "
+                                    + "veuillez réessayer plus tard"
+                    ));
+            return;
+        }
+
+        ctx.res().setStatus(HttpStatus.OK.getCode());
+        ctx.res().setContentType("text/event-stream");
+        ctx.res().setCharacterEncoding("UTF-8");
+        ctx.res().setHeader("Cache-Control", "no-cache");
+        ctx.res().setHeader("X-Accel-Buffering", "no");
+
+        ctx.future(() -> CompletableFuture.runAsync(() -> {
+            try {
+                streamPreferences(ctx, req);
+            } finally {
+                STREAM_SLOTS.release();
+            }
+        }, STREAM_EXECUTOR));
+    }
+
+    /**
+     * Diffuse les classements d'une requête en Server-Sent Events,
+     * jusqu'au classement final.
+     *
+     * @param ctx contexte HTTP de Javalin (réponse déjà en-têtée)
+     * @param req la requête du client
+     */
+    private static void streamPreferences(final Context ctx,
+                                          final PreferencesRequest req) {
+        try {
+            OutputStream out = ctx.res().getOutputStream();
+            try {
+                NEWS_SERVICE.streamNewsForPreferences(
+                        req,
+                        STREAM_MAX_DURATION,
+                        Duration.ofSeconds(STREAM_HEARTBEAT_SECONDS),
+                        new NewsService.RankingListener() {
+                            @Override
+                            public void onRanking(final NewsPage ranked,
+                                                  final boolean complete)
+                                    throws IOException {
+                                writeEvent(out,
+                                        complete ? "final" : "partial",
+                                        ranked);
+                            }
+
+                            @Override
+                            public void onWaiting() throws IOException {
+                                out.write(": ping\n\n".getBytes(
+                                        StandardCharsets.UTF_8));
+                                out.flush();
+                            }
+                        });
+            } catch (ApiException e) {
+                writeEvent(out, "error",
+                        new ErrorResponse(e.getCode(), e.getMessage()));
+            }
+        } catch (IOException e) {
+            // Le client s'est déconnecté : rien à renvoyer.
+            LOGGER.info("Diffusion interrompue : " + e.getMessage());
+        }
+    }
+
+    /**
+     * Écrit un événement SSE et vide le tampon.
+     *
+     * @param out     flux de la réponse HTTP
+     * @param event   nom de l'événement
+     * @param payload objet sérialisé en JSON dans le champ data
+     * @throws IOException si l'écriture échoue
+     */
+    private static void writeEvent(final OutputStream out,
+                                   final String event,
+                                   final Object payload) throws IOException {
+        String frame = "event: " + event + "\n"
+                + "data: " + MAPPER.writeValueAsString(payload) + "\n\n";
+        out.write(frame.getBytes(StandardCharsets.UTF_8));
+        out.flush();
+    }
 }
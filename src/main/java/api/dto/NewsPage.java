@@ -0,0 +1,53 @@
+package api.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import model.News;
+
+import java.util.List;
+
+/**
+ * Page d'articles classés renvoyée par /api/preferences.
+ * <p>
+ * Le champ {@code newsCollection} a la même forme qu'une
+ * {@link model.NewsCollection}. {@code nextCursor} est absent sur la
+ * dernière page.
+ * </p>
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public final class NewsPage {
+
+    /** Articles de la page, dans l'ordre du classement. */
+    private final List<News> newsCollection;
+
+    /** Curseur de la page suivante ({@code null} si dernière page). */
+    private final String nextCursor;
+
+    /**
+     * Crée une page.
+     *
+     * @param news   articles de la page
+     * @param cursor curseur de la page suivante, ou {@code null}
+     */
+    public NewsPage(final List<News> news, final String cursor) {
+        this.newsCollection = List.copyOf(news);
+        this.nextCursor = cursor;
+    }
+
+    /**
+     * Retourne les articles de la page.
+     *
+     * @return les articles (liste immuable)
+     */
+    public List<News> getNewsCollection() {
+        return newsCollection;
+    }
+
+    /**
+     * Retourne le curseur de la page suivante.
+     *
+     * @return le curseur, ou {@code null} sur la dernière page
+     */
+    public String getNextCursor() {
+        return nextCursor;
+    }
+}
@@ -8,6 +8,12 @@ public final class PreferencesRequest {
     /** Thèmes envoyés dans la requête. */
     private Themes themes;
 
+    /** Nombre maximal d'articles souhaités (optionnel). */
+    private Integer limit;
+
+    /** Curseur de la page suivante, renvoyé par l'API (optionnel). */
+    private String cursor;
+
     /**
      * Constructeur vide requis pour la désérialisation JSON.
      */
@@ -23,4 +29,22 @@ public final class PreferencesRequest {
     public Themes getThemes() {
         return themes;
     }
+
+    /**
+     * Retourne le nombre maximal d'articles souhaités.
+     *
+     * @return la limite, ou {@code null} pour tous les articles
+     */
+    public Integer getLimit() {
+        return limit;
+    }
+
+    /**
+     * Retourne le curseur de pagination.
+     *
+     * @return le curseur, ou {@code null} pour la première page
+     */
+    public String getCursor() {
+        return cursor;
+    }
 }
@@ -1,9 +1,14 @@
 package api.dto;
 
 import com.fasterxml.jackson.annotation.JsonProperty;
+import model.Theme;
 
 /**
  * Liste des thèmes pour le formattage JSON.
+ * <p>
+ * Les clés JSON doivent rester alignées avec {@link model.Theme},
+ * qui fixe l'ordre canonique utilisé pour le scoring.
+ * </p>
  */
 public final class Themes {
 
@@ -61,4 +66,27 @@ public final class Themes {
     public Themes() {
         // Constructeur par défaut
     }
+
+    /**
+     * Retourne la sélection de l'utilisateur pour un thème.
+     *
+     * @param theme le thème
+     * @return la sélection, ou {@code null} si le thème est absent
+     */
+    public ThemeSelection get(final Theme theme) {
+        return switch (theme) {
+            case POLITIQUE -> politique;
+            case INTERNATIONAL -> international;
+            case ECONOMIE -> economie;
+            case SOCIETE -> societe;
+            case SPORT -> sport;
+            case CULTURE -> culture;
+            case SCIENCES -> sciences;
+            case PLANETE -> planete;
+            case TECHNOLOGIES -> technologies;
+            case SANTE -> sante;
+            case EDUCATION -> education;
+            case IDEES -> idees;
+        };
+    }
 }
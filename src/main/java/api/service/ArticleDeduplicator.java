@@ -0,0 +1,93 @@
+package api.service;
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Supprime les articles en double avant le scoring.
+ * <p>
+ * Un même article du Monde figure à la fois dans le flux « à la une »
+ * et dans son flux thématique. Deux articles sont considérés comme
+ * identiques s'ils ont le même lien normalisé (ou le même
+ * {@code guid}), ou le même titre et la même description. Le premier
+ * rencontré est conservé, dans l'ordre des flux.
+ * </p>
+ */
+final class ArticleDeduplicator {
+
+    private ArticleDeduplicator() {
+        // utilitaire
+    }
+
+    /**
+     * Retourne les articles bruts sans doublon, dans leur ordre
+     * d'origine.
+     *
+     * @param rawNews les articles bruts de tous les flux
+     * @return les articles distincts
+     */
+    static List<Map<String, String>> distinct(
+            final List<Map<String, String>> rawNews) {
+        Set<String> seenLinks = new HashSet<>();
+        Set<Long> seenContents = new HashSet<>();
+        List<Map<String, String>> unique = new ArrayList<>(rawNews.size());
+
+        for (Map<String, String> item : rawNews) {
+            String guid = item.get("guid");
+            String link = normaliseLink(guid != null && !guid.isBlank()
+                    ? guid : item.get("link"));
+            String title = item.get("title");
+            boolean hasContent = title != null && !title.isBlank();
+            long content = ArticleKey.contentHash(
+                    title, item.get("description"));
+
+            boolean duplicate = (!link.isEmpty() && seenLinks.contains(link))
+                    || (hasContent && seenContents.contains(content));
+            if (duplicate) {
+                continue;
+            }
+            if (!link.isEmpty()) {
+                seenLinks.add(link);
+            }
+            if (hasContent) {
+                seenContents.add(content);
+            }
+            unique.add(item);
+        }
+        return unique;
+    }
+
+    /**
+     * Normalise un lien d'article : schéma {@code https}, hôte en
+     * minuscules, sans paramètres de requête, ancre ni barre finale.
+     * Les liens non analysables sont seulement nettoyés des espaces.
+     *
+     * @param link le lien (éventuellement {@code null})
+     * @return le lien normalisé, ou chaîne vide
+     */
+    static String normaliseLink(final String link) {
+        if (link == null) {
+            return "";
+        }
+        String trimmed = link.trim();
+        try {
+            URI uri = URI.create(trimmed);
+            if (uri.getHost() == null) {
+                return trimmed;
+            }
+            String path = uri.getRawPath() == null ? "" : uri.getRawPath();
+            while (path.endsWith("/")) {
+                path = path.substring(0, path.length() - 1);
+            }
+            return "https://" + uri.getHost().toLowerCase(Locale.ROOT)
+                    + path;
+        } catch (IllegalArgumentException e) {
+            return trimmed;
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package api.service;
+
+import model.News;
+
+/**
+ * Calcule l'identité d'un article : son lien et une empreinte
+ * de son contenu (titre + description).
+ * <p>
+ * Deux articles ayant le même lien mais un contenu modifié
+ * (titre corrigé, chapeau réécrit) ont des clés différentes,
+ * afin de ne jamais réutiliser un score devenu obsolète.
+ * </p>
+ */
+final class ArticleKey {
+
+    /** Base de l'empreinte FNV-1a 64 bits. */
+    private static final long FNV_OFFSET_BASIS = 0xcbf29ce484222325L;
+
+    /** Nombre premier de l'empreinte FNV-1a 64 bits. */
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    private ArticleKey() {
+        // utilitaire
+    }
+
+    /**
+     * Retourne la clé d'identité d'un article.
+     *
+     * @param news l'article
+     * @return la clé {@code lien#empreinte}
+     */
+    static String of(final News news) {
+        String link = news.getLink() == null ? "" : news.getLink().trim();
+        return link + "#" + Long.toHexString(contentHash(news));
+    }
+
+    /**
+     * Calcule l'empreinte FNV-1a 64 bits du titre et de la description.
+     *
+     * @param news l'article
+     * @return l'empreinte du contenu
+     */
+    static long contentHash(final News news) {
+        return contentHash(news.getTitle(), news.getDescription());
+    }
+
+    /**
+     * Calcule l'empreinte FNV-1a 64 bits d'un titre et d'une description.
+     *
+     * @param title       le titre
+     * @param description la description
+     * @return l'empreinte du contenu
+     */
+    static long contentHash(final String title, final String description) {
+        long hash = FNV_OFFSET_BASIS;
+        hash = hashString(hash, title);
+        hash = hashString(hash, "\n");
+        hash = hashString(hash, description);
+        return hash;
+    }
+
+    /**
+     * Ajoute une chaîne à une empreinte FNV-1a en cours.
+     *
+     * @param seed  empreinte courante
+     * @param value chaîne à ajouter (ignorée si {@code null})
+     * @return la nouvelle empreinte
+     */
+    private static long hashString(final long seed, final String value) {
+        long hash = seed;
+        if (value == null) {
+            return hash;
+        }
+        for (int i = 0; i < value.length(); i++) {
+            hash ^= value.charAt(i);
+            hash *= FNV_PRIME;
+        }
+        return hash;
+    }
+}
@@ -0,0 +1,236 @@
+package api.service;
+
+import model.News;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Découpe les articles à scorer en lots dimensionnés selon un budget
+ * de tokens, et ajuste la taille maximale des lots d'après la latence
+ * et le taux d'échec observés.
+ * <p>
+ * Le nombre de tokens est estimé (environ 4 caractères par token) :
+ * prompt fixe, texte de chaque article, et réponse attendue (une liste
+ * de scores par catégorie et par article). Un lot est rempli tant que
+ * l'estimation tient dans le budget de contexte et que le nombre
+ * d'articles ne dépasse pas la taille maximale courante.
+ * </p>
+ * <p>
+ * La taille maximale suit une politique AIMD : elle est divisée par
+ * deux après un échec, réduite de un si la latence dépasse la cible,
+ * et augmentée de un sinon, sauf si la taille supérieure échoue
+ * déjà trop souvent. Le taux d'échec d'une taille qui n'est plus
+ * tentée décroît à chaque lot plein réussi à la taille inférieure :
+ * elle finit par être retentée.
+ * </p>
+ * <p>
+ * Seuls les lots issus de {@link #plan(List, int)} renseignent ces
+ * mesures ({@link #isPlanned(List)}) : les sous-lots d'une bisection ou
+ * les articles rescorés après une réponse incomplète ne disent rien de
+ * la taille planifiée.
+ * </p>
+ */
+final class BatchPlanner {
+
+    /** Nombre moyen de caractères par token (texte français). */
+    private static final int CHARS_PER_TOKEN = 4;
+
+    /** Tokens estimés de la consigne fixe du prompt. */
+    private static final int PROMPT_OVERHEAD_TOKENS = 350;
+
+    /** Tokens de structure par article (identifiant, guillemets...). */
+    private static final int ARTICLE_OVERHEAD_TOKENS = 6;
+
+    /** Tokens de réponse par catégorie (chiffre et séparateur). */
+    private static final int OUTPUT_TOKENS_PER_CATEGORY = 2;
+
+    /** Tokens de structure de réponse par article. */
+    private static final int OUTPUT_OVERHEAD_TOKENS = 8;
+
+    /** Coefficient de lissage des moyennes exponentielles. */
+    private static final double EWMA_ALPHA = 0.3;
+
+    /** Taux d'échec au-delà duquel une taille n'est plus tentée. */
+    private static final double MAX_FAILURE_RATE = 0.5;
+
+    /**
+     * Facteur appliqué au taux d'échec de la taille supérieure à chaque
+     * lot plein réussi qui ne peut pas grandir (un taux de 1 repasse
+     * sous le seuil après 7 lots).
+     */
+    private static final double FAILURE_DECAY = 0.9;
+
+    /** Budget de tokens (contexte du modèle). */
+    private final int contextTokens;
+
+    /** Taille maximale absolue d'un lot. */
+    private final int hardMaxItems;
+
+    /** Latence cible d'un lot, en millisecondes. */
+    private final long targetLatencyMillis;
+
+    /** Latence moyenne observée par taille de lot (ms), ou -1. */
+    private final double[] latencyBySize;
+
+    /** Taux d'échec moyen observé par taille de lot. */
+    private final double[] failureRateBySize;
+
+    /** Taille maximale courante d'un lot. */
+    private int currentMaxItems;
+
+    /**
+     * Crée un planificateur de lots.
+     *
+     * @param budgetTokens  budget de tokens du contexte du modèle
+     * @param initialItems  taille maximale initiale d'un lot
+     * @param maxItems      taille maximale absolue d'un lot
+     * @param targetLatency latence cible d'un lot, en millisecondes
+     */
+    BatchPlanner(final int budgetTokens, final int initialItems,
+                 final int maxItems, final long targetLatency) {
+        this.contextTokens = budgetTokens;
+        this.hardMaxItems = Math.max(1, maxItems);
+        this.targetLatencyMillis = targetLatency;
+        this.latencyBySize = new double[hardMaxItems + 1];
+        this.failureRateBySize = new double[hardMaxItems + 1];
+        Arrays.fill(latencyBySize, -1);
+        this.currentMaxItems =
+                Math.max(1, Math.min(initialItems, hardMaxItems));
+    }
+
+    /**
+     * Découpe les articles en lots, dans l'ordre.
+     *
+     * @param news           les articles à scorer
+     * @param categoryCount  nombre de catégories à évaluer
+     * @return les lots d'articles (chacun contient au moins un article)
+     */
+    synchronized List<List<News>> plan(final List<News> news,
+                                       final int categoryCount) {
+        int outputTokens = OUTPUT_OVERHEAD_TOKENS
+                + categoryCount * OUTPUT_TOKENS_PER_CATEGORY;
+        List<List<News>> batches = new ArrayList<>();
+        List<News> batch = new Batch();
+        int batchTokens = PROMPT_OVERHEAD_TOKENS;
+
+        for (News article : news) {
+            int articleTokens = estimateTokens(article) + outputTokens;
+            boolean full = batch.size() >= currentMaxItems
+                    || batchTokens + articleTokens > contextTokens;
+            if (!batch.isEmpty() && full) {
+                batches.add(batch);
+                batch = new Batch();
+                batchTokens = PROMPT_OVERHEAD_TOKENS;
+            }
+            batch.add(article);
+            batchTokens += articleTokens;
+        }
+        if (!batch.isEmpty()) {
+            batches.add(batch);
+        }
+        return batches;
+    }
+
+    /**
+     * Indique si un lot a été découpé par un planificateur, tel quel.
+     *
+     * @param batch le lot
+     * @return {@code true} si son résultat doit être enregistré
+     */
+    static boolean isPlanned(final List<News> batch) {
+        return batch instanceof Batch;
+    }
+
+    /**
+     * Enregistre le résultat d'un lot et ajuste la taille maximale.
+     *
+     * @param batchSize     nombre d'articles du lot
+     * @param latencyMillis durée de l'appel, en millisecondes
+     * @param success       {@code true} si le lot a été scoré
+     */
+    synchronized void record(final int batchSize, final long latencyMillis,
+                             final boolean success) {
+        int size = Math.max(1, Math.min(batchSize, hardMaxItems));
+        failureRateBySize[size] = ewma(failureRateBySize[size],
+                success ? 0 : 1);
+
+        if (!success) {
+            // Un échec tardif d'un ancien lot plus grand ne relève pas
+            // la limite courante
+            currentMaxItems = Math.max(1,
+                    Math.min(currentMaxItems, size) / 2);
+            return;
+        }
+        latencyBySize[size] = latencyBySize[size] < 0
+                ? latencyMillis
+                : ewma(latencyBySize[size], latencyMillis);
+
+        // N'ajuste que sur des lots pleins, représentatifs de la taille
+        if (size < currentMaxItems) {
+            return;
+        }
+        if (latencyBySize[size] > targetLatencyMillis) {
+            currentMaxItems = Math.max(1, currentMaxItems - 1);
+        } else if (currentMaxItems < hardMaxItems) {
+            int next = currentMaxItems + 1;
+            if (failureRateBySize[next] < MAX_FAILURE_RATE) {
+                currentMaxItems = next;
+            } else {
+                failureRateBySize[next] *= FAILURE_DECAY;
+            }
+        }
+    }
+
+    /**
+     * Retourne la taille maximale courante d'un lot.
+     *
+     * @return la taille maximale
+     */
+    synchronized int getCurrentMaxItems() {
+        return currentMaxItems;
+    }
+
+    /**
+     * Estime le nombre de tokens du texte d'un article dans le prompt.
+     *
+     * @param news l'article
+     * @return le nombre de tokens estimé
+     */
+    static int estimateTokens(final News news) {
+        int chars = length(news.getTitle()) + length(news.getDescription());
+        return ARTICLE_OVERHEAD_TOKENS
+                + (chars + CHARS_PER_TOKEN - 1) / CHARS_PER_TOKEN;
+    }
+
+    /**
+     * Longueur d'une chaîne éventuellement nulle.
+     *
+     * @param value la chaîne
+     * @return sa longueur, ou 0
+     */
+    private static int length(final String value) {
+        return value == null ? 0 : value.length();
+    }
+
+    /**
+     * Moyenne mobile exponentielle.
+     *
+     * @param previous moyenne précédente
+     * @param sample   nouvel échantillon
+     * @return la nouvelle moyenne
+     */
+    private static double ewma(final double previous, final double sample) {
+        return previous + EWMA_ALPHA * (sample - previous);
+    }
+
+    /**
+     * Lot découpé par {@link #plan(List, int)}.
+     */
+    private static final class Batch extends ArrayList<News> {
+
+        /** Version de sérialisation. */
+        private static final long serialVersionUID = 1L;
+    }
+}
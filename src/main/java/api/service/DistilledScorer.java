@@ -0,0 +1,338 @@
+package api.service;
+
+import api.util.ApiException;
+import api.util.Metrics;
+import io.micrometer.core.instrument.Counter;
+import model.News;
+import model.Theme;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Moteur de scoring distillé : un {@link NaiveBayesClassifier}, entraîné
+ * en continu sur les scores du moteur de repli (LLM), score les
+ * articles dont il est sûr ; seuls les autres sont envoyés au LLM.
+ * <p>
+ * Tant que le classifieur n'a pas appris {@code minExamples} articles,
+ * tout part au LLM. Ensuite, un article est scoré localement si la
+ * probabilité a posteriori du niveau prédit atteint
+ * {@code minConfidence} pour chaque thème. Une petite part des articles
+ * sûrs ({@code auditRate}, tirée de façon stable selon
+ * {@link ArticleKey}) est tout de même envoyée au LLM, pour continuer à
+ * apprendre sur les cas faciles.
+ * </p>
+ * <p>
+ * Au découpage, les articles sûrs sont regroupés dans leurs propres
+ * lots, placés en tête : ils sont publiés sans attendre le LLM, et les
+ * lots envoyés au LLM restent pleins. La décision prise au découpage
+ * est conservée au scoring : le classifieur apprend entre les deux, et
+ * un lot local qui perdrait sa confiance partirait au LLM sans tenir
+ * compte du budget de tokens de ses lots.
+ * </p>
+ */
+public final class DistilledScorer implements NewsScorer {
+
+    /**
+     * Version de la méthode. À incrémenter à chaque modification du
+     * classifieur pour invalider les scores déjà en cache.
+     */
+    static final String METHOD_VERSION = "1";
+
+    /** Taille des lots d'articles scorés localement. */
+    private static final int LOCAL_BATCH_SIZE = 256;
+
+    /** Précision du tirage des articles audités. */
+    private static final int AUDIT_BUCKETS = 10_000;
+
+    /** Articles scorés localement. */
+    private static final Counter LOCAL = Metrics.counter("distilled.articles",
+            "Articles scorés par le moteur distillé", "route", "model");
+
+    /** Articles envoyés au LLM faute de confiance. */
+    private static final Counter FALLBACK = Metrics.counter(
+            "distilled.articles", "Articles scorés par le moteur distillé",
+            "route", "llm");
+
+    /** Articles sûrs envoyés au LLM pour contrôle. */
+    private static final Counter AUDIT = Metrics.counter("distilled.articles",
+            "Articles scorés par le moteur distillé", "route", "audit");
+
+    /** Moteur de repli, source des exemples. */
+    private final NewsScorer fallback;
+
+    /** Classifieur, par ordinal de thème. */
+    private final NaiveBayesClassifier classifier;
+
+    /** Confiance minimale d'un score local. */
+    private final double minConfidence;
+
+    /** Nombre d'exemples avant le premier score local. */
+    private final int minExamples;
+
+    /** Part des articles sûrs envoyés au LLM. */
+    private final double auditRate;
+
+    /**
+     * Constructeur.
+     *
+     * @param fallbackScorer moteur de repli (LLM)
+     * @param confidence     confiance minimale d'un score local
+     * @param examples       nombre d'exemples avant le premier score
+     *                       local
+     * @param audit          part des articles sûrs envoyés au LLM
+     * @param vocabulary     taille maximale du vocabulaire
+     */
+    public DistilledScorer(final NewsScorer fallbackScorer,
+                           final double confidence,
+                           final int examples,
+                           final double audit,
+                           final int vocabulary) {
+        this.fallback = fallbackScorer;
+        this.classifier = new NaiveBayesClassifier(Theme.values().length,
+                vocabulary);
+        this.minConfidence = confidence;
+        this.minExamples = examples;
+        this.auditRate = audit;
+    }
+
+    /**
+     * Construit la génération d'un moteur distillé.
+     *
+     * @param fallbackGeneration génération du moteur de repli
+     * @param confidence         confiance minimale d'un score local
+     * @return la génération
+     */
+    static String generation(final String fallbackGeneration,
+                             final double confidence) {
+        return fallbackGeneration + "d" + METHOD_VERSION + ":" + confidence
+                + "|";
+    }
+
+    @Override
+    public String generation() {
+        return generation(fallback.generation(), minConfidence);
+    }
+
+    @Override
+    public List<List<News>> plan(final List<News> news,
+                                 final int categories) {
+        List<News> local = new ArrayList<>();
+        List<News> remote = new ArrayList<>();
+        for (News article : news) {
+            (isLocal(article, classifier.predict(text(article)))
+                    ? local : remote).add(article);
+        }
+        List<List<News>> batches = new ArrayList<>();
+        for (int start = 0; start < local.size(); start += LOCAL_BATCH_SIZE) {
+            batches.add(new LocalBatch(local.subList(start,
+                    Math.min(local.size(), start + LOCAL_BATCH_SIZE))));
+        }
+        batches.addAll(fallback.plan(remote, categories));
+        return batches;
+    }
+
+    @Override
+    public List<List<Integer>> score(final List<News> batch,
+                                     final List<String> orderedCategories)
+            throws ApiException {
+        return score(batch, orderedCategories, (index, scores) -> { });
+    }
+
+    @Override
+    public List<List<Integer>> score(final List<News> batch,
+                                     final List<String> orderedCategories,
+                                     final ScoreListener listener)
+            throws ApiException {
+        int[] ordinals = ordinals(orderedCategories);
+        if (ordinals == null) {
+            return batch instanceof LocalBatch
+                    ? scoreByFallbackPlan(batch, orderedCategories, listener)
+                    : fallback.score(batch, orderedCategories, listener);
+        }
+
+        List<List<Integer>> scores =
+                new ArrayList<>(Collections.nCopies(batch.size(), null));
+        List<News> remote = new ArrayList<>();
+        List<Integer> positions = new ArrayList<>();
+        boolean planned = batch instanceof LocalBatch;
+        for (int i = 0; i < batch.size(); i++) {
+            News news = batch.get(i);
+            NaiveBayesClassifier.Prediction prediction =
+                    classifier.predict(text(news));
+            if (planned || isLocal(news, prediction)) {
+                List<Integer> levels = new ArrayList<>(ordinals.length);
+                for (int ordinal : ordinals) {
+                    levels.add(prediction.levels()[ordinal]);
+                }
+                scores.set(i, levels);
+                LOCAL.increment();
+            } else {
+                (isConfident(prediction) ? AUDIT : FALLBACK).increment();
+                remote.add(news);
+                positions.add(i);
+            }
+        }
+        if (remote.isEmpty()) {
+            return scores;
+        }
+
+        // Un lot du moteur de repli resté entier lui est transmis tel quel
+        List<List<Integer>> labels = fallback.score(
+                remote.size() == batch.size() ? batch : remote,
+                orderedCategories,
+                (index, articleScores) -> listener.onScored(
+                        positions.get(index), articleScores));
+        for (int j = 0; j < Math.min(labels.size(), remote.size()); j++) {
+            List<Integer> articleLabels = labels.get(j);
+            scores.set(positions.get(j), articleLabels);
+            learn(remote.get(j), articleLabels, orderedCategories,
+                    ordinals);
+        }
+        return scores;
+    }
+
+    /**
+     * Score un lot par le moteur de repli, redécoupé selon ses propres
+     * lots.
+     *
+     * @param batch             le lot
+     * @param orderedCategories les catégories, dans l'ordre des scores
+     * @param listener          listener du lot
+     * @return les scores de chaque article, dans l'ordre du lot
+     * @throws ApiException si le scoring d'un lot échoue
+     */
+    private List<List<Integer>> scoreByFallbackPlan(
+            final List<News> batch,
+            final List<String> orderedCategories,
+            final ScoreListener listener
+    ) throws ApiException {
+        List<List<Integer>> scores = new ArrayList<>(batch.size());
+        for (List<News> part
+                : fallback.plan(batch, orderedCategories.size())) {
+            int offset = scores.size();
+            List<List<Integer>> partScores = fallback.score(part,
+                    orderedCategories, (index, articleScores) ->
+                            listener.onScored(offset + index, articleScores));
+            for (int i = 0; i < part.size(); i++) {
+                scores.add(i < partScores.size() ? partScores.get(i) : null);
+            }
+        }
+        return scores;
+    }
+
+    /**
+     * Retourne le nombre d'articles appris.
+     *
+     * @return le nombre d'exemples
+     */
+    public int getExamples() {
+        return classifier.examples();
+    }
+
+    /**
+     * Apprend les scores du LLM pour un article, s'ils passent la même
+     * validation que les scores mis en cache par {@link LLMScorer}.
+     *
+     * @param news              l'article
+     * @param labels            scores du LLM, dans l'ordre des catégories
+     * @param orderedCategories les catégories, dans l'ordre des scores
+     * @param ordinals          ordinal du thème de chaque catégorie
+     */
+    private void learn(final News news, final List<Integer> labels,
+                       final List<String> orderedCategories,
+                       final int[] ordinals) {
+        if (!LLMScorer.isValid(labels, orderedCategories)) {
+            return;
+        }
+        int[] levels = new int[Theme.values().length];
+        for (int i = 0; i < ordinals.length; i++) {
+            levels[ordinals[i]] = labels.get(i);
+        }
+        classifier.train(text(news), levels);
+    }
+
+    /**
+     * Indique si un article est scoré localement : classifieur assez
+     * entraîné et sûr de lui, article non tiré pour contrôle.
+     *
+     * @param news       l'article
+     * @param prediction la prédiction du classifieur
+     * @return {@code true} pour un score local
+     */
+    private boolean isLocal(final News news,
+                            final NaiveBayesClassifier.Prediction prediction) {
+        return isConfident(prediction) && !isAudited(news);
+    }
+
+    /**
+     * Indique si une prédiction est assez sûre pour être utilisée.
+     *
+     * @param prediction la prédiction
+     * @return {@code true} si elle est utilisable
+     */
+    private boolean isConfident(
+            final NaiveBayesClassifier.Prediction prediction) {
+        return classifier.examples() >= minExamples
+                && prediction.confidence() >= minConfidence;
+    }
+
+    /**
+     * Tire de façon stable les articles sûrs envoyés au LLM.
+     *
+     * @param news l'article
+     * @return {@code true} si l'article est contrôlé par le LLM
+     */
+    private boolean isAudited(final News news) {
+        return Math.floorMod(ArticleKey.of(news).hashCode(), AUDIT_BUCKETS)
+                < auditRate * AUDIT_BUCKETS;
+    }
+
+    /**
+     * Retourne l'ordinal du thème de chaque catégorie.
+     *
+     * @param orderedCategories les catégories
+     * @return les ordinaux, ou {@code null} si une catégorie n'est pas
+     * un thème connu
+     */
+    private static int[] ordinals(final List<String> orderedCategories) {
+        int[] ordinals = new int[orderedCategories.size()];
+        for (int i = 0; i < ordinals.length; i++) {
+            Theme theme = Theme.fromJsonName(orderedCategories.get(i));
+            if (theme == null) {
+                return null;
+            }
+            ordinals[i] = theme.ordinal();
+        }
+        return ordinals;
+    }
+
+    /**
+     * Texte d'un article soumis au classifieur.
+     *
+     * @param news l'article
+     * @return le titre et la description
+     */
+    private static String text(final News news) {
+        return news.getTitle() + ". " + news.getDescription();
+    }
+
+    /**
+     * Lot d'articles jugés sûrs au découpage, scoré localement.
+     */
+    private static final class LocalBatch extends ArrayList<News> {
+
+        /** Version de sérialisation. */
+        private static final long serialVersionUID = 1L;
+
+        /**
+         * Constructeur.
+         *
+         * @param news les articles du lot
+         */
+        LocalBatch(final List<News> news) {
+            super(news);
+        }
+    }
+}
@@ -0,0 +1,329 @@
+package api.service;
+
+import api.util.ApiException;
+import dev.langchain4j.data.embedding.Embedding;
+import dev.langchain4j.data.segment.TextSegment;
+import dev.langchain4j.model.embedding.EmbeddingModel;
+import model.News;
+import model.Theme;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Moteur de scoring par embeddings : une alternative peu coûteuse à la
+ * génération d'une map JSON par un modèle de chat.
+ * <p>
+ * Chaque article est projeté par un modèle d'embeddings (un appel par
+ * article, par lots), puis comparé par similarité cosinus au centroïde
+ * de chaque thème. Le centroïde d'un thème est la moyenne normalisée
+ * des embeddings de quelques descriptions du thème ; il est calculé une
+ * seule fois, au premier lot. La similarité est ramenée à l'échelle
+ * 0 à 4 : 0 en dessous de {@code minSimilarity}, 4 à partir de
+ * {@code maxSimilarity}, linéaire entre les deux.
+ * </p>
+ * <p>
+ * Les seuils dépendent du modèle d'embeddings et sont à calibrer
+ * (variables {@code EMBEDDING_MIN_SIMILARITY} et
+ * {@code EMBEDDING_MAX_SIMILARITY}).
+ * </p>
+ */
+public final class EmbeddingScorer implements NewsScorer {
+
+    /**
+     * Version de la méthode de scoring. À incrémenter à chaque
+     * modification des descriptions de thèmes ou de la quantification
+     * pour invalider les scores déjà en cache.
+     */
+    static final String METHOD_VERSION = "1";
+
+    /** Score maximal. */
+    private static final int MAX_SCORE = 4;
+
+    /** Descriptions de chaque thème, dont la moyenne forme le centroïde. */
+    private static final Map<Theme, List<String>> THEME_DESCRIPTIONS =
+            themeDescriptions();
+
+    /** Modèle d'embeddings. */
+    private final EmbeddingModel model;
+
+    /** Nom du modèle d'embeddings. */
+    private final String modelName;
+
+    /** Nombre d'articles par lot. */
+    private final int batchSize;
+
+    /** Similarité en dessous de laquelle le score vaut 0. */
+    private final double minSimilarity;
+
+    /** Similarité à partir de laquelle le score vaut 4. */
+    private final double maxSimilarity;
+
+    /** Centroïdes normalisés, par ordinal de thème (calcul paresseux). */
+    private volatile float[][] centroids;
+
+    /**
+     * Constructeur.
+     *
+     * @param embeddingModel modèle d'embeddings
+     * @param name           nom du modèle (génération des scores)
+     * @param size           nombre d'articles par lot
+     * @param min            similarité en dessous de laquelle le score
+     *                       vaut 0
+     * @param max            similarité à partir de laquelle le score
+     *                       vaut 4
+     */
+    public EmbeddingScorer(final EmbeddingModel embeddingModel,
+                           final String name,
+                           final int size,
+                           final double min,
+                           final double max) {
+        if (!(min < max)) {
+            throw new IllegalArgumentException(
+                    "Seuils de similarité invalides : " + min + " / " + max);
+        }
+        this.model = embeddingModel;
+        this.modelName = name;
+        this.batchSize = Math.max(1, size);
+        this.minSimilarity = min;
+        this.maxSimilarity = max;
+    }
+
+    @Override
+    public String generation() {
+        return modelName + "|e" + METHOD_VERSION + ":" + minSimilarity
+                + "-" + maxSimilarity + "|";
+    }
+
+    @Override
+    public List<List<News>> plan(final List<News> news,
+                                 final int categories) {
+        List<List<News>> batches = new ArrayList<>();
+        for (int start = 0; start < news.size(); start += batchSize) {
+            batches.add(news.subList(start,
+                    Math.min(news.size(), start + batchSize)));
+        }
+        return batches;
+    }
+
+    @Override
+    public List<List<Integer>> score(final List<News> batch,
+                                     final List<String> orderedCategories)
+            throws ApiException {
+        float[][] themeCentroids = centroids();
+        List<TextSegment> texts = new ArrayList<>(batch.size());
+        for (News news : batch) {
+            texts.add(TextSegment.from(news.getTitle() + ". "
+                    + news.getDescription().replace("\n", " ").trim()));
+        }
+        List<float[]> vectors = embed(texts);
+
+        List<List<Integer>> scores = new ArrayList<>(batch.size());
+        for (float[] vector : vectors) {
+            List<Integer> articleScores =
+                    new ArrayList<>(orderedCategories.size());
+            for (String category : orderedCategories) {
+                Theme theme = Theme.fromJsonName(category);
+                articleScores.add(theme == null ? 0 : quantize(
+                        dot(vector, themeCentroids[theme.ordinal()])));
+            }
+            scores.add(articleScores);
+        }
+        return scores;
+    }
+
+    /**
+     * Ramène une similarité cosinus à l'échelle 0 à 4.
+     *
+     * @param similarity la similarité
+     * @return le score
+     */
+    int quantize(final double similarity) {
+        if (similarity < minSimilarity) {
+            return 0;
+        }
+        if (similarity >= maxSimilarity) {
+            return MAX_SCORE;
+        }
+        return 1 + (int) ((MAX_SCORE - 1) * (similarity - minSimilarity)
+                / (maxSimilarity - minSimilarity));
+    }
+
+    /**
+     * Retourne les centroïdes des thèmes, calculés au premier appel.
+     *
+     * @return les centroïdes normalisés, par ordinal de thème
+     * @throws ApiException si le calcul des embeddings échoue
+     */
+    private float[][] centroids() throws ApiException {
+        float[][] current = centroids;
+        if (current == null) {
+            synchronized (this) {
+                current = centroids;
+                if (current == null) {
+                    current = computeCentroids();
+                    centroids = current;
+                }
+            }
+        }
+        return current;
+    }
+
+    /**
+     * Calcule le centroïde de chaque thème : moyenne des embeddings
+     * normalisés de ses descriptions, normalisée.
+     *
+     * @return les centroïdes, par ordinal de thème
+     * @throws ApiException si le calcul des embeddings échoue
+     */
+    private float[][] computeCentroids() throws ApiException {
+        Theme[] themes = Theme.values();
+        List<TextSegment> texts = new ArrayList<>();
+        for (Theme theme : themes) {
+            for (String description : THEME_DESCRIPTIONS.get(theme)) {
+                texts.add(TextSegment.from(description));
+            }
+        }
+        List<float[]> vectors = embed(texts);
+
+        float[][] result = new float[themes.length][];
+        int next = 0;
+        for (Theme theme : themes) {
+            int count = THEME_DESCRIPTIONS.get(theme).size();
+            float[] centroid = new float[vectors.get(next).length];
+            for (int i = 0; i < count; i++) {
+                float[] vector = vectors.get(next++);
+                for (int d = 0; d < centroid.length; d++) {
+                    centroid[d] += vector[d];
+                }
+            }
+            result[theme.ordinal()] = normalize(centroid);
+        }
+        return result;
+    }
+
+    /**
+     * Calcule les embeddings normalisés de textes.
+     *
+     * @param texts les textes
+     * @return les vecteurs normalisés, dans l'ordre des textes
+     * @throws ApiException si le modèle échoue ou répond de façon
+     * incomplète
+     */
+    private List<float[]> embed(final List<TextSegment> texts)
+            throws ApiException {
+        List<Embedding> embeddings;
+        try {
+            embeddings = model.embedAll(texts).content();
+        } catch (RuntimeException e) {
+            throw new ApiException("embedding_failed",
+                    "Échec du calcul des embeddings : " + e.getMessage());
+        }
+        if (embeddings == null || embeddings.size() != texts.size()) {
+            throw new ApiException("embedding_failed",
+                    "Le modèle d'embeddings a retourné une réponse"
+                            + " incomplète");
+        }
+        List<float[]> vectors = new ArrayList<>(embeddings.size());
+        for (Embedding embedding : embeddings) {
+            vectors.add(normalize(embedding.vector().clone()));
+        }
+        return vectors;
+    }
+
+    /**
+     * Normalise un vecteur (norme euclidienne 1), en place.
+     *
+     * @param vector le vecteur
+     * @return le vecteur normalisé (inchangé s'il est nul)
+     */
+    private static float[] normalize(final float[] vector) {
+        double norm = Math.sqrt(dot(vector, vector));
+        if (norm > 0) {
+            for (int d = 0; d < vector.length; d++) {
+                vector[d] /= (float) norm;
+            }
+        }
+        return vector;
+    }
+
+    /**
+     * Produit scalaire (similarité cosinus de vecteurs normalisés).
+     *
+     * @param left  premier vecteur
+     * @param right second vecteur
+     * @return le produit scalaire (0 si les dimensions diffèrent)
+     */
+    private static double dot(final float[] left, final float[] right) {
+        if (left.length != right.length) {
+            return 0;
+        }
+        double sum = 0;
+        for (int d = 0; d < left.length; d++) {
+            sum += left[d] * right[d];
+        }
+        return sum;
+    }
+
+    /**
+     * Construit les descriptions de chaque thème.
+     *
+     * @return les descriptions, par thème
+     */
+    private static Map<Theme, List<String>> themeDescriptions() {
+        Map<Theme, List<String>> descriptions = new EnumMap<>(Theme.class);
+        descriptions.put(Theme.POLITIQUE, List.of(
+                "Politique : gouvernement, Assemblée nationale, élections",
+                "Vie politique française : partis, ministres, réforme",
+                "Le président et le Premier ministre face aux députés"));
+        descriptions.put(Theme.INTERNATIONAL, List.of(
+                "International : diplomatie, conflits et relations entre"
+                        + " États",
+                "Guerre, sommet international, Union européenne, ONU",
+                "Actualité mondiale : Etats-Unis, Chine, Russie, Afrique"));
+        descriptions.put(Theme.ECONOMIE, List.of(
+                "Économie : croissance, inflation, emploi et entreprises",
+                "Marchés financiers, Bourse, banques et taux d'intérêt",
+                "Budget de l'Etat, impôts, commerce et industrie"));
+        descriptions.put(Theme.SOCIETE, List.of(
+                "Société : justice, faits divers, immigration, logement",
+                "Débats de société, famille, religion et égalité",
+                "Police, procès, sécurité et vie quotidienne des Français"));
+        descriptions.put(Theme.SPORT, List.of(
+                "Sport : football, rugby, tennis, cyclisme, athlétisme",
+                "Match, championnat, finale, victoire d'une équipe",
+                "Jeux olympiques, Coupe du monde et résultats sportifs"));
+        descriptions.put(Theme.CULTURE, List.of(
+                "Culture : cinéma, musique, littérature, théâtre",
+                "Festival, exposition, musée, concert et spectacle",
+                "Sortie d'un film, d'un livre ou d'un album, artistes"));
+        descriptions.put(Theme.SCIENCES, List.of(
+                "Sciences : recherche, découverte scientifique, espace",
+                "Physique, biologie, astronomie et chercheurs",
+                "Étude scientifique publiée, expérience et laboratoire"));
+        descriptions.put(Theme.PLANETE, List.of(
+                "Planète : climat, environnement, biodiversité",
+                "Réchauffement climatique, pollution, énergie et écologie",
+                "Sécheresse, inondations, espèces menacées et océans"));
+        descriptions.put(Theme.TECHNOLOGIES, List.of(
+                "Technologies : numérique, intelligence artificielle,"
+                        + " internet",
+                "Smartphones, logiciels, réseaux sociaux et start-up",
+                "Cybersécurité, données personnelles et géants du web"));
+        descriptions.put(Theme.SANTE, List.of(
+                "Santé : médecine, hôpital, maladies et traitements",
+                "Épidémie, vaccin, médicaments et système de soins",
+                "Santé publique, médecins, patients et prévention"));
+        descriptions.put(Theme.EDUCATION, List.of(
+                "Éducation : école, collège, lycée et enseignants",
+                "Université, étudiants, examens, baccalauréat",
+                "Réforme de l'enseignement et vie scolaire des élèves"));
+        descriptions.put(Theme.IDEES, List.of(
+                "Idées : tribunes, débats, opinions et éditoriaux",
+                "Analyse, chronique et point de vue d'intellectuels",
+                "Philosophie, essais et controverses intellectuelles"));
+        return descriptions;
+    }
+}
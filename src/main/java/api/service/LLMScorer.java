@@ -2,21 +2,40 @@ package api.service;
 
 import api.PreferencesApi;
 import api.util.ApiException;
-import com.fasterxml.jackson.core.type.TypeReference;
-import com.fasterxml.jackson.databind.DeserializationFeature;
-import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.databind.SerializationFeature;
-import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import api.util.EnvConfig;
+import api.util.Metrics;
+import dev.langchain4j.data.message.AiMessage;
+import dev.langchain4j.model.StreamingResponseHandler;
 import dev.langchain4j.model.chat.ChatLanguageModel;
+import dev.langchain4j.model.chat.StreamingChatLanguageModel;
+import dev.langchain4j.model.ollama.OllamaEmbeddingModel;
+import dev.langchain4j.model.output.Response;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Timer;
 import model.News;
-import model.NewsCategoryScore;
 import model.NewsCollection;
+import model.ScoreVector;
+import model.Theme;
 
 
+import java.nio.file.Path;
+import java.time.Duration;
 import java.util.ArrayList;
-import java.util.HashMap;
+import java.util.Collections;
+import java.util.IdentityHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
 import java.util.logging.Logger;
 
 /**
@@ -24,6 +43,15 @@ import java.util.logging.Logger;
  * un modèle de langage (LLM).
  * Fournit des fonctions statiques pour évaluer la pertinence
  * d'articles selon des catégories.
+ * <p>
+ * Le scoring des lots est délégué à un {@link NewsScorer} : génération
+ * d'une map JSON par un modèle de chat ({@link #chat(ChatLanguageModel)},
+ * ou {@link #streaming(StreamingChatLanguageModel)} pour lire la réponse
+ * au fil de la génération) ou similarité d'embeddings
+ * ({@link EmbeddingScorer}), selon la variable {@code SCORER}. Avec
+ * {@code DISTILLED_SCORING}, ce moteur sert de repli à un classifieur
+ * entraîné sur ses scores ({@link DistilledScorer}).
+ * </p>
  */
 public final class LLMScorer {
 
@@ -36,28 +64,340 @@ public final class LLMScorer {
     private static final Logger LOGGER =
             Logger.getLogger(PreferencesApi.class.getName());
 
-    /** Nombre d'articles envoyés au LLM par lot. */
-    private static final int LLM_BATCH_SIZE = 3;
+    /** Budget de tokens par défaut (contexte du modèle). */
+    private static final int DEFAULT_CONTEXT_TOKENS = 4096;
 
-    /** Score maximum retourné par le LLM. */
-    private static final int MAX_LLM_SCORE = 4;
+    /** Taille maximale initiale par défaut d'un lot. */
+    private static final int DEFAULT_BATCH_INITIAL_ITEMS = 6;
+
+    /** Taille maximale absolue par défaut d'un lot. */
+    private static final int DEFAULT_BATCH_MAX_ITEMS = 16;
+
+    /** Latence cible par défaut d'un lot, en millisecondes. */
+    private static final long DEFAULT_BATCH_TARGET_LATENCY_MS = 60_000;
+
+    /**
+     * Taille du contexte du modèle, en tokens : sert de budget pour
+     * dimensionner les lots et doit être transmise au modèle (num_ctx).
+     */
+    public static final int CONTEXT_TOKENS =
+            EnvConfig.getInt("LLM_CONTEXT_TOKENS", DEFAULT_CONTEXT_TOKENS);
+
+    /** Découpage adaptatif des articles en lots. */
+    private static final BatchPlanner BATCH_PLANNER = new BatchPlanner(
+            CONTEXT_TOKENS,
+            EnvConfig.getInt("LLM_BATCH_INITIAL_ITEMS",
+                    DEFAULT_BATCH_INITIAL_ITEMS),
+            EnvConfig.getInt("LLM_BATCH_MAX_ITEMS", DEFAULT_BATCH_MAX_ITEMS),
+            EnvConfig.getLong("LLM_BATCH_TARGET_LATENCY_MS",
+                    DEFAULT_BATCH_TARGET_LATENCY_MS)
+    );
 
     /** URL vers le conteneur Ollama. */
     private static final String OLLAMA_URL =
-            System.getenv()
-                    .getOrDefault("OLLAMA_HOST", "http://localhost:11434");
+            EnvConfig.getString("OLLAMA_HOST", "http://localhost:11434");
+
+    /** Nom du modèle Ollama utilisé pour le scoring. */
+    public static final String MODEL_NAME =
+            EnvConfig.getString("OLLAMA_MODEL", "qwen2.5:7b");
+
+    /** Moteur de scoring par embeddings (valeur de {@code SCORER}). */
+    private static final String EMBEDDING_ENGINE = "embedding";
+
+    /** Moteur de scoring configuré : {@code chat} ou {@code embedding}. */
+    private static final String ENGINE =
+            EnvConfig.getString("SCORER", "chat");
+
+    /** Nombre d'articles par défaut d'un lot d'embeddings. */
+    private static final int DEFAULT_EMBEDDING_BATCH_SIZE = 32;
+
+    /** Similarité par défaut en dessous de laquelle le score vaut 0. */
+    private static final double DEFAULT_EMBEDDING_MIN_SIMILARITY = 0.45;
+
+    /** Similarité par défaut à partir de laquelle le score vaut 4. */
+    private static final double DEFAULT_EMBEDDING_MAX_SIMILARITY = 0.70;
+
+    /** Délai maximal par défaut d'un appel d'embeddings, en secondes. */
+    private static final int DEFAULT_EMBEDDING_TIMEOUT_SECONDS = 60;
+
+    /**
+     * Lit les réponses du modèle de chat en streaming : chaque article
+     * est publié dès que sa liste de scores est générée.
+     */
+    private static final boolean STREAMING =
+            EnvConfig.getBoolean("LLM_STREAMING", true);
+
+    /** Intervalle par défaut entre deux progressions, en millisecondes. */
+    private static final long DEFAULT_PROGRESS_INTERVAL_MS = 1_000;
+
+    /**
+     * Intervalle minimal entre deux signalements de progression pour
+     * les articles scorés en cours de lot, en millisecondes.
+     */
+    private static final long PROGRESS_INTERVAL_MS = Math.max(1,
+            EnvConfig.getLong("LLM_PROGRESS_INTERVAL_MS",
+                    DEFAULT_PROGRESS_INTERVAL_MS));
+
+    /** Active le moteur distillé devant le moteur configuré. */
+    private static final boolean DISTILLED =
+            EnvConfig.getBoolean("DISTILLED_SCORING", false);
+
+    /** Confiance minimale par défaut d'un score distillé. */
+    private static final double DEFAULT_DISTILLED_MIN_CONFIDENCE = 0.9;
+
+    /** Confiance minimale d'un score distillé. */
+    private static final double DISTILLED_MIN_CONFIDENCE =
+            EnvConfig.getDouble("DISTILLED_MIN_CONFIDENCE",
+                    DEFAULT_DISTILLED_MIN_CONFIDENCE);
+
+    /** Nombre d'exemples par défaut avant le premier score distillé. */
+    private static final int DEFAULT_DISTILLED_MIN_EXAMPLES = 200;
+
+    /** Part par défaut des articles sûrs contrôlés par le LLM. */
+    private static final double DEFAULT_DISTILLED_AUDIT_RATE = 0.05;
+
+    /** Taille maximale par défaut du vocabulaire du classifieur. */
+    private static final int DEFAULT_DISTILLED_MAX_VOCABULARY = 100_000;
+
+    /**
+     * Moteur de scoring par embeddings, si configuré ({@code null}
+     * sinon).
+     */
+    private static final EmbeddingScorer EMBEDDING_SCORER =
+            EMBEDDING_ENGINE.equals(ENGINE) ? embeddingScorer() : null;
+
+    /**
+     * Version du prompt de scoring. À incrémenter à chaque modification
+     * de {@link #buildFinalPrompt(List, String, int)} pour invalider les
+     * scores déjà en cache.
+     */
+    static final String PROMPT_VERSION = "2";
+
+    /**
+     * Code d'erreur d'une réponse inexploitable du modèle : le lot est
+     * découpé pour isoler les articles en cause, sans nouvel essai à
+     * l'identique.
+     */
+    static final String INVALID_RESPONSE = "invalid_llm_response";
+
+    /** Nombre par défaut de nouvelles tentatives d'un lot en échec. */
+    private static final int DEFAULT_MAX_RETRIES = 2;
+
+    /**
+     * Nombre de nouvelles tentatives d'un lot dont l'appel échoue
+     * (erreur HTTP, délai dépassé).
+     */
+    private static final int MAX_RETRIES = Math.max(0,
+            EnvConfig.getInt("LLM_MAX_RETRIES", DEFAULT_MAX_RETRIES));
+
+    /** Délai par défaut avant la première nouvelle tentative, en ms. */
+    private static final long DEFAULT_RETRY_BACKOFF_MS = 500;
+
+    /**
+     * Délai avant la première nouvelle tentative, en millisecondes ;
+     * il double à chaque tentative.
+     */
+    private static final long RETRY_BACKOFF_MS = Math.max(0,
+            EnvConfig.getLong("LLM_RETRY_BACKOFF_MS",
+                    DEFAULT_RETRY_BACKOFF_MS));
+
+    /**
+     * Publie les articles impossibles à scorer avec des scores nuls
+     * ({@code LLM_UNSCORABLE_POLICY=mark}) au lieu de les écarter
+     * jusqu'à la prochaine ingestion ({@code skip}).
+     */
+    private static final boolean MARK_UNSCORABLE = "mark".equals(
+            EnvConfig.getString("LLM_UNSCORABLE_POLICY", "skip"));
+
+    /** Nombre maximal par défaut d'appels LLM simultanés. */
+    private static final int DEFAULT_MAX_IN_FLIGHT = 4;
+
+    /**
+     * Exécuteur partagé des appels LLM : sa taille borne le nombre
+     * d'appels simultanés vers Ollama pour tout le processus
+     * (à aligner sur OLLAMA_NUM_PARALLEL). La longueur de sa file est
+     * publiée par la jauge {@code llm.queue}.
+     */
+    private static final ThreadPoolExecutor LLM_EXECUTOR = Metrics.gauge(
+            "llm.queue", "Lots en attente d'un appel LLM",
+            llmExecutor(Math.max(1, EnvConfig.getInt("LLM_MAX_IN_FLIGHT",
+                    DEFAULT_MAX_IN_FLIGHT))),
+            executor -> executor.getQueue().size());
+
+    /** Appels LLM en cours. */
+    private static final AtomicInteger LLM_IN_FLIGHT = Metrics.gauge(
+            "llm.inflight", "Appels LLM en cours",
+            new AtomicInteger(), AtomicInteger::get);
+
+    /** Durée des appels LLM réussis (un lot). */
+    private static final Timer LLM_BATCH_SUCCESS = Metrics.timer("llm.batch",
+            "Durée d'un appel LLM (un lot)", "outcome", "success");
+
+    /** Durée des appels LLM en échec. */
+    private static final Timer LLM_BATCH_FAILURE = Metrics.timer("llm.batch",
+            "Durée d'un appel LLM (un lot)", "outcome", "failure");
+
+    /** Articles scorés par le LLM (débit). */
+    private static final Counter LLM_ARTICLES = Metrics.counter(
+            "llm.articles", "Articles scorés par le LLM");
+
+    /** Lots en échec. */
+    private static final Counter LLM_FAILURES = Metrics.counter(
+            "llm.failures", "Lots dont l'appel LLM a échoué");
+
+    /** Nouvelles tentatives d'appel LLM. */
+    static final Counter LLM_RETRIES = Metrics.counter(
+            "llm.retries", "Nouvelles tentatives d'appel LLM");
+
+    /** Lots découpés pour isoler une réponse inexploitable. */
+    private static final Counter LLM_BISECTIONS = Metrics.counter(
+            "llm.bisections",
+            "Lots redécoupés après une réponse inexploitable");
+
+    /** Articles impossibles à scorer, même seuls. */
+    private static final Counter LLM_UNSCORABLE = Metrics.counter(
+            "llm.unscorable", "Articles impossibles à scorer");
+
+    /** Cache des scores partagé par toutes les requêtes. */
+    private static final ScoreCache SCORE_CACHE = ScoreCache.INSTANCE;
+
+    /** Durée de conservation par défaut des scores persistés, en jours. */
+    private static final int DEFAULT_SCORE_STORE_RETENTION_DAYS = 30;
+
+    /**
+     * Stockage persistant des scores (désactivé si
+     * {@code SCORE_STORE_DIR} est vide). Seuls les scores du modèle et
+     * de la version de prompt courants y sont relus.
+     */
+    private static final ScoreStore SCORE_STORE = openScoreStore();
+
+
+    /**
+     * Crée l'exécuteur des appels LLM (threads démons).
+     *
+     * @param threads nombre d'appels simultanés
+     * @return l'exécuteur
+     */
+    private static ThreadPoolExecutor llmExecutor(final int threads) {
+        return new ThreadPoolExecutor(threads, threads,
+                0L, TimeUnit.MILLISECONDS, new LinkedBlockingQueue<>(),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "llm-batch");
+                    thread.setDaemon(true);
+                    return thread;
+                });
+    }
 
-    /** Mapper JSON configuré. */
-    private static final ObjectMapper MAPPER = new ObjectMapper()
-            .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false)
-            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
-            .registerModule(new JavaTimeModule());
+    /**
+     * Retourne le moteur de scoring par génération d'un modèle de chat.
+     *
+     * @param llm le modèle de langage
+     * @return le moteur
+     */
+    public static NewsScorer chat(final ChatLanguageModel llm) {
+        return chat(llm, BATCH_PLANNER);
+    }
+
+    /**
+     * Retourne le moteur de scoring par génération d'un modèle de chat,
+     * avec son propre découpage en lots.
+     *
+     * @param llm     le modèle de langage
+     * @param planner découpage des articles en lots
+     * @return le moteur
+     */
+    static NewsScorer chat(final ChatLanguageModel llm,
+                           final BatchPlanner planner) {
+        return new ChatEngine((prompt, tokens) ->
+                tokens.accept(llm.generate(prompt)), planner);
+    }
 
-    /** Type générique pour la réponse du LLM. */
-    private static final TypeReference<Map<String, List<Integer>>>
-            MAP_STRING_LIST_INT_TYPE =
-            new TypeReference<>() { };
+    /**
+     * Retourne le moteur de scoring par génération d'un modèle de chat,
+     * lu en streaming : chaque article est signalé dès que sa liste de
+     * scores est générée, et une réponse interrompue conserve les
+     * articles déjà reçus. Les scores sont partagés avec
+     * {@link #chat(ChatLanguageModel)} (même prompt, même génération).
+     *
+     * @param llm le modèle de langage, en streaming
+     * @return le moteur
+     */
+    public static NewsScorer streaming(final StreamingChatLanguageModel llm) {
+        return streaming(llm, BATCH_PLANNER);
+    }
 
+    /**
+     * Retourne le moteur de scoring par génération d'un modèle de chat
+     * en streaming, avec son propre découpage en lots.
+     *
+     * @param llm     le modèle de langage, en streaming
+     * @param planner découpage des articles en lots
+     * @return le moteur
+     */
+    static NewsScorer streaming(final StreamingChatLanguageModel llm,
+                                final BatchPlanner planner) {
+        return new ChatEngine((prompt, tokens) -> stream(llm, prompt, tokens),
+                planner);
+    }
+
+    /**
+     * Retourne le moteur de scoring configuré par la variable
+     * {@code SCORER} : {@code embedding} pour le scoring par
+     * embeddings, sinon génération par le modèle de chat (en streaming
+     * si {@code LLM_STREAMING} est actif). Avec
+     * {@code DISTILLED_SCORING}, ce moteur sert de repli au moteur
+     * distillé.
+     *
+     * @param llm          le modèle de chat
+     * @param streamingLlm le même modèle, en streaming
+     * @return le moteur
+     */
+    public static NewsScorer configuredScorer(
+            final ChatLanguageModel llm,
+            final StreamingChatLanguageModel streamingLlm) {
+        NewsScorer scorer;
+        if (EMBEDDING_SCORER != null) {
+            scorer = EMBEDDING_SCORER;
+        } else {
+            scorer = STREAMING ? streaming(streamingLlm) : chat(llm);
+        }
+        if (!DISTILLED) {
+            return scorer;
+        }
+        return new DistilledScorer(scorer, DISTILLED_MIN_CONFIDENCE,
+                EnvConfig.getInt("DISTILLED_MIN_EXAMPLES",
+                        DEFAULT_DISTILLED_MIN_EXAMPLES),
+                EnvConfig.getDouble("DISTILLED_AUDIT_RATE",
+                        DEFAULT_DISTILLED_AUDIT_RATE),
+                EnvConfig.getInt("DISTILLED_MAX_VOCABULARY",
+                        DEFAULT_DISTILLED_MAX_VOCABULARY));
+    }
+
+    /**
+     * Crée le moteur de scoring par embeddings configuré par variables
+     * d'environnement.
+     *
+     * @return le moteur
+     */
+    private static EmbeddingScorer embeddingScorer() {
+        String modelName = EnvConfig.getString("OLLAMA_EMBEDDING_MODEL",
+                "nomic-embed-text");
+        return new EmbeddingScorer(
+                OllamaEmbeddingModel.builder()
+                        .baseUrl(OLLAMA_URL)
+                        .modelName(modelName)
+                        .timeout(Duration.ofSeconds(EnvConfig.getLong(
+                                "EMBEDDING_TIMEOUT_SECONDS",
+                                DEFAULT_EMBEDDING_TIMEOUT_SECONDS)))
+                        .build(),
+                modelName,
+                EnvConfig.getInt("EMBEDDING_BATCH_SIZE",
+                        DEFAULT_EMBEDDING_BATCH_SIZE),
+                EnvConfig.getDouble("EMBEDDING_MIN_SIMILARITY",
+                        DEFAULT_EMBEDDING_MIN_SIMILARITY),
+                EnvConfig.getDouble("EMBEDDING_MAX_SIMILARITY",
+                        DEFAULT_EMBEDDING_MAX_SIMILARITY));
+    }
 
     /**
      * Catégorise une collection de news selon des catégories ordonnées
@@ -74,6 +414,56 @@ public final class LLMScorer {
             final List<String> orderedCategories,
             final ChatLanguageModel llm
     ) throws ApiException {
+        return categorize(newsCollection, orderedCategories, llm,
+                scored -> { });
+    }
+
+    /**
+     * Catégorise une collection de news en signalant la progression :
+     * après l'application du cache puis après chaque lot scoré,
+     * {@code onProgress} reçoit les articles déjà scorés, dans l'ordre
+     * du flux.
+     *
+     * @param newsCollection    la collection de news à catégoriser
+     * @param orderedCategories liste des catégories dans l'ordre à respecter
+     * @param llm               modèle de langage pour scorer les articles
+     * @param onProgress        appelé avec les articles scorés jusqu'ici
+     * @return une nouvelle NewsCollection avec les scores de catégorie
+     * @throws ApiException si la collection est vide ou si le LLM échoue
+     */
+    public static NewsCollection categorize(
+            final NewsCollection newsCollection,
+            final List<String> orderedCategories,
+            final ChatLanguageModel llm,
+            final Consumer<List<News>> onProgress
+    ) throws ApiException {
+        return categorize(newsCollection, orderedCategories, chat(llm),
+                onProgress);
+    }
+
+    /**
+     * Catégorise une collection de news avec un moteur de scoring, en
+     * signalant la progression : après l'application du cache puis
+     * après chaque lot scoré, {@code onProgress} reçoit les articles
+     * déjà scorés, dans l'ordre du flux. Les articles signalés par le
+     * moteur avant la fin de leur lot (streaming) sont appliqués
+     * aussitôt et publiés au plus toutes les
+     * {@code LLM_PROGRESS_INTERVAL_MS}.
+     *
+     * @param newsCollection    la collection de news à catégoriser
+     * @param orderedCategories liste des catégories dans l'ordre à respecter
+     * @param scorer            moteur de scoring des lots
+     * @param onProgress        appelé avec les articles scorés jusqu'ici
+     * @return une nouvelle NewsCollection avec les scores de catégorie
+     * @throws ApiException si la collection est vide ou si le scoring
+     * échoue
+     */
+    public static NewsCollection categorize(
+            final NewsCollection newsCollection,
+            final List<String> orderedCategories,
+            final NewsScorer scorer,
+            final Consumer<List<News>> onProgress
+    ) throws ApiException {
 
         validateInputs(newsCollection, orderedCategories);
 
@@ -83,25 +473,78 @@ public final class LLMScorer {
         // ============================================
 
         List<News> allNews = newsCollection.getNewsCollection();
-        List<News> categorizedNewsList = new ArrayList<>();
-
-        for (int i = 0; i < allNews.size(); i += LLM_BATCH_SIZE) {
-            List<News> batch = createBatch(allNews, i);
-            Map<String, News> batchMap = mapBatchById(batch);
-            String articlesPrompt = buildArticlesPrompt(batch);
-            String articlesLog = buildArticlesLog(batch);
+        String scoringVersion =
+                scoringVersion(scorer.generation(), orderedCategories);
+        // Alimenté aussi par les threads du moteur (articles signalés
+        // en cours de lot)
+        Set<News> scoredNews = Collections.synchronizedSet(
+                Collections.newSetFromMap(new IdentityHashMap<>()));
+        List<News> toScore =
+                applyCachedScores(allNews, scoringVersion, orderedCategories,
+                        scoredNews);
 
-            String finalPrompt =
-                    buildFinalPrompt(orderedCategories, articlesPrompt);
+        LOGGER.info(String.format(
+                "Cache des scores : %d article(s) déjà scorés, %d à scorer",
+                allNews.size() - toScore.size(), toScore.size()));
 
-            Map<String, List<Integer>> scoresMap =
-                    callLlmAndParse(finalPrompt, llm, articlesLog);
+        // Lots dimensionnés par le moteur ; envoi en parallèle (au plus LLM_MAX_IN_FLIGHT appels
+        // simultanés), puis réassemblage dans l'ordre du flux.
+        List<List<News>> batches =
+                scorer.plan(toScore, orderedCategories.size());
+        List<CompletableFuture<List<List<Integer>>>> pending =
+                new ArrayList<>();
+        AtomicInteger streamed = new AtomicInteger();
+        for (List<News> batch : batches) {
+            NewsScorer.ScoreListener listener = (index, scores) -> {
+                if (isValid(scores, orderedCategories)) {
+                    assignScores(batch.get(index), scores,
+                            orderedCategories, scoringVersion, scoredNews);
+                    streamed.incrementAndGet();
+                }
+            };
+            pending.add(CompletableFuture.supplyAsync(
+                    () -> scoreIsolated(batch, orderedCategories, scorer,
+                            listener),
+                    LLM_EXECUTOR));
+        }
 
-            assignScoresToBatch(scoresMap, batchMap, orderedCategories,
-                    categorizedNewsList);
+        if (!scoredNews.isEmpty() && !batches.isEmpty()) {
+            onProgress.accept(inFeedOrder(allNews, scoredNews));
+        }
+        Runnable publishStreamed = () -> {
+            if (streamed.getAndSet(0) > 0) {
+                onProgress.accept(inFeedOrder(allNews, scoredNews));
+            }
+        };
+        for (int i = 0; i < batches.size(); i++) {
+            assignScoresToBatch(awaitBatch(pending, i, publishStreamed),
+                    batches.get(i), orderedCategories, scoringVersion,
+                    scoredNews);
+            if (i < batches.size() - 1) {
+                streamed.set(0);
+                onProgress.accept(inFeedOrder(allNews, scoredNews));
+            }
         }
 
-        return new NewsCollection(categorizedNewsList);
+        return new NewsCollection(inFeedOrder(allNews, scoredNews));
+    }
+
+    /**
+     * Retourne les articles scorés en conservant l'ordre du flux.
+     *
+     * @param allNews    tous les articles, dans l'ordre du flux
+     * @param scoredNews articles déjà scorés
+     * @return les articles scorés, dans l'ordre du flux
+     */
+    private static List<News> inFeedOrder(final List<News> allNews,
+                                          final Set<News> scoredNews) {
+        List<News> ordered = new ArrayList<>(scoredNews.size());
+        for (News news : allNews) {
+            if (scoredNews.contains(news)) {
+                ordered.add(news);
+            }
+        }
+        return ordered;
     }
 
     /**
@@ -128,32 +571,574 @@ public final class LLMScorer {
     }
 
     /**
-     * Extrait un sous-lot d'articles pour un batch.
+     * Construit la version de scoring du moteur configuré.
+     *
+     * @param orderedCategories liste des catégories
+     * @return la version de scoring
+     * @see #scoringVersion(String, List)
+     */
+    static String scoringVersion(final List<String> orderedCategories) {
+        return scoringVersion(scoringGeneration(), orderedCategories);
+    }
+
+    /**
+     * Construit la version de scoring : génération du moteur (modèle,
+     * version du prompt ou de la méthode) et catégories dans l'ordre
+     * demandé. Deux appels de même version produisent les mêmes scores
+     * et peuvent les partager.
+     *
+     * @param generation        génération du moteur
+     * @param orderedCategories liste des catégories
+     * @return la version de scoring
+     */
+    static String scoringVersion(final String generation,
+                                 final List<String> orderedCategories) {
+        return generation + String.join(",", orderedCategories);
+    }
+
+    /**
+     * Préfixe commun aux versions de scoring du moteur configuré.
      *
-     * @param allNews    la liste complète d'articles
-     * @param startIndex index de départ du batch
-     * @return la liste des articles du batch
+     * @return le préfixe ({@code modèle|pVERSION|} pour le chat)
      */
-    private static List<News> createBatch(
+    private static String scoringGeneration() {
+        String generation = EMBEDDING_SCORER != null
+                ? EMBEDDING_SCORER.generation()
+                : chatGeneration();
+        return DISTILLED
+                ? DistilledScorer.generation(generation,
+                        DISTILLED_MIN_CONFIDENCE)
+                : generation;
+    }
+
+    /**
+     * Préfixe des versions de scoring du modèle de chat et du prompt
+     * courants.
+     *
+     * @return le préfixe {@code modèle|pVERSION|}
+     */
+    private static String chatGeneration() {
+        return MODEL_NAME + "|p" + PROMPT_VERSION + "|";
+    }
+
+    /**
+     * Ouvre le stockage persistant des scores configuré par
+     * variables d'environnement.
+     *
+     * @return le stockage (désactivé si aucun répertoire n'est défini)
+     */
+    private static ScoreStore openScoreStore() {
+        // EnvConfig remplace une valeur vide par le défaut : on teste
+        // la variable brute pour permettre de désactiver la persistance.
+        String configured = System.getenv("SCORE_STORE_DIR");
+        if (configured != null && configured.isBlank()) {
+            return ScoreStore.disabled();
+        }
+        String directory = EnvConfig.getString("SCORE_STORE_DIR", "data");
+        return ScoreStore.open(Path.of(directory), scoringGeneration(),
+                Duration.ofDays(EnvConfig.getLong(
+                        "SCORE_STORE_RETENTION_DAYS",
+                        DEFAULT_SCORE_STORE_RETENTION_DAYS)));
+    }
+
+    /**
+     * Enregistre les articles d'un instantané complet, pour les
+     * republier au prochain démarrage.
+     *
+     * @param news       articles scorés de l'instantané
+     * @param categories catégories utilisées pour le scoring
+     */
+    public static void saveSnapshot(final List<News> news,
+                                    final List<String> categories) {
+        SCORE_STORE.saveSnapshot(scoringVersion(categories), news);
+    }
+
+    /**
+     * Reconstruit le dernier instantané enregistré, si ses scores
+     * correspondent au modèle, au prompt et aux catégories courants.
+     *
+     * @param categories catégories utilisées pour le scoring
+     * @return les articles scorés (vide si rien n'est réutilisable)
+     */
+    public static List<News> restoreSnapshot(final List<String> categories) {
+        String scoringVersion = scoringVersion(categories);
+        List<News> restored = new ArrayList<>();
+        for (ScoreStore.StoredArticle stored
+                : SCORE_STORE.loadSnapshot(scoringVersion)) {
+            News news = new News(stored.title(), stored.link(),
+                    stored.description());
+            applyScores(news, stored.scores(), categories);
+            SCORE_CACHE.put(ScoreCache.key(scoringVersion,
+                    ArticleKey.of(news)), stored.scores());
+            restored.add(news);
+        }
+        return restored;
+    }
+
+    /**
+     * Applique les scores déjà présents dans le cache (ou, à défaut,
+     * dans le stockage persistant) et retourne les articles restant à
+     * envoyer au LLM.
+     *
+     * @param allNews           les articles à catégoriser
+     * @param scoringVersion    version de scoring courante
+     * @param orderedCategories liste des catégories
+     * @param scoredNews        ensemble où ajouter les articles scorés
+     * @return les articles absents du cache
+     */
+    private static List<News> applyCachedScores(
             final List<News> allNews,
-            final int startIndex
+            final String scoringVersion,
+            final List<String> orderedCategories,
+            final Set<News> scoredNews
     ) {
-        return allNews.subList(startIndex,
-                Math.min(startIndex + LLM_BATCH_SIZE, allNews.size()));
+        List<News> toScore = new ArrayList<>();
+        for (News news : allNews) {
+            String articleKey = ArticleKey.of(news);
+            String cacheKey = ScoreCache.key(scoringVersion, articleKey);
+            List<Integer> cached = SCORE_CACHE.get(cacheKey);
+            if (cached == null) {
+                cached = SCORE_STORE.get(scoringVersion, articleKey);
+                if (cached != null) {
+                    SCORE_CACHE.put(cacheKey, cached);
+                }
+            }
+            if (cached == null) {
+                toScore.add(news);
+            } else {
+                applyScores(news, cached, orderedCategories);
+                scoredNews.add(news);
+            }
+        }
+        return toScore;
     }
 
     /**
-     * Mappe les articles d'un batch avec des IDs sous forme de chaîne.
+     * Score un lot en isolant les pannes, pour qu'un article
+     * problématique ne fasse pas échouer toute la catégorisation.
+     * <ul>
+     *   <li>un appel en échec (erreur HTTP, délai dépassé) est retenté
+     *   jusqu'à {@code LLM_MAX_RETRIES} fois, après un délai
+     *   exponentiel ; ensuite l'erreur est propagée ;</li>
+     *   <li>une réponse inexploitable est découpée en deux moitiés,
+     *   scorées séparément, jusqu'à isoler l'article en cause ;</li>
+     *   <li>les articles absents de la réponse, ou dont le nombre de
+     *   scores ne correspond pas aux catégories, sont rescorés dans un
+     *   lot à part.</li>
+     * </ul>
+     * Un article qui échoue seul est compté comme impossible à scorer
+     * et reste {@code null}.
      *
-     * @param batch le batch d'articles
-     * @return une map ID -> News
+     * @param batch             le lot d'articles
+     * @param orderedCategories liste des catégories
+     * @param scorer            le moteur de scoring
+     * @param listener          appelé pour chaque article scoré avant la
+     *                          fin du lot
+     * @return les scores de chaque article, dans l'ordre du lot
+     * ({@code null} : impossible à scorer)
+     * @throws ApiException si les appels échouent malgré les nouvelles
+     * tentatives
+     */
+    private static List<List<Integer>> scoreIsolated(
+            final List<News> batch,
+            final List<String> orderedCategories,
+            final NewsScorer scorer,
+            final NewsScorer.ScoreListener listener
+    ) throws ApiException {
+        List<List<Integer>> scores =
+                new ArrayList<>(Collections.nCopies(batch.size(), null));
+        try {
+            List<List<Integer>> answer = scoreWithRetries(batch,
+                    orderedCategories, scorer, listener);
+            for (int i = 0; i < Math.min(answer.size(), batch.size()); i++) {
+                if (isValid(answer.get(i), orderedCategories)) {
+                    scores.set(i, answer.get(i));
+                }
+            }
+        } catch (ApiException ex) {
+            if (!INVALID_RESPONSE.equals(ex.getCode())) {
+                throw ex;
+            }
+        }
+
+        List<Integer> missing = new ArrayList<>();
+        for (int i = 0; i < batch.size(); i++) {
+            if (scores.get(i) == null) {
+                missing.add(i);
+            }
+        }
+        if (missing.isEmpty()) {
+            return scores;
+        }
+        if (batch.size() == 1) {
+            LLM_UNSCORABLE.increment();
+            LOGGER.warning("Article impossible à scorer : "
+                    + batch.get(0).getTitle());
+            return scores;
+        }
+        if (missing.size() < batch.size()) {
+            rescore(batch, missing, scores, orderedCategories, scorer,
+                    listener);
+        } else {
+            LLM_BISECTIONS.increment();
+            int middle = batch.size() / 2;
+            List<Integer> left = new ArrayList<>();
+            List<Integer> right = new ArrayList<>();
+            for (int i = 0; i < batch.size(); i++) {
+                (i < middle ? left : right).add(i);
+            }
+            rescore(batch, left, scores, orderedCategories, scorer,
+                    listener);
+            rescore(batch, right, scores, orderedCategories, scorer,
+                    listener);
+        }
+        return scores;
+    }
+
+    /**
+     * Score à nouveau une partie d'un lot, comme un lot à part, et
+     * range ses scores à leur position dans le lot.
+     *
+     * @param batch             le lot d'articles
+     * @param positions         positions des articles à scorer
+     * @param scores            scores du lot, complétés en place
+     * @param orderedCategories liste des catégories
+     * @param scorer            le moteur de scoring
+     * @param listener          listener du lot
+     * @throws ApiException si les appels échouent malgré les nouvelles
+     * tentatives
+     */
+    private static void rescore(
+            final List<News> batch,
+            final List<Integer> positions,
+            final List<List<Integer>> scores,
+            final List<String> orderedCategories,
+            final NewsScorer scorer,
+            final NewsScorer.ScoreListener listener
+    ) throws ApiException {
+        List<News> part = new ArrayList<>(positions.size());
+        for (int position : positions) {
+            part.add(batch.get(position));
+        }
+        List<List<Integer>> partScores = scoreIsolated(part,
+                orderedCategories, scorer, (index, articleScores) ->
+                        listener.onScored(positions.get(index),
+                                articleScores));
+        for (int i = 0; i < positions.size(); i++) {
+            scores.set(positions.get(i), partScores.get(i));
+        }
+    }
+
+    /**
+     * Score un lot, en retentant après un délai exponentiel les appels
+     * en échec. Une réponse inexploitable n'est pas retentée.
+     *
+     * @param batch             le lot d'articles
+     * @param orderedCategories liste des catégories
+     * @param scorer            le moteur de scoring
+     * @param listener          appelé pour chaque article scoré avant la
+     *                          fin du lot
+     * @return les scores de chaque article, dans l'ordre du lot
+     * @throws ApiException si la dernière tentative échoue
      */
-    private static Map<String, News> mapBatchById(final List<News> batch) {
-        Map<String, News> batchMap = new HashMap<>();
+    private static List<List<Integer>> scoreWithRetries(
+            final List<News> batch,
+            final List<String> orderedCategories,
+            final NewsScorer scorer,
+            final NewsScorer.ScoreListener listener
+    ) throws ApiException {
+        for (int attempt = 0;; attempt++) {
+            try {
+                return scoreBatch(batch, orderedCategories, scorer,
+                        listener);
+            } catch (ApiException ex) {
+                if (attempt >= MAX_RETRIES
+                        || INVALID_RESPONSE.equals(ex.getCode())) {
+                    throw ex;
+                }
+                LLM_RETRIES.increment();
+                long delay = RETRY_BACKOFF_MS << attempt;
+                LOGGER.warning(String.format(
+                        "Lot de %d article(s) en échec (%s), nouvelle"
+                                + " tentative dans %d ms",
+                        batch.size(), ex.getMessage(), delay));
+                sleep(delay + ThreadLocalRandom.current()
+                        .nextLong(delay / 2 + 1));
+            }
+        }
+    }
+
+    /**
+     * Attend avant une nouvelle tentative.
+     *
+     * @param millis le délai, en millisecondes
+     * @throws ApiException si le thread est interrompu
+     */
+    private static void sleep(final long millis) throws ApiException {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new ApiException("llm_batch_failed",
+                    "Catégorisation interrompue");
+        }
+    }
+
+    /**
+     * Indique si des scores sont exploitables : un score de 0 à
+     * {@link ScoreVector#MAX_SCORE} par catégorie.
+     *
+     * @param scores            les scores d'un article
+     * @param orderedCategories liste des catégories
+     * @return {@code true} si les scores peuvent être appliqués
+     */
+    static boolean isValid(final List<Integer> scores,
+                           final List<String> orderedCategories) {
+        if (scores == null || scores.size() != orderedCategories.size()) {
+            return false;
+        }
+        for (Integer score : scores) {
+            if (score == null || score < 0 || score > ScoreVector.MAX_SCORE) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Score un lot avec le moteur, en publiant les métriques du lot.
+     *
+     * @param batch             le lot d'articles
+     * @param orderedCategories liste des catégories
+     * @param scorer            le moteur de scoring
+     * @param listener          appelé pour chaque article scoré avant la
+     *                          fin du lot
+     * @return les scores de chaque article, dans l'ordre du lot
+     * @throws ApiException si le scoring du lot échoue
+     */
+    private static List<List<Integer>> scoreBatch(
+            final List<News> batch,
+            final List<String> orderedCategories,
+            final NewsScorer scorer,
+            final NewsScorer.ScoreListener listener
+    ) throws ApiException {
+        LLM_IN_FLIGHT.incrementAndGet();
+        long start = System.nanoTime();
+        boolean success = false;
+        try {
+            List<List<Integer>> scores =
+                    scorer.score(batch, orderedCategories, listener);
+            success = true;
+            LLM_ARTICLES.increment(batch.size());
+            return scores;
+        } finally {
+            LLM_IN_FLIGHT.decrementAndGet();
+            (success ? LLM_BATCH_SUCCESS : LLM_BATCH_FAILURE)
+                    .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            if (!success) {
+                LLM_FAILURES.increment();
+            }
+        }
+    }
+
+    /**
+     * Construit le prompt d'un lot, l'envoie au LLM et range les
+     * scores de la réponse dans l'ordre du lot. La réponse est analysée
+     * au fil de sa réception : chaque article est signalé dès que sa
+     * liste de scores est fermée. Si la réponse est tronquée ou
+     * interrompue, les articles déjà reçus sont conservés (les autres
+     * restent non scorés) et le lot compte comme un échec pour le
+     * dimensionnement des lots. Seuls les lots planifiés tels quels
+     * sont enregistrés par le planificateur : les sous-lots d'une
+     * bisection ou d'un rescoring n'y comptent pas.
+     *
+     * @param batch             le lot d'articles
+     * @param orderedCategories liste des catégories
+     * @param sender            envoi du prompt au modèle de langage
+     * @param planner           découpage des lots, informé du résultat
+     * @param listener          appelé pour chaque article reçu
+     * @return les scores de chaque article, dans l'ordre du lot
+     * @throws ApiException si l'appel échoue avant le premier article
+     * ({@code llm_batch_failed}) ou si aucun article n'a pu être lu dans
+     * la réponse ({@link #INVALID_RESPONSE})
+     */
+    private static List<List<Integer>> promptBatch(
+            final List<News> batch,
+            final List<String> orderedCategories,
+            final PromptSender sender,
+            final BatchPlanner planner,
+            final NewsScorer.ScoreListener listener
+    ) throws ApiException {
+        String articlesPrompt = buildArticlesPrompt(batch);
+        String finalPrompt =
+                buildFinalPrompt(orderedCategories, articlesPrompt,
+                        batch.size());
+        String articlesLog = buildArticlesLog(batch);
+        ScoreStreamParser parser = new ScoreStreamParser((id, scores) -> {
+            int index = articleIndex(id, batch.size());
+            if (index >= 0) {
+                listener.onScored(index, scores);
+            }
+        });
+        StringBuilder response = new StringBuilder();
+        RuntimeException failure = null;
+        long start = System.nanoTime();
+        try {
+            // Détail des lots au niveau FINE : le suivi courant passe
+            // par les métriques (GET /metrics)
+            LOGGER.fine(() -> "--- Envoi du lot au LLM ---\n" + articlesLog);
+            sender.send(finalPrompt, token -> {
+                response.append(token);
+                parser.feed(token);
+            });
+        } catch (RuntimeException ex) {
+            failure = ex;
+        } finally {
+            if (BatchPlanner.isPlanned(batch)) {
+                planner.record(batch.size(), TimeUnit.NANOSECONDS.toMillis(
+                        System.nanoTime() - start), parser.isComplete());
+            }
+        }
+        LOGGER.fine(() -> "--- Réponse LLM reçue ---\n" + response);
+
+        Map<String, List<Integer>> scoresMap = parser.entries();
+        if (scoresMap.isEmpty()) {
+            LOGGER.warning("Échec de catégorisation. Articles concernés :\n"
+                    + articlesLog);
+            if (failure != null) {
+                throw new ApiException("llm_batch_failed",
+                        "Échec de catégorisation par le LLM : "
+                                + failure.getMessage());
+            }
+            throw new ApiException(INVALID_RESPONSE,
+                    "Le LLM a retourné une réponse JSON invalide");
+        }
+        if (!parser.isComplete()) {
+            LOGGER.warning(String.format(
+                    "Réponse du LLM incomplète (%s) : %d article(s) sur %d"
+                            + " récupéré(s)",
+                    failure != null ? failure.getMessage() : "JSON tronqué",
+                    scoresMap.size(), batch.size()));
+        }
+        List<List<Integer>> scores = new ArrayList<>(batch.size());
         for (int i = 0; i < batch.size(); i++) {
-            batchMap.put(String.valueOf(i + 1), batch.get(i));
+            scores.add(scoresMap.get(String.valueOf(i + 1)));
+        }
+        return scores;
+    }
+
+    /**
+     * Retourne la position dans le lot d'un ID de la réponse du LLM.
+     *
+     * @param id        l'ID (de {@code "1"} à la taille du lot)
+     * @param batchSize taille du lot
+     * @return la position, ou {@code -1} si l'ID est invalide
+     */
+    private static int articleIndex(final String id, final int batchSize) {
+        try {
+            int index = Integer.parseInt(id.trim()) - 1;
+            return index >= 0 && index < batchSize ? index : -1;
+        } catch (NumberFormatException ex) {
+            return -1;
+        }
+    }
+
+    /**
+     * Envoie un prompt à un modèle en streaming et attend la fin de la
+     * génération.
+     *
+     * @param llm    le modèle de langage, en streaming
+     * @param prompt le prompt
+     * @param tokens reçoit les morceaux de la réponse, dans l'ordre
+     */
+    private static void stream(final StreamingChatLanguageModel llm,
+                               final String prompt,
+                               final Consumer<String> tokens) {
+        CompletableFuture<Void> done = new CompletableFuture<>();
+        llm.generate(prompt, new StreamingResponseHandler<AiMessage>() {
+            @Override
+            public void onNext(final String token) {
+                if (done.isDone()) {
+                    return;
+                }
+                try {
+                    tokens.accept(token);
+                } catch (RuntimeException ex) {
+                    done.completeExceptionally(ex);
+                }
+            }
+
+            @Override
+            public void onComplete(final Response<AiMessage> response) {
+                done.complete(null);
+            }
+
+            @Override
+            public void onError(final Throwable error) {
+                done.completeExceptionally(error);
+            }
+        });
+        try {
+            done.join();
+        } catch (CompletionException ex) {
+            if (ex.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw ex;
+        }
+    }
+
+    /**
+     * Attend le résultat d'un lot. En cas d'échec, annule les lots
+     * encore en attente et propage l'erreur.
+     *
+     * @param pending lots envoyés, dans l'ordre du flux
+     * @param index   index du lot attendu
+     * @param onTick  appelé toutes les {@code LLM_PROGRESS_INTERVAL_MS}
+     *                pendant l'attente
+     * @return les scores du lot, dans l'ordre du lot
+     * @throws ApiException si le lot a échoué
+     */
+    private static List<List<Integer>> awaitBatch(
+            final List<CompletableFuture<List<List<Integer>>>> pending,
+            final int index,
+            final Runnable onTick
+    ) throws ApiException {
+        try {
+            while (true) {
+                try {
+                    return pending.get(index).get(PROGRESS_INTERVAL_MS,
+                            TimeUnit.MILLISECONDS);
+                } catch (TimeoutException ex) {
+                    onTick.run();
+                }
+            }
+        } catch (ExecutionException ex) {
+            cancelAll(pending);
+            if (ex.getCause() instanceof ApiException apiException) {
+                throw apiException;
+            }
+            throw new ApiException("llm_batch_failed",
+                    "Échec de catégorisation par le LLM : "
+                            + ex.getCause());
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            cancelAll(pending);
+            throw new ApiException("llm_batch_failed",
+                    "Catégorisation interrompue");
+        }
+    }
+
+    /**
+     * Annule les lots encore en attente.
+     *
+     * @param pending lots envoyés
+     */
+    private static void cancelAll(
+            final List<CompletableFuture<List<List<Integer>>>> pending) {
+        for (CompletableFuture<?> future : pending) {
+            future.cancel(false);
         }
-        return batchMap;
     }
 
     /**
@@ -195,11 +1180,13 @@ public final class LLMScorer {
      *
      * @param orderedCategories liste des catégories
      * @param articlesPrompt    prompt des articles
+     * @param articleCount      nombre d'articles du lot
      * @return le prompt complet
      */
     private static String buildFinalPrompt(
             final List<String> orderedCategories,
-            final String articlesPrompt
+            final String articlesPrompt,
+            final int articleCount
     ) {
         String categoryListPrompt = String.join(", ", orderedCategories);
 
@@ -214,6 +1201,7 @@ public final class LLMScorer {
               thèmes: %s
           3.  Format: Réponds UNIQUEMENT avec la map JSON. Pas de texte, pas
               d'explication.
+          4.  Une entrée par article: exactement %d entrées, de "1" à "%d".
 
           ARTICLES À ÉVALUER (Format "ID": "Titre. Description"):
           %s
@@ -223,96 +1211,161 @@ public final class LLMScorer {
             {
                 "1": [x, x, x, x, x, x, x, x, x, x, x, x],
                 "2": [x, x, x, x, x, x, x, x, x, x, x, x],
-                "3": [x, x, x, x, x, x, x, x, x, x, x, x],
+                ...
               }
           """;
 
         return String.format(promptTemplate, orderedCategories.size(),
-                categoryListPrompt, articlesPrompt,
-                orderedCategories.size());
+                categoryListPrompt, articleCount, articleCount,
+                articlesPrompt, orderedCategories.size());
     }
 
     /**
-     * Appelle le LLM et parse la réponse en map ID -> scores.
+     * Assigne les scores de catégorie à chaque article du batch
+     * et les enregistre dans le cache et le stockage persistant
+     * (articles non encore signalés en cours de lot). Les articles
+     * impossibles à scorer sont écartés, ou publiés avec des scores
+     * nuls si {@code LLM_UNSCORABLE_POLICY=mark}.
      *
-     * @param prompt      le prompt à envoyer
-     * @param llm         le modèle de langage
-     * @param articlesLog texte de log des articles
-     * @return map ID -> scores
-     * @throws ApiException si la réponse du LLM est invalide
+     * @param scores            scores de chaque article, dans l'ordre
+     *                          du lot ({@code null} : non scoré)
+     * @param batch             le lot d'articles
+     * @param orderedCategories liste des catégories
+     * @param scoringVersion    version de scoring courante
+     * @param scoredNews        ensemble où ajouter les articles scorés
      */
-    private static Map<String, List<Integer>> callLlmAndParse(
-            final String prompt,
-            final ChatLanguageModel llm,
-            final String articlesLog
-    ) throws ApiException {
-        try {
-            // === AJOUT DU LOG ICI ===
-            // Log des articles envoyés au LLM pour ce lot
-            LOGGER.info("--- Envoi du lot au LLM ---");
-            LOGGER.info(articlesLog);
-            // =========================
-
-            String response = llm.generate(prompt);
-
-            // J'ajoute aussi un titre ici pour mieux lire la réponse
-            LOGGER.info("--- Réponse LLM reçue ---");
-            LOGGER.info(response);
-
-            int startIndex = response.indexOf('{');
-            int endIndex = response.lastIndexOf('}');
-            if (startIndex == -1 || endIndex == -1 || endIndex <= startIndex) {
-                throw new ApiException("invalid_llm_response",
-                        "Le LLM a retourné une réponse JSON invalide");
+    private static void assignScoresToBatch(
+            final List<List<Integer>> scores,
+            final List<News> batch,
+            final List<String> orderedCategories,
+            final String scoringVersion,
+            final Set<News> scoredNews
+    ) {
+        for (int i = 0; i < Math.min(scores.size(), batch.size()); i++) {
+            News news = batch.get(i);
+            if (scores.get(i) == null && MARK_UNSCORABLE
+                    && !scoredNews.contains(news)) {
+                // Scores nuls gardés en cache seulement : l'article est
+                // retenté à l'expiration du cache ou au redémarrage.
+                List<Integer> zeros =
+                        Collections.nCopies(orderedCategories.size(), 0);
+                applyScores(news, zeros, orderedCategories);
+                SCORE_CACHE.put(
+                        ScoreCache.key(scoringVersion, ArticleKey.of(news)),
+                        zeros);
+                scoredNews.add(news);
+            } else {
+                assignScores(news, scores.get(i), orderedCategories,
+                        scoringVersion, scoredNews);
             }
-
-            String cleanedResponse =
-                    response.substring(startIndex, endIndex + 1);
-            return MAPPER.readValue(cleanedResponse, MAP_STRING_LIST_INT_TYPE);
-
-        } catch (Exception ex) {
-            // Le log des articles est déjà passé dans le `categorize`
-            // Il serait bon de l'ajouter ici aussi en cas d'erreur
-            LOGGER.warning("Échec de catégorisation. Articles concernés :\n"
-                    + articlesLog);
-            throw new ApiException("llm_batch_failed",
-                    "Échec de catégorisation par le LLM : " + ex.getMessage());
         }
     }
 
     /**
-     * Assigne les scores de catégorie à chaque article du batch.
+     * Assigne ses scores de catégorie à un article, s'il n'est pas déjà
+     * scoré, et les enregistre dans le cache et le stockage persistant.
      *
-     * @param scoresMap           map ID -> scores
-     * @param batchMap            map ID -> News
-     * @param orderedCategories   liste des catégories
-     * @param categorizedNewsList liste où ajouter les articles catégorisés
+     * @param news              l'article
+     * @param articleScores     ses scores ({@code null} : non scoré)
+     * @param orderedCategories liste des catégories
+     * @param scoringVersion    version de scoring courante
+     * @param scoredNews        ensemble où ajouter les articles scorés
      */
-    private static void assignScoresToBatch(
-            final Map<String, List<Integer>> scoresMap,
-            final Map<String, News> batchMap,
+    private static void assignScores(
+            final News news,
+            final List<Integer> articleScores,
             final List<String> orderedCategories,
-            final List<News> categorizedNewsList
+            final String scoringVersion,
+            final Set<News> scoredNews
     ) {
-        for (Map.Entry<String, List<Integer>> entry : scoresMap.entrySet()) {
-            String id = entry.getKey();
-            List<Integer> scores = entry.getValue();
-            News news = batchMap.get(id);
-            if (news == null) {
-                continue;
-            }
+        if (articleScores == null || scoredNews.contains(news)) {
+            return;
+        }
+        applyScores(news, articleScores, orderedCategories);
+        SCORE_CACHE.put(ScoreCache.key(scoringVersion, ArticleKey.of(news)),
+                articleScores);
+        SCORE_STORE.put(scoringVersion, news, articleScores);
+        scoredNews.add(news);
+    }
 
-            List<NewsCategoryScore> categoryScores = new ArrayList<>();
-            for (int i = 0; i < orderedCategories.size(); i++) {
-                int score =
-                        Math.max(0, Math.min(scores.get(i), MAX_LLM_SCORE));
-                if (score > 0) {
-                    categoryScores.add(new NewsCategoryScore(
-                            orderedCategories.get(i), score));
-                }
+    /**
+     * Convertit les scores bruts du LLM en vecteur de scores
+     * et l'affecte à l'article.
+     *
+     * @param news              l'article à mettre à jour
+     * @param scores            scores bruts, dans l'ordre des catégories
+     * @param orderedCategories liste des catégories
+     */
+    private static void applyScores(
+            final News news,
+            final List<Integer> scores,
+            final List<String> orderedCategories
+    ) {
+        long vector = ScoreVector.EMPTY;
+        for (int i = 0; i < orderedCategories.size(); i++) {
+            Theme theme = Theme.fromJsonName(orderedCategories.get(i));
+            if (theme != null) {
+                vector = ScoreVector.with(vector, theme, scores.get(i));
             }
-            news.setCategoryScores(categoryScores);
-            categorizedNewsList.add(news);
+        }
+        news.setScoreVector(vector);
+    }
+
+    /**
+     * Envoi d'un prompt au modèle de chat.
+     */
+    @FunctionalInterface
+    private interface PromptSender {
+
+        /**
+         * Envoie un prompt et transmet la réponse, d'un bloc ou par
+         * morceaux.
+         *
+         * @param prompt le prompt
+         * @param tokens reçoit les morceaux de la réponse, dans l'ordre
+         */
+        void send(String prompt, Consumer<String> tokens);
+    }
+
+    /**
+     * Moteur de scoring par génération : un prompt par lot, auquel le
+     * modèle de chat répond par une map JSON de scores. Les lots sont
+     * dimensionnés selon le budget de tokens et la latence observée.
+     *
+     * @param sender  envoi du prompt au modèle de langage
+     * @param planner découpage des articles en lots
+     */
+    private record ChatEngine(PromptSender sender, BatchPlanner planner)
+            implements NewsScorer {
+
+        @Override
+        public String generation() {
+            return chatGeneration();
+        }
+
+        @Override
+        public List<List<News>> plan(final List<News> news,
+                                     final int categories) {
+            return planner.plan(news, categories);
+        }
+
+        @Override
+        public List<List<Integer>> score(
+                final List<News> batch,
+                final List<String> orderedCategories
+        ) throws ApiException {
+            return promptBatch(batch, orderedCategories, sender, planner,
+                    (index, scores) -> { });
+        }
+
+        @Override
+        public List<List<Integer>> score(
+                final List<News> batch,
+                final List<String> orderedCategories,
+                final ScoreListener listener
+        ) throws ApiException {
+            return promptBatch(batch, orderedCategories, sender, planner,
+                    listener);
         }
     }
 }
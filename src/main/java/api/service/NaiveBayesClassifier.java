@@ -0,0 +1,261 @@
+package api.service;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * Classifieur bayésien naïf multinomial : pour chaque thème, prédit un
+ * niveau de pertinence (0 à 4) à partir des mots et paires de mots
+ * consécutifs d'un texte.
+ * <p>
+ * Il est entraîné en continu, un exemple à la fois, sur les scores
+ * déjà payés au LLM. Les comptes sont creux (un tableau par mot
+ * rencontré) et le vocabulaire est borné : une fois plein, les mots
+ * nouveaux sont ignorés. Une prédiction coûte quelques microsecondes.
+ * </p>
+ * <p>
+ * Le classifieur est partagé par les lots scorés en parallèle : seuls
+ * l'apprentissage et la prédiction (hors découpage du texte) sont
+ * synchronisés.
+ * </p>
+ */
+final class NaiveBayesClassifier {
+
+    /** Nombre de niveaux de pertinence (0 à 4). */
+    static final int LEVELS = 5;
+
+    /** Longueur minimale d'un mot retenu. */
+    private static final int MIN_WORD_LENGTH = 3;
+
+    /** Signes diacritiques (après décomposition). */
+    private static final Pattern DIACRITICS = Pattern.compile("\\p{M}");
+
+    /** Séparateurs de mots (après normalisation). */
+    private static final Pattern SEPARATORS = Pattern.compile("[^a-z0-9]+");
+
+    /** Taille de la table des logarithmes précalculés. */
+    private static final int LOG_TABLE_SIZE = 4096;
+
+    /** {@code LOG_PLUS_ONE[c] = ln(c + 1)} pour les petits comptes. */
+    private static final double[] LOG_PLUS_ONE = logTable();
+
+    /** Mots trop fréquents pour être discriminants. */
+    private static final Set<String> STOP_WORDS = Set.of(
+            "les", "des", "une", "est", "que", "qui", "dans", "par",
+            "pour", "sur", "avec", "son", "ses", "aux", "pas", "plus",
+            "mais", "ont", "ete", "sont", "cette", "ces", "leur", "leurs",
+            "elle", "ils", "elles", "nous", "vous", "dont", "apres",
+            "avant", "entre", "comme", "tout", "tous", "sans", "sous",
+            "fait", "etre", "avoir", "deux", "ans", "selon", "depuis");
+
+    /** Nombre de thèmes. */
+    private final int themes;
+
+    /** Taille maximale du vocabulaire. */
+    private final int maxVocabulary;
+
+    /** Comptes de chaque mot, par thème et niveau. */
+    private final Map<String, int[]> tokenCounts = new HashMap<>();
+
+    /** Nombre de mots des exemples, par thème et niveau. */
+    private final long[] tokenTotals;
+
+    /** Nombre d'exemples, par thème et niveau. */
+    private final int[] exampleCounts;
+
+    /** Nombre total d'exemples. */
+    private int examples;
+
+    /**
+     * Constructeur.
+     *
+     * @param themeCount nombre de thèmes
+     * @param vocabulary taille maximale du vocabulaire
+     */
+    NaiveBayesClassifier(final int themeCount, final int vocabulary) {
+        this.themes = themeCount;
+        this.maxVocabulary = vocabulary;
+        this.tokenTotals = new long[themeCount * LEVELS];
+        this.exampleCounts = new int[themeCount * LEVELS];
+    }
+
+    /**
+     * Prédiction d'un texte.
+     *
+     * @param levels     niveau le plus probable, par thème
+     * @param confidence probabilité a posteriori du niveau prédit, la
+     *                   plus faible de tous les thèmes
+     */
+    record Prediction(int[] levels, double confidence) {
+    }
+
+    /**
+     * Ajoute un exemple.
+     *
+     * @param text   le texte de l'article
+     * @param levels niveau de chaque thème (0 à 4), par ordinal
+     */
+    void train(final String text, final int[] levels) {
+        List<String> tokens = tokens(text);
+        synchronized (this) {
+            learn(tokens, levels);
+        }
+    }
+
+    /**
+     * Ajoute un exemple déjà découpé.
+     *
+     * @param tokens les mots de l'article
+     * @param levels niveau de chaque thème, par ordinal
+     */
+    private void learn(final List<String> tokens, final int[] levels) {
+        for (int theme = 0; theme < themes; theme++) {
+            exampleCounts[theme * LEVELS + levels[theme]]++;
+        }
+        examples++;
+        for (String token : tokens) {
+            int[] counts = tokenCounts.get(token);
+            if (counts == null) {
+                if (tokenCounts.size() >= maxVocabulary) {
+                    continue;
+                }
+                counts = new int[themes * LEVELS];
+                tokenCounts.put(token, counts);
+            }
+            for (int theme = 0; theme < themes; theme++) {
+                int slot = theme * LEVELS + levels[theme];
+                counts[slot]++;
+                tokenTotals[slot]++;
+            }
+        }
+    }
+
+    /**
+     * Prédit le niveau de chaque thème (lissage de Laplace ; les mots
+     * hors vocabulaire sont ignorés).
+     *
+     * @param text le texte de l'article
+     * @return la prédiction (confiance nulle sans aucun exemple)
+     */
+    Prediction predict(final String text) {
+        List<String> tokens = tokens(text);
+        synchronized (this) {
+            return classify(tokens);
+        }
+    }
+
+    /**
+     * Prédit le niveau de chaque thème d'un texte déjà découpé.
+     *
+     * @param tokens les mots de l'article
+     * @return la prédiction
+     */
+    private Prediction classify(final List<String> tokens) {
+        int[] levels = new int[themes];
+        if (examples == 0) {
+            return new Prediction(levels, 0);
+        }
+        double[] slotScores = new double[themes * LEVELS];
+        int known = 0;
+        for (String token : tokens) {
+            int[] counts = tokenCounts.get(token);
+            if (counts != null) {
+                known++;
+                for (int slot = 0; slot < counts.length; slot++) {
+                    slotScores[slot] += logPlusOne(counts[slot]);
+                }
+            }
+        }
+
+        double vocabulary = tokenCounts.size();
+        double confidence = 1;
+        double[] logPosterior = new double[LEVELS];
+        for (int theme = 0; theme < themes; theme++) {
+            double best = Double.NEGATIVE_INFINITY;
+            for (int level = 0; level < LEVELS; level++) {
+                int slot = theme * LEVELS + level;
+                double score = slotScores[slot]
+                        + Math.log((exampleCounts[slot] + 1.0)
+                                / (examples + LEVELS))
+                        - known * Math.log(tokenTotals[slot] + vocabulary);
+                logPosterior[level] = score;
+                if (score > best) {
+                    best = score;
+                    levels[theme] = level;
+                }
+            }
+            double total = 0;
+            for (double score : logPosterior) {
+                total += Math.exp(score - best);
+            }
+            confidence = Math.min(confidence, 1 / total);
+        }
+        return new Prediction(levels, confidence);
+    }
+
+    /**
+     * Calcule {@code ln(count + 1)}, par table pour les petits comptes.
+     *
+     * @param count le compte
+     * @return le logarithme
+     */
+    private static double logPlusOne(final int count) {
+        return count < LOG_TABLE_SIZE
+                ? LOG_PLUS_ONE[count]
+                : Math.log(count + 1.0);
+    }
+
+    /**
+     * Précalcule {@code ln(c + 1)} pour les petits comptes.
+     *
+     * @return la table
+     */
+    private static double[] logTable() {
+        double[] table = new double[LOG_TABLE_SIZE];
+        for (int count = 0; count < LOG_TABLE_SIZE; count++) {
+            table[count] = Math.log(count + 1.0);
+        }
+        return table;
+    }
+
+    /**
+     * Retourne le nombre d'exemples appris.
+     *
+     * @return le nombre d'exemples
+     */
+    synchronized int examples() {
+        return examples;
+    }
+
+    /**
+     * Découpe un texte en mots (minuscules, sans accents, hors mots
+     * vides) et paires de mots consécutifs.
+     *
+     * @param text le texte
+     * @return les mots puis les paires
+     */
+    static List<String> tokens(final String text) {
+        String folded = DIACRITICS.matcher(
+                Normalizer.normalize(text, Normalizer.Form.NFD))
+                .replaceAll("")
+                .toLowerCase(Locale.ROOT);
+        List<String> words = new ArrayList<>();
+        for (String word : SEPARATORS.split(folded)) {
+            if (word.length() >= MIN_WORD_LENGTH
+                    && !STOP_WORDS.contains(word)) {
+                words.add(word);
+            }
+        }
+        List<String> tokens = new ArrayList<>(words);
+        for (int i = 1; i < words.size(); i++) {
+            tokens.add(words.get(i - 1) + ' ' + words.get(i));
+        }
+        return tokens;
+    }
+}
@@ -0,0 +1,225 @@
+package api.service;
+
+import api.PreferencesApi;
+import api.util.Metrics;
+import io.micrometer.core.instrument.Timer;
+import model.News;
+import model.NewsCollection;
+import model.Theme;
+import rss.RssFetcher;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Service d'ingestion en arrière-plan.
+ * <p>
+ * À intervalle régulier, récupère les flux RSS, score les articles
+ * via {@link LLMScorer} et le {@link NewsScorer} configuré (les
+ * articles déjà vus sont servis par le cache des scores) et publie le
+ * résultat dans le {@link ScoredNewsIndex}. Les requêtes HTTP ne font
+ * plus que lire l'index et trier.
+ * </p>
+ * <p>
+ * Les fetchers sont appelés l'un après l'autre : la récupération
+ * parallèle des flux relève de {@link rss.MultiFeedRssFetcher}.
+ * </p>
+ */
+public final class NewsIngestionService {
+
+    /** Logger de la classe. */
+    private static final Logger LOGGER =
+            Logger.getLogger(PreferencesApi.class.getName());
+
+    /** Durée d'une ingestion complète (récupération, scoring). */
+    private static final Timer INGESTION = Metrics.timer("news.ingestion",
+            "Durée d'une ingestion des flux");
+
+    /** Flux RSS à ingérer. */
+    private final List<RssFetcher> fetchers;
+
+    /** Moteur de scoring des articles. */
+    private final NewsScorer scorer;
+
+    /** Index où publier les articles scorés. */
+    private final ScoredNewsIndex index;
+
+    /** Intervalle entre deux ingestions. */
+    private final Duration interval;
+
+    /** Planificateur des ingestions périodiques. */
+    private final ScheduledExecutorService scheduler;
+
+    /** Exécuteur des ingestions (une seule à la fois). */
+    private final ExecutorService runner;
+
+    /** Ingestion en cours, partagée par les demandes concurrentes. */
+    private CompletableFuture<Void> inFlight;
+
+    /**
+     * Crée le service d'ingestion.
+     *
+     * @param rssFetchers flux RSS à ingérer
+     * @param newsScorer  moteur de scoring des articles
+     * @param scoredIndex index où publier les articles scorés
+     * @param period      intervalle entre deux ingestions
+     */
+    public NewsIngestionService(
+            final List<RssFetcher> rssFetchers,
+            final NewsScorer newsScorer,
+            final ScoredNewsIndex scoredIndex,
+            final Duration period
+    ) {
+        this.fetchers = List.copyOf(rssFetchers);
+        this.scorer = newsScorer;
+        this.index = scoredIndex;
+        this.interval = period;
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(
+                daemonThreads("news-ingestion"));
+        this.runner = Executors.newSingleThreadExecutor(
+                daemonThreads("news-ingestion-run"));
+    }
+
+    /**
+     * Démarre les ingestions périodiques (la première immédiatement).
+     */
+    public void start() {
+        restoreSnapshot();
+        scheduler.scheduleWithFixedDelay(
+                () -> refresh().join(),
+                0,
+                interval.toMillis(),
+                TimeUnit.MILLISECONDS
+        );
+        LOGGER.info("Ingestion démarrée (intervalle : "
+                + interval.toSeconds() + " s)");
+    }
+
+    /**
+     * Republie le dernier instantané persisté, pour servir des
+     * classements complets dès le démarrage sans attendre le LLM.
+     */
+    private void restoreSnapshot() {
+        List<News> restored = LLMScorer.restoreSnapshot(Theme.jsonNames());
+        if (!restored.isEmpty() && index.snapshot().isEmpty()) {
+            index.publish(restored);
+            LOGGER.info(String.format(
+                    "Instantané restauré : %d article(s) scorés",
+                    restored.size()));
+        }
+    }
+
+    /** Arrête les ingestions. */
+    public void stop() {
+        scheduler.shutdownNow();
+        runner.shutdownNow();
+    }
+
+    /**
+     * Demande une ingestion immédiate. Si une ingestion est déjà en
+     * cours, retourne celle-ci au lieu d'en lancer une autre.
+     *
+     * @return une vue sur l'ingestion en cours (ne se termine jamais
+     *         en erreur) ; l'annuler n'interrompt pas l'ingestion
+     */
+    public synchronized CompletableFuture<Void> refresh() {
+        if (inFlight == null || inFlight.isDone()) {
+            inFlight = CompletableFuture.runAsync(this::ingestSafely,
+                    runner);
+        }
+        return inFlight.thenApply(done -> null);
+    }
+
+    /**
+     * Exécute une ingestion ; en cas d'échec, l'index conserve
+     * l'instantané précédent.
+     */
+    private void ingestSafely() {
+        try {
+            ingestOnce();
+        } catch (Exception e) {
+            LOGGER.log(Level.WARNING, "Échec de l'ingestion des flux", e);
+            // Clôt un éventuel instantané partiel : les lecteurs en
+            // attente servent ce qui a pu être scoré.
+            ScoredNewsIndex.Snapshot snapshot = index.snapshot();
+            if (!snapshot.isComplete() && !snapshot.isEmpty()) {
+                index.publish(snapshot.getNews(), true);
+            }
+        }
+    }
+
+    /**
+     * Récupère, score et publie les articles de tous les flux.
+     */
+    void ingestOnce() {
+        long start = System.nanoTime();
+
+        List<Map<String, String>> rawNews = new ArrayList<>();
+        for (RssFetcher fetcher : fetchers) {
+            rawNews.addAll(fetcher.fetchRawNews());
+        }
+
+        // Un article figure souvent dans plusieurs flux : on ne le
+        // score qu'une fois.
+        List<Map<String, String>> uniqueNews =
+                ArticleDeduplicator.distinct(rawNews);
+        if (uniqueNews.size() < rawNews.size()) {
+            LOGGER.info(String.format(
+                    "Ingestion : %d doublon(s) écarté(s) sur %d article(s)",
+                    rawNews.size() - uniqueNews.size(), rawNews.size()));
+        }
+
+        NewsCollection collection =
+                NewsCollectionFactory.fromRawNews(uniqueNews);
+        if (collection.size() == 0) {
+            LOGGER.warning("Ingestion : aucun article récupéré");
+            return;
+        }
+
+        // Tant qu'aucun instantané complet n'existe (démarrage), publie
+        // les articles au fil des lots pour les clients en streaming.
+        NewsCollection scored = LLMScorer.categorize(
+                collection, Theme.jsonNames(), scorer, partial -> {
+                    if (!index.snapshot().isComplete()) {
+                        index.publish(partial, false);
+                    }
+                });
+        ScoredNewsIndex.Snapshot snapshot =
+                index.publish(scored.getNewsCollection());
+        LLMScorer.saveSnapshot(snapshot.getNews(), Theme.jsonNames());
+
+        long elapsed = System.nanoTime() - start;
+        INGESTION.record(elapsed, TimeUnit.NANOSECONDS);
+        LOGGER.info(String.format(
+                "Ingestion terminée : %d article(s) publiés (v%d) en %d ms",
+                snapshot.getNews().size(), snapshot.getVersion(),
+                TimeUnit.NANOSECONDS.toMillis(elapsed)));
+    }
+
+    /**
+     * Fabrique de threads démons nommés.
+     *
+     * @param prefix préfixe du nom des threads
+     * @return la fabrique de threads
+     */
+    private static ThreadFactory daemonThreads(final String prefix) {
+        AtomicInteger counter = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable,
+                    prefix + "-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}
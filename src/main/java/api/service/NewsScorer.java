@@ -0,0 +1,90 @@
+package api.service;
+
+import api.util.ApiException;
+import model.News;
+
+import java.util.List;
+
+/**
+ * Moteur de scoring : attribue à chaque article d'un lot un score de
+ * 0 (pas lié) à 4 (très lié) par catégorie.
+ * <p>
+ * {@link LLMScorer} orchestre le scoring (cache et stockage persistant
+ * des scores, appels parallèles, progression) ; le moteur ne fait que
+ * découper les articles en lots et scorer chaque lot.
+ * </p>
+ * <p>
+ * Un moteur qui reçoit sa réponse au fil de l'eau (génération en
+ * streaming) peut signaler chaque article dès qu'il est scoré, via
+ * {@link #score(List, List, ScoreListener)}, sans attendre la fin du
+ * lot.
+ * </p>
+ */
+public interface NewsScorer {
+
+    /**
+     * Retourne la génération du moteur : modèle et version de la
+     * méthode de scoring. Elle préfixe les versions de scoring, de sorte
+     * que les scores d'un autre moteur ne soient jamais réutilisés.
+     *
+     * @return la génération (ex. {@code qwen2.5:7b|p2|})
+     */
+    String generation();
+
+    /**
+     * Découpe les articles à scorer en lots.
+     *
+     * @param news       les articles à scorer
+     * @param categories nombre de catégories à scorer
+     * @return les lots, dans l'ordre des articles
+     */
+    List<List<News>> plan(List<News> news, int categories);
+
+    /**
+     * Score un lot d'articles.
+     *
+     * @param batch             le lot
+     * @param orderedCategories les catégories, dans l'ordre des scores
+     * @return les scores de chaque article, dans l'ordre du lot
+     * ({@code null} pour un article que le moteur n'a pas scoré)
+     * @throws ApiException si le scoring du lot échoue
+     */
+    List<List<Integer>> score(List<News> batch,
+                              List<String> orderedCategories)
+            throws ApiException;
+
+    /**
+     * Score un lot d'articles en signalant chaque article dès qu'il est
+     * scoré. Par défaut, rien n'est signalé avant la fin du lot.
+     *
+     * @param batch             le lot
+     * @param orderedCategories les catégories, dans l'ordre des scores
+     * @param listener          appelé pour chaque article scoré avant la
+     *                          fin du lot (éventuellement depuis un autre
+     *                          thread)
+     * @return les scores de chaque article, dans l'ordre du lot
+     * ({@code null} pour un article que le moteur n'a pas scoré)
+     * @throws ApiException si le scoring du lot échoue
+     */
+    default List<List<Integer>> score(List<News> batch,
+                                      List<String> orderedCategories,
+                                      ScoreListener listener)
+            throws ApiException {
+        return score(batch, orderedCategories);
+    }
+
+    /**
+     * Reçoit les articles d'un lot au fur et à mesure de leur scoring.
+     */
+    @FunctionalInterface
+    interface ScoreListener {
+
+        /**
+         * Signale un article scoré.
+         *
+         * @param index  position de l'article dans le lot
+         * @param scores ses scores, dans l'ordre des catégories
+         */
+        void onScored(int index, List<Integer> scores);
+    }
+}
@@ -1,67 +1,550 @@
 package api.service;
 
+import api.PreferencesApi;
+import api.dto.NewsPage;
 import api.dto.PreferencesRequest;
 import api.util.ApiException;
+import api.util.EnvConfig;
+import api.util.Metrics;
 import api.util.PreferencesUtils;
-import dev.langchain4j.model.chat.ChatLanguageModel;
+import api.util.SingleFlight;
+import io.micrometer.core.instrument.Timer;
 import model.News;
-import model.NewsCollection;
-import rss.RssFetcher;
+import rss.FeedRegistry;
 
-import java.util.ArrayList;
+import java.io.IOException;
+import java.time.Duration;
+import java.time.Instant;
 import java.util.List;
-import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Logger;
 
 /**
- * Service chargé de récupérer et classer des articles d'actualité
- * selon les préférences utilisateur à l'aide d'un modèle de langage (LLM).
+ * Service chargé de classer des articles d'actualité selon les
+ * préférences utilisateur.
+ * <p>
+ * Les articles sont récupérés et scorés en arrière-plan par
+ * {@link NewsIngestionService} ; ce service ne fait que lire le
+ * {@link ScoredNewsIndex} et trier, sans jamais attendre le LLM.
+ * </p>
  */
 public final class NewsService {
 
-    /** Service de récupération des flux RSS. */
-    private final RssFetcher rssFetcher;
+    /** Logger de la classe. */
+    private static final Logger LOGGER =
+            Logger.getLogger(PreferencesApi.class.getName());
 
-    /** Modèle de langage utilisé pour la catégorisation. */
-    private final ChatLanguageModel llm;
+    /** Statut HTTP "Service Unavailable". */
+    private static final int HTTP_SERVICE_UNAVAILABLE = 503;
+
+    /** Statut HTTP "Bad Request". */
+    private static final int HTTP_BAD_REQUEST = 400;
+
+    /** Statut HTTP "Gone". */
+    private static final int HTTP_GONE = 410;
+
+    /** Taille de page utilisée si un curseur est fourni sans limite. */
+    private static final int DEFAULT_PAGE_SIZE = 20;
+
+    /** Taille de page maximale par défaut. */
+    private static final int DEFAULT_MAX_PAGE_SIZE = 200;
+
+    /** Taille de page maximale acceptée. */
+    private static final int MAX_PAGE_SIZE =
+            EnvConfig.getInt("PAGE_MAX_LIMIT", DEFAULT_MAX_PAGE_SIZE);
+
+    /** Nombre maximal par défaut de classements en cache. */
+    private static final int DEFAULT_RANKING_CACHE_ENTRIES = 1024;
+
+    /**
+     * Intervalle minimal par défaut entre deux rafraîchissements
+     * déclenchés par l'ajout d'un flux, en secondes.
+     */
+    private static final int DEFAULT_FEED_REFRESH_INTERVAL_SECONDS = 60;
+
+    /**
+     * Intervalle minimal entre deux rafraîchissements déclenchés par
+     * l'ajout d'un flux, en nanosecondes.
+     */
+    private static final long FEED_REFRESH_INTERVAL_NANOS =
+            Duration.ofSeconds(EnvConfig.getLong(
+                    "FEED_REFRESH_INTERVAL_SECONDS",
+                    DEFAULT_FEED_REFRESH_INTERVAL_SECONDS)).toNanos();
+
+    /** Durée de classement d'un instantané (tri d'une page). */
+    private static final Timer SORT = Metrics.timer("ranking.sort",
+            "Durée de classement d'une page d'articles");
+
+    /** Index des articles déjà scorés. */
+    private final ScoredNewsIndex index;
+
+    /** Service d'ingestion, sollicité si l'index est vide ou périmé. */
+    private final NewsIngestionService ingestion;
+
+    /** Âge maximal de l'index avant de demander un rafraîchissement. */
+    private final Duration maxStaleness;
+
+    /** Registre des flux récupérés par l'ingestion. */
+    private final FeedRegistry feedRegistry;
+
+    /**
+     * Date (en nanosecondes) du dernier rafraîchissement déclenché par
+     * l'ajout d'un flux.
+     */
+    private final AtomicLong lastFeedRefresh = new AtomicLong(
+            System.nanoTime() - FEED_REFRESH_INTERVAL_NANOS);
+
+    /**
+     * Classements en cours : les requêtes concurrentes identiques
+     * (même instantané, mêmes préférences, même page) partagent un
+     * seul calcul.
+     */
+    private final SingleFlight<RankingCache.Key, RankingCache.Entry>
+            rankings = new SingleFlight<>();
+
+    /** Classements déjà calculés pour l'instantané courant. */
+    private final RankingCache rankingCache = new RankingCache(
+            EnvConfig.getInt("RANKING_CACHE_MAX_ENTRIES",
+                    DEFAULT_RANKING_CACHE_ENTRIES));
 
     /**
      * Crée une instance de {@code NewsService}.
      *
-     * @param inputRssFetcher instance du fetcher RSS à utiliser
-     * @param inputLlm modèle de langage chargé de la catégorisation
+     * @param scoredIndex      index des articles scorés
+     * @param ingestionService service d'ingestion en arrière-plan
+     * @param staleness        âge maximal toléré de l'index
+     * @param feeds            registre des flux, enrichi des flux
+     *                         demandés par les utilisateurs
      */
     public NewsService(
-            final RssFetcher inputRssFetcher,
-            final ChatLanguageModel inputLlm
+            final ScoredNewsIndex scoredIndex,
+            final NewsIngestionService ingestionService,
+            final Duration staleness,
+            final FeedRegistry feeds
     ) {
-        this.rssFetcher = inputRssFetcher;
-        this.llm = inputLlm;
+        this.index = scoredIndex;
+        this.ingestion = ingestionService;
+        this.maxStaleness = staleness;
+        this.feedRegistry = feeds;
+    }
+
+    /**
+     * Trie les actualités de l'index selon les préférences utilisateur
+     * et retourne la page demandée.
+     * <p>
+     * Sans {@code limit} ni {@code cursor}, tous les articles classés
+     * sont retournés. Sinon, seule la page demandée est sélectionnée
+     * (tri partiel) ; son curseur désigne la page suivante du même
+     * instantané, tant que celui-ci est conservé par l'index.
+     * </p>
+     *
+     * @param request la requête contenant les thèmes de préférences
+     * @return la page d'articles classés selon les préférences
+     * @throws ApiException si l'index n'est pas encore prêt, si aucun
+     * article ne correspond, ou si la limite ou le curseur sont invalides
+     */
+    public NewsPage getNewsForPreferences(final PreferencesRequest request)
+            throws ApiException {
+        return rankedPage(request).page();
+    }
+
+    /**
+     * Comme {@link #getNewsForPreferences(PreferencesRequest)}, mais
+     * retourne directement la page sérialisée en JSON. Un classement
+     * déjà servi pour le même instantané n'est sérialisé qu'une fois.
+     *
+     * @param request    la requête contenant les thèmes de préférences
+     * @param serializer sérialiseur JSON de la page
+     * @return le JSON de la page, à ne pas modifier
+     * @throws ApiException si l'index n'est pas encore prêt, si aucun
+     * article ne correspond, ou si la limite ou le curseur sont invalides
+     * @throws IOException  si la sérialisation échoue
+     */
+    public byte[] getNewsJsonForPreferences(
+            final PreferencesRequest request,
+            final PageSerializer serializer
+    ) throws ApiException, IOException {
+        return rankedPage(request).json(serializer);
     }
 
     /**
-     * Récupère les actualités et les trie selon les préférences utilisateur.
+     * Résout l'instantané et la page demandés, puis retourne le
+     * classement correspondant.
      *
      * @param request la requête contenant les thèmes de préférences
-     * @return une liste d'articles classés selon les préférences
-     * @throws Exception si une erreur survient lors de la
-     * récupération ou du traitement
+     * @return le classement de la page demandée
+     * @throws ApiException si l'index n'est pas encore prêt, si aucun
+     * article ne correspond, ou si la limite ou le curseur sont invalides
+     */
+    private RankingCache.Entry rankedPage(final PreferencesRequest request)
+            throws ApiException {
+
+        int pageSize = pageSize(request);
+        registerRequestedFeeds(request);
+
+        ScoredNewsIndex.Snapshot snapshot;
+        int offset = 0;
+        if (request.getCursor() != null) {
+            PageCursor cursor = PageCursor.decode(request.getCursor());
+            snapshot = index.snapshot(cursor.version());
+            if (snapshot == null) {
+                throw new ApiException("cursor_expired",
+                        "Le classement a été mis à jour, "
+                                + "veuillez recharger la première page",
+                        HTTP_GONE);
+            }
+            offset = cursor.offset();
+        } else {
+            snapshot = currentSnapshot();
+        }
+
+        long preferences =
+                PreferencesUtils.preferenceVector(request.getThemes());
+        return cachedPage(snapshot, preferences, offset, pageSize);
+    }
+
+    /**
+     * Retourne une page du classement d'un instantané : depuis le
+     * cache des classements si ce profil de préférences a déjà été
+     * classé pour cet instantané, sinon en la calculant (une seule
+     * fois pour les requêtes concurrentes identiques).
+     *
+     * @param snapshot        l'instantané à trier
+     * @param preferences     vecteur de préférences de l'utilisateur
+     * @param offset          rang du premier article de la page
+     * @param pageSize        taille de la page
+     * @return le classement de la page
+     * @throws ApiException si aucun article ne correspond
+     */
+    private RankingCache.Entry cachedPage(
+            final ScoredNewsIndex.Snapshot snapshot,
+            final long preferences,
+            final int offset,
+            final int pageSize
+    ) throws ApiException {
+        RankingCache.Key key = new RankingCache.Key(snapshot.getVersion(),
+                preferences, offset, pageSize);
+        RankingCache.Entry cached = rankingCache.get(key);
+        if (cached != null) {
+            return cached;
+        }
+        return rankings.execute(key, () -> rankingCache.put(key,
+                page(snapshot, preferences, offset, pageSize)));
+    }
+
+    /**
+     * Diffuse le classement des actualités au fil de l'ingestion.
+     * <p>
+     * Un classement est émis dès qu'un instantané non vide est
+     * disponible, puis à chaque nouvel instantané publié tant que le
+     * scoring est en cours. Le dernier classement est marqué complet.
+     * Entre deux publications, {@link RankingListener#onWaiting()} est
+     * appelé périodiquement (maintien de la connexion).
+     * </p>
+     *
+     * @param request     la requête contenant les thèmes de préférences
+     * @param maxDuration durée maximale de la diffusion
+     * @param heartbeat   intervalle maximal sans message
+     * @param listener    destinataire des classements
+     * @throws ApiException si aucun article n'est disponible avant la
+     * fin du délai
+     * @throws IOException  si l'écriture vers le client échoue
+     */
+    public void streamNewsForPreferences(
+            final PreferencesRequest request,
+            final Duration maxDuration,
+            final Duration heartbeat,
+            final RankingListener listener
+    ) throws ApiException, IOException {
+
+        int pageSize = pageSize(request);
+        long preferences =
+                PreferencesUtils.preferenceVector(request.getThemes());
+        long deadline = System.nanoTime() + maxDuration.toNanos();
+
+        registerRequestedFeeds(request);
+        ScoredNewsIndex.Snapshot snapshot = index.snapshot();
+        requestRefreshIfNeeded(snapshot);
+        NewsPage lastRanking = null;
+        long emittedVersion = -1;
+
+        while (true) {
+            if (!snapshot.isEmpty()
+                    && snapshot.getVersion() != emittedVersion) {
+                emittedVersion = snapshot.getVersion();
+                lastRanking = rankOrEmpty(snapshot, preferences,
+                        pageSize);
+                listener.onRanking(lastRanking, snapshot.isComplete());
+                if (snapshot.isComplete()) {
+                    return;
+                }
+            }
+
+            long remaining = deadline - System.nanoTime();
+            if (remaining <= 0) {
+                break;
+            }
+            long known = snapshot.getVersion();
+            snapshot = awaitNewerThan(known,
+                    Duration.ofNanos(Math.min(remaining, heartbeat.toNanos())));
+            if (snapshot.getVersion() == known) {
+                listener.onWaiting();
+            }
+        }
+
+        if (lastRanking == null) {
+            throw notReady();
+        }
+        listener.onRanking(lastRanking, true);
+    }
+
+    /**
+     * Ajoute les flux RSS demandés au registre ; demande un
+     * rafraîchissement (sans l'attendre) si un nouveau flux est ajouté,
+     * au plus une fois par intervalle. Sinon, le flux sera récupéré à
+     * la prochaine ingestion.
+     *
+     * @param request la requête du client
+     */
+    private void registerRequestedFeeds(final PreferencesRequest request) {
+        if (!feedRegistry.registerFeeds(
+                PreferencesUtils.collectFeeds(request.getThemes()))) {
+            return;
+        }
+        long now = System.nanoTime();
+        long last = lastFeedRefresh.get();
+        if (now - last >= FEED_REFRESH_INTERVAL_NANOS
+                && lastFeedRefresh.compareAndSet(last, now)) {
+            LOGGER.info("Nouveau flux demandé, rafraîchissement demandé");
+            ingestion.refresh();
+        }
+    }
+
+    /**
+     * Retourne l'instantané courant de l'index. Demande un
+     * rafraîchissement (sans l'attendre) s'il est vide ou périmé.
+     *
+     * @return l'instantané courant, non vide
+     * @throws ApiException si aucun article n'a encore été ingéré
+     */
+    private ScoredNewsIndex.Snapshot currentSnapshot() throws ApiException {
+        ScoredNewsIndex.Snapshot snapshot = index.snapshot();
+        requestRefreshIfNeeded(snapshot);
+        if (snapshot.isEmpty()) {
+            throw notReady();
+        }
+        return snapshot;
+    }
+
+    /**
+     * Demande un rafraîchissement (sans l'attendre) si l'instantané
+     * est vide ou périmé.
+     *
+     * @param snapshot l'instantané courant
+     */
+    private void requestRefreshIfNeeded(
+            final ScoredNewsIndex.Snapshot snapshot) {
+        if (snapshot.isEmpty()) {
+            ingestion.refresh();
+            return;
+        }
+        Duration age = snapshot.age(Instant.now());
+        if (age != null && age.compareTo(maxStaleness) > 0) {
+            LOGGER.warning("Index périmé (" + age.toSeconds()
+                    + " s), rafraîchissement demandé");
+            ingestion.refresh();
+        }
+    }
+
+    /**
+     * Attend un instantané plus récent que la version donnée.
+     *
+     * @param version dernière version connue
+     * @param timeout durée d'attente maximale
+     * @return l'instantané courant
+     * @throws ApiException si l'attente est interrompue
+     */
+    private ScoredNewsIndex.Snapshot awaitNewerThan(final long version,
+                                                    final Duration timeout)
+            throws ApiException {
+        try {
+            return index.awaitNewerThan(version, timeout);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ApiException("stream_interrupted",
+                    "La diffusion des articles a été interrompue");
+        }
+    }
+
+    /**
+     * Classe un instantané et retourne une page ; retourne une page
+     * vide si aucun article ne correspond (encore) aux préférences.
+     *
+     * @param snapshot        l'instantané à trier
+     * @param preferences     vecteur de préférences de l'utilisateur
+     * @param pageSize        taille de la page
+     * @return la première page du classement
+     * @throws ApiException si le tri échoue
+     */
+    private NewsPage rankOrEmpty(
+            final ScoredNewsIndex.Snapshot snapshot,
+            final long preferences,
+            final int pageSize
+    ) throws ApiException {
+        try {
+            return cachedPage(snapshot, preferences, 0, pageSize)
+                    .page();
+        } catch (ApiException e) {
+            if ("no_matching_news".equals(e.getCode())) {
+                return new NewsPage(List.of(), null);
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Classe un instantané et extrait une page. Seuls les
+     * {@code offset + pageSize + 1} meilleurs articles sont triés
+     * (le dernier indique s'il existe une page suivante).
+     *
+     * @param snapshot        l'instantané à trier
+     * @param preferences     vecteur de préférences de l'utilisateur
+     * @param offset          rang du premier article de la page
+     * @param pageSize        taille de la page
+     * @return la page et le curseur de la page suivante
+     * @throws ApiException si aucun article ne correspond
+     */
+    private static NewsPage page(
+            final ScoredNewsIndex.Snapshot snapshot,
+            final long preferences,
+            final int offset,
+            final int pageSize
+    ) throws ApiException {
+        long end = (long) offset + pageSize;
+        Timer.Sample sample = Timer.start();
+        List<News> ranked;
+        try {
+            ranked = NewsSorter.sortByPreferences(
+                    snapshot.getNews(), preferences,
+                    (int) Math.min(Integer.MAX_VALUE, end + 1));
+        } finally {
+            sample.stop(SORT);
+        }
+
+        int from = Math.min(offset, ranked.size());
+        int to = (int) Math.min(end, ranked.size());
+        String nextCursor = ranked.size() > end
+                ? new PageCursor(snapshot.getVersion(), to).encode()
+                : null;
+        return new NewsPage(ranked.subList(from, to), nextCursor);
+    }
+
+    /**
+     * Détermine la taille de page demandée.
+     *
+     * @param request la requête du client
+     * @return la taille de page ({@link Integer#MAX_VALUE} si ni limite
+     * ni curseur ne sont fournis)
+     * @throws ApiException (400 {@code invalid_limit}) si la limite est
+     * hors bornes
      */
-    public List<News> getNewsForPreferences(final PreferencesRequest request)
+    private static int pageSize(final PreferencesRequest request)
             throws ApiException {
+        Integer limit = request.getLimit();
+        if (limit == null) {
+            return request.getCursor() == null
+                    ? Integer.MAX_VALUE
+                    : DEFAULT_PAGE_SIZE;
+        }
+        if (limit < 1 || limit > MAX_PAGE_SIZE) {
+            throw new ApiException("invalid_limit",
+                    "La limite doit être comprise entre 1 et "
+                            + MAX_PAGE_SIZE,
+                    HTTP_BAD_REQUEST);
+        }
+        return limit;
+    }
 
-        List<Map<String, String>> rawNews = rssFetcher.fetchRawNews();
-        NewsCollection newsCollection =
-                NewsCollectionFactory.fromRawNews(rawNews);
+    /**
+     * Construit l'erreur renvoyée tant qu'aucun article n'est ingéré.
+     *
+     * @return l'exception 503 {@code news_not_ready}
+     */
+    private static ApiException notReady() {
+        return new ApiException(
+                "news_not_ready",
+                "Les articles sont en cours d'analyse, "
+                        + "veuillez réessayer dans quelques instants",
+                HTTP_SERVICE_UNAVAILABLE
+        );
+    }
 
-        Map<String, Integer> userPreferences =
-                PreferencesUtils.flattenPreferences(request.getThemes());
+    /**
+     * Retourne le nombre de requêtes ayant partagé un classement déjà
+     * en cours de calcul.
+     *
+     * @return le nombre de classements évités
+     */
+    public long getCoalescedRankings() {
+        return rankings.getCoalesced();
+    }
 
-        List<String> orderedCategories =
-                new ArrayList<>(userPreferences.keySet());
+    /**
+     * Retourne le nombre de requêtes servies par le cache des
+     * classements.
+     *
+     * @return le nombre de classements servis sans tri
+     */
+    public long getCachedRankings() {
+        return rankingCache.getHits();
+    }
+
+    /**
+     * Retourne le nombre de requêtes absentes du cache des classements.
+     *
+     * @return le nombre de classements calculés ou partagés
+     */
+    public long getUncachedRankings() {
+        return rankingCache.getMisses();
+    }
+
+    /** Sérialiseur JSON d'une page de classement. */
+    @FunctionalInterface
+    public interface PageSerializer {
+
+        /**
+         * Sérialise une page.
+         *
+         * @param page la page à sérialiser
+         * @return le JSON de la page
+         * @throws IOException si la sérialisation échoue
+         */
+        byte[] serialize(NewsPage page) throws IOException;
+    }
+
+    /**
+     * Destinataire des classements diffusés par
+     * {@link #streamNewsForPreferences}.
+     */
+    public interface RankingListener {
 
-        NewsCollection categorized =
-                LLMScorer.categorize(newsCollection, orderedCategories, llm);
+        /**
+         * Reçoit un classement (première page si une limite est
+         * demandée).
+         *
+         * @param ranked   les articles classés
+         * @param complete {@code true} pour le classement final
+         * @throws IOException si l'écriture vers le client échoue
+         */
+        void onRanking(NewsPage ranked, boolean complete)
+                throws IOException;
 
-        return NewsSorter.sortByPreferences(categorized, userPreferences);
+        /**
+         * Appelé quand aucun nouvel instantané n'a été publié pendant
+         * l'intervalle de maintien de connexion.
+         *
+         * @throws IOException si l'écriture vers le client échoue
+         */
+        void onWaiting() throws IOException;
     }
 }
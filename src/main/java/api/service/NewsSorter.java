@@ -3,12 +3,16 @@ package api.service;
 import api.PreferencesApi;
 import api.util.ApiException;
 import model.News;
-import model.NewsCategoryScore;
 import model.NewsCollection;
+import model.PreferenceVector;
+import model.ScoreVector;
+import model.Theme;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
+import java.util.logging.Level;
 import java.util.logging.Logger;
 
 final class NewsSorter {
@@ -27,6 +31,8 @@ final class NewsSorter {
     /** Score appliqué si la news n'a pas matché l'une des prefs. */
     private static final int NO_MATCH_SCORE = -500;
 
+    /** Poids d'un thème sans préférence utilisateur. */
+    private static final int NO_PREFERENCE = Integer.MIN_VALUE;
 
     /** Poids par niveau de préférence utilisateur. */
     private static final Map<Integer, Integer> PREFERENCE_WEIGHTS = Map.of(
@@ -37,17 +43,14 @@ final class NewsSorter {
             5, 10
     );
 
+    /**
+     * Poids par niveau du {@link PreferenceVector} : {@link #NO_PREFERENCE}
+     * pour un thème non renseigné, 0 pour un niveau hors échelle.
+     */
+    private static final int[] WEIGHTS_BY_LEVEL = weightsByLevel();
 
     /**
      * Trie une collection de news en fonction des préférences utilisateur.
-     * <p>
-     * Chaque article reçoit un score calculé via
-     * {@link #calculateMatchScore(News, Map)},
-     * et la liste est triée par ordre décroissant de score. Les articles
-     * dont le score
-     * est inférieur à 0 sont filtrés. Les logs détaillent le score final
-     * de chaque article.
-     * </p>
      *
      * @param newsCollection   la collection de news à trier ; ne peut pas
      *                         être {@code null}
@@ -57,103 +60,276 @@ final class NewsSorter {
      * @return une liste de {@link News} triée par score de correspondance
      * avec les préférences utilisateur
      * @throws ApiException si la collection de news ou les préférences
-     * sont nulles, si la collection est vide,
-     *                      si le tri échoue, ou si aucun article ne
-     *                      correspond aux préférences
+     * sont nulles, si la collection est vide, ou si aucun article ne
+     * correspond aux préférences
+     * @see #sortByPreferences(List, Map, int)
      */
     public static List<News> sortByPreferences(
             final NewsCollection newsCollection,
             final Map<String, Integer> userPreferences
     ) throws ApiException {
 
-        if (newsCollection == null || userPreferences == null) {
-            throw new ApiException(
-                    "invalid_sort_input",
-                    "La collection de news ou les préférences"
-                            + " utilisateur sont nulles"
-            );
+        if (newsCollection == null) {
+            throw invalidInput();
         }
+        return sortByPreferences(newsCollection.getNewsCollection(),
+                userPreferences, Integer.MAX_VALUE);
+    }
 
-        List<News> allNews = newsCollection.getNewsCollection();
-        if (allNews.isEmpty()) {
+    /**
+     * Classe des news en fonction des préférences utilisateur et ne
+     * retourne que les {@code limit} premières.
+     *
+     * @param news             les news à classer ; ne peut pas être
+     *                         {@code null}
+     * @param userPreferences  map des préférences utilisateur
+     *                         (nom de catégorie -> niveau) ;
+     *                         ne peut pas être {@code null}
+     * @param limit            nombre maximal d'articles retournés
+     * @return les meilleures news, triées par score de correspondance
+     * @throws ApiException si les news ou les préférences sont nulles,
+     * si la liste est vide, ou si aucun article ne correspond aux
+     * préférences
+     * @see #sortByPreferences(List, long, int)
+     */
+    public static List<News> sortByPreferences(
+            final List<News> news,
+            final Map<String, Integer> userPreferences,
+            final int limit
+    ) throws ApiException {
+
+        if (userPreferences == null) {
+            throw invalidInput();
+        }
+        return sortByPreferences(news,
+                PreferenceVector.fromLevels(userPreferences), limit);
+    }
+
+    /**
+     * Classe des news en fonction d'un vecteur de préférences et ne
+     * retourne que les {@code limit} premières.
+     * <p>
+     * Chaque article est scoré une seule fois via
+     * {@link #calculateMatchScore(News, int[])} ; les articles dont le
+     * score est inférieur à 0 sont écartés. Les autres sont triés par
+     * score décroissant, à score égal dans leur ordre d'origine (tri
+     * stable). Si {@code limit} est inférieur au nombre d'articles
+     * retenus, seuls les meilleurs sont sélectionnés (tas borné) avant
+     * d'être triés.
+     * </p>
+     *
+     * @param news        les news à classer ; ne peut pas être
+     *                    {@code null}
+     * @param preferences vecteur de préférences ({@link PreferenceVector})
+     * @param limit       nombre maximal d'articles retournés
+     * @return les meilleures news, triées par score de correspondance
+     * @throws ApiException si les news sont nulles, si la liste est
+     * vide, ou si aucun article ne correspond aux préférences
+     */
+    public static List<News> sortByPreferences(
+            final List<News> news,
+            final long preferences,
+            final int limit
+    ) throws ApiException {
+
+        if (news == null) {
+            throw invalidInput();
+        }
+        if (news.isEmpty()) {
             throw new ApiException(
                     "empty_news_collection",
                     "La collection de news est vide, impossible de trier"
             );
         }
-        try {
-            allNews.sort((news1, news2) -> {
-                int score1 = calculateMatchScore(news1, userPreferences);
-                int score2 = calculateMatchScore(news2, userPreferences);
-                return Integer.compare(score2, score1);
-            });
-        } catch (Exception ex) {
+
+        // Clé de tri : score opposé sur les 32 bits de poids fort, rang
+        // d'origine sur les 32 bits de poids faible (ordre stable).
+        int[] weights = preferenceWeights(preferences);
+        long[] keys = new long[news.size()];
+        int matching = 0;
+        for (int i = 0; i < news.size(); i++) {
+            int score = calculateMatchScore(news.get(i), weights);
+            if (score >= 0) {
+                keys[matching++] = ((long) -score << Integer.SIZE) | i;
+            }
+        }
+
+        if (matching == 0) {
             throw new ApiException(
-                    "sorting_failed",
-                    "Échec du tri des articles : " + ex.getMessage()
+                "no_matching_news",
+                "Aucun article ne correspond aux préférences utilisateur"
             );
         }
 
-        LOGGER.info("--- Tri final des articles par score ---");
-        StringBuilder sortedLog = new StringBuilder();
-        for (News news : allNews) {
-            int score = calculateMatchScore(news, userPreferences);
+        int count = selectSmallest(keys, matching, Math.max(0, limit));
+        Arrays.sort(keys, 0, count);
+
+        List<News> ranked = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            ranked.add(news.get((int) keys[i]));
+        }
+        logRanking(ranked, keys, count);
+        return ranked;
+    }
+
+    /**
+     * Place les {@code k} plus petites clés parmi les {@code size}
+     * premières en tête du tableau (dans un ordre quelconque), au moyen
+     * d'un tas max borné à {@code k} éléments.
+     *
+     * @param keys les clés
+     * @param size nombre de clés valides
+     * @param k    nombre de clés à conserver
+     * @return le nombre de clés conservées ({@code min(k, size)})
+     */
+    static int selectSmallest(final long[] keys, final int size,
+                              final int k) {
+        if (k >= size) {
+            return size;
+        }
+        if (k == 0) {
+            return 0;
+        }
+        for (int i = k / 2 - 1; i >= 0; i--) {
+            siftDown(keys, i, k);
+        }
+        for (int i = k; i < size; i++) {
+            if (keys[i] < keys[0]) {
+                keys[0] = keys[i];
+                siftDown(keys, 0, k);
+            }
+        }
+        return k;
+    }
+
+    /**
+     * Rétablit la propriété de tas max à partir d'un nœud.
+     *
+     * @param heap le tas
+     * @param node indice du nœud
+     * @param size taille du tas
+     */
+    private static void siftDown(final long[] heap, final int node,
+                                 final int size) {
+        int parent = node;
+        long value = heap[parent];
+        while (true) {
+            int child = 2 * parent + 1;
+            if (child >= size) {
+                break;
+            }
+            if (child + 1 < size && heap[child + 1] > heap[child]) {
+                child++;
+            }
+            if (heap[child] <= value) {
+                break;
+            }
+            heap[parent] = heap[child];
+            parent = child;
+        }
+        heap[parent] = value;
+    }
+
+    /**
+     * Journalise le classement (niveau FINE uniquement, pour ne pas
+     * formater chaque article à chaque requête).
+     *
+     * @param ranked les news classées
+     * @param keys   les clés de tri correspondantes
+     * @param count  nombre de news classées
+     */
+    private static void logRanking(final List<News> ranked,
+                                   final long[] keys, final int count) {
+        if (!LOGGER.isLoggable(Level.FINE)) {
+            return;
+        }
+        StringBuilder sortedLog = new StringBuilder(
+                "--- Tri final des articles par score ---\n");
+        for (int i = 0; i < count; i++) {
             sortedLog.append(String.format(
                     "  Score: %-5d | Titre: %s%n",
-                    score,
-                    news.getTitle()
+                    -(keys[i] >> Integer.SIZE),
+                    ranked.get(i).getTitle()
             ));
         }
-        LOGGER.info(sortedLog.toString());
+        LOGGER.fine(sortedLog.toString());
+    }
 
-        // ne garde que les news ou le score est supérieur a 0
-        List<News> filteredNews = new ArrayList<>();
-        for (News news : allNews) {
-            if (calculateMatchScore(news, userPreferences) >= 0) {
-                filteredNews.add(news);
-            }
-        }
+    /**
+     * Construit l'erreur renvoyée pour des entrées de tri nulles.
+     *
+     * @return l'exception {@code invalid_sort_input}
+     */
+    private static ApiException invalidInput() {
+        return new ApiException(
+                "invalid_sort_input",
+                "La collection de news ou les préférences"
+                        + " utilisateur sont nulles"
+        );
+    }
 
-        if (filteredNews.isEmpty()) {
-            throw new ApiException(
-                "no_matching_news",
-                "Aucun article ne correspond aux préférences utilisateur"
-            );
+    /**
+     * Projette le vecteur de préférences sur les thèmes : poids de
+     * chaque thème indexé par son ordinal, ou {@link #NO_PREFERENCE}
+     * si l'utilisateur ne l'a pas renseigné.
+     *
+     * @param preferences le vecteur de préférences
+     * @return les poids par ordinal de thème
+     */
+    private static int[] preferenceWeights(final long preferences) {
+        int[] weights = new int[Theme.values().length];
+        for (int ordinal = 0; ordinal < weights.length; ordinal++) {
+            weights[ordinal] = WEIGHTS_BY_LEVEL[
+                    PreferenceVector.get(preferences, ordinal)];
         }
+        return weights;
+    }
 
-        return filteredNews;
+    /**
+     * Construit la table des poids par niveau du vecteur de
+     * préférences, à partir de {@link #PREFERENCE_WEIGHTS}.
+     *
+     * @return les poids, indexés par niveau
+     */
+    private static int[] weightsByLevel() {
+        int[] weights = new int[PreferenceVector.OUT_OF_RANGE + 1];
+        weights[PreferenceVector.NONE] = NO_PREFERENCE;
+        for (int level = 1; level <= PreferenceVector.MAX_LEVEL; level++) {
+            weights[level] = PREFERENCE_WEIGHTS.getOrDefault(level, 0);
+        }
+        weights[PreferenceVector.OUT_OF_RANGE] = 0;
+        return weights;
     }
 
     /**
      * Calcule le score pour une news en fonction des préférences
      * utilisateurs.
+     * <p>
+     * Les scores de la news couvrent tous les thèmes canoniques ;
+     * seuls ceux pour lesquels l'utilisateur a exprimé une préférence
+     * sont pris en compte (projection des préférences sur les scores).
+     * </p>
      *
-     * @param news la news pour laquelle on calcule le score
-     * @param userPreferences les préférences de l'utilisateur
+     * @param news    la news pour laquelle on calcule le score
+     * @param weights poids des préférences par ordinal de thème
      * @return le score de "match" pour cette news
      */
     private static int calculateMatchScore(
             final News news,
-            final Map<String, Integer> userPreferences) {
+            final int[] weights) {
 
-        if (news.getCategoryScores() == null
-                || news.getCategoryScores().isEmpty()) {
+        long vector = news.getScoreVector();
+        if (ScoreVector.isEmpty(vector)) {
             return NO_CATEGORY_SCORE;
         }
         int totalScore = 0;
         boolean matched = false;
 
-        for (NewsCategoryScore entry : news.getCategoryScores()) {
-            String category = entry.getCategory();
-            int relevance = entry.getScore();
-            if (userPreferences.containsKey(category)) {
+        for (int ordinal = 0; ordinal < weights.length; ordinal++) {
+            int relevance = ScoreVector.get(vector, ordinal);
+            if (relevance > 0 && weights[ordinal] != NO_PREFERENCE) {
                 matched = true;
-                int prefLevel = userPreferences.get(category);
-                int prefWeight =
-                        PREFERENCE_WEIGHTS.getOrDefault(prefLevel,
-                                0);
-
-                totalScore += prefWeight * relevance;
+                totalScore += weights[ordinal] * relevance;
             }
         }
         if (!matched) {
@@ -0,0 +1,671 @@
+package api.service;
+
+import api.util.Metrics;
+import dev.langchain4j.data.message.AiMessage;
+import dev.langchain4j.data.message.ChatMessage;
+import dev.langchain4j.model.StreamingResponseHandler;
+import dev.langchain4j.model.chat.ChatLanguageModel;
+import dev.langchain4j.model.chat.StreamingChatLanguageModel;
+import dev.langchain4j.model.output.Response;
+import io.micrometer.core.instrument.Counter;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.logging.Logger;
+
+/**
+ * Modèle de chat réparti sur plusieurs serveurs Ollama, utilisable en
+ * réponse complète comme en streaming.
+ * <p>
+ * Chaque appel part vers le nœud disponible qui a le moins de requêtes
+ * en cours. Un disjoncteur écarte un nœud après
+ * {@code breakerFailures} échecs consécutifs (un appel plus long que
+ * {@code slowCall} compte comme un échec) pendant {@code breakerOpen} ;
+ * ensuite, un seul appel d'essai décide de sa réintégration. Si tous
+ * les nœuds sont écartés, l'appel part vers celui qui sera réintégré le
+ * plus tôt plutôt que d'échouer.
+ * </p>
+ * <p>
+ * Avec {@code hedgePercentile} (par exemple {@code 0.95}), un appel qui
+ * dépasse ce centile des latences récentes est doublé vers un second
+ * nœud, et la première réponse l'emporte. En streaming, la latence
+ * considérée est celle du premier token. L'appel perdant n'est pas
+ * interrompu : il continue d'occuper son nœud jusqu'à sa fin.
+ * </p>
+ */
+public final class OllamaPool
+        implements ChatLanguageModel, StreamingChatLanguageModel {
+
+    /** Logger de la classe. */
+    private static final Logger LOGGER =
+            Logger.getLogger(OllamaPool.class.getName());
+
+    /** Nombre de latences conservées pour le calcul du centile. */
+    private static final int LATENCY_WINDOW = 256;
+
+    /** Nombre minimal de latences mesurées avant de doubler un appel. */
+    private static final int MIN_HEDGE_SAMPLES = 20;
+
+    /** Appels doublés vers un second nœud. */
+    private static final Counter HEDGES = Metrics.counter("ollama.hedges",
+            "Appels doublés vers un second nœud Ollama");
+
+    /** Nœuds écartés par le disjoncteur. */
+    private static final Counter EJECTIONS = Metrics.counter(
+            "ollama.ejections", "Nœuds Ollama écartés par le disjoncteur");
+
+    /** Nœuds du pool. */
+    private final List<Backend> backends;
+
+    /** Échecs consécutifs avant d'écarter un nœud. */
+    private final int breakerFailures;
+
+    /** Durée de mise à l'écart d'un nœud, en nanosecondes. */
+    private final long breakerOpenNanos;
+
+    /** Durée au-delà de laquelle un appel compte comme un échec. */
+    private final long slowCallNanos;
+
+    /** Centile de latence déclenchant le doublement (0 : désactivé). */
+    private final double hedgePercentile;
+
+    /** Latences des appels complets réussis. */
+    private final LatencyWindow callLatencies = new LatencyWindow();
+
+    /** Latences du premier token des appels en streaming. */
+    private final LatencyWindow firstTokenLatencies = new LatencyWindow();
+
+    /** Exécute les appels complets doublés. */
+    private final ExecutorService hedgeExecutor =
+            Executors.newCachedThreadPool(daemon("ollama-hedge"));
+
+    /** Déclenche le doublement des appels en streaming. */
+    private final ScheduledExecutorService hedgeTimer =
+            Executors.newSingleThreadScheduledExecutor(
+                    daemon("ollama-hedge-timer"));
+
+    /** Rotation du premier nœud examiné, pour départager les égalités. */
+    private int nextBackend;
+
+    /**
+     * Constructeur.
+     *
+     * @param hosts            URL des serveurs Ollama
+     * @param chatFactory      crée le modèle de chat d'un serveur
+     * @param streamingFactory crée le modèle en streaming d'un serveur
+     * @param failures         échecs consécutifs avant d'écarter un nœud
+     * @param open             durée de mise à l'écart d'un nœud
+     * @param slowCall         durée au-delà de laquelle un appel compte
+     *                         comme un échec
+     * @param percentile       centile de latence déclenchant le
+     *                         doublement d'un appel (0 : désactivé)
+     */
+    public OllamaPool(
+            final List<String> hosts,
+            final Function<String, ChatLanguageModel> chatFactory,
+            final Function<String, StreamingChatLanguageModel>
+                    streamingFactory,
+            final int failures,
+            final Duration open,
+            final Duration slowCall,
+            final double percentile) {
+        if (hosts.isEmpty()) {
+            throw new IllegalArgumentException("Aucun serveur Ollama");
+        }
+        List<Backend> nodes = new ArrayList<>(hosts.size());
+        for (String host : hosts) {
+            nodes.add(new Backend(host, chatFactory.apply(host),
+                    streamingFactory.apply(host)));
+        }
+        this.backends = List.copyOf(nodes);
+        this.breakerFailures = Math.max(1, failures);
+        this.breakerOpenNanos = open.toNanos();
+        this.slowCallNanos = slowCall.isZero()
+                ? Long.MAX_VALUE : slowCall.toNanos();
+        this.hedgePercentile = percentile;
+    }
+
+    @Override
+    public Response<AiMessage> generate(final List<ChatMessage> messages) {
+        Backend primary = acquire(null);
+        long delay = hedgeDelayMillis(callLatencies);
+        if (delay < 0) {
+            return call(primary, messages);
+        }
+
+        CompletableFuture<Response<AiMessage>> first =
+                CompletableFuture.supplyAsync(
+                        () -> call(primary, messages), hedgeExecutor);
+        try {
+            return first.get(delay, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException ex) {
+            // trop lent : doublé ci-dessous
+        } catch (ExecutionException ex) {
+            throw propagate(ex.getCause());
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Appel Ollama interrompu", ex);
+        }
+
+        Backend secondary = acquire(primary);
+        if (secondary == null) {
+            return await(first);
+        }
+        HEDGES.increment();
+        CompletableFuture<Response<AiMessage>> second =
+                CompletableFuture.supplyAsync(
+                        () -> call(secondary, messages), hedgeExecutor);
+        return await(firstSuccessful(first, second));
+    }
+
+    @Override
+    public void generate(final List<ChatMessage> messages,
+                         final StreamingResponseHandler<AiMessage> handler) {
+        Backend primary = acquire(null);
+        HedgedStream stream = new HedgedStream(messages, handler, primary);
+        stream.start(primary);
+        long delay = hedgeDelayMillis(firstTokenLatencies);
+        if (delay >= 0) {
+            hedgeTimer.schedule(stream::hedge, delay, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Retourne le nombre de nœuds disponibles (non écartés par le
+     * disjoncteur).
+     *
+     * @return le nombre de nœuds disponibles
+     */
+    public synchronized int getAvailableBackends() {
+        long now = System.nanoTime();
+        int available = 0;
+        for (Backend backend : backends) {
+            if (isAvailable(backend, now)) {
+                available++;
+            }
+        }
+        return available;
+    }
+
+    /**
+     * Choisit le nœud disponible qui a le moins de requêtes en cours et
+     * lui attribue une requête.
+     *
+     * @param excluded nœud à éviter (appel doublé), ou {@code null}
+     * @return le nœud, ou {@code null} si aucun autre nœud n'est
+     * disponible pour un appel doublé
+     */
+    private synchronized Backend acquire(final Backend excluded) {
+        long now = System.nanoTime();
+        Backend best = null;
+        for (int i = 0; i < backends.size(); i++) {
+            Backend backend = backends.get((nextBackend + i) % backends.size());
+            if (backend != excluded && isAvailable(backend, now)
+                    && (best == null || backend.outstanding.get()
+                            < best.outstanding.get())) {
+                best = backend;
+            }
+        }
+        nextBackend = (nextBackend + 1) % backends.size();
+
+        if (best != null && best.open) {
+            best.probing = true;
+        } else if (best == null) {
+            if (excluded != null) {
+                return null;
+            }
+            // Tous écartés : celui qui sera réintégré le plus tôt
+            for (Backend backend : backends) {
+                if (best == null || backend.openUntil < best.openUntil) {
+                    best = backend;
+                }
+            }
+        }
+        best.outstanding.incrementAndGet();
+        return best;
+    }
+
+    /**
+     * Indique si un nœud peut recevoir un appel : disjoncteur fermé, ou
+     * mise à l'écart terminée sans appel d'essai en cours.
+     *
+     * @param backend le nœud
+     * @param now     instant courant ({@link System#nanoTime()})
+     * @return {@code true} si le nœud est disponible
+     */
+    private static boolean isAvailable(final Backend backend,
+                                       final long now) {
+        return !backend.open
+                || (now - backend.openUntil >= 0 && !backend.probing);
+    }
+
+    /**
+     * Libère la requête d'un nœud et met à jour son disjoncteur.
+     *
+     * @param backend le nœud
+     * @param elapsed durée de l'appel, en nanosecondes
+     * @param success {@code true} si l'appel a réussi
+     */
+    private synchronized void release(final Backend backend,
+                                      final long elapsed,
+                                      final boolean success) {
+        backend.outstanding.decrementAndGet();
+        backend.probing = false;
+        if (success && elapsed <= slowCallNanos) {
+            backend.failures = 0;
+            backend.open = false;
+            return;
+        }
+        backend.failures++;
+        if (backend.open || backend.failures >= breakerFailures) {
+            if (!backend.open) {
+                EJECTIONS.increment();
+                LOGGER.warning(String.format(
+                        "Serveur Ollama %s écarté pour %d s après %d échec(s)",
+                        backend.host,
+                        TimeUnit.NANOSECONDS.toSeconds(breakerOpenNanos),
+                        backend.failures));
+            }
+            backend.open = true;
+            backend.openUntil = System.nanoTime() + breakerOpenNanos;
+        }
+    }
+
+    /**
+     * Envoie un appel complet à un nœud déjà attribué.
+     *
+     * @param backend  le nœud
+     * @param messages les messages
+     * @return la réponse
+     */
+    private Response<AiMessage> call(final Backend backend,
+                                     final List<ChatMessage> messages) {
+        long start = System.nanoTime();
+        boolean success = false;
+        try {
+            Response<AiMessage> response = backend.chat.generate(messages);
+            success = true;
+            return response;
+        } finally {
+            long elapsed = System.nanoTime() - start;
+            release(backend, elapsed, success);
+            if (success) {
+                callLatencies.record(elapsed);
+            }
+        }
+    }
+
+    /**
+     * Retourne le délai au-delà duquel un appel est doublé.
+     *
+     * @param latencies latences récentes
+     * @return le délai en millisecondes, ou {@code -1} si le doublement
+     * est désactivé, impossible (un seul nœud) ou faute de mesures
+     */
+    private long hedgeDelayMillis(final LatencyWindow latencies) {
+        if (hedgePercentile <= 0 || backends.size() < 2) {
+            return -1;
+        }
+        long percentile = latencies.percentile(hedgePercentile);
+        return percentile < 0 ? -1
+                : TimeUnit.NANOSECONDS.toMillis(percentile + 999_999);
+    }
+
+    /**
+     * Combine deux appels : le premier qui réussit l'emporte ; l'échec
+     * n'est signalé que si les deux échouent.
+     *
+     * @param first  premier appel
+     * @param second second appel
+     * @return la réponse retenue
+     */
+    private static CompletableFuture<Response<AiMessage>> firstSuccessful(
+            final CompletableFuture<Response<AiMessage>> first,
+            final CompletableFuture<Response<AiMessage>> second) {
+        CompletableFuture<Response<AiMessage>> result =
+                new CompletableFuture<>();
+        AtomicInteger failures = new AtomicInteger();
+        for (CompletableFuture<Response<AiMessage>> attempt
+                : List.of(first, second)) {
+            attempt.whenComplete((response, error) -> {
+                if (error == null) {
+                    result.complete(response);
+                } else if (failures.incrementAndGet() == 2) {
+                    result.completeExceptionally(error);
+                }
+            });
+        }
+        return result;
+    }
+
+    /**
+     * Attend un appel et propage son erreur telle quelle.
+     *
+     * @param future l'appel
+     * @return la réponse
+     */
+    private static Response<AiMessage> await(
+            final CompletableFuture<Response<AiMessage>> future) {
+        try {
+            return future.join();
+        } catch (CompletionException ex) {
+            throw propagate(ex.getCause());
+        }
+    }
+
+    /**
+     * Convertit l'erreur d'un appel en exception non vérifiée.
+     *
+     * @param error l'erreur
+     * @return l'exception à lever
+     */
+    private static RuntimeException propagate(final Throwable error) {
+        if (error instanceof RuntimeException runtime) {
+            return runtime;
+        }
+        if (error instanceof Error fatal) {
+            throw fatal;
+        }
+        return new CompletionException(error);
+    }
+
+    /**
+     * Fabrique de threads démons nommés.
+     *
+     * @param name nom des threads
+     * @return la fabrique
+     */
+    private static ThreadFactory daemon(
+            final String name) {
+        return runnable -> {
+            Thread thread = new Thread(runnable, name);
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    /**
+     * Serveur Ollama du pool. L'état du disjoncteur est protégé par le
+     * verrou du pool.
+     */
+    private static final class Backend {
+
+        /** URL du serveur. */
+        private final String host;
+
+        /** Modèle de chat du serveur. */
+        private final ChatLanguageModel chat;
+
+        /** Modèle en streaming du serveur. */
+        private final StreamingChatLanguageModel streaming;
+
+        /** Requêtes en cours. */
+        private final AtomicInteger outstanding = new AtomicInteger();
+
+        /** Échecs consécutifs. */
+        private int failures;
+
+        /** Indique si le disjoncteur est ouvert (nœud écarté). */
+        private boolean open;
+
+        /** Fin de la mise à l'écart ({@link System#nanoTime()}). */
+        private long openUntil;
+
+        /** Indique si un appel d'essai est en cours. */
+        private boolean probing;
+
+        /**
+         * Constructeur.
+         *
+         * @param url            URL du serveur
+         * @param chatModel      modèle de chat
+         * @param streamingModel modèle en streaming
+         */
+        Backend(final String url, final ChatLanguageModel chatModel,
+                final StreamingChatLanguageModel streamingModel) {
+            this.host = url;
+            this.chat = chatModel;
+            this.streaming = streamingModel;
+        }
+    }
+
+    /**
+     * Fenêtre glissante des dernières latences mesurées.
+     */
+    private static final class LatencyWindow {
+
+        /** Latences, en nanosecondes (tampon circulaire). */
+        private final long[] samples = new long[LATENCY_WINDOW];
+
+        /** Nombre de latences enregistrées (plafonné à la fenêtre). */
+        private int count;
+
+        /** Prochaine case à écrire. */
+        private int next;
+
+        /**
+         * Enregistre une latence.
+         *
+         * @param nanos la latence, en nanosecondes
+         */
+        synchronized void record(final long nanos) {
+            samples[next] = nanos;
+            next = (next + 1) % samples.length;
+            count = Math.min(samples.length, count + 1);
+        }
+
+        /**
+         * Calcule un centile des latences récentes.
+         *
+         * @param percentile le centile (entre 0 et 1)
+         * @return la latence en nanosecondes, ou {@code -1} faute de
+         * mesures suffisantes
+         */
+        synchronized long percentile(final double percentile) {
+            if (count < MIN_HEDGE_SAMPLES) {
+                return -1;
+            }
+            long[] sorted = Arrays.copyOf(samples, count);
+            Arrays.sort(sorted);
+            int index = (int) Math.ceil(percentile * count) - 1;
+            return sorted[Math.max(0, Math.min(count - 1, index))];
+        }
+    }
+
+    /**
+     * Appel en streaming, éventuellement doublé : le premier appel qui
+     * produit un token l'emporte, les tokens de l'autre sont ignorés.
+     */
+    private final class HedgedStream {
+
+        /** Les messages. */
+        private final List<ChatMessage> messages;
+
+        /** Destinataire de la réponse retenue. */
+        private final StreamingResponseHandler<AiMessage> handler;
+
+        /** Nœud du premier appel. */
+        private final Backend primary;
+
+        /** Appel retenu ({@code null} tant qu'aucun n'a répondu). */
+        private Attempt winner;
+
+        /** Appels en cours. */
+        private int running;
+
+        /** Indique si le destinataire a reçu la fin ou l'erreur. */
+        private boolean done;
+
+        /**
+         * Constructeur.
+         *
+         * @param chatMessages    les messages
+         * @param responseHandler destinataire de la réponse
+         * @param first           nœud du premier appel
+         */
+        HedgedStream(final List<ChatMessage> chatMessages,
+                     final StreamingResponseHandler<AiMessage>
+                             responseHandler,
+                     final Backend first) {
+            this.messages = chatMessages;
+            this.handler = responseHandler;
+            this.primary = first;
+        }
+
+        /**
+         * Lance un appel vers un nœud déjà attribué.
+         *
+         * @param backend le nœud
+         */
+        void start(final Backend backend) {
+            synchronized (this) {
+                running++;
+            }
+            Attempt attempt = new Attempt(backend);
+            try {
+                backend.streaming.generate(messages, attempt);
+            } catch (RuntimeException ex) {
+                attempt.onError(ex);
+            }
+        }
+
+        /**
+         * Double l'appel vers un second nœud si aucun token n'est encore
+         * arrivé.
+         */
+        void hedge() {
+            synchronized (this) {
+                if (done || winner != null || running == 0) {
+                    return;
+                }
+            }
+            Backend secondary = acquire(primary);
+            if (secondary != null) {
+                HEDGES.increment();
+                start(secondary);
+            }
+        }
+
+        /**
+         * Retient un appel s'il est le premier à répondre.
+         *
+         * @param attempt l'appel
+         * @return {@code true} si c'est l'appel retenu
+         */
+        synchronized boolean claim(final Attempt attempt) {
+            if (winner == null && !done) {
+                winner = attempt;
+            }
+            return winner == attempt;
+        }
+
+        /**
+         * Transmet la fin de l'appel retenu.
+         *
+         * @param attempt  l'appel terminé
+         * @param response la réponse complète
+         */
+        synchronized void completed(final Attempt attempt,
+                                    final Response<AiMessage> response) {
+            running--;
+            if (claim(attempt)) {
+                done = true;
+                handler.onComplete(response);
+            }
+        }
+
+        /**
+         * Transmet l'erreur de l'appel retenu, ou du dernier appel en
+         * cours si aucun n'a répondu.
+         *
+         * @param attempt l'appel en échec
+         * @param error   l'erreur
+         */
+        synchronized void failed(final Attempt attempt,
+                                 final Throwable error) {
+            running--;
+            if (!done && (winner == attempt
+                    || (winner == null && running == 0))) {
+                done = true;
+                handler.onError(error);
+            }
+        }
+
+        /**
+         * Un appel en streaming vers un nœud.
+         */
+        private final class Attempt
+                implements StreamingResponseHandler<AiMessage> {
+
+            /** Le nœud. */
+            private final Backend backend;
+
+            /** Début de l'appel ({@link System#nanoTime()}). */
+            private final long start = System.nanoTime();
+
+            /** Indique si le nœud a été libéré. */
+            private final AtomicBoolean released = new AtomicBoolean();
+
+            /** Indique si le premier token a été reçu. */
+            private boolean firstToken = true;
+
+            /**
+             * Constructeur.
+             *
+             * @param node le nœud
+             */
+            Attempt(final Backend node) {
+                this.backend = node;
+            }
+
+            @Override
+            public void onNext(final String token) {
+                if (!claim(this)) {
+                    return;
+                }
+                if (firstToken) {
+                    firstToken = false;
+                    firstTokenLatencies.record(System.nanoTime() - start);
+                }
+                handler.onNext(token);
+            }
+
+            @Override
+            public void onComplete(final Response<AiMessage> response) {
+                finish(true);
+                completed(this, response);
+            }
+
+            @Override
+            public void onError(final Throwable error) {
+                finish(false);
+                failed(this, error);
+            }
+
+            /**
+             * Libère le nœud, une seule fois.
+             *
+             * @param success {@code true} si l'appel a réussi
+             */
+            private void finish(final boolean success) {
+                if (released.compareAndSet(false, true)) {
+                    release(backend, System.nanoTime() - start, success);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package api.service;
+
+import api.util.ApiException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Curseur de pagination : version de l'instantané classé et rang du
+ * premier article de la page suivante. Le curseur est opaque pour le
+ * client (Base64 URL).
+ *
+ * @param version version de l'instantané de l'index
+ * @param offset  rang du premier article de la page
+ */
+record PageCursor(long version, int offset) {
+
+    /** Statut HTTP "Bad Request". */
+    private static final int HTTP_BAD_REQUEST = 400;
+
+    /**
+     * Encode le curseur.
+     *
+     * @return la forme opaque du curseur
+     */
+    String encode() {
+        String raw = version + ":" + offset;
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(raw.getBytes(StandardCharsets.US_ASCII));
+    }
+
+    /**
+     * Décode un curseur reçu du client.
+     *
+     * @param value la forme opaque du curseur
+     * @return le curseur
+     * @throws ApiException (400 {@code invalid_cursor}) si le curseur
+     * est illisible
+     */
+    static PageCursor decode(final String value) throws ApiException {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(value),
+                    StandardCharsets.US_ASCII);
+            int separator = raw.indexOf(':');
+            PageCursor cursor = new PageCursor(
+                    Long.parseLong(raw.substring(0, separator)),
+                    Integer.parseInt(raw.substring(separator + 1)));
+            if (cursor.version() <= 0 || cursor.offset() < 0) {
+                throw new IllegalArgumentException(raw);
+            }
+            return cursor;
+        } catch (IllegalArgumentException | IndexOutOfBoundsException e) {
+            throw new ApiException("invalid_cursor",
+                    "Le curseur de pagination est invalide",
+                    HTTP_BAD_REQUEST);
+        }
+    }
+}
@@ -0,0 +1,199 @@
+package api.service;
+
+import api.dto.NewsPage;
+import api.util.Metrics;
+import io.micrometer.core.instrument.Timer;
+
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Cache des classements déjà calculés.
+ * <p>
+ * Les entrées sont indexées par la version de l'instantané, le vecteur
+ * de préférences ({@link model.PreferenceVector}) et
+ * la page demandée : un profil de préférences déjà vu est servi sans
+ * scoring ni tri. Le cache ne conserve que les classements de
+ * l'instantané le plus récent ; il est vidé dès qu'une version plus
+ * récente est rencontrée. Il est borné en taille (éviction LRU).
+ * </p>
+ */
+final class RankingCache {
+
+    /** Durée de sérialisation JSON d'une page. */
+    private static final Timer SERIALIZE = Metrics.timer("ranking.serialize",
+            "Durée de sérialisation JSON d'une page d'articles");
+
+    /** Facteur de charge de la map interne. */
+    private static final float LOAD_FACTOR = 0.75f;
+
+    /** Entrées du cache, dans l'ordre d'accès (LRU). */
+    private final LinkedHashMap<Key, Entry> entries;
+
+    /** Version d'instantané des entrées présentes. */
+    private long version = -1;
+
+    /** Nombre de lectures réussies. */
+    private final AtomicLong hits = new AtomicLong();
+
+    /** Nombre de lectures infructueuses. */
+    private final AtomicLong misses = new AtomicLong();
+
+    /**
+     * Crée un cache borné.
+     *
+     * @param maximumEntries nombre maximal d'entrées
+     */
+    RankingCache(final int maximumEntries) {
+        int maxEntries = Math.max(1, maximumEntries);
+        this.entries = new LinkedHashMap<>(16, LOAD_FACTOR, true) {
+            @Override
+            protected boolean removeEldestEntry(
+                    final Map.Entry<Key, Entry> eldest) {
+                return super.size() > maxEntries;
+            }
+        };
+    }
+
+    /**
+     * Retourne le classement en cache pour une clé.
+     *
+     * @param key la clé du classement
+     * @return le classement, ou {@code null} s'il est absent
+     */
+    synchronized Entry get(final Key key) {
+        advanceTo(key.version());
+        Entry entry = entries.get(key);
+        if (entry == null) {
+            misses.incrementAndGet();
+        } else {
+            hits.incrementAndGet();
+        }
+        return entry;
+    }
+
+    /**
+     * Enregistre un classement. Un classement d'un instantané plus
+     * ancien que les entrées présentes n'est pas conservé.
+     *
+     * @param key  la clé du classement
+     * @param page la page classée
+     * @return l'entrée correspondante
+     */
+    synchronized Entry put(final Key key, final NewsPage page) {
+        Entry entry = new Entry(page);
+        advanceTo(key.version());
+        if (key.version() == version) {
+            entries.put(key, entry);
+        }
+        return entry;
+    }
+
+    /**
+     * Vide le cache si la version donnée est plus récente que celle
+     * des entrées présentes (nouvel instantané publié).
+     *
+     * @param snapshotVersion version d'instantané rencontrée
+     */
+    private void advanceTo(final long snapshotVersion) {
+        if (snapshotVersion > version) {
+            entries.clear();
+            version = snapshotVersion;
+        }
+    }
+
+    /**
+     * Retourne le nombre d'entrées présentes.
+     *
+     * @return la taille du cache
+     */
+    synchronized int size() {
+        return entries.size();
+    }
+
+    /**
+     * Retourne le nombre de lectures réussies.
+     *
+     * @return le nombre de succès
+     */
+    long getHits() {
+        return hits.get();
+    }
+
+    /**
+     * Retourne le nombre de lectures infructueuses.
+     *
+     * @return le nombre d'échecs
+     */
+    long getMisses() {
+        return misses.get();
+    }
+
+    /**
+     * Clé d'un classement : instantané, préférences et page.
+     *
+     * @param version     version de l'instantané
+     * @param preferences vecteur de préférences ({@link model.PreferenceVector})
+     * @param offset      rang du premier article de la page
+     * @param pageSize    taille de la page
+     */
+    record Key(long version, long preferences, int offset, int pageSize) {
+    }
+
+    /**
+     * Classement en cache, avec sa représentation JSON calculée à la
+     * première demande.
+     */
+    static final class Entry {
+
+        /** La page classée. */
+        private final NewsPage page;
+
+        /** Représentation JSON de la page, ou {@code null}. */
+        private volatile byte[] json;
+
+        /**
+         * Crée une entrée.
+         *
+         * @param rankedPage la page classée
+         */
+        Entry(final NewsPage rankedPage) {
+            this.page = rankedPage;
+        }
+
+        /**
+         * Retourne la page classée.
+         *
+         * @return la page
+         */
+        NewsPage page() {
+            return page;
+        }
+
+        /**
+         * Retourne la représentation JSON de la page, sérialisée une
+         * seule fois (deux sérialisations concurrentes produisent le
+         * même résultat).
+         *
+         * @param serializer sérialiseur de la page
+         * @return le JSON de la page, à ne pas modifier
+         * @throws IOException si la sérialisation échoue
+         */
+        byte[] json(final NewsService.PageSerializer serializer)
+                throws IOException {
+            byte[] bytes = json;
+            if (bytes == null) {
+                Timer.Sample sample = Timer.start();
+                try {
+                    bytes = serializer.serialize(page);
+                } finally {
+                    sample.stop(SERIALIZE);
+                }
+                json = bytes;
+            }
+            return bytes;
+        }
+    }
+}
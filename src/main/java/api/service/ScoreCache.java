@@ -0,0 +1,189 @@
+package api.service;
+
+import api.util.EnvConfig;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Cache des scores LLM partagé par tout le processus.
+ * <p>
+ * Les entrées sont indexées par la version de scoring (modèle,
+ * version du prompt, catégories) et l'identité de l'article
+ * ({@link ArticleKey}). Le cache est borné en taille (éviction LRU)
+ * et en durée de vie (TTL). Les succès et échecs de lecture sont
+ * comptabilisés.
+ * </p>
+ */
+public final class ScoreCache {
+
+    /** Nombre maximal d'entrées par défaut. */
+    private static final int DEFAULT_MAX_ENTRIES = 10_000;
+
+    /** Durée de vie par défaut d'une entrée, en minutes. */
+    private static final long DEFAULT_TTL_MINUTES = 24 * 60;
+
+    /** Facteur de charge de la map interne. */
+    private static final float LOAD_FACTOR = 0.75f;
+
+    /** Instance partagée, configurée par variables d'environnement. */
+    public static final ScoreCache INSTANCE = new ScoreCache(
+            EnvConfig.getInt("SCORE_CACHE_MAX_ENTRIES", DEFAULT_MAX_ENTRIES),
+            Duration.ofMinutes(EnvConfig.getLong("SCORE_CACHE_TTL_MINUTES",
+                    DEFAULT_TTL_MINUTES))
+    );
+
+    /** Nombre maximal d'entrées conservées. */
+    private final int maxEntries;
+
+    /** Durée de vie d'une entrée, en nanosecondes. */
+    private final long ttlNanos;
+
+    /** Horloge monotone (en nanosecondes). */
+    private final LongSupplier clock;
+
+    /** Entrées du cache, dans l'ordre d'accès (LRU). */
+    private final LinkedHashMap<String, Entry> entries;
+
+    /** Nombre de lectures réussies. */
+    private final AtomicLong hits = new AtomicLong();
+
+    /** Nombre de lectures infructueuses. */
+    private final AtomicLong misses = new AtomicLong();
+
+    /** Nombre d'entrées évincées (taille ou expiration). */
+    private final AtomicLong evictions = new AtomicLong();
+
+    /**
+     * Crée un cache borné.
+     *
+     * @param maximumEntries nombre maximal d'entrées
+     * @param ttl            durée de vie d'une entrée
+     */
+    public ScoreCache(final int maximumEntries, final Duration ttl) {
+        this(maximumEntries, ttl, System::nanoTime);
+    }
+
+    /**
+     * Crée un cache borné avec une horloge donnée (utile aux tests).
+     *
+     * @param maximumEntries nombre maximal d'entrées
+     * @param ttl            durée de vie d'une entrée
+     * @param nanoClock      horloge monotone en nanosecondes
+     */
+    ScoreCache(final int maximumEntries, final Duration ttl,
+               final LongSupplier nanoClock) {
+        this.maxEntries = Math.max(1, maximumEntries);
+        this.ttlNanos = ttl.toNanos();
+        this.clock = nanoClock;
+        this.entries = new LinkedHashMap<>(16, LOAD_FACTOR, true) {
+            @Override
+            protected boolean removeEldestEntry(
+                    final Map.Entry<String, Entry> eldest) {
+                boolean evict = super.size() > maxEntries;
+                if (evict) {
+                    evictions.incrementAndGet();
+                }
+                return evict;
+            }
+        };
+    }
+
+    /**
+     * Construit la clé de cache d'un article pour une version de scoring.
+     *
+     * @param scoringVersion version de scoring (modèle, prompt, catégories)
+     * @param articleKey     identité de l'article
+     * @return la clé de cache
+     */
+    public static String key(final String scoringVersion,
+                             final String articleKey) {
+        return scoringVersion + "|" + articleKey;
+    }
+
+    /**
+     * Retourne les scores en cache pour une clé.
+     *
+     * @param key la clé de cache
+     * @return les scores, ou {@code null} si absents ou expirés
+     */
+    public synchronized List<Integer> get(final String key) {
+        Entry entry = entries.get(key);
+        if (entry == null) {
+            misses.incrementAndGet();
+            return null;
+        }
+        if (clock.getAsLong() - entry.storedAt > ttlNanos) {
+            entries.remove(key);
+            evictions.incrementAndGet();
+            misses.incrementAndGet();
+            return null;
+        }
+        hits.incrementAndGet();
+        return entry.scores;
+    }
+
+    /**
+     * Enregistre les scores d'un article.
+     *
+     * @param key    la clé de cache
+     * @param scores les scores, dans l'ordre des catégories
+     */
+    public synchronized void put(final String key,
+                                 final List<Integer> scores) {
+        entries.put(key, new Entry(List.copyOf(scores), clock.getAsLong()));
+    }
+
+    /** Vide le cache (les compteurs sont conservés). */
+    public synchronized void clear() {
+        entries.clear();
+    }
+
+    /**
+     * Retourne le nombre d'entrées présentes.
+     *
+     * @return la taille du cache
+     */
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    /**
+     * Retourne le nombre de lectures réussies.
+     *
+     * @return le nombre de succès
+     */
+    public long getHits() {
+        return hits.get();
+    }
+
+    /**
+     * Retourne le nombre de lectures infructueuses.
+     *
+     * @return le nombre d'échecs
+     */
+    public long getMisses() {
+        return misses.get();
+    }
+
+    /**
+     * Retourne le nombre d'entrées évincées.
+     *
+     * @return le nombre d'évictions
+     */
+    public long getEvictions() {
+        return evictions.get();
+    }
+
+    /**
+     * Entrée du cache : scores et date d'enregistrement.
+     *
+     * @param scores   scores de l'article
+     * @param storedAt date d'enregistrement (horloge monotone)
+     */
+    private record Entry(List<Integer> scores, long storedAt) { }
+}
@@ -0,0 +1,678 @@
+package api.service;
+
+import model.News;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Stockage persistant des scores LLM, pour ne pas rescorer tout le
+ * flux après un redémarrage.
+ * <p>
+ * Les scores sont ajoutés à la fin d'un journal ({@code scores.log}),
+ * avec le texte de l'article, sa version de scoring et sa date.
+ * Un index en mémoire associe chaque clé (version de scoring et
+ * {@link ArticleKey}) à la position de son dernier enregistrement ;
+ * les lectures passent par une projection mémoire du fichier.
+ * </p>
+ * <p>
+ * Les enregistrements d'une autre génération (modèle ou version du
+ * prompt différents), trop anciens ou remplacés sont ignorés à
+ * l'ouverture, puis supprimés par compaction (réécriture du journal)
+ * dès qu'ils sont plus nombreux que les enregistrements valides.
+ * Un enregistrement tronqué en fin de fichier (arrêt brutal) est
+ * écarté ; un enregistrement illisible l'est aussi, avec la suite du
+ * journal.
+ * </p>
+ * <p>
+ * Le journal est projeté d'un seul tenant : sa taille est bornée à
+ * {@link #MAX_LOG_BYTES}. Un ajout qui la dépasserait déclenche une
+ * compaction, puis est abandonné si la place manque toujours (le score
+ * reste en cache, il n'est simplement pas persisté).
+ * </p>
+ * <p>
+ * Les clés du dernier instantané publié sont conservées à part
+ * ({@code snapshot.keys}) afin de republier immédiatement un
+ * classement complet au démarrage.
+ * </p>
+ */
+public final class ScoreStore {
+
+    /** Logger de la classe. */
+    private static final Logger LOGGER =
+            Logger.getLogger(ScoreStore.class.getName());
+
+    /** Signature du journal des scores. */
+    private static final int LOG_MAGIC = 0x53434F52;
+
+    /** Signature du fichier d'instantané. */
+    private static final int SNAPSHOT_MAGIC = 0x534E4150;
+
+    /** Version du format des fichiers. */
+    private static final int FORMAT_VERSION = 1;
+
+    /** Taille de l'en-tête (signature et version). */
+    private static final int HEADER_BYTES = 8;
+
+    /** Taille maximale du journal (limite d'une projection mémoire). */
+    static final long MAX_LOG_BYTES = Integer.MAX_VALUE;
+
+    /** Nombre minimal d'enregistrements obsolètes avant compaction. */
+    private static final int MIN_DEAD_FOR_COMPACTION = 1_000;
+
+    /** Nom du journal des scores. */
+    private static final String LOG_FILE = "scores.log";
+
+    /** Nom du fichier d'instantané. */
+    private static final String SNAPSHOT_FILE = "snapshot.keys";
+
+    /** Répertoire des fichiers ({@code null} si désactivé). */
+    private final Path directory;
+
+    /**
+     * Génération des versions de scoring valides (modèle, prompt et
+     * moteur).
+     */
+    private final String generation;
+
+    /** Durée de conservation d'un enregistrement, en millisecondes. */
+    private final long retentionMillis;
+
+    /** Taille maximale du journal, en octets. */
+    private final long maxLogBytes;
+
+    /** Position du dernier enregistrement de chaque clé. */
+    private final Map<String, Long> index = new HashMap<>();
+
+    /** Canal du journal (écriture en fin de fichier). */
+    private FileChannel channel;
+
+    /** Projection mémoire du journal (lectures). */
+    private MappedByteBuffer mapped;
+
+    /** Taille du journal, en octets. */
+    private long fileSize;
+
+    /** Nombre d'enregistrements obsolètes dans le journal. */
+    private long deadRecords;
+
+    /** Indique si le journal plein a déjà été signalé. */
+    private boolean fullReported;
+
+    /**
+     * Constructeur.
+     *
+     * @param storeDirectory répertoire des fichiers, {@code null} pour
+     *                       désactiver le stockage
+     * @param validGeneration génération des versions de scoring valides
+     * @param retention      durée de conservation d'un enregistrement
+     * @param maxBytes       taille maximale du journal, en octets
+     */
+    private ScoreStore(final Path storeDirectory,
+                       final String validGeneration,
+                       final Duration retention, final long maxBytes) {
+        this.directory = storeDirectory;
+        this.generation = validGeneration;
+        this.retentionMillis = retention.toMillis();
+        this.maxLogBytes = Math.min(maxBytes, MAX_LOG_BYTES);
+    }
+
+    /**
+     * Ouvre (ou crée) le stockage d'un répertoire. En cas d'échec,
+     * un stockage désactivé est retourné : le service fonctionne alors
+     * comme sans persistance.
+     *
+     * @param storeDirectory répertoire des fichiers
+     * @param validGeneration génération des versions de scoring valides
+     *                       (ex. {@code modèle|p2|})
+     * @param retention      durée de conservation d'un enregistrement
+     * @return le stockage ouvert
+     */
+    public static ScoreStore open(final Path storeDirectory,
+                                  final String validGeneration,
+                                  final Duration retention) {
+        return open(storeDirectory, validGeneration, retention,
+                MAX_LOG_BYTES);
+    }
+
+    /**
+     * Ouvre (ou crée) le stockage d'un répertoire, avec une taille de
+     * journal réduite.
+     *
+     * @param storeDirectory répertoire des fichiers
+     * @param validGeneration génération des versions de scoring valides
+     * @param retention      durée de conservation d'un enregistrement
+     * @param maxBytes       taille maximale du journal, en octets
+     * @return le stockage ouvert
+     */
+    static ScoreStore open(final Path storeDirectory,
+                           final String validGeneration,
+                           final Duration retention,
+                           final long maxBytes) {
+        ScoreStore store = new ScoreStore(storeDirectory, validGeneration,
+                retention, maxBytes);
+        try {
+            store.load();
+            LOGGER.info(String.format(
+                    "Scores persistants : %d article(s) chargés depuis %s",
+                    store.size(), storeDirectory));
+            return store;
+        } catch (IOException e) {
+            LOGGER.log(Level.WARNING, "Stockage des scores indisponible ("
+                    + storeDirectory + "), persistance désactivée", e);
+            store.close();
+            return disabled();
+        }
+    }
+
+    /**
+     * Retourne un stockage désactivé (aucune lecture ni écriture).
+     *
+     * @return le stockage désactivé
+     */
+    public static ScoreStore disabled() {
+        return new ScoreStore(null, "", Duration.ZERO, 0);
+    }
+
+    /**
+     * Indique si le stockage est actif.
+     *
+     * @return {@code false} si désactivé
+     */
+    public synchronized boolean isEnabled() {
+        return channel != null;
+    }
+
+    /**
+     * Retourne les scores enregistrés pour un article.
+     *
+     * @param scoringVersion version de scoring
+     * @param articleKey     identité de l'article ({@link ArticleKey})
+     * @return les scores, ou {@code null} si absents
+     */
+    public synchronized List<Integer> get(final String scoringVersion,
+                                          final String articleKey) {
+        StoredArticle article = read(key(scoringVersion, articleKey));
+        return article == null ? null : article.scores();
+    }
+
+    /**
+     * Enregistre les scores d'un article (ajout en fin de journal).
+     *
+     * @param scoringVersion version de scoring
+     * @param news           l'article scoré
+     * @param scores         scores bruts, dans l'ordre des catégories
+     */
+    public synchronized void put(final String scoringVersion,
+                                 final News news,
+                                 final List<Integer> scores) {
+        if (channel == null) {
+            return;
+        }
+        String articleKey = ArticleKey.of(news);
+        byte[] record = encode(System.currentTimeMillis(), scoringVersion,
+                articleKey, scores, news);
+        try {
+            if (fileSize + record.length > maxLogBytes && deadRecords > 0) {
+                compact();
+            }
+            if (fileSize + record.length > maxLogBytes) {
+                if (!fullReported) {
+                    LOGGER.warning("Journal des scores plein (" + fileSize
+                            + " octets) : nouveaux scores non persistés");
+                    fullReported = true;
+                }
+                return;
+            }
+            fullReported = false;
+            long position = append(record);
+            if (index.put(key(scoringVersion, articleKey), position)
+                    != null) {
+                deadRecords++;
+            }
+            if (deadRecords > MIN_DEAD_FOR_COMPACTION
+                    && deadRecords > index.size()) {
+                compact();
+            }
+        } catch (IOException e) {
+            LOGGER.log(Level.WARNING, "Échec d'écriture d'un score", e);
+        }
+    }
+
+    /**
+     * Enregistre les articles du dernier instantané publié.
+     *
+     * @param scoringVersion version de scoring de l'instantané
+     * @param news           articles de l'instantané, dans l'ordre
+     */
+    public synchronized void saveSnapshot(final String scoringVersion,
+                                          final List<News> news) {
+        if (channel == null) {
+            return;
+        }
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeInt(SNAPSHOT_MAGIC);
+            out.writeInt(FORMAT_VERSION);
+            writeString(out, scoringVersion);
+            out.writeInt(news.size());
+            for (News article : news) {
+                writeString(out, ArticleKey.of(article));
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+        try {
+            channel.force(false);
+            Path target = directory.resolve(SNAPSHOT_FILE);
+            Path temp = directory.resolve(SNAPSHOT_FILE + ".tmp");
+            Files.write(temp, bytes.toByteArray());
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING,
+                    StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            LOGGER.log(Level.WARNING, "Échec d'écriture de l'instantané", e);
+        }
+    }
+
+    /**
+     * Relit les articles du dernier instantané enregistré, s'il a été
+     * produit avec la même version de scoring.
+     *
+     * @param scoringVersion version de scoring courante
+     * @return les articles stockés, dans l'ordre (vide si aucun)
+     */
+    public synchronized List<StoredArticle> loadSnapshot(
+            final String scoringVersion) {
+        List<StoredArticle> articles = new ArrayList<>();
+        Path file = directory == null ? null
+                : directory.resolve(SNAPSHOT_FILE);
+        if (channel == null || !Files.exists(file)) {
+            return articles;
+        }
+        try {
+            ByteBuffer in = ByteBuffer.wrap(Files.readAllBytes(file));
+            if (in.getInt() != SNAPSHOT_MAGIC
+                    || in.getInt() != FORMAT_VERSION
+                    || !scoringVersion.equals(readString(in))) {
+                return articles;
+            }
+            int count = in.getInt();
+            for (int i = 0; i < count; i++) {
+                StoredArticle article =
+                        read(key(scoringVersion, readString(in)));
+                if (article != null) {
+                    articles.add(article);
+                }
+            }
+        } catch (IOException | RuntimeException e) {
+            LOGGER.log(Level.WARNING, "Instantané illisible, ignoré", e);
+            articles.clear();
+        }
+        return articles;
+    }
+
+    /**
+     * Retourne le nombre d'articles indexés.
+     *
+     * @return le nombre d'entrées valides
+     */
+    public synchronized int size() {
+        return index.size();
+    }
+
+    /** Ferme le stockage. */
+    public synchronized void close() {
+        closeQuietly();
+    }
+
+    /**
+     * Réécrit le journal en ne gardant que les enregistrements valides.
+     *
+     * @throws IOException si la réécriture échoue
+     */
+    synchronized void compact() throws IOException {
+        if (channel == null) {
+            return;
+        }
+        Path log = directory.resolve(LOG_FILE);
+        Path temp = directory.resolve(LOG_FILE + ".tmp");
+        remap();
+        List<Map.Entry<String, Long>> live = new ArrayList<>(index.entrySet());
+        live.sort(Map.Entry.comparingByValue());
+
+        Map<String, Long> compacted = new HashMap<>();
+        try (FileChannel out = FileChannel.open(temp,
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            out.write(header());
+            long position = HEADER_BYTES;
+            for (Map.Entry<String, Long> entry : live) {
+                ByteBuffer record = recordAt(entry.getValue());
+                compacted.put(entry.getKey(), position);
+                position += record.remaining();
+                out.write(record);
+            }
+            out.force(false);
+        }
+        closeQuietly();
+        Files.move(temp, log, StandardCopyOption.REPLACE_EXISTING,
+                StandardCopyOption.ATOMIC_MOVE);
+        LOGGER.info(String.format("Compaction des scores : %d obsolète(s)"
+                + " supprimé(s), %d conservé(s)", deadRecords, live.size()));
+        index.clear();
+        index.putAll(compacted);
+        deadRecords = 0;
+        openChannel(log);
+    }
+
+    /**
+     * Ouvre le journal, reconstruit l'index et compacte si besoin.
+     *
+     * @throws IOException si le journal ne peut être ouvert
+     */
+    private synchronized void load() throws IOException {
+        Files.createDirectories(directory);
+        Path log = directory.resolve(LOG_FILE);
+        if (!Files.exists(log) || Files.size(log) < HEADER_BYTES) {
+            Files.write(log, header().array());
+        }
+        openChannel(log);
+        ByteBuffer head = mapped.duplicate();
+        if (head.getInt() != LOG_MAGIC || head.getInt() != FORMAT_VERSION) {
+            throw new IOException("Format de journal inconnu : " + log);
+        }
+
+        long oldest = System.currentTimeMillis() - retentionMillis;
+        long position = HEADER_BYTES;
+        long readable = Math.min(fileSize, maxLogBytes);
+        while (position + Integer.BYTES <= readable) {
+            int length = mapped.getInt((int) position);
+            long end = position + Integer.BYTES + length;
+            if (length <= 0 || end > readable) {
+                break;
+            }
+            long storedAt;
+            String version;
+            String key;
+            try {
+                ByteBuffer record = recordAt(position);
+                record.getInt();
+                storedAt = record.getLong();
+                version = readString(record);
+                key = key(version, readString(record));
+            } catch (RuntimeException e) {
+                LOGGER.log(Level.WARNING, "Enregistrement illisible à la"
+                        + " position " + position, e);
+                break;
+            }
+            boolean valid = generation.equals(generationOf(version))
+                    && storedAt >= oldest;
+            if (!valid || index.put(key, position) != null) {
+                deadRecords++;
+            }
+            position = end;
+        }
+        if (position < fileSize) {
+            LOGGER.warning("Fin de journal tronquée ou illisible ignorée ("
+                    + (fileSize - position) + " octets)");
+            channel.truncate(position);
+            openChannel(log);
+        }
+        if (deadRecords > 0 && deadRecords >= index.size()) {
+            compact();
+        }
+    }
+
+    /**
+     * Ouvre le canal du journal et projette son contenu en mémoire.
+     *
+     * @param log chemin du journal
+     * @throws IOException si l'ouverture échoue
+     */
+    private void openChannel(final Path log) throws IOException {
+        closeQuietly();
+        channel = FileChannel.open(log, StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+        fileSize = channel.size();
+        remap();
+    }
+
+    /**
+     * Projette le journal en mémoire jusqu'à sa taille courante, dans la
+     * limite de la taille maximale (la suite est ignorée au chargement).
+     *
+     * @throws IOException si la projection échoue
+     */
+    private void remap() throws IOException {
+        mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0,
+                Math.min(fileSize, maxLogBytes));
+    }
+
+    /**
+     * Ajoute un enregistrement en fin de journal.
+     *
+     * @param record l'enregistrement encodé
+     * @return sa position dans le journal
+     * @throws IOException si l'écriture échoue
+     */
+    private long append(final byte[] record) throws IOException {
+        long position = fileSize;
+        ByteBuffer buffer = ByteBuffer.wrap(record);
+        while (buffer.hasRemaining()) {
+            channel.write(buffer, position + buffer.position());
+        }
+        fileSize += record.length;
+        return position;
+    }
+
+    /**
+     * Relit l'article indexé sous une clé.
+     *
+     * @param key clé de l'index
+     * @return l'article, ou {@code null} si absent ou illisible
+     */
+    private StoredArticle read(final String key) {
+        Long position = index.get(key);
+        if (channel == null || position == null) {
+            return null;
+        }
+        try {
+            if (position >= mapped.capacity()) {
+                remap();
+            }
+            ByteBuffer record = recordAt(position);
+            record.getInt();
+            record.getLong();
+            readString(record);
+            readString(record);
+            int count = record.get();
+            List<Integer> scores = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                scores.add((int) record.get());
+            }
+            return new StoredArticle(readString(record), readString(record),
+                    readString(record), scores);
+        } catch (IOException | RuntimeException e) {
+            LOGGER.log(Level.WARNING, "Score illisible : " + key, e);
+            return null;
+        }
+    }
+
+    /**
+     * Retourne une vue sur l'enregistrement commençant à une position
+     * (longueur incluse).
+     *
+     * @param position position de l'enregistrement
+     * @return la vue, positionnée sur la longueur
+     * @throws IOException si la projection doit être étendue et échoue
+     */
+    private ByteBuffer recordAt(final long position) throws IOException {
+        int length = mapped.getInt((int) position);
+        if (position + Integer.BYTES + length > mapped.capacity()) {
+            remap();
+        }
+        return mapped.duplicate()
+                .position((int) position)
+                .limit((int) (position + Integer.BYTES + length))
+                .slice();
+    }
+
+    /** Ferme le canal sans propager d'erreur. */
+    private void closeQuietly() {
+        if (channel != null) {
+            try {
+                channel.close();
+            } catch (IOException e) {
+                // sans effet : le canal est abandonné
+            }
+        }
+        channel = null;
+        mapped = null;
+    }
+
+    /**
+     * Encode un enregistrement du journal.
+     *
+     * @param storedAt       date d'enregistrement (epoch ms)
+     * @param scoringVersion version de scoring
+     * @param articleKey     identité de l'article
+     * @param scores         scores bruts
+     * @param news           l'article
+     * @return l'enregistrement, précédé de sa longueur
+     */
+    private static byte[] encode(final long storedAt,
+                                 final String scoringVersion,
+                                 final String articleKey,
+                                 final List<Integer> scores,
+                                 final News news) {
+        ByteArrayOutputStream body = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(body)) {
+            out.writeLong(storedAt);
+            writeString(out, scoringVersion);
+            writeString(out, articleKey);
+            out.writeByte(scores.size());
+            for (Integer score : scores) {
+                out.writeByte(score == null ? 0 : score);
+            }
+            writeString(out, news.getTitle());
+            writeString(out, news.getLink());
+            writeString(out, news.getDescription());
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+        return ByteBuffer.allocate(Integer.BYTES + body.size())
+                .putInt(body.size())
+                .put(body.toByteArray())
+                .array();
+    }
+
+    /**
+     * Construit l'en-tête du journal.
+     *
+     * @return l'en-tête, prêt à être écrit
+     */
+    private static ByteBuffer header() {
+        return ByteBuffer.allocate(HEADER_BYTES)
+                .putInt(LOG_MAGIC)
+                .putInt(FORMAT_VERSION)
+                .flip();
+    }
+
+    /**
+     * Écrit une chaîne UTF-8 précédée de sa longueur.
+     *
+     * @param out   flux de sortie
+     * @param value chaîne (vide si {@code null})
+     * @throws IOException si l'écriture échoue
+     */
+    private static void writeString(final DataOutputStream out,
+                                    final String value) throws IOException {
+        byte[] bytes = (value == null ? "" : value)
+                .getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    /**
+     * Lit une chaîne UTF-8 précédée de sa longueur.
+     *
+     * @param in tampon positionné sur la longueur
+     * @return la chaîne
+     * @throws BufferUnderflowException si la longueur dépasse le tampon
+     */
+    private static String readString(final ByteBuffer in) {
+        int length = in.getInt();
+        if (length < 0 || length > in.remaining()) {
+            throw new BufferUnderflowException();
+        }
+        byte[] bytes = new byte[length];
+        in.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Extrait la génération d'une version de scoring : tout ce qui
+     * précède la liste des catégories, dernier {@code |} inclus.
+     *
+     * @param scoringVersion version de scoring
+     * @return la génération
+     */
+    private static String generationOf(final String scoringVersion) {
+        return scoringVersion.substring(0,
+                scoringVersion.lastIndexOf('|') + 1);
+    }
+
+    /**
+     * Construit la clé d'index d'un article.
+     *
+     * @param scoringVersion version de scoring
+     * @param articleKey     identité de l'article
+     * @return la clé
+     */
+    private static String key(final String scoringVersion,
+                              final String articleKey) {
+        return ScoreCache.key(scoringVersion, articleKey);
+    }
+
+    /**
+     * Article relu depuis le stockage.
+     *
+     * @param title       titre
+     * @param link        lien
+     * @param description description
+     * @param scores      scores bruts, dans l'ordre des catégories
+     */
+    public record StoredArticle(String title, String link,
+                                String description, List<Integer> scores) {
+
+        /**
+         * Constructeur canonique : les scores sont copiés en liste
+         * immuable.
+         *
+         * @param title       titre
+         * @param link        lien
+         * @param description description
+         * @param scores      scores bruts, dans l'ordre des catégories
+         */
+        public StoredArticle {
+            scores = List.copyOf(scores);
+        }
+    }
+}
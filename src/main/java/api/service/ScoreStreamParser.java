@@ -0,0 +1,249 @@
+package api.service;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BiConsumer;
+
+/**
+ * Analyse incrémentale d'une réponse de scoring du LLM, de la forme
+ * {@code {"1": [x, x, ...], "2": [...], ...}}, reçue morceau par
+ * morceau.
+ * <p>
+ * Chaque entrée est signalée dès la fermeture de sa liste de scores,
+ * sans attendre la fin de la réponse : un lot diffusé en streaming
+ * publie ses articles au fil de la génération, et une réponse tronquée
+ * (coupure, contexte épuisé) conserve les entrées déjà fermées. Le texte
+ * qui précède l'objet (explication, bloc de code Markdown) est ignoré.
+ * Au premier caractère inattendu, l'analyse s'arrête : les entrées déjà
+ * signalées restent acquises.
+ * </p>
+ * <p>
+ * Une instance analyse une seule réponse et n'est pas thread-safe.
+ * </p>
+ */
+final class ScoreStreamParser {
+
+    /** Score au-delà duquel les chiffres suivants sont ignorés. */
+    private static final int MAX_NUMBER = 1_000;
+
+    /** État de l'analyse. */
+    private enum State {
+        /** Avant l'accolade ouvrante. */
+        BEFORE_OBJECT,
+        /** Attente d'une clé ou de l'accolade fermante. */
+        BEFORE_KEY,
+        /** Dans une clé. */
+        KEY,
+        /** Après un antislash dans une clé. */
+        KEY_ESCAPE,
+        /** Attente des deux-points. */
+        BEFORE_COLON,
+        /** Attente du crochet ouvrant. */
+        BEFORE_ARRAY,
+        /** Dans une liste de scores. */
+        ARRAY,
+        /** Attente d'une virgule ou de l'accolade fermante. */
+        AFTER_ENTRY,
+        /** Objet fermé. */
+        COMPLETE,
+        /** Caractère inattendu : la suite est ignorée. */
+        MALFORMED
+    }
+
+    /** Appelé à la fermeture de chaque entrée (ID, scores). */
+    private final BiConsumer<String, List<Integer>> onEntry;
+
+    /** Entrées fermées, dans l'ordre de la réponse. */
+    private final Map<String, List<Integer>> entries = new LinkedHashMap<>();
+
+    /** Clé de l'entrée en cours. */
+    private final StringBuilder key = new StringBuilder();
+
+    /** Scores de l'entrée en cours. */
+    private List<Integer> scores = new ArrayList<>();
+
+    /** Score en cours de lecture. */
+    private int number;
+
+    /** Indique si un score est en cours de lecture. */
+    private boolean inNumber;
+
+    /** Indique si un score vient d'être lu (virgule ou crochet attendu). */
+    private boolean afterNumber;
+
+    /** État courant. */
+    private State state = State.BEFORE_OBJECT;
+
+    /**
+     * Constructeur.
+     *
+     * @param entryListener appelé à la fermeture de chaque entrée
+     */
+    ScoreStreamParser(final BiConsumer<String, List<Integer>> entryListener) {
+        this.onEntry = entryListener;
+    }
+
+    /**
+     * Analyse un morceau de la réponse.
+     *
+     * @param chunk le morceau (token du modèle ou réponse complète)
+     */
+    void feed(final CharSequence chunk) {
+        for (int i = 0; i < chunk.length()
+                && state != State.COMPLETE
+                && state != State.MALFORMED; i++) {
+            accept(chunk.charAt(i));
+        }
+    }
+
+    /**
+     * Retourne les entrées fermées jusqu'ici.
+     *
+     * @return map ID -> scores, dans l'ordre de la réponse
+     */
+    Map<String, List<Integer>> entries() {
+        return Collections.unmodifiableMap(entries);
+    }
+
+    /**
+     * Indique si l'objet JSON a été fermé sans erreur.
+     *
+     * @return {@code true} si la réponse est complète
+     */
+    boolean isComplete() {
+        return state == State.COMPLETE;
+    }
+
+    /**
+     * Fait avancer l'analyse d'un caractère.
+     *
+     * @param c le caractère
+     */
+    private void accept(final char c) {
+        switch (state) {
+            case BEFORE_OBJECT -> {
+                if (c == '{') {
+                    state = State.BEFORE_KEY;
+                }
+            }
+            case BEFORE_KEY -> {
+                if (c == '"') {
+                    key.setLength(0);
+                    state = State.KEY;
+                } else if (c == '}') {
+                    state = State.COMPLETE;
+                } else {
+                    expectWhitespace(c);
+                }
+            }
+            case KEY -> {
+                if (c == '"') {
+                    state = State.BEFORE_COLON;
+                } else if (c == '\\') {
+                    state = State.KEY_ESCAPE;
+                } else {
+                    key.append(c);
+                }
+            }
+            case KEY_ESCAPE -> {
+                key.append(c);
+                state = State.KEY;
+            }
+            case BEFORE_COLON -> {
+                if (c == ':') {
+                    state = State.BEFORE_ARRAY;
+                } else {
+                    expectWhitespace(c);
+                }
+            }
+            case BEFORE_ARRAY -> {
+                if (c == '[') {
+                    scores = new ArrayList<>();
+                    inNumber = false;
+                    afterNumber = false;
+                    state = State.ARRAY;
+                } else {
+                    expectWhitespace(c);
+                }
+            }
+            case ARRAY -> acceptInArray(c);
+            case AFTER_ENTRY -> {
+                if (c == ',') {
+                    state = State.BEFORE_KEY;
+                } else if (c == '}') {
+                    state = State.COMPLETE;
+                } else {
+                    expectWhitespace(c);
+                }
+            }
+            default -> {
+                // COMPLETE, MALFORMED : rien à lire
+            }
+        }
+    }
+
+    /**
+     * Fait avancer l'analyse d'un caractère d'une liste de scores.
+     *
+     * @param c le caractère
+     */
+    private void acceptInArray(final char c) {
+        if (c >= '0' && c <= '9') {
+            if (afterNumber) {
+                state = State.MALFORMED;
+            } else if (!inNumber) {
+                number = c - '0';
+                inNumber = true;
+            } else if (number < MAX_NUMBER) {
+                number = number * 10 + (c - '0');
+            }
+            return;
+        }
+        if (inNumber && (c == ',' || c == ']'
+                || Character.isWhitespace(c))) {
+            scores.add(number);
+            inNumber = false;
+            afterNumber = true;
+        }
+        if (c == ',') {
+            if (afterNumber) {
+                afterNumber = false;
+            } else {
+                state = State.MALFORMED;
+            }
+        } else if (c == ']') {
+            if (afterNumber || scores.isEmpty()) {
+                closeEntry();
+            } else {
+                state = State.MALFORMED;
+            }
+        } else {
+            expectWhitespace(c);
+        }
+    }
+
+    /**
+     * Enregistre et signale l'entrée dont la liste vient de se fermer.
+     */
+    private void closeEntry() {
+        String id = key.toString();
+        List<Integer> closed = List.copyOf(scores);
+        entries.put(id, closed);
+        state = State.AFTER_ENTRY;
+        onEntry.accept(id, closed);
+    }
+
+    /**
+     * Ignore un blanc ; tout autre caractère arrête l'analyse.
+     *
+     * @param c le caractère
+     */
+    private void expectWhitespace(final char c) {
+        if (!Character.isWhitespace(c)) {
+            state = State.MALFORMED;
+        }
+    }
+}
@@ -0,0 +1,230 @@
+package api.service;
+
+import model.News;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Index en mémoire des articles déjà scorés.
+ * <p>
+ * L'ingestion en arrière-plan publie des instantanés ; les requêtes
+ * lisent le dernier instantané publié sans jamais attendre le LLM.
+ * Un instantané publié n'est plus modifié.
+ * </p>
+ * <p>
+ * Lors d'une première ingestion, des instantanés partiels
+ * ({@link Snapshot#isComplete()} faux) sont publiés au fil des lots
+ * scorés, afin que les clients en streaming reçoivent les premiers
+ * articles sans attendre la fin du scoring.
+ * </p>
+ * <p>
+ * Les derniers instantanés publiés restent accessibles par leur
+ * version, afin qu'un client puisse parcourir les pages d'un même
+ * classement pendant qu'une nouvelle ingestion est publiée.
+ * </p>
+ */
+public final class ScoredNewsIndex {
+
+    /** Nombre par défaut d'instantanés conservés. */
+    private static final int DEFAULT_RETAINED_SNAPSHOTS = 8;
+
+    /** Dernier instantané publié. */
+    private volatile Snapshot current =
+            new Snapshot(0, null, List.of(), false);
+
+    /** Derniers instantanés publiés, du plus récent au plus ancien. */
+    private final Deque<Snapshot> history = new ArrayDeque<>();
+
+    /** Nombre d'instantanés conservés. */
+    private final int retainedSnapshots;
+
+    /**
+     * Crée un index conservant les {@value #DEFAULT_RETAINED_SNAPSHOTS}
+     * derniers instantanés.
+     */
+    public ScoredNewsIndex() {
+        this(DEFAULT_RETAINED_SNAPSHOTS);
+    }
+
+    /**
+     * Crée un index.
+     *
+     * @param retained nombre d'instantanés conservés (au moins 1)
+     */
+    public ScoredNewsIndex(final int retained) {
+        this.retainedSnapshots = Math.max(1, retained);
+    }
+
+    /**
+     * Publie un ensemble complet d'articles scorés.
+     *
+     * @param scoredNews les articles scorés
+     * @return l'instantané publié
+     */
+    public Snapshot publish(final List<News> scoredNews) {
+        return publish(scoredNews, true);
+    }
+
+    /**
+     * Publie un nouvel ensemble d'articles scorés et réveille les
+     * lecteurs en attente.
+     *
+     * @param scoredNews les articles scorés
+     * @param complete   {@code false} si le scoring est encore en cours
+     * @return l'instantané publié
+     */
+    public synchronized Snapshot publish(final List<News> scoredNews,
+                                         final boolean complete) {
+        Snapshot next = new Snapshot(current.getVersion() + 1,
+                Instant.now(), List.copyOf(scoredNews), complete);
+        current = next;
+        history.addFirst(next);
+        while (history.size() > retainedSnapshots) {
+            history.removeLast();
+        }
+        notifyAll();
+        return next;
+    }
+
+    /**
+     * Retourne un instantané récent par sa version.
+     *
+     * @param version version recherchée
+     * @return l'instantané, ou {@code null} s'il n'est plus conservé
+     */
+    public synchronized Snapshot snapshot(final long version) {
+        for (Snapshot snapshot : history) {
+            if (snapshot.getVersion() == version) {
+                return snapshot;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Attend la publication d'un instantané plus récent qu'une version.
+     *
+     * @param version dernière version connue de l'appelant
+     * @param timeout durée d'attente maximale
+     * @return l'instantané courant (éventuellement inchangé si le délai
+     * est écoulé)
+     * @throws InterruptedException si le thread est interrompu
+     */
+    public synchronized Snapshot awaitNewerThan(final long version,
+                                                final Duration timeout)
+            throws InterruptedException {
+        long deadline = System.nanoTime() + timeout.toNanos();
+        long remaining = timeout.toNanos();
+        while (current.getVersion() <= version && remaining > 0) {
+            TimeUnit.NANOSECONDS.timedWait(this, remaining);
+            remaining = deadline - System.nanoTime();
+        }
+        return current;
+    }
+
+    /**
+     * Retourne le dernier instantané publié.
+     *
+     * @return l'instantané courant (vide tant que rien n'est publié)
+     */
+    public Snapshot snapshot() {
+        return current;
+    }
+
+    /**
+     * Instantané immuable de l'index.
+     */
+    public static final class Snapshot {
+
+        /** Numéro de version, incrémenté à chaque publication. */
+        private final long version;
+
+        /** Date de publication ({@code null} si jamais publié). */
+        private final Instant publishedAt;
+
+        /** Articles scorés de l'instantané. */
+        private final List<News> news;
+
+        /** Indique si le scoring de l'ingestion est terminé. */
+        private final boolean complete;
+
+        /**
+         * Constructeur.
+         *
+         * @param snapshotVersion numéro de version
+         * @param publicationDate date de publication
+         * @param scoredNews      articles scorés
+         * @param isComplete      {@code true} si le scoring est terminé
+         */
+        Snapshot(final long snapshotVersion, final Instant publicationDate,
+                 final List<News> scoredNews, final boolean isComplete) {
+            this.version = snapshotVersion;
+            this.publishedAt = publicationDate;
+            this.news = scoredNews;
+            this.complete = isComplete;
+        }
+
+        /**
+         * Retourne le numéro de version.
+         *
+         * @return la version
+         */
+        public long getVersion() {
+            return version;
+        }
+
+        /**
+         * Retourne la date de publication.
+         *
+         * @return la date, ou {@code null} si jamais publié
+         */
+        public Instant getPublishedAt() {
+            return publishedAt;
+        }
+
+        /**
+         * Retourne les articles scorés (liste immuable).
+         *
+         * @return les articles
+         */
+        public List<News> getNews() {
+            return news;
+        }
+
+        /**
+         * Indique si le scoring de l'ingestion est terminé.
+         *
+         * @return {@code false} pour un instantané partiel
+         */
+        public boolean isComplete() {
+            return complete;
+        }
+
+        /**
+         * Indique si l'instantané ne contient aucun article.
+         *
+         * @return {@code true} si vide
+         */
+        public boolean isEmpty() {
+            return news.isEmpty();
+        }
+
+        /**
+         * Retourne l'âge de l'instantané.
+         *
+         * @param now date de référence
+         * @return l'âge, ou {@code null} si jamais publié
+         */
+        public Duration age(final Instant now) {
+            if (publishedAt == null) {
+                return null;
+            }
+            return Duration.between(publishedAt, now);
+        }
+    }
+}
@@ -9,9 +9,15 @@ package api.util;
  */
 public final class ApiException extends RuntimeException {
 
+    /** Statut HTTP par défaut (erreur interne). */
+    private static final int DEFAULT_STATUS = 500;
+
     /** Code d'erreur associé à cette exception. */
     private final String code;
 
+    /** Statut HTTP à renvoyer au client. */
+    private final int status;
+
     /**
      * Crée une nouvelle exception API avec un code et un message.
      *
@@ -19,8 +25,21 @@ public final class ApiException extends RuntimeException {
      * @param message le message décrivant l'erreur
      */
     public ApiException(final String errorCode, final String message) {
+        this(errorCode, message, DEFAULT_STATUS);
+    }
+
+    /**
+     * Crée une nouvelle exception API avec un statut HTTP explicite.
+     *
+     * @param errorCode  le code d'erreur unique associé à l'exception
+     * @param message    le message décrivant l'erreur
+     * @param httpStatus le statut HTTP à renvoyer au client
+     */
+    public ApiException(final String errorCode, final String message,
+                        final int httpStatus) {
         super(message);
         this.code = errorCode;
+        this.status = httpStatus;
     }
 
     /**
@@ -31,4 +50,13 @@ public final class ApiException extends RuntimeException {
     public String getCode() {
         return code;
     }
+
+    /**
+     * Retourne le statut HTTP associé à cette exception.
+     *
+     * @return le statut HTTP (500 par défaut)
+     */
+    public int getStatus() {
+        return status;
+    }
 }
@@ -0,0 +1,119 @@
+package api.util;
+
+import java.util.logging.Logger;
+
+/**
+ * Lecture des paramètres de configuration depuis les variables
+ * d'environnement, avec valeur par défaut.
+ * <p>
+ * Une valeur absente, vide ou invalide est remplacée par la valeur
+ * par défaut (une valeur invalide est signalée dans les logs).
+ * </p>
+ */
+public final class EnvConfig {
+
+    /** Logger de la classe. */
+    private static final Logger LOGGER =
+            Logger.getLogger(EnvConfig.class.getName());
+
+    private EnvConfig() {
+        // utilitaire
+    }
+
+    /**
+     * Retourne une variable d'environnement texte.
+     *
+     * @param name         nom de la variable
+     * @param defaultValue valeur par défaut
+     * @return la valeur de la variable, ou la valeur par défaut
+     */
+    public static String getString(final String name,
+                                   final String defaultValue) {
+        String value = System.getenv(name);
+        if (value == null || value.isBlank()) {
+            return defaultValue;
+        }
+        return value.trim();
+    }
+
+    /**
+     * Retourne une variable d'environnement entière.
+     *
+     * @param name         nom de la variable
+     * @param defaultValue valeur par défaut
+     * @return la valeur de la variable, ou la valeur par défaut
+     */
+    public static int getInt(final String name, final int defaultValue) {
+        String value = getString(name, null);
+        if (value == null) {
+            return defaultValue;
+        }
+        try {
+            return Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            LOGGER.warning("Valeur entière invalide pour " + name
+                    + " : " + value);
+            return defaultValue;
+        }
+    }
+
+    /**
+     * Retourne une variable d'environnement entière longue.
+     *
+     * @param name         nom de la variable
+     * @param defaultValue valeur par défaut
+     * @return la valeur de la variable, ou la valeur par défaut
+     */
+    public static long getLong(final String name, final long defaultValue) {
+        String value = getString(name, null);
+        if (value == null) {
+            return defaultValue;
+        }
+        try {
+            return Long.parseLong(value);
+        } catch (NumberFormatException e) {
+            LOGGER.warning("Valeur entière invalide pour " + name
+                    + " : " + value);
+            return defaultValue;
+        }
+    }
+
+    /**
+     * Retourne une variable d'environnement décimale.
+     *
+     * @param name         nom de la variable
+     * @param defaultValue valeur par défaut
+     * @return la valeur de la variable, ou la valeur par défaut
+     */
+    public static double getDouble(final String name,
+                                   final double defaultValue) {
+        String value = getString(name, null);
+        if (value == null) {
+            return defaultValue;
+        }
+        try {
+            return Double.parseDouble(value);
+        } catch (NumberFormatException e) {
+            LOGGER.warning("Valeur décimale invalide pour " + name
+                    + " : " + value);
+            return defaultValue;
+        }
+    }
+
+    /**
+     * Retourne une variable d'environnement booléenne
+     * ({@code true}/{@code false}).
+     *
+     * @param name         nom de la variable
+     * @param defaultValue valeur par défaut
+     * @return la valeur de la variable, ou la valeur par défaut
+     */
+    public static boolean getBoolean(final String name,
+                                     final boolean defaultValue) {
+        String value = getString(name, null);
+        if (value == null) {
+            return defaultValue;
+        }
+        return Boolean.parseBoolean(value);
+    }
+}
@@ -0,0 +1,162 @@
+package api.util;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.jvm.JvmGcMetrics;
+import io.micrometer.core.instrument.binder.jvm.JvmMemoryMetrics;
+import io.micrometer.core.instrument.binder.jvm.JvmThreadMetrics;
+import io.micrometer.core.instrument.binder.system.ProcessorMetrics;
+import io.micrometer.prometheus.PrometheusConfig;
+import io.micrometer.prometheus.PrometheusMeterRegistry;
+import io.prometheus.client.exporter.common.TextFormat;
+
+import java.time.Duration;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Registre des métriques de l'application, exposé au format
+ * Prometheus par {@code GET /metrics}.
+ * <p>
+ * Les durées sont publiées sous forme d'histogrammes (buckets
+ * Prometheus), ce qui permet d'agréger des percentiles sur plusieurs
+ * instances et de fixer des objectifs de latence.
+ * </p>
+ */
+public final class Metrics {
+
+    /** Durée minimale attendue d'une mesure (borne des histogrammes). */
+    private static final Duration MIN_EXPECTED = Duration.ofNanos(1_000);
+
+    /** Durée maximale attendue d'une mesure (appel LLM lent). */
+    private static final Duration MAX_EXPECTED = Duration.ofMinutes(5);
+
+    /** Registre partagé par tout le processus. */
+    private static final PrometheusMeterRegistry REGISTRY = createRegistry();
+
+    private Metrics() {
+        // utilitaire
+    }
+
+    /**
+     * Retourne la valeur courante d'un compteur enregistré.
+     *
+     * @param name nom du compteur
+     * @return le nombre d'incréments
+     * @throws io.micrometer.core.instrument.search.MeterNotFoundException
+     *         si aucun compteur ne porte ce nom
+     */
+    public static double count(final String name) {
+        return REGISTRY.get(name).counter().count();
+    }
+
+    /**
+     * Crée (ou retrouve) un chronomètre publié en histogramme.
+     *
+     * @param name        nom de la métrique
+     * @param description description de la métrique
+     * @param tags        paires clé / valeur d'étiquettes
+     * @return le chronomètre
+     */
+    public static Timer timer(final String name, final String description,
+                              final String... tags) {
+        return Timer.builder(name)
+                .description(description)
+                .tags(tags)
+                .publishPercentileHistogram()
+                .minimumExpectedValue(MIN_EXPECTED)
+                .maximumExpectedValue(MAX_EXPECTED)
+                .register(REGISTRY);
+    }
+
+    /**
+     * Crée (ou retrouve) un compteur.
+     *
+     * @param name        nom de la métrique
+     * @param description description de la métrique
+     * @param tags        paires clé / valeur d'étiquettes
+     * @return le compteur
+     */
+    public static Counter counter(final String name,
+                                  final String description,
+                                  final String... tags) {
+        return Counter.builder(name)
+                .description(description)
+                .tags(tags)
+                .register(REGISTRY);
+    }
+
+    /**
+     * Publie un compteur déjà tenu par un objet (lu à chaque collecte).
+     *
+     * @param name        nom de la métrique
+     * @param description description de la métrique
+     * @param source      objet portant le compteur
+     * @param value       lecture du compteur
+     * @param tags        paires clé / valeur d'étiquettes
+     * @param <T>         type de l'objet
+     */
+    public static <T> void functionCounter(final String name,
+                                           final String description,
+                                           final T source,
+                                           final ToDoubleFunction<T> value,
+                                           final String... tags) {
+        FunctionCounter.builder(name, source, value)
+                .description(description)
+                .tags(tags)
+                .register(REGISTRY);
+    }
+
+    /**
+     * Publie une jauge lue à chaque collecte.
+     *
+     * @param name        nom de la métrique
+     * @param description description de la métrique
+     * @param source      objet portant la valeur
+     * @param value       lecture de la valeur
+     * @param <T>         type de l'objet
+     * @return l'objet, pour initialiser un champ
+     */
+    public static <T> T gauge(final String name, final String description,
+                              final T source,
+                              final ToDoubleFunction<T> value) {
+        Gauge.builder(name, source, value)
+                .description(description)
+                .register(REGISTRY);
+        return source;
+    }
+
+    /**
+     * Retourne toutes les métriques au format texte de Prometheus.
+     *
+     * @return les métriques
+     */
+    public static String scrape() {
+        return REGISTRY.scrape();
+    }
+
+    /**
+     * Retourne le type de contenu de {@link #scrape()}.
+     *
+     * @return le type MIME du format texte de Prometheus
+     */
+    public static String contentType() {
+        return TextFormat.CONTENT_TYPE_004;
+    }
+
+    /**
+     * Crée le registre et y attache les métriques de la JVM.
+     *
+     * @return le registre
+     */
+    private static PrometheusMeterRegistry createRegistry() {
+        PrometheusMeterRegistry registry =
+                new PrometheusMeterRegistry(PrometheusConfig.DEFAULT);
+        new JvmMemoryMetrics().bindTo(registry);
+        new JvmGcMetrics().bindTo(registry);
+        new JvmThreadMetrics().bindTo(registry);
+        new ProcessorMetrics().bindTo(registry);
+        return registry;
+    }
+}
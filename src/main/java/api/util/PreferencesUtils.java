@@ -2,20 +2,52 @@ package api.util;
 
 import api.dto.ThemeSelection;
 import api.dto.Themes;
-import com.fasterxml.jackson.annotation.JsonProperty;
-import java.lang.reflect.Field;
+import model.PreferenceVector;
+import model.Theme;
+
 import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.Map;
+import java.util.Set;
 
 /**
  * Utilitaires pour le mapping des préférences utilisateurs.
+ * <p>
+ * Les thèmes sont parcourus dans l'ordre canonique de {@link Theme},
+ * via {@link Themes#get(Theme)} (sans réflexion).
+ * </p>
  */
 public final class PreferencesUtils {
 
+    /** Thèmes, dans l'ordre des ordinaux. */
+    private static final Theme[] THEMES = Theme.values();
+
     private PreferencesUtils() {
         // utilitaire
     }
 
+    /**
+     * Projette les préférences sur un vecteur de niveaux indexé par
+     * thème ({@link PreferenceVector}), utilisé pour le classement.
+     *
+     * @param themes les thèmes envoyés par le client
+     * @return le vecteur de préférences
+     */
+    public static long preferenceVector(final Themes themes) {
+        long vector = PreferenceVector.EMPTY;
+        if (themes == null) {
+            return vector;
+        }
+        for (Theme theme : THEMES) {
+            ThemeSelection selection = themes.get(theme);
+            if (selection != null && selection.getLevel() != null) {
+                vector = PreferenceVector.with(vector, theme,
+                        selection.getLevel());
+            }
+        }
+        return vector;
+    }
+
     /**
      * Réorganise les préférences pour avoir un dictionnaire
      * « nom de thème » → « niveau ».
@@ -29,25 +61,35 @@ public final class PreferencesUtils {
         if (themes == null) {
             return preferences;
         }
-        try {
-            for (Field field : themes.getClass().getDeclaredFields()) {
-                field.setAccessible(true);
-                Object value = field.get(themes);
-                if (value instanceof ThemeSelection) {
-                    ThemeSelection selection = (ThemeSelection) value;
-                    if (selection.getLevel() != null) {
-                        JsonProperty annotation =
-                                field.getAnnotation(JsonProperty.class);
-                        String themeName = annotation != null
-                                ? annotation.value()
-                                : field.getName();
-                        preferences.put(themeName, selection.getLevel());
-                    }
-                }
+        for (Theme theme : THEMES) {
+            ThemeSelection selection = themes.get(theme);
+            if (selection != null && selection.getLevel() != null) {
+                preferences.put(theme.getJsonName(), selection.getLevel());
             }
-        } catch (IllegalAccessException e) {
-            // Reste sans effet visible : on renvoie ce qu'on a.
         }
         return preferences;
     }
+
+    /**
+     * Collecte les flux RSS associés aux thèmes envoyés par le client.
+     *
+     * @param themes les thèmes envoyés par le client
+     * @return les URLs de flux non vides, sans doublon
+     */
+    public static Set<String> collectFeeds(final Themes themes) {
+        Set<String> feeds = new LinkedHashSet<>();
+        if (themes == null) {
+            return feeds;
+        }
+        for (Theme theme : THEMES) {
+            ThemeSelection selection = themes.get(theme);
+            if (selection != null) {
+                String rss = selection.getRss();
+                if (rss != null && !rss.isBlank()) {
+                    feeds.add(rss.trim());
+                }
+            }
+        }
+        return feeds;
+    }
 }
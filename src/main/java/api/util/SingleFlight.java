@@ -0,0 +1,100 @@
+package api.util;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Regroupe les appels concurrents portant sur la même clé : le
+ * premier appelant exécute le calcul, les suivants attendent et
+ * reçoivent le même résultat (ou la même exception).
+ * <p>
+ * Aucun résultat n'est conservé : une fois le calcul terminé, l'appel
+ * suivant pour la même clé relance un calcul.
+ * </p>
+ *
+ * @param <K> type des clés
+ * @param <V> type des résultats
+ */
+public final class SingleFlight<K, V> {
+
+    /** Calculs en cours, par clé. */
+    private final ConcurrentHashMap<K, CompletableFuture<V>> inFlight =
+            new ConcurrentHashMap<>();
+
+    /** Nombre d'appels rattachés à un calcul déjà en cours. */
+    private final AtomicLong coalesced = new AtomicLong();
+
+    /**
+     * Calcul pouvant lever une exception vérifiée.
+     *
+     * @param <V> type du résultat
+     * @param <E> type de l'exception
+     */
+    @FunctionalInterface
+    public interface Task<V, E extends Exception> {
+
+        /**
+         * Exécute le calcul.
+         *
+         * @return le résultat
+         * @throws E en cas d'échec
+         */
+        V call() throws E;
+    }
+
+    /**
+     * Exécute un calcul, ou attend celui déjà en cours pour la même clé.
+     * Les appels d'une même clé doivent utiliser des calculs
+     * équivalents (même type d'exception).
+     *
+     * @param key  clé du calcul
+     * @param task calcul à exécuter si aucun n'est en cours
+     * @param <E>  type de l'exception du calcul
+     * @return le résultat partagé
+     * @throws E si le calcul échoue
+     */
+    @SuppressWarnings("unchecked")
+    public <E extends Exception> V execute(final K key,
+                                           final Task<V, E> task)
+            throws E {
+        CompletableFuture<V> created = new CompletableFuture<>();
+        CompletableFuture<V> existing = inFlight.putIfAbsent(key, created);
+        if (existing != null) {
+            coalesced.incrementAndGet();
+            try {
+                return existing.join();
+            } catch (CompletionException e) {
+                Throwable cause = e.getCause();
+                if (cause instanceof RuntimeException) {
+                    throw (RuntimeException) cause;
+                }
+                if (cause instanceof Error) {
+                    throw (Error) cause;
+                }
+                throw (E) cause;
+            }
+        }
+
+        try {
+            V value = task.call();
+            created.complete(value);
+            return value;
+        } catch (Exception | Error e) {
+            created.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, created);
+        }
+    }
+
+    /**
+     * Retourne le nombre d'appels rattachés à un calcul déjà en cours.
+     *
+     * @return le nombre d'appels regroupés
+     */
+    public long getCoalesced() {
+        return coalesced.get();
+    }
+}
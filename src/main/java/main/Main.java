@@ -2,6 +2,7 @@ package main;
 
 import api.PreferencesApi;
 import api.util.CorsUtil;
+import api.util.Metrics;
 import io.javalin.Javalin;
 import io.javalin.http.staticfiles.Location;
 import java.util.logging.Logger;
@@ -53,8 +54,25 @@ public final class Main {
         app.post("/api/preferences",
                 ctx -> PreferencesApi.handlePreferences(ctx));
 
+        app.options("/api/preferences/stream", ctx -> {
+            CorsUtil.setCors(ctx);
+            ctx.status(HTTP_NO_CONTENT);
+        });
+
+        app.post("/api/preferences/stream",
+                ctx -> PreferencesApi.handlePreferencesStream(ctx));
+
         app.get("/health", ctx -> ctx.result("ok"));
 
+        // Métriques au format Prometheus (latences, LLM, caches)
+        app.get("/metrics", ctx -> ctx.contentType(Metrics.contentType())
+                .result(Metrics.scrape()));
+
+        // Les flux sont récupérés et scorés en arrière-plan
+        PreferencesApi.startIngestion();
+        Runtime.getRuntime().addShutdownHook(
+                new Thread(PreferencesApi::stopIngestion));
+
         LOGGER.info(
                 "API et interface web démarrées : http://localhost:"
                         + DEFAULT_PORT
@@ -1,7 +1,7 @@
 package model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonInclude;
-import java.util.ArrayList;
 import java.util.List;
 
 /**
@@ -19,8 +19,11 @@ public final class News {
     /** Description ou chapeau de la news. */
     private String description;
 
-    /** Scores de catégories associés à la news. */
-    private List<NewsCategoryScore> categoryScores;
+    /**
+     * Scores par thème, compactés dans un {@link ScoreVector}
+     * ({@link ScoreVector#NONE} tant que la news n'est pas scorée).
+     */
+    private long scoreVector = ScoreVector.NONE;
 
     /**
      * Constructeur par défaut requis par Jackson.
@@ -98,31 +101,46 @@ public final class News {
     }
 
     /**
-     * Retourne les scores de catégorie.
+     * Retourne les scores de catégorie strictement positifs, dans
+     * l'ordre canonique des thèmes. La liste est construite à partir
+     * du vecteur de scores.
      *
-     * @return la liste des scores de catégorie
+     * @return la liste des scores de catégorie, ou {@code null} si la
+     * news n'est pas scorée
      */
     public List<NewsCategoryScore> getCategoryScores() {
-        if (this.categoryScores == null) {
-            return null;
-        }
-        // Retourne une copie de la liste.
-        return new ArrayList<>(this.categoryScores);
+        return ScoreVector.toCategoryScores(scoreVector);
     }
 
     /**
-     * Modifie les scores de catégorie.
+     * Modifie les scores de catégorie. Les catégories qui ne
+     * correspondent à aucun {@link Theme} sont ignorées.
      *
      * @param newCategoryScores nouvelle liste de scores
      */
     public void setCategoryScores(final List<NewsCategoryScore>
                                           newCategoryScores) {
-        if (newCategoryScores == null) {
-            this.categoryScores = null;
-        } else {
-            // Crée une copie.
-            this.categoryScores = new ArrayList<>(newCategoryScores);
-        }
+        this.scoreVector = ScoreVector.fromCategoryScores(newCategoryScores);
+    }
+
+    /**
+     * Retourne le vecteur de scores compact.
+     *
+     * @return le vecteur ({@link ScoreVector#NONE} si non scorée)
+     */
+    @JsonIgnore
+    public long getScoreVector() {
+        return scoreVector;
+    }
+
+    /**
+     * Modifie le vecteur de scores compact.
+     *
+     * @param newScoreVector nouveau vecteur
+     */
+    @JsonIgnore
+    public void setScoreVector(final long newScoreVector) {
+        this.scoreVector = newScoreVector;
     }
 
     /**
@@ -132,15 +150,8 @@ public final class News {
      * @return le score associé ou 0 si absent
      */
     public int getScoreFor(final String category) {
-        if (categoryScores == null) {
-            return 0;
-        }
-        return categoryScores.stream()
-                .filter(c -> c.getCategory()
-                        .equalsIgnoreCase(category))
-                .map(NewsCategoryScore::getScore)
-                .findFirst()
-                .orElse(0);
+        Theme theme = Theme.fromJsonName(category);
+        return theme == null ? 0 : ScoreVector.get(scoreVector, theme);
     }
 
     /**
@@ -152,7 +163,7 @@ public final class News {
     public String toString() {
         return "News{"
                 + "title='" + title + '\''
-                + ", scores=" + categoryScores
+                + ", scores=" + getCategoryScores()
                 + '}';
     }
 }
@@ -1,5 +1,7 @@
 package model;
 
+import java.util.Objects;
+
 /**
  * POJO pour représenter un score associé à une catégorie.
  */
@@ -71,6 +73,36 @@ public final class NewsCategoryScore {
         this.score = Math.max(0, Math.min(newScore, MAX_SCORE));
     }
 
+    /**
+     * Deux scores sont égaux s'ils portent sur la même catégorie avec
+     * la même valeur.
+     *
+     * @param other objet à comparer
+     * @return {@code true} si égaux
+     */
+    @Override
+    public boolean equals(final Object other) {
+        if (this == other) {
+            return true;
+        }
+        if (!(other instanceof NewsCategoryScore)) {
+            return false;
+        }
+        NewsCategoryScore that = (NewsCategoryScore) other;
+        return score == that.score
+                && Objects.equals(category, that.category);
+    }
+
+    /**
+     * Code de hachage cohérent avec {@link #equals(Object)}.
+     *
+     * @return le code de hachage
+     */
+    @Override
+    public int hashCode() {
+        return Objects.hash(category, score);
+    }
+
     /**
      * Représentation textuelle du score.
      *
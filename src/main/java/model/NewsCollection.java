@@ -79,11 +79,7 @@ public final class NewsCollection {
      */
     public List<News> filterByCategory(final String category) {
         return newsCollection.stream()
-                .filter(news -> news.getCategoryScores().stream()
-                        .anyMatch(score ->
-                                score.getCategory()
-                                        .equalsIgnoreCase(category)
-                                        && score.getScore() > 0))
+                .filter(news -> news.getScoreFor(category) > 0)
                 .collect(Collectors.toList());
     }
 
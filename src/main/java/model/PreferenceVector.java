@@ -0,0 +1,90 @@
+package model;
+
+import java.util.Map;
+
+/**
+ * Vecteur de préférences compact : le niveau d'intérêt de l'utilisateur
+ * pour chacun des douze {@link Theme} tient sur 3 bits dans un seul
+ * {@code long}, indexé par l'ordinal du thème.
+ * <p>
+ * Chaque thème vaut {@link #NONE} (non renseigné), un niveau de 1 à
+ * {@link #MAX_LEVEL}, ou {@link #OUT_OF_RANGE} pour tout autre niveau
+ * reçu. Deux requêtes de même vecteur produisent le même classement :
+ * le vecteur sert aussi de clé de cache.
+ * </p>
+ */
+public final class PreferenceVector {
+
+    /** Aucune préférence. */
+    public static final long EMPTY = 0L;
+
+    /** Thème non renseigné. */
+    public static final int NONE = 0;
+
+    /** Niveau d'intérêt maximal. */
+    public static final int MAX_LEVEL = 5;
+
+    /** Niveau renseigné mais hors de l'échelle 1 à {@link #MAX_LEVEL}. */
+    public static final int OUT_OF_RANGE = MAX_LEVEL + 1;
+
+    /** Nombre de bits par thème. */
+    private static final int BITS_PER_THEME = 3;
+
+    /** Masque d'un niveau. */
+    private static final long LEVEL_MASK = (1L << BITS_PER_THEME) - 1;
+
+    private PreferenceVector() {
+        // utilitaire
+    }
+
+    /**
+     * Retourne le niveau d'un thème.
+     *
+     * @param vector  le vecteur
+     * @param ordinal ordinal du thème
+     * @return le niveau, {@link #NONE} ou {@link #OUT_OF_RANGE}
+     */
+    public static int get(final long vector, final int ordinal) {
+        return (int) ((vector >>> (ordinal * BITS_PER_THEME)) & LEVEL_MASK);
+    }
+
+    /**
+     * Retourne un vecteur dont le niveau d'un thème est renseigné.
+     *
+     * @param vector le vecteur
+     * @param theme  le thème
+     * @param level  le niveau reçu ({@code null} : non renseigné)
+     * @return le nouveau vecteur
+     */
+    public static long with(final long vector, final Theme theme,
+                            final Integer level) {
+        int shift = theme.ordinal() * BITS_PER_THEME;
+        long code;
+        if (level == null) {
+            code = NONE;
+        } else if (level >= 1 && level <= MAX_LEVEL) {
+            code = level;
+        } else {
+            code = OUT_OF_RANGE;
+        }
+        return (vector & ~(LEVEL_MASK << shift)) | (code << shift);
+    }
+
+    /**
+     * Construit un vecteur depuis une map « nom de thème » → niveau.
+     * Les thèmes inconnus sont ignorés.
+     *
+     * @param levels les niveaux par nom JSON de thème
+     * @return le vecteur
+     */
+    public static long fromLevels(final Map<String, Integer> levels) {
+        long vector = EMPTY;
+        for (Map.Entry<String, Integer> entry : levels.entrySet()) {
+            Theme theme = Theme.fromJsonName(entry.getKey());
+            if (theme != null) {
+                vector = with(vector, theme, entry.getValue());
+            }
+        }
+        return vector;
+    }
+}
@@ -0,0 +1,133 @@
+package model;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Vecteur de scores compact : les scores (0 à 4) des douze
+ * {@link Theme} tiennent sur 3 bits chacun dans un seul {@code long},
+ * indexés par l'ordinal du thème.
+ * <p>
+ * La valeur {@link #NONE} signifie « pas encore scoré » et se distingue
+ * de {@link #EMPTY} (scoré, aucun thème pertinent).
+ * </p>
+ */
+public final class ScoreVector {
+
+    /** Article non scoré. */
+    public static final long NONE = -1L;
+
+    /** Article scoré sans aucun thème pertinent. */
+    public static final long EMPTY = 0L;
+
+    /** Score maximal d'un thème. */
+    public static final int MAX_SCORE = 4;
+
+    /** Nombre de bits par thème. */
+    private static final int BITS_PER_THEME = 3;
+
+    /** Masque d'un score. */
+    private static final long SCORE_MASK = (1L << BITS_PER_THEME) - 1;
+
+    /** Thèmes, dans l'ordre des ordinaux. */
+    private static final Theme[] THEMES = Theme.values();
+
+    private ScoreVector() {
+        // utilitaire
+    }
+
+    /**
+     * Retourne le score d'un thème.
+     *
+     * @param vector  le vecteur
+     * @param ordinal ordinal du thème
+     * @return le score, ou 0 si le vecteur est {@link #NONE}
+     */
+    public static int get(final long vector, final int ordinal) {
+        if (vector == NONE) {
+            return 0;
+        }
+        return (int) ((vector >>> (ordinal * BITS_PER_THEME)) & SCORE_MASK);
+    }
+
+    /**
+     * Retourne le score d'un thème.
+     *
+     * @param vector le vecteur
+     * @param theme  le thème
+     * @return le score, ou 0 si le vecteur est {@link #NONE}
+     */
+    public static int get(final long vector, final Theme theme) {
+        return get(vector, theme.ordinal());
+    }
+
+    /**
+     * Retourne un vecteur dont le score d'un thème est remplacé.
+     *
+     * @param vector le vecteur ({@link #NONE} est traité comme vide)
+     * @param theme  le thème
+     * @param score  le score, ramené entre 0 et {@link #MAX_SCORE}
+     * @return le nouveau vecteur
+     */
+    public static long with(final long vector, final Theme theme,
+                            final int score) {
+        long base = vector == NONE ? EMPTY : vector;
+        int shift = theme.ordinal() * BITS_PER_THEME;
+        long clamped = Math.max(0, Math.min(score, MAX_SCORE));
+        return (base & ~(SCORE_MASK << shift)) | (clamped << shift);
+    }
+
+    /**
+     * Indique si aucun thème n'a de score strictement positif.
+     *
+     * @param vector le vecteur
+     * @return {@code true} si non scoré ou vide
+     */
+    public static boolean isEmpty(final long vector) {
+        return vector == NONE || vector == EMPTY;
+    }
+
+    /**
+     * Construit un vecteur depuis une liste de scores de catégorie.
+     * Les catégories inconnues sont ignorées.
+     *
+     * @param scores les scores (ou {@code null})
+     * @return le vecteur, ou {@link #NONE} si {@code scores} est nul
+     */
+    public static long fromCategoryScores(
+            final List<NewsCategoryScore> scores) {
+        if (scores == null) {
+            return NONE;
+        }
+        long vector = EMPTY;
+        for (NewsCategoryScore score : scores) {
+            Theme theme = Theme.fromJsonName(score.getCategory());
+            if (theme != null) {
+                vector = with(vector, theme, score.getScore());
+            }
+        }
+        return vector;
+    }
+
+    /**
+     * Retourne les scores strictement positifs sous forme de liste,
+     * dans l'ordre canonique des thèmes (vue JSON des clients).
+     *
+     * @param vector le vecteur
+     * @return la liste, ou {@code null} si le vecteur est {@link #NONE}
+     */
+    public static List<NewsCategoryScore> toCategoryScores(
+            final long vector) {
+        if (vector == NONE) {
+            return null;
+        }
+        List<NewsCategoryScore> scores = new ArrayList<>();
+        for (Theme theme : THEMES) {
+            int score = get(vector, theme);
+            if (score > 0) {
+                scores.add(new NewsCategoryScore(theme.getJsonName(), score));
+            }
+        }
+        return scores;
+    }
+}
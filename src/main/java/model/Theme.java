@@ -0,0 +1,108 @@
+package model;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Taxonomie canonique des thèmes d'actualité, dans un ordre fixe.
+ * <p>
+ * L'ordre de déclaration est celui utilisé pour le scoring : chaque
+ * article est évalué une seule fois sur l'ensemble des thèmes, dans
+ * cet ordre, quelles que soient les préférences de l'utilisateur.
+ * Les noms JSON correspondent aux clés de {@code api.dto.Themes}.
+ * </p>
+ */
+public enum Theme {
+
+    /** Thème politique. */
+    POLITIQUE("politique"),
+
+    /** Thème international. */
+    INTERNATIONAL("international"),
+
+    /** Thème économie. */
+    ECONOMIE("economie"),
+
+    /** Thème société. */
+    SOCIETE("societe"),
+
+    /** Thème sport. */
+    SPORT("sport"),
+
+    /** Thème culture. */
+    CULTURE("culture"),
+
+    /** Thème sciences. */
+    SCIENCES("sciences"),
+
+    /** Thème planète. */
+    PLANETE("planete"),
+
+    /** Thème technologies. */
+    TECHNOLOGIES("technologies"),
+
+    /** Thème santé. */
+    SANTE("sante"),
+
+    /** Thème éducation. */
+    EDUCATION("education"),
+
+    /** Thème idées. */
+    IDEES("idees");
+
+    /**
+     * Noms JSON de tous les thèmes, dans l'ordre canonique (liste
+     * immuable, construite une seule fois).
+     */
+    private static final List<String> JSON_NAMES = Arrays.stream(values())
+            .map(Theme::getJsonName)
+            .toList();
+
+    /** Nom JSON du thème. */
+    private final String jsonName;
+
+    /**
+     * Constructeur.
+     *
+     * @param name nom JSON du thème
+     */
+    Theme(final String name) {
+        this.jsonName = name;
+    }
+
+    /**
+     * Retourne le nom JSON du thème.
+     *
+     * @return le nom JSON
+     */
+    public String getJsonName() {
+        return jsonName;
+    }
+
+    /**
+     * Retourne les noms JSON de tous les thèmes, dans l'ordre canonique.
+     *
+     * @return la liste immuable des noms
+     */
+    public static List<String> jsonNames() {
+        return JSON_NAMES;
+    }
+
+    /**
+     * Retrouve un thème à partir de son nom JSON (insensible à la casse).
+     *
+     * @param name le nom JSON
+     * @return le thème, ou {@code null} s'il est inconnu
+     */
+    public static Theme fromJsonName(final String name) {
+        if (name == null) {
+            return null;
+        }
+        for (Theme theme : values()) {
+            if (theme.jsonName.equalsIgnoreCase(name)) {
+                return theme;
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,474 @@
+package rss;
+
+import api.util.EnvConfig;
+import api.util.Metrics;
+import api.util.SingleFlight;
+import io.micrometer.core.instrument.Timer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+import java.util.logging.Logger;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Cache HTTP des flux RSS.
+ * <p>
+ * Chaque flux est conservé avec ses en-têtes {@code ETag} et
+ * {@code Last-Modified}. Les revalidations envoient
+ * {@code If-None-Match} / {@code If-Modified-Since} : une réponse
+ * 304 évite de retélécharger le document. Les réponses sont demandées
+ * compressées (gzip) et analysées au fil de la réception par
+ * {@link RssParser} : seuls les articles extraits sont conservés,
+ * jamais le document brut.
+ * </p>
+ * <p>
+ * Politique de fraîcheur :
+ * <ul>
+ *   <li>âge &lt; {@code maxAge} : la copie en cache est servie ;</li>
+ *   <li>âge &lt; {@code maxAge + staleWhileRevalidate} : la copie est
+ *   servie et une revalidation est lancée en arrière-plan ;</li>
+ *   <li>au-delà : revalidation bloquante (la copie périmée est servie
+ *   si le serveur est injoignable).</li>
+ * </ul>
+ * </p>
+ */
+public final class FeedCache {
+
+    /** Logger de la classe. */
+    private static final Logger LOGGER =
+            Logger.getLogger(FeedCache.class.getName());
+
+    /** Durée de fraîcheur par défaut, en secondes. */
+    private static final int DEFAULT_MAX_AGE_SECONDS = 60;
+
+    /** Fenêtre stale-while-revalidate par défaut, en secondes. */
+    private static final int DEFAULT_SWR_SECONDS = 120;
+
+    /** Délai d'établissement de connexion. */
+    private static final Duration CONNECT_TIMEOUT = Duration.ofSeconds(10);
+
+    /** Délai maximal par défaut d'une requête, en secondes. */
+    private static final int DEFAULT_TIMEOUT_SECONDS = 20;
+
+    /** Code HTTP 200. */
+    private static final int HTTP_OK = 200;
+
+    /** Code HTTP 304. */
+    private static final int HTTP_NOT_MODIFIED = 304;
+
+    /** Facteur de conversion d'un ratio en pourcentage. */
+    private static final int PERCENT = 100;
+
+    /** Durée des récupérations de flux réussies (réseau et analyse). */
+    private static final Timer FETCH_SUCCESS = Metrics.timer("feed.fetch",
+            "Durée de récupération d'un flux RSS", "outcome", "success");
+
+    /** Durée des récupérations de flux en échec. */
+    private static final Timer FETCH_ERROR = Metrics.timer("feed.fetch",
+            "Durée de récupération d'un flux RSS", "outcome", "error");
+
+    /** Durée de lecture et d'analyse du corps d'un flux. */
+    private static final Timer PARSE = Metrics.timer("feed.parse",
+            "Durée de lecture et d'analyse d'un flux RSS");
+
+    /**
+     * Instance partagée, configurée par variables d'environnement.
+     * Son client HTTP unique négocie HTTP/2 et réutilise ses connexions
+     * (keep-alive) pour tous les flux.
+     */
+    public static final FeedCache INSTANCE = new FeedCache(
+            HttpClient.newBuilder()
+                    .version(HttpClient.Version.HTTP_2)
+                    .connectTimeout(CONNECT_TIMEOUT)
+                    .followRedirects(HttpClient.Redirect.NORMAL)
+                    .build(),
+            Duration.ofSeconds(EnvConfig.getLong(
+                    "FEED_CACHE_MAX_AGE_SECONDS", DEFAULT_MAX_AGE_SECONDS)),
+            Duration.ofSeconds(EnvConfig.getLong(
+                    "FEED_CACHE_SWR_SECONDS", DEFAULT_SWR_SECONDS)),
+            Duration.ofSeconds(EnvConfig.getLong(
+                    "FEED_TIMEOUT_SECONDS", DEFAULT_TIMEOUT_SECONDS))
+    );
+
+    /** Client HTTP partagé. */
+    private final HttpClient client;
+
+    /** Durée de fraîcheur, en nanosecondes. */
+    private final long maxAgeNanos;
+
+    /** Fenêtre stale-while-revalidate, en nanosecondes. */
+    private final long swrNanos;
+
+    /** Délai maximal d'une requête vers un flux. */
+    private final Duration requestTimeout;
+
+    /** Horloge monotone (en nanosecondes). */
+    private final LongSupplier clock;
+
+    /** Flux en cache, par URL. */
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+
+    /**
+     * Requêtes en cours, par URL : les appels concurrents pour un même
+     * flux partagent une seule requête HTTP.
+     */
+    private final SingleFlight<String, Entry> fetches = new SingleFlight<>();
+
+    /** URLs en cours de revalidation en arrière-plan. */
+    private final Set<String> revalidating = ConcurrentHashMap.newKeySet();
+
+    /** Exécuteur des revalidations en arrière-plan. */
+    private final ExecutorService revalidator =
+            Executors.newSingleThreadExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "feed-revalidate");
+                thread.setDaemon(true);
+                return thread;
+            });
+
+    /** Nombre de requêtes HTTP envoyées. */
+    private final AtomicLong requests = new AtomicLong();
+
+    /** Nombre de réponses 304 (non modifié). */
+    private final AtomicLong notModified = new AtomicLong();
+
+    /** Nombre de copies servies sans requête réseau bloquante. */
+    private final AtomicLong cacheHits = new AtomicLong();
+
+    /** Nombre de lectures ayant attendu une requête réseau. */
+    private final AtomicLong cacheMisses = new AtomicLong();
+
+    /**
+     * Crée un cache de flux.
+     *
+     * @param httpClient           client HTTP à utiliser
+     * @param maxAge               durée de fraîcheur d'une copie
+     * @param staleWhileRevalidate fenêtre où une copie périmée est
+     *                             servie pendant la revalidation
+     */
+    public FeedCache(final HttpClient httpClient, final Duration maxAge,
+                     final Duration staleWhileRevalidate) {
+        this(httpClient, maxAge, staleWhileRevalidate,
+                Duration.ofSeconds(DEFAULT_TIMEOUT_SECONDS));
+    }
+
+    /**
+     * Crée un cache de flux avec un délai de requête donné.
+     *
+     * @param httpClient           client HTTP à utiliser
+     * @param maxAge               durée de fraîcheur d'une copie
+     * @param staleWhileRevalidate fenêtre de revalidation en arrière-plan
+     * @param timeout              délai maximal d'une requête
+     */
+    public FeedCache(final HttpClient httpClient, final Duration maxAge,
+                     final Duration staleWhileRevalidate,
+                     final Duration timeout) {
+        this(httpClient, maxAge, staleWhileRevalidate, timeout,
+                System::nanoTime);
+    }
+
+    /**
+     * Crée un cache de flux avec une horloge donnée (utile aux tests).
+     *
+     * @param httpClient           client HTTP à utiliser
+     * @param maxAge               durée de fraîcheur d'une copie
+     * @param staleWhileRevalidate fenêtre de revalidation en arrière-plan
+     * @param timeout              délai maximal d'une requête
+     * @param nanoClock            horloge monotone en nanosecondes
+     */
+    FeedCache(final HttpClient httpClient, final Duration maxAge,
+              final Duration staleWhileRevalidate, final Duration timeout,
+              final LongSupplier nanoClock) {
+        this.client = httpClient;
+        this.maxAgeNanos = maxAge.toNanos();
+        this.swrNanos = staleWhileRevalidate.toNanos();
+        this.requestTimeout = timeout;
+        this.clock = nanoClock;
+    }
+
+    /**
+     * Retourne les articles d'un flux, depuis le cache si possible.
+     *
+     * @param url URL du flux
+     * @return les articles du flux (liste immuable de maps title, link,
+     * description, category)
+     * @throws IOException si le flux n'a jamais pu être récupéré
+     */
+    public List<Map<String, String>> getItems(final String url)
+            throws IOException {
+        Entry entry = entries.get(url);
+        if (entry != null) {
+            long age = clock.getAsLong() - entry.validatedAt;
+            if (age < maxAgeNanos) {
+                cacheHits.incrementAndGet();
+                return entry.items;
+            }
+            if (age < maxAgeNanos + swrNanos) {
+                cacheHits.incrementAndGet();
+                revalidateInBackground(url);
+                return entry.items;
+            }
+        }
+        cacheMisses.incrementAndGet();
+        try {
+            return fetches.execute(url, () -> fetch(url)).items;
+        } catch (IOException e) {
+            if (entry == null) {
+                throw e;
+            }
+            LOGGER.warning("Flux injoignable, copie périmée servie : "
+                    + url + " (" + e.getMessage() + ")");
+            return entry.items;
+        }
+    }
+
+    /**
+     * Lance une revalidation en arrière-plan, sauf si une est déjà
+     * en cours pour cette URL.
+     *
+     * @param url URL du flux
+     */
+    private void revalidateInBackground(final String url) {
+        if (!revalidating.add(url)) {
+            return;
+        }
+        revalidator.execute(() -> {
+            try {
+                fetches.execute(url, () -> fetch(url));
+            } catch (IOException e) {
+                LOGGER.warning("Échec de revalidation du flux " + url
+                        + " : " + e.getMessage());
+            } finally {
+                revalidating.remove(url);
+            }
+        });
+    }
+
+    /**
+     * Envoie une requête conditionnelle et met à jour le cache, en
+     * mesurant sa durée.
+     *
+     * @param url URL du flux
+     * @return l'entrée à jour
+     * @throws IOException en cas d'erreur réseau ou de statut inattendu
+     */
+    private Entry fetch(final String url) throws IOException {
+        Timer.Sample sample = Timer.start();
+        boolean success = false;
+        try {
+            Entry entry = request(url);
+            success = true;
+            return entry;
+        } finally {
+            sample.stop(success ? FETCH_SUCCESS : FETCH_ERROR);
+        }
+    }
+
+    /**
+     * Envoie une requête conditionnelle et met à jour le cache.
+     *
+     * @param url URL du flux
+     * @return l'entrée à jour
+     * @throws IOException en cas d'erreur réseau ou de statut inattendu
+     */
+    private Entry request(final String url) throws IOException {
+        Entry previous = entries.get(url);
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(url))
+                .timeout(requestTimeout)
+                .header("User-Agent", "Java Simple RSS Fetcher")
+                .header("Accept-Encoding", "gzip")
+                .GET();
+        if (previous != null && previous.etag != null) {
+            builder.header("If-None-Match", previous.etag);
+        }
+        if (previous != null && previous.lastModified != null) {
+            builder.header("If-Modified-Since", previous.lastModified);
+        }
+
+        HttpResponse<InputStream> response;
+        try {
+            requests.incrementAndGet();
+            response = client.send(builder.build(),
+                    HttpResponse.BodyHandlers.ofInputStream());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Requête interrompue : " + url, e);
+        }
+
+        if (response.statusCode() == HTTP_NOT_MODIFIED && previous != null) {
+            response.body().close();
+            notModified.incrementAndGet();
+            Entry refreshed = previous.revalidated(clock.getAsLong());
+            entries.put(url, refreshed);
+            logStats(url, response.statusCode());
+            return refreshed;
+        }
+        if (response.statusCode() != HTTP_OK) {
+            response.body().close();
+            throw new IOException("Statut HTTP " + response.statusCode()
+                    + " pour " + url);
+        }
+
+        Entry fresh = new Entry(
+                parse(response),
+                response.headers().firstValue("ETag").orElse(null),
+                response.headers().firstValue("Last-Modified").orElse(null),
+                clock.getAsLong());
+        entries.put(url, fresh);
+        logStats(url, response.statusCode());
+        return fresh;
+    }
+
+    /**
+     * Journalise le statut d'une revalidation et le taux de 304.
+     *
+     * @param url    URL du flux
+     * @param status statut HTTP reçu
+     */
+    private void logStats(final String url, final int status) {
+        LOGGER.info(String.format(
+                "Flux %s : HTTP %d (taux de 304 : %.0f %% sur %d requêtes)",
+                url, status, getNotModifiedRate() * PERCENT, requests.get()));
+    }
+
+    /**
+     * Analyse le corps d'une réponse au fil de la lecture
+     * (décompression gzip si besoin).
+     *
+     * @param response la réponse HTTP
+     * @return les articles du flux (liste immuable)
+     * @throws IOException si la lecture, la décompression ou l'analyse
+     * échoue
+     */
+    private static List<Map<String, String>> parse(
+            final HttpResponse<InputStream> response) throws IOException {
+        boolean gzip = response.headers().firstValue("Content-Encoding")
+                .map(encoding -> encoding.equalsIgnoreCase("gzip"))
+                .orElse(false);
+        List<Map<String, String>> items = new ArrayList<>();
+        Timer.Sample sample = Timer.start();
+        try (InputStream in = gzip
+                ? new GZIPInputStream(response.body())
+                : response.body()) {
+            RssParser.parse(in, item -> items.add(Map.copyOf(item)));
+        } finally {
+            sample.stop(PARSE);
+        }
+        return List.copyOf(items);
+    }
+
+    /**
+     * Retourne le nombre de requêtes HTTP envoyées.
+     *
+     * @return le nombre de requêtes
+     */
+    public long getRequests() {
+        return requests.get();
+    }
+
+    /**
+     * Retourne le nombre d'appels ayant partagé une requête en cours.
+     *
+     * @return le nombre de requêtes évitées
+     */
+    public long getCoalescedRequests() {
+        return fetches.getCoalesced();
+    }
+
+    /**
+     * Retourne le nombre de réponses 304 reçues.
+     *
+     * @return le nombre de réponses « non modifié »
+     */
+    public long getNotModified() {
+        return notModified.get();
+    }
+
+    /**
+     * Retourne le nombre de copies servies sans requête bloquante.
+     *
+     * @return le nombre de succès du cache
+     */
+    public long getCacheHits() {
+        return cacheHits.get();
+    }
+
+    /**
+     * Retourne le nombre de lectures ayant attendu une requête réseau
+     * (flux absent du cache ou copie trop périmée). Les revalidations
+     * en arrière-plan n'en font pas partie.
+     *
+     * @return le nombre d'échecs du cache
+     */
+    public long getCacheMisses() {
+        return cacheMisses.get();
+    }
+
+    /**
+     * Retourne la proportion de requêtes HTTP ayant reçu un 304.
+     *
+     * @return le taux de 304, entre 0 et 1
+     */
+    public double getNotModifiedRate() {
+        long total = requests.get();
+        return total == 0 ? 0 : (double) notModified.get() / total;
+    }
+
+    /**
+     * Copie en cache d'un flux.
+     */
+    private static final class Entry {
+
+        /** Articles du flux. */
+        private final List<Map<String, String>> items;
+
+        /** En-tête ETag (ou {@code null}). */
+        private final String etag;
+
+        /** En-tête Last-Modified (ou {@code null}). */
+        private final String lastModified;
+
+        /** Date de dernière validation (horloge monotone). */
+        private final long validatedAt;
+
+        /**
+         * Constructeur.
+         *
+         * @param feedItems     articles du flux
+         * @param etagHeader    en-tête ETag
+         * @param lastModHeader en-tête Last-Modified
+         * @param validatedTime date de validation
+         */
+        Entry(final List<Map<String, String>> feedItems,
+              final String etagHeader,
+              final String lastModHeader, final long validatedTime) {
+            this.items = feedItems;
+            this.etag = etagHeader;
+            this.lastModified = lastModHeader;
+            this.validatedAt = validatedTime;
+        }
+
+        /**
+         * Retourne une copie revalidée (réponse 304) de l'entrée.
+         *
+         * @param now date de validation
+         * @return la nouvelle entrée
+         */
+        Entry revalidated(final long now) {
+            return new Entry(items, etag, lastModified, now);
+        }
+    }
+}
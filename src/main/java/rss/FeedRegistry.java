@@ -0,0 +1,17 @@
+package rss;
+
+import java.util.Collection;
+
+/**
+ * Registre des flux RSS à récupérer.
+ */
+public interface FeedRegistry {
+    /**
+     * Ajoute des flux à récupérer. Les URLs invalides ou non autorisées
+     * sont ignorées.
+     *
+     * @param feedUrls URLs des flux demandés
+     * @return {@code true} si au moins un nouveau flux a été ajouté
+     */
+    boolean registerFeeds(Collection<String> feedUrls);
+}
@@ -1,13 +1,6 @@
 package rss;
 
-import java.io.BufferedReader;
-import java.io.IOException;
-import java.io.InputStreamReader;
-import java.net.HttpURLConnection;
-import java.net.URL;
-import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -20,7 +13,30 @@ public final class LeMondeRSSFetcher implements RssFetcher {
     public static final LeMondeRSSFetcher INSTANCE = new LeMondeRSSFetcher();
 
     /** URL du flux RSS du Monde. */
-    private static final String RSS_URL = "https://www.lemonde.fr/rss/une.xml";
+    static final String RSS_URL = "https://www.lemonde.fr/rss/une.xml";
+
+    /**
+     * Flux « à la une » et flux thématiques du Monde (mêmes URLs que
+     * celles proposées par l'interface web).
+     */
+    public static final List<String> ALL_FEEDS = List.of(
+            RSS_URL,
+            "https://www.lemonde.fr/politique/rss_full.xml",
+            "https://www.lemonde.fr/international/rss_full.xml",
+            "https://www.lemonde.fr/economie/rss_full.xml",
+            "https://www.lemonde.fr/societe/rss_full.xml",
+            "https://www.lemonde.fr/sport/rss_full.xml",
+            "https://www.lemonde.fr/culture/rss_full.xml",
+            "https://www.lemonde.fr/sciences/rss_full.xml",
+            "https://www.lemonde.fr/planete/rss_full.xml",
+            "https://www.lemonde.fr/pixels/rss_full.xml",
+            "https://www.lemonde.fr/sante/rss_full.xml",
+            "https://www.lemonde.fr/education/rss_full.xml",
+            "https://www.lemonde.fr/idees/rss_full.xml"
+    );
+
+    /** Cache HTTP des flux (requêtes conditionnelles, gzip). */
+    private static final FeedCache FEED_CACHE = FeedCache.INSTANCE;
 
     /** Longueur du préfixe <![CDATA[. */
     private static final int CDATA_PREFIX_LEN = 9;
@@ -40,33 +56,12 @@ public final class LeMondeRSSFetcher implements RssFetcher {
      */
     @Override
     public List<Map<String, String>> fetchRawNews() {
-        List<Map<String, String>> newsList = new ArrayList<>();
-
         try {
-            String rssContent = fetchTextFromUrl(RSS_URL);
-
-            String[] parts = rssContent.split("<item>");
-            // On saute la partie 0 qui est l'entête avant le premier <item>
-            for (int i = 1; i < parts.length; i++) {
-                String item = parts[i];
-                item = item.substring(0, item.indexOf("</item>"));
-
-                Map<String, String> newsData = new HashMap<>();
-                newsData.put("title", extractTagContent(item, "title"));
-                newsData.put("link", extractTagContent(item, "link"));
-                newsData.put("description",
-                        extractTagContent(item, "description"));
-                newsData.put("category",
-                        extractTagContent(item, "category"));
-
-                newsList.add(newsData);
-            }
-
+            return FEED_CACHE.getItems(RSS_URL);
         } catch (Exception e) {
             e.printStackTrace();
+            return new ArrayList<>();
         }
-
-        return newsList;
     }
 
     /**
@@ -100,31 +95,4 @@ public final class LeMondeRSSFetcher implements RssFetcher {
 
         return content.trim();
     }
-
-    /**
-     * Récupère le contenu texte depuis une URL.
-     *
-     * @param urlString URL cible
-     * @return le contenu récupéré
-     * @throws IOException en cas d'erreur réseau
-     */
-    private static String fetchTextFromUrl(final String urlString)
-            throws IOException {
-        StringBuilder sb = new StringBuilder();
-
-        URL url = new URL(urlString);
-        HttpURLConnection con = (HttpURLConnection) url.openConnection();
-        con.setRequestMethod("GET");
-        con.setRequestProperty("User-Agent", "Java Simple RSS Fetcher");
-
-        try (BufferedReader in = new BufferedReader(
-                new InputStreamReader(con.getInputStream(),
-                        StandardCharsets.UTF_8))) {
-            String line;
-            while ((line = in.readLine()) != null) {
-                sb.append(line).append('\n');
-            }
-        }
-        return sb.toString();
-    }
 }
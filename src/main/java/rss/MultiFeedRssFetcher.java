@@ -0,0 +1,301 @@
+package rss;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Logger;
+
+/**
+ * Récupère plusieurs flux RSS en parallèle et fusionne leurs articles.
+ * <p>
+ * Les flux passent par le {@link FeedCache} partagé (un seul client
+ * HTTP/2 avec connexions réutilisées). Le nombre de requêtes
+ * simultanées vers un même hôte est plafonné, et chaque flux a son
+ * propre délai : un flux lent ou en erreur est ignoré sans retarder
+ * les autres.
+ * </p>
+ * <p>
+ * De nouveaux flux peuvent être ajoutés à l'exécution (flux choisis
+ * par les utilisateurs), uniquement s'ils font partie des flux connus.
+ * Un flux ajouté ainsi est retiré après plusieurs échecs consécutifs ;
+ * les flux initiaux sont toujours conservés.
+ * </p>
+ */
+public final class MultiFeedRssFetcher implements RssFetcher, FeedRegistry {
+
+    /** Logger de la classe. */
+    private static final Logger LOGGER =
+            Logger.getLogger(MultiFeedRssFetcher.class.getName());
+
+    /**
+     * Échecs consécutifs après lesquels un flux ajouté à l'exécution
+     * est retiré.
+     */
+    static final int MAX_CONSECUTIVE_FAILURES = 3;
+
+    /** Cache HTTP des flux. */
+    private final FeedCache cache;
+
+    /** Flux à récupérer, dans l'ordre d'ajout. */
+    private final Set<String> feeds = new LinkedHashSet<>();
+
+    /** Flux initiaux, jamais retirés. */
+    private final Set<String> pinnedFeeds;
+
+    /** Flux connus, seuls acceptés à l'exécution. */
+    private final Set<String> knownFeeds;
+
+    /** Échecs consécutifs des flux ajoutés à l'exécution. */
+    private final Map<String, Integer> failures = new HashMap<>();
+
+    /** Nombre maximal de flux enregistrés. */
+    private final int maxFeeds;
+
+    /** Nombre de flux récupérés en parallèle. */
+    private final int fetchThreads;
+
+    /** Nombre maximal de requêtes simultanées par hôte. */
+    private final int maxPerHost;
+
+    /** Délai maximal de récupération d'un flux. */
+    private final Duration feedTimeout;
+
+    /** Permis de requêtes par hôte. */
+    private final Map<String, Semaphore> hostPermits =
+            new ConcurrentHashMap<>();
+
+    /** Exécuteur des récupérations. */
+    private final ExecutorService executor;
+
+    /**
+     * Crée un fetcher multi-flux.
+     *
+     * @param feedCache     cache HTTP des flux
+     * @param initialFeeds  flux récupérés dès le départ
+     * @param allowedFeeds  flux connus, seuls acceptés à l'exécution
+     * @param maximumFeeds  nombre maximal de flux enregistrés
+     * @param perHostLimit  nombre maximal de requêtes simultanées par hôte
+     * @param threads       nombre de flux récupérés en parallèle
+     * @param timeout       délai maximal de récupération d'un flux
+     */
+    public MultiFeedRssFetcher(
+            final FeedCache feedCache,
+            final Collection<String> initialFeeds,
+            final Collection<String> allowedFeeds,
+            final int maximumFeeds,
+            final int perHostLimit,
+            final int threads,
+            final Duration timeout
+    ) {
+        this.cache = feedCache;
+        this.maxFeeds = maximumFeeds;
+        this.maxPerHost = Math.max(1, perHostLimit);
+        this.fetchThreads = Math.max(1, threads);
+        this.feedTimeout = timeout;
+        AtomicInteger counter = new AtomicInteger();
+        this.executor = Executors.newFixedThreadPool(fetchThreads,
+                runnable -> {
+                    Thread thread = new Thread(runnable,
+                            "feed-fetch-" + counter.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        Set<String> initial = new LinkedHashSet<>();
+        for (String url : trimmed(initialFeeds)) {
+            if (isFetchable(url)) {
+                initial.add(url);
+            }
+        }
+        this.pinnedFeeds = Set.copyOf(initial);
+        this.knownFeeds = Set.copyOf(trimmed(allowedFeeds));
+        feeds.addAll(initial);
+    }
+
+    /**
+     * Récupère tous les flux en parallèle et fusionne leurs articles,
+     * dans l'ordre d'enregistrement des flux. Le délai global tient
+     * compte du nombre de vagues de récupération, pour que les derniers
+     * flux de la liste aient autant de temps que les premiers.
+     *
+     * @return une liste de maps (title, link, description, category)
+     */
+    @Override
+    public List<Map<String, String>> fetchRawNews() {
+        List<String> urls = getFeeds();
+        List<Future<List<Map<String, String>>>> pending = new ArrayList<>();
+        for (String url : urls) {
+            pending.add(executor.submit(() -> fetchFeed(url)));
+        }
+
+        List<Map<String, String>> merged = new ArrayList<>();
+        long waves = (urls.size() + fetchThreads - 1) / fetchThreads;
+        long deadline = System.nanoTime()
+                + feedTimeout.toNanos() * (waves + 1);
+        for (int i = 0; i < urls.size(); i++) {
+            Future<List<Map<String, String>>> future = pending.get(i);
+            try {
+                long remaining = Math.max(0, deadline - System.nanoTime());
+                merged.addAll(future.get(remaining, TimeUnit.NANOSECONDS));
+                recordOutcome(urls.get(i), true);
+            } catch (ExecutionException | TimeoutException e) {
+                future.cancel(true);
+                LOGGER.warning("Flux ignoré : " + urls.get(i)
+                        + " (" + e + ")");
+                recordOutcome(urls.get(i), false);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+        LOGGER.info(String.format("%d flux récupérés : %d article(s)",
+                urls.size(), merged.size()));
+        return merged;
+    }
+
+    /**
+     * Met à jour le compte d'échecs consécutifs d'un flux ajouté à
+     * l'exécution, et le retire au-delà de
+     * {@link #MAX_CONSECUTIVE_FAILURES}.
+     *
+     * @param url     URL du flux
+     * @param success {@code true} si le flux a été récupéré
+     */
+    private synchronized void recordOutcome(final String url,
+                                            final boolean success) {
+        if (pinnedFeeds.contains(url)) {
+            return;
+        }
+        if (success) {
+            failures.remove(url);
+            return;
+        }
+        int failed = failures.merge(url, 1, Integer::sum);
+        if (failed >= MAX_CONSECUTIVE_FAILURES) {
+            failures.remove(url);
+            feeds.remove(url);
+            LOGGER.warning("Flux retiré après " + failed
+                    + " échecs consécutifs : " + url);
+        }
+    }
+
+    /**
+     * Récupère et découpe un flux, en respectant la limite par hôte.
+     *
+     * @param url URL du flux
+     * @return les articles du flux
+     * @throws Exception si le flux ne peut être récupéré à temps
+     */
+    private List<Map<String, String>> fetchFeed(final String url)
+            throws Exception {
+        Semaphore permits = hostPermits.computeIfAbsent(hostOf(url),
+                host -> new Semaphore(maxPerHost));
+        if (!permits.tryAcquire(feedTimeout.toMillis(),
+                TimeUnit.MILLISECONDS)) {
+            throw new TimeoutException("Trop de requêtes vers "
+                    + hostOf(url));
+        }
+        try {
+            return cache.getItems(url);
+        } finally {
+            permits.release();
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     * Seuls les flux connus sont acceptés, dans la limite du nombre
+     * maximal de flux.
+     */
+    @Override
+    public synchronized boolean registerFeeds(
+            final Collection<String> feedUrls) {
+        boolean added = false;
+        for (String url : trimmed(feedUrls)) {
+            if (feeds.contains(url)) {
+                continue;
+            }
+            if (!knownFeeds.contains(url) || !isFetchable(url)) {
+                LOGGER.warning("Flux non autorisé ignoré : " + url);
+                continue;
+            }
+            if (feeds.size() >= maxFeeds) {
+                LOGGER.warning("Nombre maximal de flux atteint, ignoré : "
+                        + url);
+                break;
+            }
+            feeds.add(url);
+            added = true;
+        }
+        return added;
+    }
+
+    /**
+     * Retourne les flux enregistrés.
+     *
+     * @return copie de la liste des flux
+     */
+    public synchronized List<String> getFeeds() {
+        return new ArrayList<>(feeds);
+    }
+
+    /**
+     * Retire les URLs nulles et les espaces autour des autres.
+     *
+     * @param urls URLs de flux
+     * @return les URLs nettoyées, dans l'ordre
+     */
+    private static List<String> trimmed(final Collection<String> urls) {
+        List<String> result = new ArrayList<>();
+        for (String url : urls) {
+            if (url != null && !url.isBlank()) {
+                result.add(url.trim());
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Vérifie qu'une URL de flux est HTTP(S) avec un hôte.
+     *
+     * @param url URL du flux
+     * @return {@code true} si le flux peut être récupéré
+     */
+    private static boolean isFetchable(final String url) {
+        try {
+            URI uri = URI.create(url);
+            String scheme = uri.getScheme();
+            return ("https".equalsIgnoreCase(scheme)
+                    || "http".equalsIgnoreCase(scheme))
+                    && !hostOf(url).isEmpty();
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Extrait l'hôte d'une URL, en minuscules.
+     *
+     * @param url l'URL
+     * @return l'hôte, ou chaîne vide si absent
+     */
+    private static String hostOf(final String url) {
+        String host = URI.create(url).getHost();
+        return host == null ? "" : host.toLowerCase(Locale.ROOT);
+    }
+}
@@ -7,6 +7,7 @@ public interface RssFetcher {
     /**
      * Récupère les news brutes depuis un flux RSS.
      * @return liste de maps avec title, link, description, category
+     * (et guid si le flux le fournit)
      */
     List<Map<String, String>> fetchRawNews();
 }
@@ -0,0 +1,176 @@
+package rss;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+
+/**
+ * Analyseur RSS en flux (StAX).
+ * <p>
+ * Le document est lu au fil de l'eau : chaque {@code <item>} est
+ * transmis dès sa balise fermante, sans jamais charger le document
+ * entier en mémoire. Les sections CDATA et les entités XML sont
+ * décodées par l'analyseur. Les DTD et entités externes sont
+ * désactivées.
+ * </p>
+ */
+final class RssParser {
+
+    /** Champs extraits de chaque article. */
+    private static final Set<String> FIELDS =
+            Set.of("title", "link", "guid", "description", "category");
+
+    /** Fabrique StAX partagée (thread-safe une fois configurée). */
+    private static final XMLInputFactory FACTORY = createFactory();
+
+    private RssParser() {
+        // utilitaire
+    }
+
+    /**
+     * Analyse un document RSS et retourne ses articles.
+     *
+     * @param rssContent le document RSS
+     * @return une liste de maps (title, link, guid, description, category)
+     * @throws IOException si le document est mal formé
+     */
+    static List<Map<String, String>> parse(final String rssContent)
+            throws IOException {
+        List<Map<String, String>> items = new ArrayList<>();
+        try {
+            parse(FACTORY.createXMLStreamReader(
+                    new StringReader(rssContent)), items::add);
+        } catch (XMLStreamException e) {
+            throw new IOException("Flux RSS invalide : " + e.getMessage(), e);
+        }
+        return items;
+    }
+
+    /**
+     * Analyse un document RSS lu depuis un flux d'octets ; l'encodage
+     * est celui déclaré par le document (UTF-8 par défaut).
+     *
+     * @param in   le flux d'octets du document
+     * @param sink destinataire de chaque article, dans l'ordre
+     * @throws IOException si la lecture échoue ou si le document est
+     * mal formé
+     */
+    static void parse(final InputStream in,
+                      final Consumer<Map<String, String>> sink)
+            throws IOException {
+        try {
+            parse(FACTORY.createXMLStreamReader(in), sink);
+        } catch (XMLStreamException e) {
+            throw new IOException("Flux RSS invalide : " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Parcourt les événements StAX et transmet chaque article complet.
+     * Seuls les enfants directs de {@code <item>} sans espace de noms
+     * sont retenus (la première occurrence de chaque champ).
+     *
+     * @param reader le lecteur StAX
+     * @param sink   destinataire des articles
+     * @throws XMLStreamException si le document est mal formé
+     */
+    private static void parse(final XMLStreamReader reader,
+                              final Consumer<Map<String, String>> sink)
+            throws XMLStreamException {
+        try {
+            Map<String, String> item = null;
+            String field = null;
+            StringBuilder text = new StringBuilder();
+            int depth = 0;
+
+            while (reader.hasNext()) {
+                switch (reader.next()) {
+                    case XMLStreamConstants.START_ELEMENT:
+                        depth++;
+                        String name = reader.getLocalName();
+                        if (item == null && "item".equals(name)) {
+                            item = emptyItem();
+                            depth = 0;
+                        } else if (item != null && depth == 1
+                                && isPlain(reader) && FIELDS.contains(name)
+                                && item.get(name).isEmpty()) {
+                            field = name;
+                            text.setLength(0);
+                        }
+                        break;
+                    case XMLStreamConstants.CHARACTERS:
+                    case XMLStreamConstants.CDATA:
+                        if (field != null) {
+                            text.append(reader.getTextCharacters(),
+                                    reader.getTextStart(),
+                                    reader.getTextLength());
+                        }
+                        break;
+                    case XMLStreamConstants.END_ELEMENT:
+                        if (item != null && depth == 0) {
+                            sink.accept(item);
+                            item = null;
+                        } else if (field != null && depth == 1) {
+                            item.put(field, text.toString().trim());
+                            field = null;
+                        }
+                        depth--;
+                        break;
+                    default:
+                        break;
+                }
+            }
+        } finally {
+            reader.close();
+        }
+    }
+
+    /**
+     * Indique si l'élément courant n'a pas d'espace de noms
+     * (exclut par exemple {@code media:title}).
+     *
+     * @param reader le lecteur positionné sur un début d'élément
+     * @return {@code true} si l'élément est sans préfixe
+     */
+    private static boolean isPlain(final XMLStreamReader reader) {
+        String prefix = reader.getPrefix();
+        return prefix == null || prefix.isEmpty();
+    }
+
+    /**
+     * Crée un article dont tous les champs sont vides.
+     *
+     * @return l'article
+     */
+    private static Map<String, String> emptyItem() {
+        Map<String, String> item = new HashMap<>();
+        for (String field : FIELDS) {
+            item.put(field, "");
+        }
+        return item;
+    }
+
+    /**
+     * Crée la fabrique StAX, sans DTD ni entités externes.
+     *
+     * @return la fabrique configurée
+     */
+    private static XMLInputFactory createFactory() {
+        XMLInputFactory factory = XMLInputFactory.newFactory();
+        factory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        factory.setProperty(
+                XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+        factory.setProperty(XMLInputFactory.IS_COALESCING, false);
+        return factory;
+    }
+}
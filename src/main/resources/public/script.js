@@ -161,6 +161,7 @@ function normalizeNews(apiData){
 function openResults(news, opts = {}) {
   const body = document.getElementById('resultsBody');
   body.innerHTML = '';
+  const dialog = document.getElementById('results');
 
   const items = Array.isArray(news) ? news : [];
   const emptyMessage = opts.emptyMessage || 'Aucun article ne correspond à vos préférences.';
@@ -175,71 +176,173 @@ function openResults(news, opts = {}) {
       <p style="font-size:.85rem; opacity:.7">${emptyHint}</p>
     `;
     body.appendChild(box);
-    document.getElementById('results').showModal();
+    if (!dialog.open) dialog.showModal();
     return;
   }
 
   const list = document.createElement('div');
   list.className = 'news-list';
+  items.forEach(item => list.append(newsCard(item)));
+
+  // Classement provisoire : d'autres articles sont encore en cours d'analyse
+  if (opts.pending) {
+    const note = document.createElement('p');
+    note.className = 'subtitle';
+    note.style.marginBottom = '12px';
+    note.textContent = 'Analyse en cours… le classement va s’affiner.';
+    body.appendChild(note);
+  }
 
-  items.forEach(item => {
-    const card = document.createElement('article');
-    card.className = 'news-card';
-
-    const title = document.createElement('h3');
-    title.className = 'news-title';
-
-    if (item.link && item.link !== '#') {
-      const a = document.createElement('a');
-      a.href = item.link;
-      a.target = '_blank';
-      a.rel = 'noopener noreferrer';
-      a.textContent = item.title;
-      a.className = 'link';
-      title.appendChild(a);
-    } else {
-      title.textContent = item.title;
-    }
+  body.appendChild(list);
+  if (opts.nextCursor && opts.loadMore) {
+    body.appendChild(moreButton(list, opts.nextCursor, opts.loadMore));
+  }
+  if (!dialog.open) dialog.showModal();
+}
 
-    const summary = document.createElement('p');
-    summary.className = 'news-summary';
-    summary.textContent = item.summary || '';
+function newsCard(item) {
+  const card = document.createElement('article');
+  card.className = 'news-card';
+
+  const title = document.createElement('h3');
+  title.className = 'news-title';
+
+  if (item.link && item.link !== '#') {
+    const a = document.createElement('a');
+    a.href = item.link;
+    a.target = '_blank';
+    a.rel = 'noopener noreferrer';
+    a.textContent = item.title;
+    a.className = 'link';
+    title.appendChild(a);
+  } else {
+    title.textContent = item.title;
+  }
 
-    card.append(title, summary);
-    list.append(card);
+  const summary = document.createElement('p');
+  summary.className = 'news-summary';
+  summary.textContent = item.summary || '';
+
+  card.append(title, summary);
+  return card;
+}
+
+// Bouton « Voir plus » : charge la page suivante du même classement
+function moreButton(list, cursor, loadMore) {
+  const btn = document.createElement('button');
+  btn.className = 'btn secondary';
+  btn.style.marginTop = '12px';
+  btn.textContent = 'Voir plus d’articles';
+  btn.addEventListener('click', async () => {
+    btn.disabled = true;
+    try {
+      const data = await loadMore(cursor);
+      normalizeNews(data).forEach(item => list.append(newsCard(item)));
+      if (data.nextCursor) {
+        btn.replaceWith(moreButton(list, data.nextCursor, loadMore));
+      } else {
+        btn.remove();
+      }
+    } catch (e) {
+      btn.disabled = false;
+      toast(e.message || 'Impossible de charger la suite');
+    }
   });
+  return btn;
+}
 
-  body.appendChild(list);
-  document.getElementById('results').showModal();
+// ==================== Lecture d'un flux SSE (POST) ====================
+// EventSource ne permet pas de POST : on lit le corps de la réponse
+// et on découpe les événements "event: ...\ndata: ...\n\n".
+async function readEvents(stream, onEvent){
+  const reader = stream.getReader();
+  const decoder = new TextDecoder();
+  let buffer = '';
+  while (true) {
+    const { value, done } = await reader.read();
+    if (done) break;
+    buffer += decoder.decode(value, { stream: true });
+    let sep;
+    while ((sep = buffer.indexOf('\n\n')) !== -1) {
+      const frame = buffer.slice(0, sep);
+      buffer = buffer.slice(sep + 2);
+      let event = 'message';
+      const data = [];
+      for (const line of frame.split('\n')) {
+        if (line.startsWith('event:')) event = line.slice(6).trim();
+        else if (line.startsWith('data:')) data.push(line.slice(5).trim());
+      }
+      if (data.length) onEvent(event, JSON.parse(data.join('\n')));
+    }
+  }
 }
 
 
-// ==================== Appel API (réel, sans mock) ====================
+// ==================== Appel API (streaming SSE) ====================
+const RESULT_OPTS = {
+  emptyMessage: 'Pas d’articles trouvés pour ces préférences.',
+  emptyHint: 'Essayez d’augmenter un autre thème ou de baisser vos filtres.'
+};
+
+// Nombre d'articles par page
+const PAGE_SIZE = 20;
+
+async function fetchPage(payload, cursor){
+  const res = await fetch('/api/preferences', {
+    method: 'POST',
+    headers: { 'Content-Type': 'application/json' },
+    body: JSON.stringify({ ...payload, limit: PAGE_SIZE, cursor })
+  });
+  const data = await res.json().catch(() => null);
+  if (!res.ok) throw new Error(data?.message || 'Impossible de charger la suite');
+  return data;
+}
+
 document.getElementById('fetchBtn').addEventListener('click', async () => {
   const payload = getPayloadTyped();
+  const loadMore = cursor => fetchPage(payload, cursor);
   out.textContent = '';
   showLoading('Analyse de vos préférences…');
 
   try {
-    const res = await fetch('/api/preferences', {
+    const res = await fetch('/api/preferences/stream', {
       method: 'POST',
       headers: { 'Content-Type': 'application/json' },
-      body: JSON.stringify(payload)
+      body: JSON.stringify({ ...payload, limit: PAGE_SIZE })
     });
 
-    const data = await res.json();
-    const news = normalizeNews(data);
-
-    hideLoading();
+    if (!res.ok || !res.body) {
+      const data = await res.json().catch(() => null);
+      hideLoading();
+      toast(data?.message || 'Impossible de contacter l’API locale');
+      return;
+    }
 
-    openResults(news, {
-      emptyMessage: 'Pas d’articles trouvés pour ces préférences.',
-      emptyHint: 'Essayez d’augmenter un autre thème ou de baisser vos filtres.'
+    let shown = false;
+    await readEvents(res.body, (event, data) => {
+      if (event === 'partial' || event === 'final') {
+        const news = normalizeNews(data);
+        // Un classement provisoire vide n'est pas affiché : on attend la suite
+        if (event === 'partial' && !news.length) return;
+        hideLoading();
+        shown = true;
+        openResults(news, {
+          ...RESULT_OPTS,
+          pending: event === 'partial',
+          // La suite n'est paginée que sur le classement définitif
+          nextCursor: event === 'final' ? data.nextCursor : null,
+          loadMore
+        });
+      } else if (event === 'error') {
+        hideLoading();
+        toast(data?.message || 'Erreur lors de l’analyse des articles');
+      }
     });
+    if (!shown) hideLoading();
 
   } catch (e) {
     console.error(e);
     hideLoading();
     toast('Impossible de contacter l’API locale');
   }
-});
\ No newline at end of file
+});
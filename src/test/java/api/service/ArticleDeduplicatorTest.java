@@ -0,0 +1,46 @@
+package api.service;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class ArticleDeduplicatorTest {
+
+    private static Map<String, String> item(final String title, final String link) {
+        return Map.of("title", title, "link", link, "description", "d-" + title);
+    }
+
+    @Test
+    @DisplayName("Test suppression des doublons entre flux")
+    void testDistinct() {
+        // Given : le même article dans la une et dans son flux thématique
+        List<Map<String, String>> raw = List.of(
+                item("A", "https://www.lemonde.fr/sport/article/a.html"),
+                item("B", "https://www.lemonde.fr/b.html"),
+                item("A bis", "http://WWW.lemonde.fr/sport/article/a.html?xtor=RSS#x"),
+                item("B", "https://www.lemonde.fr/autre-lien.html"),
+                item("C", ""));
+
+        // When
+        List<Map<String, String>> unique = ArticleDeduplicator.distinct(raw);
+
+        // Then
+        assertThat(unique).extracting(news -> news.get("title"))
+                .containsExactly("A", "B", "C");
+    }
+
+    @Test
+    @DisplayName("Test normalisation des liens")
+    void testNormaliseLink() {
+        assertThat(ArticleDeduplicator.normaliseLink(
+                " http://www.LeMonde.fr/a/b/?utm_source=x#top "))
+                .isEqualTo("https://www.lemonde.fr/a/b");
+        assertThat(ArticleDeduplicator.normaliseLink(null)).isEmpty();
+        assertThat(ArticleDeduplicator.normaliseLink("pas un lien"))
+                .isEqualTo("pas un lien");
+    }
+}
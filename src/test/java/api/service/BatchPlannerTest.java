@@ -0,0 +1,106 @@
+package api.service;
+
+import model.News;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class BatchPlannerTest {
+
+    private static List<News> articles(final int count, final int chars) {
+        List<News> news = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            news.add(new News("T" + i, "l" + i, "x".repeat(chars)));
+        }
+        return news;
+    }
+
+    @Test
+    @DisplayName("Test découpage limité par la taille maximale courante")
+    void testPlanByMaxItems() {
+        // Given
+        BatchPlanner planner = new BatchPlanner(100_000, 4, 16, 60_000);
+
+        // When
+        List<List<News>> batches = planner.plan(articles(10, 40), 12);
+
+        // Then
+        assertThat(batches).extracting(List::size).containsExactly(4, 4, 2);
+    }
+
+    @Test
+    @DisplayName("Test découpage limité par le budget de tokens")
+    void testPlanByTokenBudget() {
+        // Given : ~400 tokens par article, budget de 1 200 tokens
+        BatchPlanner planner = new BatchPlanner(1_200, 16, 16, 60_000);
+
+        // When
+        List<List<News>> batches = planner.plan(articles(5, 1_600), 12);
+
+        // Then : un seul article par lot, jamais de lot vide
+        assertThat(batches).hasSize(5).allMatch(b -> b.size() == 1);
+    }
+
+    @Test
+    @DisplayName("Test ajustement AIMD (succès, lenteur, échec)")
+    void testAdaptiveSizing() {
+        // Given
+        BatchPlanner planner = new BatchPlanner(100_000, 4, 8, 1_000);
+
+        // When : lot plein et rapide
+        planner.record(4, 100, true);
+        // Then
+        assertThat(planner.getCurrentMaxItems()).isEqualTo(5);
+
+        // When : lot plein trop lent
+        planner.record(5, 5_000, true);
+        // Then
+        assertThat(planner.getCurrentMaxItems()).isEqualTo(4);
+
+        // When : échec
+        planner.record(4, 100, false);
+        // Then
+        assertThat(planner.getCurrentMaxItems()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Test échec tardif d'un ancien lot plus grand")
+    void testLateFailureDoesNotRaiseLimit() {
+        // Given : la limite est déjà descendue à 2
+        BatchPlanner planner = new BatchPlanner(100_000, 2, 16, 1_000);
+
+        // When : un lot de 16 lancé plus tôt échoue
+        planner.record(16, 100, false);
+
+        // Then
+        assertThat(planner.getCurrentMaxItems()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Test taille en échec retentée après des succès à la taille inférieure")
+    void testFailedSizeIsRetried() {
+        // Given : des échecs répétés à 5, puis la limite remonte à 4
+        BatchPlanner planner = new BatchPlanner(100_000, 5, 8, 1_000);
+        for (int i = 0; i < 4; i++) {
+            planner.record(5, 100, false);
+        }
+        planner.record(1, 100, true);
+        planner.record(2, 100, true);
+        planner.record(3, 100, true);
+        assertThat(planner.getCurrentMaxItems()).isEqualTo(4);
+
+        // When : lots pleins et rapides à 4, la taille 5 reste bloquée
+        planner.record(4, 100, true);
+        assertThat(planner.getCurrentMaxItems()).isEqualTo(4);
+        for (int i = 0; i < 10; i++) {
+            planner.record(4, 100, true);
+        }
+
+        // Then : les échecs sont oubliés, la taille 5 est retentée
+        assertThat(planner.getCurrentMaxItems()).isEqualTo(5);
+    }
+}
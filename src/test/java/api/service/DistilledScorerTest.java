@@ -0,0 +1,215 @@
+package api.service;
+
+import api.util.ApiException;
+import model.News;
+import model.NewsCollection;
+import model.Theme;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class DistilledScorerTest {
+
+    private static final String[] SPORT = {"football", "rugby", "tennis", "match", "finale",
+        "championnat", "victoire", "joueur"};
+
+    private static final String[] CULTURE = {"cinema", "concert", "festival", "musique",
+        "exposition", "theatre", "roman", "artiste"};
+
+    /** Moteur de repli : 4 pour la catégorie dont un mot figure dans le titre. */
+    private static final class KeywordScorer implements NewsScorer {
+
+        private final AtomicInteger articles = new AtomicInteger();
+
+        private final List<Integer> batchSizes = new ArrayList<>();
+
+        @Override
+        public String generation() {
+            return "mots|";
+        }
+
+        @Override
+        public List<List<News>> plan(final List<News> news, final int categories) {
+            List<List<News>> batches = new ArrayList<>();
+            for (int start = 0; start < news.size(); start += 8) {
+                batches.add(news.subList(start, Math.min(news.size(), start + 8)));
+            }
+            return batches;
+        }
+
+        @Override
+        public List<List<Integer>> score(final List<News> batch,
+                                         final List<String> orderedCategories) {
+            articles.addAndGet(batch.size());
+            batchSizes.add(batch.size());
+            List<List<Integer>> scores = new ArrayList<>();
+            for (News news : batch) {
+                List<Integer> levels = new ArrayList<>();
+                for (String category : orderedCategories) {
+                    String[] words = "sport".equals(category) ? SPORT
+                            : "culture".equals(category) ? CULTURE : new String[0];
+                    boolean match = false;
+                    for (String word : words) {
+                        match |= news.getTitle().contains(word);
+                    }
+                    levels.add(match ? 4 : 0);
+                }
+                scores.add(levels);
+            }
+            return scores;
+        }
+    }
+
+    private static List<News> articles(final String run, final int count) {
+        List<News> news = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            String[] words = i % 2 == 0 ? SPORT : CULTURE;
+            news.add(new News(words[i % words.length] + " " + words[(i / 2 + 3) % words.length]
+                    + " " + run + i, "https://example.org/" + run + "/" + i, "d"));
+        }
+        return news;
+    }
+
+    @Test
+    @DisplayName("Test LLM seul avant apprentissage, puis scores locaux")
+    void testRouting() throws ApiException {
+        // Given
+        KeywordScorer llm = new KeywordScorer();
+        DistilledScorer scorer = new DistilledScorer(llm, 0.9, 40, 0, 1000);
+        List<String> categories = Theme.jsonNames();
+
+        // When : apprentissage sur les scores du LLM
+        List<News> training = articles("a", 40);
+        List<List<Integer>> labels = scorer.score(training, categories);
+        int llmAfterTraining = llm.articles.get();
+        List<News> fresh = articles("b", 20);
+        List<List<Integer>> predicted = scorer.score(fresh, categories);
+
+        // Then
+        assertThat(llmAfterTraining).isEqualTo(40);
+        assertThat(labels).isEqualTo(llm.score(training, categories));
+        assertThat(scorer.getExamples()).isEqualTo(40);
+        assertThat(llm.articles.get() - llmAfterTraining - 40).isLessThan(5);
+        assertThat(predicted).isEqualTo(llm.score(fresh, categories));
+    }
+
+    @Test
+    @DisplayName("Test articles sûrs regroupés en tête, contrôle et repli")
+    void testPlanAndAudit() throws ApiException {
+        // Given : un classifieur entraîné
+        KeywordScorer llm = new KeywordScorer();
+        DistilledScorer scorer = new DistilledScorer(llm, 0.9, 40, 0, 1000);
+        DistilledScorer audited = new DistilledScorer(llm, 0.9, 40, 1, 1000);
+        scorer.score(articles("a", 40), Theme.jsonNames());
+        audited.score(articles("a", 40), Theme.jsonNames());
+        News unknown = new News("Quelque chose d'inédit", "https://example.org/x", "d");
+        List<News> news = new ArrayList<>(articles("c", 4));
+        news.add(0, unknown);
+
+        // When
+        List<List<News>> batches = scorer.plan(news, Theme.jsonNames().size());
+        int before = llm.articles.get();
+        audited.score(articles("c", 4), Theme.jsonNames());
+
+        // Then
+        assertThat(batches).hasSize(2);
+        assertThat(batches.get(0)).doesNotContain(unknown).hasSize(4);
+        assertThat(batches.get(1)).containsExactly(unknown);
+        assertThat(llm.articles.get() - before).isEqualTo(4);
+        assertThat(scorer.generation()).startsWith("mots|d")
+                .isNotEqualTo(new DistilledScorer(llm, 0.5, 40, 0, 1000).generation());
+        assertThat(scorer.score(List.of(unknown), List.of("inconnu")))
+                .isEqualTo(Collections.singletonList(List.of(0)));
+    }
+
+    @Test
+    @DisplayName("Test catégorisation de bout en bout par LLMScorer")
+    void testCategorize() throws ApiException {
+        KeywordScorer llm = new KeywordScorer();
+        DistilledScorer scorer = new DistilledScorer(llm, 0.9, 40, 0, 1000);
+        String run = "distilled-" + System.nanoTime();
+
+        LLMScorer.categorize(new NewsCollection(articles(run + "a", 40)), Theme.jsonNames(),
+                scorer, partial -> { });
+        NewsCollection scored = LLMScorer.categorize(new NewsCollection(articles(run + "b", 10)),
+                Theme.jsonNames(), scorer, partial -> { });
+
+        assertThat(scored.getNewsCollection()).hasSize(10);
+        assertThat(scored.getNewsCollection().get(0).getScoreFor("sport")).isEqualTo(4);
+        assertThat(scored.getNewsCollection().get(1).getScoreFor("culture")).isEqualTo(4);
+        assertThat(llm.articles.get()).isLessThan(50);
+    }
+
+    @Test
+    @DisplayName("Test décision du découpage conservée au scoring")
+    void testPlanDecisionKept() throws ApiException {
+        // Given : un lot local planifié, puis des exemples ambigus qui
+        // font baisser la confiance
+        KeywordScorer llm = new KeywordScorer();
+        DistilledScorer scorer = new DistilledScorer(llm, 0.9, 40, 0, 1000);
+        scorer.score(articles("a", 40), Theme.jsonNames());
+        List<News> fresh = articles("b", 20);
+        List<News> local = scorer.plan(fresh, Theme.jsonNames().size()).get(0);
+        List<News> mixed = new ArrayList<>();
+        for (int i = 0; i < 80; i++) {
+            mixed.add(new News(SPORT[i % SPORT.length] + " " + CULTURE[i % CULTURE.length]
+                    + " c" + i, "https://example.org/c/" + i, "d"));
+        }
+        scorer.score(mixed, Theme.jsonNames());
+        assertThat(scorer.plan(fresh, Theme.jsonNames().size()).get(0))
+                .hasSizeLessThan(local.size());
+        int before = llm.articles.get();
+
+        // When
+        List<List<Integer>> scores = scorer.score(local, Theme.jsonNames());
+        llm.batchSizes.clear();
+        List<List<Integer>> unknown = scorer.score(local, List.of("inconnu"));
+
+        // Then : scoré localement ; hors thèmes connus, dans les lots du repli
+        assertThat(llm.articles.get()).isEqualTo(before + local.size());
+        assertThat(scores).hasSize(local.size()).doesNotContainNull();
+        assertThat(unknown).hasSize(local.size());
+        assertThat(llm.batchSizes).allMatch(size -> size <= 8);
+    }
+
+    @Test
+    @DisplayName("Test réponses du LLM malformées écartées de l'apprentissage")
+    void testMalformedLabelsIgnored() throws ApiException {
+        // Given : une valeur en trop, hors bornes, négative ; un seul score valide
+        KeywordScorer keywords = new KeywordScorer();
+        NewsScorer llm = new NewsScorer() {
+            @Override
+            public String generation() {
+                return keywords.generation();
+            }
+
+            @Override
+            public List<List<News>> plan(final List<News> news, final int categories) {
+                return keywords.plan(news, categories);
+            }
+
+            @Override
+            public List<List<Integer>> score(final List<News> batch,
+                                             final List<String> orderedCategories) {
+                List<List<Integer>> scores = keywords.score(batch, orderedCategories);
+                scores.get(0).add(4);
+                scores.get(1).set(0, 7);
+                scores.get(2).set(0, -1);
+                return scores;
+            }
+        };
+        DistilledScorer scorer = new DistilledScorer(llm, 0.9, 40, 0, 1000);
+
+        // When
+        scorer.score(articles("m", 4), Theme.jsonNames());
+
+        // Then
+        assertThat(scorer.getExamples()).isEqualTo(1);
+    }
+}
@@ -0,0 +1,118 @@
+package api.service;
+
+import api.util.ApiException;
+import dev.langchain4j.data.embedding.Embedding;
+import dev.langchain4j.data.segment.TextSegment;
+import dev.langchain4j.model.embedding.EmbeddingModel;
+import dev.langchain4j.model.ollama.OllamaEmbeddingModel;
+import dev.langchain4j.model.output.Response;
+import model.News;
+import model.NewsCollection;
+import model.Theme;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class EmbeddingScorerTest {
+
+    private static final String SPORT = "Finale du championnat de football. "
+            + "Victoire de l'équipe au match";
+
+    private static final String CULTURE = "Festival de cinéma. "
+            + "Concert et exposition au musée";
+
+    /** Embeddings du faux serveur, calculés sans HTTP. */
+    private static EmbeddingModel bagOfWords(final AtomicInteger texts) {
+        return segments -> {
+            texts.addAndGet(segments.size());
+            return Response.from(segments.stream()
+                    .map(TextSegment::text)
+                    .map(FakeOllamaServer::embedding)
+                    .map(Embedding::from)
+                    .toList());
+        };
+    }
+
+    @Test
+    @DisplayName("Test scores par similarité aux centroïdes, calculés une fois")
+    void testScore() throws ApiException {
+        // Given
+        AtomicInteger texts = new AtomicInteger();
+        EmbeddingScorer scorer = new EmbeddingScorer(bagOfWords(texts), "bow", 8, 0.2, 0.5);
+        List<News> batch = List.of(new News(SPORT, "l1", ""), new News(CULTURE, "l2", ""));
+
+        // When
+        List<List<Integer>> scores = scorer.score(batch, List.of("sport", "culture", "inconnu"));
+        int firstCall = texts.get();
+        scorer.score(batch, List.of("sport"));
+
+        // Then
+        assertThat(scores.get(0).get(0)).isGreaterThanOrEqualTo(3);
+        assertThat(scores.get(0).get(1)).isZero();
+        assertThat(scores.get(1).get(0)).isZero();
+        assertThat(scores.get(1).get(1)).isGreaterThanOrEqualTo(3);
+        assertThat(scores).allSatisfy(article -> assertThat(article.get(2)).isZero());
+        assertThat(firstCall).isGreaterThan(Theme.values().length + batch.size());
+        assertThat(texts.get() - firstCall).isEqualTo(batch.size());
+    }
+
+    @Test
+    @DisplayName("Test quantification, découpage en lots et génération")
+    void testQuantizeAndPlan() {
+        EmbeddingScorer scorer = new EmbeddingScorer(segments -> null, "bow", 2, 0.4, 0.7);
+
+        assertThat(scorer.quantize(0.39)).isZero();
+        assertThat(scorer.quantize(0.4)).isEqualTo(1);
+        assertThat(scorer.quantize(0.55)).isEqualTo(2);
+        assertThat(scorer.quantize(0.69)).isEqualTo(3);
+        assertThat(scorer.quantize(0.9)).isEqualTo(4);
+        List<News> news = List.of(new News("a", "a", ""), new News("b", "b", ""),
+                new News("c", "c", ""));
+        assertThat(scorer.plan(news, 12)).extracting(List::size).containsExactly(2, 1);
+        assertThat(scorer.generation()).startsWith("bow|e")
+                .isNotEqualTo(new EmbeddingScorer(segments -> null, "bow", 2, 0.5, 0.7)
+                        .generation());
+        assertThatThrownBy(() -> new EmbeddingScorer(segments -> null, "bow", 2, 0.7, 0.4))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    @DisplayName("Test scoring de bout en bout via /api/embeddings, un appel par article")
+    void testCategorizeWithFakeOllama() throws Exception {
+        // Given
+        String run = "embedding-" + System.nanoTime();
+        NewsCollection news = new NewsCollection(List.of(
+                new News(SPORT, "https://example.org/" + run + "/1", run),
+                new News(CULTURE, "https://example.org/" + run + "/2", run)));
+
+        try (FakeOllamaServer fake = FakeOllamaServer.start(FakeOllamaServer.Options.defaults())) {
+            NewsScorer scorer = new EmbeddingScorer(OllamaEmbeddingModel.builder()
+                    .baseUrl(fake.baseUrl())
+                    .modelName("nomic-embed-text")
+                    .timeout(Duration.ofSeconds(10))
+                    .maxRetries(0)
+                    .build(), "nomic-embed-text-" + run, 16, 0.2, 0.5);
+
+            // When
+            NewsCollection scored = LLMScorer.categorize(news, Theme.jsonNames(), scorer,
+                    partial -> { });
+            int requests = fake.getRequests();
+            LLMScorer.categorize(news, Theme.jsonNames(), scorer, partial -> { });
+
+            // Then : centroïdes puis un appel par article ; second passage depuis le cache
+            assertThat(scored.getNewsCollection().get(0).getScoreFor("sport"))
+                    .isGreaterThanOrEqualTo(3);
+            assertThat(scored.getNewsCollection().get(1).getScoreFor("culture"))
+                    .isGreaterThanOrEqualTo(3);
+            assertThat(scored.getNewsCollection().get(1).getScoreFor("sport")).isZero();
+            assertThat(fake.getRequests()).isEqualTo(requests);
+            assertThat(requests - 2).isGreaterThanOrEqualTo(Theme.values().length);
+        }
+    }
+}
@@ -0,0 +1,539 @@
+package api.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.text.Normalizer;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Faux serveur Ollama pour les tests d'intégration et les essais de
+ * charge sans GPU ni réseau.
+ * <p>
+ * Il parle le protocole utilisé par langchain4j ({@code /api/chat},
+ * {@code /api/generate}, réponses complètes ou NDJSON en streaming,
+ * {@code /api/embeddings}, {@code /api/tags}) et répond aux prompts de
+ * {@link LLMScorer} par une map de scores bien formée et déterministe :
+ * un article obtient 4 pour les catégories dont le nom apparaît dans son
+ * texte, et un score pseudo-aléatoire stable (dérivé du texte) pour les
+ * autres. Les embeddings sont des sacs de mots hachés : deux textes
+ * partageant des mots ont une similarité cosinus positive.
+ * </p>
+ * <p>
+ * La latence (distribution fixe, uniforme ou log-normale, plus un coût
+ * par article), le nombre de requêtes traitées en parallèle (comme
+ * {@code OLLAMA_NUM_PARALLEL}), le taux d'erreurs HTTP 500 et le taux
+ * de réponses mal formées sont configurables.
+ * </p>
+ * <p>
+ * En ligne de commande (voir {@link #main(String[])}) :
+ * {@code mvn -Pbench test-compile exec:exec
+ * -Djmh.main=api.service.FakeOllamaServer
+ * -Djmh.args="--port=11434 --latency=lognormal:2000:0.5"}.
+ * </p>
+ */
+public final class FakeOllamaServer implements AutoCloseable {
+
+    /** Distribution des latences simulées. */
+    public enum Distribution { FIXED, UNIFORM, LOGNORMAL }
+
+    /**
+     * Latence simulée d'une requête :
+     * {@code tirage(médiane, dispersion) + perArticleMs * articles}.
+     * <ul>
+     *   <li>{@code FIXED} : la médiane ;</li>
+     *   <li>{@code UNIFORM} : uniforme dans
+     *   {@code médiane * [1 - dispersion, 1 + dispersion]} ;</li>
+     *   <li>{@code LOGNORMAL} : {@code médiane * exp(dispersion * N(0, 1))}
+     *   (queue de distribution longue, comme un vrai LLM).</li>
+     * </ul>
+     *
+     * @param distribution distribution des latences
+     * @param medianMs     latence médiane, en millisecondes
+     * @param spread       dispersion
+     * @param perArticleMs coût additionnel par article du lot
+     */
+    public record Latency(Distribution distribution, long medianMs,
+                          double spread, long perArticleMs) {
+
+        /** Aucune latence. */
+        public static final Latency NONE =
+                new Latency(Distribution.FIXED, 0, 0, 0);
+
+        long sampleMillis(final Random random, final int articles) {
+            double base = switch (distribution) {
+                case FIXED -> medianMs;
+                case UNIFORM -> medianMs
+                        * (1 - spread + 2 * spread * random.nextDouble());
+                case LOGNORMAL -> medianMs
+                        * Math.exp(spread * random.nextGaussian());
+            };
+            return Math.max(0, Math.round(base)) + perArticleMs * articles;
+        }
+
+        /**
+         * Lit une latence au format {@code distribution:médiane[:dispersion]}
+         * (ex. {@code lognormal:2000:0.5}).
+         *
+         * @param spec         la spécification
+         * @param perArticleMs coût additionnel par article
+         * @return la latence
+         */
+        public static Latency parse(final String spec, final long perArticleMs) {
+            String[] parts = spec.split(":");
+            return new Latency(
+                    Distribution.valueOf(parts[0].toUpperCase(Locale.ROOT)),
+                    parts.length > 1 ? Long.parseLong(parts[1]) : 0,
+                    parts.length > 2 ? Double.parseDouble(parts[2]) : 0,
+                    perArticleMs);
+        }
+    }
+
+    /**
+     * Configuration du serveur.
+     *
+     * @param port          port d'écoute (0 : port libre)
+     * @param latency       latence simulée
+     * @param parallel      requêtes traitées simultanément (les autres
+     *                      attendent), 0 pour ne pas limiter
+     * @param errorRate     proportion de réponses HTTP 500
+     * @param malformedRate proportion de réponses mal formées
+     * @param seed          graine des tirages aléatoires
+     */
+    public record Options(int port, Latency latency, int parallel,
+                          double errorRate, double malformedRate,
+                          long seed) {
+
+        /**
+         * Configuration par défaut : port libre, sans latence, sans
+         * limite ni erreur.
+         *
+         * @return la configuration
+         */
+        public static Options defaults() {
+            return new Options(0, Latency.NONE, 0, 0, 0, 1);
+        }
+
+        public Options withLatency(final Latency value) {
+            return new Options(port, value, parallel, errorRate,
+                    malformedRate, seed);
+        }
+
+        public Options withParallel(final int value) {
+            return new Options(port, latency, value, errorRate,
+                    malformedRate, seed);
+        }
+
+        public Options withErrorRate(final double value) {
+            return new Options(port, latency, parallel, value,
+                    malformedRate, seed);
+        }
+
+        public Options withMalformedRate(final double value) {
+            return new Options(port, latency, parallel, errorRate,
+                    value, seed);
+        }
+    }
+
+    /** Nombre de morceaux d'une réponse en streaming. */
+    private static final int STREAM_CHUNKS = 8;
+
+    /** Catégories et nombre attendus dans le prompt de {@link LLMScorer}. */
+    private static final Pattern CATEGORIES = Pattern.compile(
+            "ordre EXACT de (\\d+)\\s+thèmes:\\s*([^\\n]+)");
+
+    /** Articles du prompt : {@code "ID": "Titre. Description"}. */
+    private static final Pattern ARTICLE = Pattern.compile(
+            "(?m)^\\s*\"(\\d+)\": \"(.*)\"\\s*$");
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    /** Dimension des embeddings. */
+    static final int EMBEDDING_DIMENSION = 1024;
+
+    /** Longueur minimale d'un mot pris en compte dans un embedding. */
+    private static final int MIN_WORD_LENGTH = 4;
+
+    private final Options options;
+    private final HttpServer server;
+    private final ExecutorService executor;
+    private final Semaphore slots;
+
+    private final AtomicInteger requests = new AtomicInteger();
+    private final AtomicInteger errors = new AtomicInteger();
+    private final AtomicInteger malformed = new AtomicInteger();
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicInteger maxInFlight = new AtomicInteger();
+
+    private FakeOllamaServer(final Options serverOptions) throws IOException {
+        this.options = serverOptions;
+        this.slots = serverOptions.parallel() > 0
+                ? new Semaphore(serverOptions.parallel(), true)
+                : null;
+        this.server = HttpServer.create(
+                new InetSocketAddress("127.0.0.1", serverOptions.port()), 0);
+        this.executor = Executors.newCachedThreadPool(runnable -> {
+            Thread thread = new Thread(runnable, "fake-ollama");
+            thread.setDaemon(true);
+            return thread;
+        });
+        server.setExecutor(executor);
+        server.createContext("/api/chat", exchange -> handle(exchange, true));
+        server.createContext("/api/generate", exchange -> handle(exchange, false));
+        server.createContext("/api/embeddings", this::handleEmbeddings);
+        server.createContext("/api/tags", this::handleTags);
+    }
+
+    /**
+     * Démarre un serveur.
+     *
+     * @param options configuration
+     * @return le serveur démarré
+     * @throws IOException si le port n'est pas disponible
+     */
+    public static FakeOllamaServer start(final Options options) throws IOException {
+        FakeOllamaServer fake = new FakeOllamaServer(options);
+        fake.server.start();
+        return fake;
+    }
+
+    /**
+     * Retourne l'URL de base, à passer à {@code OllamaChatModel.baseUrl}.
+     *
+     * @return l'URL de base
+     */
+    public String baseUrl() {
+        return "http://127.0.0.1:" + server.getAddress().getPort();
+    }
+
+    public int getRequests() {
+        return requests.get();
+    }
+
+    public int getErrors() {
+        return errors.get();
+    }
+
+    public int getMalformed() {
+        return malformed.get();
+    }
+
+    /**
+     * Retourne le nombre maximal de requêtes traitées simultanément
+     * (hors attente d'un créneau).
+     *
+     * @return le pic de concurrence observé
+     */
+    public int getMaxInFlight() {
+        return maxInFlight.get();
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    private void handle(final HttpExchange exchange, final boolean chat)
+            throws IOException {
+        int number = requests.incrementAndGet();
+        Random random = new Random(options.seed() * 31 + number);
+        try (exchange) {
+            JsonNode request = MAPPER.readTree(exchange.getRequestBody());
+            String prompt = chat ? lastMessage(request) : request.path("prompt").asText();
+            List<String[]> articles = articles(prompt);
+
+            acquireSlot();
+            try {
+                int current = inFlight.incrementAndGet();
+                maxInFlight.accumulateAndGet(current, Math::max);
+                Thread.sleep(options.latency().sampleMillis(random, articles.size()));
+            } finally {
+                inFlight.decrementAndGet();
+                releaseSlot();
+            }
+
+            if (random.nextDouble() < options.errorRate()) {
+                errors.incrementAndGet();
+                send(exchange, 500, "{\"error\":\"fake ollama: erreur simulée\"}");
+                return;
+            }
+            String content;
+            if (random.nextDouble() < options.malformedRate()) {
+                malformed.incrementAndGet();
+                content = malformedAnswer(prompt, articles, random);
+            } else {
+                content = scoresAnswer(prompt, articles);
+            }
+            String model = request.path("model").asText("fake");
+            if (request.path("stream").asBoolean(true)) {
+                stream(exchange, chat, model, content);
+            } else {
+                send(exchange, 200, MAPPER.writeValueAsString(
+                        chunk(chat, model, content, true)));
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void handleEmbeddings(final HttpExchange exchange) throws IOException {
+        int number = requests.incrementAndGet();
+        Random random = new Random(options.seed() * 31 + number);
+        try (exchange) {
+            JsonNode request = MAPPER.readTree(exchange.getRequestBody());
+
+            acquireSlot();
+            try {
+                int current = inFlight.incrementAndGet();
+                maxInFlight.accumulateAndGet(current, Math::max);
+                Thread.sleep(options.latency().sampleMillis(random, 1));
+            } finally {
+                inFlight.decrementAndGet();
+                releaseSlot();
+            }
+
+            if (random.nextDouble() < options.errorRate()) {
+                errors.incrementAndGet();
+                send(exchange, 500, "{\"error\":\"fake ollama: erreur simulée\"}");
+                return;
+            }
+            ObjectNode answer = MAPPER.createObjectNode();
+            var values = answer.putArray("embedding");
+            for (float value : embedding(request.path("prompt").asText())) {
+                values.add(value);
+            }
+            send(exchange, 200, answer.toString());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Embedding déterministe d'un texte : chaque mot d'au moins
+     * {@value #MIN_WORD_LENGTH} lettres (minuscules, sans accents)
+     * incrémente une composante choisie par hachage.
+     */
+    static float[] embedding(final String text) {
+        float[] vector = new float[EMBEDDING_DIMENSION];
+        for (String word : fold(text).split("[^a-z0-9]+")) {
+            if (word.length() >= MIN_WORD_LENGTH) {
+                vector[Math.floorMod(word.hashCode(), EMBEDDING_DIMENSION)]++;
+            }
+        }
+        return vector;
+    }
+
+    private void handleTags(final HttpExchange exchange) throws IOException {
+        try (exchange) {
+            send(exchange, 200, "{\"models\":[{\"name\":\"qwen2.5:7b\","
+                    + "\"model\":\"qwen2.5:7b\"}]}");
+        }
+    }
+
+    private void acquireSlot() throws InterruptedException {
+        if (slots != null) {
+            slots.acquire();
+        }
+    }
+
+    private void releaseSlot() {
+        if (slots != null) {
+            slots.release();
+        }
+    }
+
+    private static String lastMessage(final JsonNode request) {
+        JsonNode messages = request.path("messages");
+        return messages.isEmpty()
+                ? ""
+                : messages.get(messages.size() - 1).path("content").asText();
+    }
+
+    /**
+     * Extrait les articles du prompt.
+     *
+     * @param prompt le prompt
+     * @return les paires (ID, texte)
+     */
+    private static List<String[]> articles(final String prompt) {
+        List<String[]> articles = new ArrayList<>();
+        Matcher matcher = ARTICLE.matcher(prompt);
+        while (matcher.find()) {
+            articles.add(new String[] {matcher.group(1), matcher.group(2)});
+        }
+        return articles;
+    }
+
+    private static List<String> categories(final String prompt) {
+        Matcher matcher = CATEGORIES.matcher(prompt);
+        if (!matcher.find()) {
+            return List.of();
+        }
+        List<String> categories = new ArrayList<>();
+        for (String category : matcher.group(2).split(",")) {
+            categories.add(category.trim());
+        }
+        return categories;
+    }
+
+    /**
+     * Calcule la réponse bien formée : une liste de scores par article,
+     * dans l'ordre des catégories du prompt.
+     */
+    private static String scoresAnswer(final String prompt,
+                                       final List<String[]> articles) {
+        List<String> categories = categories(prompt);
+        ObjectNode answer = MAPPER.createObjectNode();
+        for (String[] article : articles) {
+            String text = fold(article[1]);
+            var scores = answer.putArray(article[0]);
+            for (String category : categories) {
+                scores.add(score(text, fold(category)));
+            }
+        }
+        return answer.toString();
+    }
+
+    /**
+     * Score stable d'un article pour une catégorie : 4 si le nom de la
+     * catégorie figure dans le texte, sinon 0 dans 60 % des cas et 1 à
+     * 3 dans les autres.
+     */
+    static int score(final String text, final String category) {
+        if (!category.isEmpty() && text.contains(category)) {
+            return 4;
+        }
+        int hash = Math.floorMod((text + "|" + category).hashCode(), 10);
+        return hash < 6 ? 0 : Math.min(3, hash - 5);
+    }
+
+    /** Réponse mal formée : JSON tronqué, texte seul ou listes trop courtes. */
+    private static String malformedAnswer(final String prompt,
+                                          final List<String[]> articles,
+                                          final Random random) {
+        String valid = scoresAnswer(prompt, articles);
+        return switch (random.nextInt(3)) {
+            case 0 -> valid.substring(0, valid.length() / 2);
+            case 1 -> "Je ne peux pas évaluer ces articles.";
+            default -> valid.replaceAll(",\\d+]", "]");
+        };
+    }
+
+    private static ObjectNode chunk(final boolean chat, final String model,
+                                    final String content, final boolean done) {
+        ObjectNode node = MAPPER.createObjectNode();
+        node.put("model", model);
+        node.put("created_at", Instant.now().toString());
+        if (chat) {
+            ObjectNode message = node.putObject("message");
+            message.put("role", "assistant");
+            message.put("content", content);
+        } else {
+            node.put("response", content);
+        }
+        node.put("done", done);
+        if (done) {
+            node.put("prompt_eval_count", 0);
+            node.put("eval_count", content.length() / 4);
+        }
+        return node;
+    }
+
+    /** Envoie la réponse en NDJSON, en plusieurs morceaux. */
+    private static void stream(final HttpExchange exchange, final boolean chat,
+                               final String model, final String content)
+            throws IOException {
+        exchange.getResponseHeaders().add("Content-Type", "application/x-ndjson");
+        exchange.sendResponseHeaders(200, 0);
+        try (OutputStream out = exchange.getResponseBody()) {
+            int size = Math.max(1, content.length() / STREAM_CHUNKS + 1);
+            for (int start = 0; start < content.length(); start += size) {
+                String part = content.substring(start,
+                        Math.min(content.length(), start + size));
+                out.write((MAPPER.writeValueAsString(chunk(chat, model, part, false))
+                        + "\n").getBytes(StandardCharsets.UTF_8));
+                out.flush();
+            }
+            out.write((MAPPER.writeValueAsString(chunk(chat, model, "", true))
+                    + "\n").getBytes(StandardCharsets.UTF_8));
+        }
+    }
+
+    private static void send(final HttpExchange exchange, final int status,
+                             final String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().add("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    /** Minuscules sans accents, pour comparer noms de catégories et textes. */
+    private static String fold(final String text) {
+        return Normalizer.normalize(text, Normalizer.Form.NFD)
+                .replaceAll("\\p{M}", "")
+                .toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Lance le serveur jusqu'à l'arrêt du processus.
+     * <p>
+     * Options : {@code --port=11434}, {@code --latency=lognormal:2000:0.5}
+     * ({@code fixed|uniform|lognormal:médiane_ms[:dispersion]}),
+     * {@code --per-article-ms=0}, {@code --parallel=0},
+     * {@code --error-rate=0}, {@code --malformed-rate=0},
+     * {@code --seed=1}.
+     * </p>
+     *
+     * @param args les options
+     * @throws Exception si le serveur ne démarre pas
+     */
+    public static void main(final String[] args) throws Exception {
+        int port = 11434;
+        String latency = "fixed:0";
+        long perArticle = 0;
+        int parallel = 0;
+        double errorRate = 0;
+        double malformedRate = 0;
+        long seed = 1;
+        for (String arg : args) {
+            String[] option = arg.split("=", 2);
+            String value = option.length > 1 ? option[1] : "";
+            switch (option[0]) {
+                case "--port" -> port = Integer.parseInt(value);
+                case "--latency" -> latency = value;
+                case "--per-article-ms" -> perArticle = Long.parseLong(value);
+                case "--parallel" -> parallel = Integer.parseInt(value);
+                case "--error-rate" -> errorRate = Double.parseDouble(value);
+                case "--malformed-rate" -> malformedRate = Double.parseDouble(value);
+                case "--seed" -> seed = Long.parseLong(value);
+                default -> throw new IllegalArgumentException("Option inconnue : " + arg);
+            }
+        }
+        FakeOllamaServer fake = start(new Options(port,
+                Latency.parse(latency, perArticle), parallel, errorRate,
+                malformedRate, seed));
+        System.out.println("Faux Ollama à l'écoute sur " + fake.baseUrl()
+                + " (OLLAMA_HOST=" + fake.baseUrl() + ")");
+        Thread.currentThread().join();
+    }
+}
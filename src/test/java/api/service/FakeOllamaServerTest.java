@@ -0,0 +1,186 @@
+package api.service;
+
+import api.util.ApiException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import dev.langchain4j.data.message.AiMessage;
+import dev.langchain4j.model.StreamingResponseHandler;
+import dev.langchain4j.model.chat.ChatLanguageModel;
+import dev.langchain4j.model.ollama.OllamaChatModel;
+import dev.langchain4j.model.ollama.OllamaLanguageModel;
+import dev.langchain4j.model.ollama.OllamaStreamingChatModel;
+import dev.langchain4j.model.output.Response;
+import model.News;
+import model.NewsCollection;
+import model.Theme;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class FakeOllamaServerTest {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private static final String PROMPT = """
+            2.  Ordre des catégories: Tu DOIS respecter cet ordre EXACT de 2
+                thèmes: sport, culture
+            ARTICLES À ÉVALUER (Format "ID": "Titre. Description"):
+            "1": "Finale de sport. Le match de la saison"
+            "2": "Un festival. Culture et musique"
+            """;
+
+    private static ChatLanguageModel chatModel(final FakeOllamaServer fake) {
+        return OllamaChatModel.builder()
+                .baseUrl(fake.baseUrl())
+                .modelName("qwen2.5:7b")
+                .timeout(Duration.ofSeconds(10))
+                .maxRetries(0)
+                .build();
+    }
+
+    private static Map<String, List<Integer>> parse(final String json) throws Exception {
+        return MAPPER.readValue(json, new TypeReference<>() { });
+    }
+
+    @Test
+    @DisplayName("Test protocole /api/chat, /api/generate et streaming NDJSON")
+    void testProtocols() throws Exception {
+        try (FakeOllamaServer fake = FakeOllamaServer.start(FakeOllamaServer.Options.defaults())) {
+            // When
+            String chat = chatModel(fake).generate(PROMPT);
+            String generate = OllamaLanguageModel.builder()
+                    .baseUrl(fake.baseUrl()).modelName("qwen2.5:7b").maxRetries(0).build()
+                    .generate(PROMPT).content();
+            CompletableFuture<String> streamed = new CompletableFuture<>();
+            OllamaStreamingChatModel.builder()
+                    .baseUrl(fake.baseUrl()).modelName("qwen2.5:7b").build()
+                    .generate(PROMPT, new StreamingResponseHandler<AiMessage>() {
+                        @Override
+                        public void onNext(final String token) {
+                        }
+
+                        @Override
+                        public void onComplete(final Response<AiMessage> response) {
+                            streamed.complete(response.content().text());
+                        }
+
+                        @Override
+                        public void onError(final Throwable error) {
+                            streamed.completeExceptionally(error);
+                        }
+                    });
+
+            // Then : réponses identiques, déterministes et bien formées
+            Map<String, List<Integer>> scores = parse(chat);
+            assertThat(scores).containsOnlyKeys("1", "2");
+            assertThat(scores.get("1")).hasSize(2).first().isEqualTo(4);
+            assertThat(scores.get("2")).hasSize(2).last().isEqualTo(4);
+            assertThat(generate).isEqualTo(chat);
+            assertThat(streamed.get(10, TimeUnit.SECONDS)).isEqualTo(chat);
+            assertThat(fake.getRequests()).isEqualTo(3);
+        }
+    }
+
+    @Test
+    @DisplayName("Test scoring de bout en bout par LLMScorer, parallélisme borné")
+    void testCategorize() throws Exception {
+        // Given : un faux serveur lent qui ne traite qu'un lot à la fois
+        FakeOllamaServer.Options options = FakeOllamaServer.Options.defaults()
+                .withLatency(new FakeOllamaServer.Latency(
+                        FakeOllamaServer.Distribution.UNIFORM, 20, 0.5, 1))
+                .withParallel(1);
+        String run = "fake-" + System.nanoTime();
+        List<News> news = new ArrayList<>();
+        for (int i = 0; i < 40; i++) {
+            news.add(new News(run + " sport " + i, "https://example.org/" + run + "/" + i,
+                    "Résumé du match " + i));
+        }
+
+        try (FakeOllamaServer fake = FakeOllamaServer.start(options)) {
+            // When
+            NewsCollection scored = LLMScorer.categorize(new NewsCollection(news),
+                    Theme.jsonNames(), chatModel(fake));
+            int requests = fake.getRequests();
+            LLMScorer.categorize(new NewsCollection(news), Theme.jsonNames(), chatModel(fake));
+
+            // Then : chaque article est scoré, le second passage vient du cache
+            assertThat(scored.getNewsCollection()).hasSize(40)
+                    .allSatisfy(article -> assertThat(article.getScoreFor("sport")).isEqualTo(4));
+            assertThat(requests).isGreaterThan(1);
+            assertThat(fake.getRequests()).isEqualTo(requests);
+            assertThat(fake.getMaxInFlight()).isEqualTo(1);
+        }
+    }
+
+    @Test
+    @DisplayName("Test scoring de bout en bout en streaming NDJSON")
+    void testCategorizeStreaming() throws Exception {
+        // Given
+        String run = "fake-stream-" + System.nanoTime();
+        List<News> news = new ArrayList<>();
+        for (int i = 0; i < 12; i++) {
+            news.add(new News(run + " culture " + i, "https://example.org/" + run + "/" + i,
+                    "Un festival de musique " + i));
+        }
+
+        try (FakeOllamaServer fake = FakeOllamaServer.start(FakeOllamaServer.Options.defaults())) {
+            NewsScorer scorer = LLMScorer.streaming(OllamaStreamingChatModel.builder()
+                    .baseUrl(fake.baseUrl())
+                    .modelName("qwen2.5:7b")
+                    .timeout(Duration.ofSeconds(10))
+                    .build());
+
+            // When
+            NewsCollection scored = LLMScorer.categorize(new NewsCollection(news),
+                    Theme.jsonNames(), scorer, partial -> { });
+
+            // Then : mêmes scores qu'en réponse complète
+            assertThat(scored.getNewsCollection()).hasSize(12)
+                    .allSatisfy(article -> assertThat(article.getScoreFor("culture")).isEqualTo(4));
+            assertThat(fake.getRequests()).isPositive();
+        }
+    }
+
+    @Test
+    @DisplayName("Test erreurs HTTP et réponses mal formées injectées")
+    void testInjectedFailures() throws Exception {
+        String run = "fake-" + System.nanoTime();
+        NewsCollection news = new NewsCollection(List.of(
+                new News(run, "https://example.org/" + run, "d")));
+
+        try (FakeOllamaServer failing = FakeOllamaServer.start(
+                FakeOllamaServer.Options.defaults().withErrorRate(1));
+             FakeOllamaServer malformed = FakeOllamaServer.start(
+                FakeOllamaServer.Options.defaults().withMalformedRate(1))) {
+
+            assertThatThrownBy(() -> LLMScorer.categorize(news, Theme.jsonNames(),
+                    chatModel(failing)))
+                    .isInstanceOf(ApiException.class)
+                    .extracting("code").isEqualTo("llm_batch_failed");
+            // Une tentative et deux nouvelles tentatives (LLM_MAX_RETRIES)
+            assertThat(failing.getErrors()).isEqualTo(3);
+
+            for (int i = 0; i < 6; i++) {
+                String answer = chatModel(malformed).generate(PROMPT);
+                boolean wellFormed;
+                try {
+                    wellFormed = parse(answer).values().stream()
+                            .allMatch(scores -> scores.size() == 2);
+                } catch (Exception e) {
+                    wellFormed = false;
+                }
+                assertThat(wellFormed).as(answer).isFalse();
+            }
+            assertThat(malformed.getMalformed()).isEqualTo(6);
+        }
+    }
+}
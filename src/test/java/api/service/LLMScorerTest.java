@@ -0,0 +1,166 @@
+package api.service;
+
+import api.util.Metrics;
+import dev.langchain4j.data.message.AiMessage;
+import dev.langchain4j.data.message.UserMessage;
+import dev.langchain4j.model.chat.ChatLanguageModel;
+import dev.langchain4j.model.chat.StreamingChatLanguageModel;
+import dev.langchain4j.model.output.Response;
+import model.News;
+import model.NewsCollection;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.UnaryOperator;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class LLMScorerTest {
+
+    private static final List<String> CATEGORIES = List.of("sport", "culture");
+
+    /**
+     * Découpage propre à chaque test, en un seul lot : le planificateur
+     * partagé dépend des tests précédents.
+     */
+    private static BatchPlanner planner() {
+        return new BatchPlanner(100_000, 16, 16, 60_000);
+    }
+
+    private static List<News> batch(final String run, final int size) {
+        List<News> news = new ArrayList<>();
+        for (int i = 0; i < size; i++) {
+            news.add(new News(run + " " + i, "https://example.org/" + run + "/" + i, "d"));
+        }
+        return news;
+    }
+
+    @Test
+    @DisplayName("Test streaming : chaque article est signalé avant la fin du lot")
+    void testStreamingListener() throws Exception {
+        // Given : un modèle qui note ce qui a été signalé entre deux morceaux
+        List<Integer> signaled = new ArrayList<>();
+        List<Integer> signaledBeforeEnd = new ArrayList<>();
+        StreamingChatLanguageModel model = (messages, handler) -> {
+            handler.onNext("{\"1\": [4, 0],");
+            handler.onNext(" \"2\": [0, 4]");
+            signaledBeforeEnd.addAll(signaled);
+            handler.onNext("}");
+            handler.onComplete(Response.from(AiMessage.from("")));
+        };
+
+        // When
+        List<List<Integer>> scores = LLMScorer.streaming(model, planner()).score(
+                batch("listener", 2), CATEGORIES, (index, articleScores) -> signaled.add(index));
+
+        // Then
+        assertThat(signaledBeforeEnd).containsExactly(0, 1);
+        assertThat(scores).containsExactly(List.of(4, 0), List.of(0, 4));
+    }
+
+    @Test
+    @DisplayName("Test streaming interrompu : articles reçus conservés, seul le manquant est rescoré")
+    void testInterruptedStream() throws Exception {
+        // Given : la connexion tombe après le deuxième article sur trois
+        String run = "interrupted-" + System.nanoTime();
+        List<News> news = batch(run, 3);
+        AtomicInteger calls = new AtomicInteger();
+        StreamingChatLanguageModel model = (messages, handler) -> {
+            if (calls.incrementAndGet() == 1) {
+                handler.onNext("{\"1\": [4, 0], \"2\": [1, 3], \"3\": [");
+                handler.onError(new IOException("connexion perdue"));
+            } else {
+                handler.onNext("{\"1\": [2, 2]}");
+                handler.onComplete(Response.from(AiMessage.from("")));
+            }
+        };
+
+        // When
+        NewsCollection scored = LLMScorer.categorize(new NewsCollection(news), CATEGORIES,
+                LLMScorer.streaming(model, planner()), partial -> { });
+
+        // Then
+        assertThat(scored.getNewsCollection()).containsExactlyElementsOf(news);
+        assertThat(news.get(1).getScoreFor("culture")).isEqualTo(3);
+        assertThat(news.get(2).getScoreFor("culture")).isEqualTo(2);
+        assertThat(calls).hasValue(2);
+    }
+
+    @Test
+    @DisplayName("Test bisection : un article qui casse la réponse est isolé et écarté")
+    void testBisection() throws Exception {
+        // Given : toute réponse à un lot contenant l'article piégé est inexploitable
+        String run = "bisection-" + System.nanoTime();
+        List<News> news = batch(run, 6);
+        News poison = news.get(4);
+        AtomicInteger calls = new AtomicInteger();
+        double unscorable = counter("llm.unscorable");
+        BatchPlanner planner = planner();
+        ChatLanguageModel model = chat(prompt -> {
+            calls.incrementAndGet();
+            return prompt.contains(poison.getTitle() + ".") ? "Je ne peux pas." : answer(prompt);
+        });
+
+        // When
+        NewsCollection scored = LLMScorer.categorize(new NewsCollection(news), CATEGORIES,
+                LLMScorer.chat(model, planner), partial -> { });
+
+        // Then
+        assertThat(scored.getNewsCollection()).hasSize(5).doesNotContain(poison);
+        assertThat(counter("llm.unscorable") - unscorable).isEqualTo(1);
+        assertThat(calls.get()).isGreaterThan(1).isLessThan(2 * news.size());
+        // Seul le lot planifié réduit la taille des lots (16 -> 6 / 2)
+        assertThat(planner.getCurrentMaxItems()).isEqualTo(3);
+    }
+
+    @Test
+    @DisplayName("Test nouvelles tentatives après des appels en échec")
+    void testRetries() throws Exception {
+        // Given : les deux premiers appels échouent
+        String run = "retries-" + System.nanoTime();
+        List<News> news = batch(run, 2);
+        AtomicInteger calls = new AtomicInteger();
+        double retries = counter("llm.retries");
+        ChatLanguageModel model = chat(prompt -> {
+            if (calls.incrementAndGet() <= 2) {
+                throw new IllegalStateException("HTTP 500");
+            }
+            return answer(prompt);
+        });
+
+        // When
+        NewsCollection scored = LLMScorer.categorize(new NewsCollection(news), CATEGORIES,
+                LLMScorer.chat(model, planner()), partial -> { });
+
+        // Then
+        assertThat(scored.getNewsCollection()).hasSize(2);
+        assertThat(calls).hasValue(3);
+        assertThat(counter("llm.retries") - retries).isEqualTo(2);
+    }
+
+    private static ChatLanguageModel chat(final UnaryOperator<String> answers) {
+        return messages -> Response.from(AiMessage.from(
+                answers.apply(((UserMessage) messages.get(0)).singleText())));
+    }
+
+    /** Réponse bien formée : des scores [1, 2] pour chaque article du prompt. */
+    private static String answer(final String prompt) {
+        Matcher article = Pattern.compile("(?m)^\\s*\"(\\d+)\": \"").matcher(prompt);
+        StringBuilder json = new StringBuilder("{");
+        while (article.find()) {
+            json.append(json.length() > 1 ? ", " : "").append('"').append(article.group(1))
+                    .append("\": [1, 2]");
+        }
+        return json.append('}').toString();
+    }
+
+    private static double counter(final String name) {
+        return Metrics.count(name);
+    }
+}
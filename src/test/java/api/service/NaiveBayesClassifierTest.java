@@ -0,0 +1,58 @@
+package api.service;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class NaiveBayesClassifierTest {
+
+    private static int[] levels(final int first, final int second) {
+        return new int[] {first, second};
+    }
+
+    @Test
+    @DisplayName("Test découpage : minuscules sans accents, mots vides écartés, paires")
+    void testTokens() {
+        assertThat(NaiveBayesClassifier.tokens("L'équipe de France gagne dans la Coupe"))
+                .containsExactly("equipe", "france", "gagne", "coupe",
+                        "equipe france", "france gagne", "gagne coupe");
+    }
+
+    @Test
+    @DisplayName("Test prédiction et confiance après apprentissage")
+    void testTrainAndPredict() {
+        // Given : deux thèmes, textes de sport ou de culture
+        NaiveBayesClassifier classifier = new NaiveBayesClassifier(2, 1000);
+        assertThat(classifier.predict("match").confidence()).isZero();
+        for (int i = 0; i < 20; i++) {
+            classifier.train("Victoire au match de football " + i, levels(4, 0));
+            classifier.train("Concert et festival de musique " + i, levels(0, 3));
+        }
+
+        // When
+        NaiveBayesClassifier.Prediction sport = classifier.predict("Le match de football");
+        NaiveBayesClassifier.Prediction culture = classifier.predict("Un festival de musique");
+        NaiveBayesClassifier.Prediction unknown = classifier.predict("Rien de connu ici");
+
+        // Then
+        assertThat(sport.levels()).containsExactly(4, 0);
+        assertThat(culture.levels()).containsExactly(0, 3);
+        assertThat(sport.confidence()).isGreaterThan(0.95);
+        assertThat(unknown.confidence()).isLessThan(0.6);
+        assertThat(classifier.examples()).isEqualTo(40);
+    }
+
+    @Test
+    @DisplayName("Test vocabulaire borné : les mots nouveaux sont ignorés")
+    void testMaxVocabulary() {
+        NaiveBayesClassifier classifier = new NaiveBayesClassifier(2, 1);
+        classifier.train("football", levels(4, 0));
+        classifier.train("football", levels(4, 0));
+        classifier.train("musique", levels(0, 4));
+
+        assertThat(classifier.predict("football").levels()).containsExactly(4, 0);
+        assertThat(classifier.predict("musique").confidence())
+                .isEqualTo(classifier.predict("inconnu").confidence());
+    }
+}
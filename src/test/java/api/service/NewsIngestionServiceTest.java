@@ -0,0 +1,117 @@
+package api.service;
+
+import dev.langchain4j.data.message.AiMessage;
+import dev.langchain4j.data.message.UserMessage;
+import dev.langchain4j.model.chat.ChatLanguageModel;
+import dev.langchain4j.model.output.Response;
+import model.News;
+import model.NewsCollection;
+import model.Theme;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import rss.RssFetcher;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class NewsIngestionServiceTest {
+
+    private static NewsIngestionService ingestion(final ScoredNewsIndex index,
+                                                  final RssFetcher fetcher) {
+        return new NewsIngestionService(List.of(fetcher), LLMScorer.chat(messages -> null),
+                index, Duration.ofMinutes(5));
+    }
+
+    @Test
+    @DisplayName("Test rafraîchissements concurrents partageant l'ingestion en cours")
+    void testConcurrentRefreshesShareIngestion() throws Exception {
+        // Given : un flux qui bloque jusqu'au feu vert
+        AtomicInteger fetches = new AtomicInteger();
+        CountDownLatch fetching = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        NewsIngestionService service = ingestion(new ScoredNewsIndex(), () -> {
+            fetches.incrementAndGet();
+            fetching.countDown();
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return List.of();
+        });
+
+        try {
+            // When
+            CompletableFuture<Void> first = service.refresh();
+            assertThat(fetching.await(5, TimeUnit.SECONDS)).isTrue();
+            CompletableFuture<Void> second = service.refresh();
+            release.countDown();
+            first.get(5, TimeUnit.SECONDS);
+            second.get(5, TimeUnit.SECONDS);
+            int shared = fetches.get();
+            service.refresh().get(5, TimeUnit.SECONDS);
+
+            // Then : une seule ingestion pour les deux premières demandes
+            assertThat(shared).isEqualTo(1);
+            assertThat(fetches).hasValue(2);
+        } finally {
+            release.countDown();
+            service.stop();
+        }
+    }
+
+    @Test
+    @DisplayName("Test instantané persisté republié au démarrage")
+    void testRestoreSnapshotOnStart() throws Exception {
+        // Given : des articles scorés et persistés, puis un instantané enregistré
+        String run = "restore-" + System.nanoTime();
+        List<News> news = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            news.add(new News(run + " " + i, "https://example.org/" + run + "/" + i, "d"));
+        }
+        NewsCollection scored = LLMScorer.categorize(new NewsCollection(news),
+                Theme.jsonNames(), LLMScorer.chat(sportModel(),
+                        new BatchPlanner(100_000, 16, 16, 60_000)), partial -> { });
+        LLMScorer.saveSnapshot(scored.getNewsCollection(), Theme.jsonNames());
+        ScoredNewsIndex index = new ScoredNewsIndex();
+        NewsIngestionService service = ingestion(index, List::of);
+
+        // When
+        service.start();
+        ScoredNewsIndex.Snapshot restored = index.snapshot();
+        service.stop();
+
+        // Then : publié avant toute ingestion, avec ses scores
+        assertThat(restored.isComplete()).isTrue();
+        assertThat(restored.getNews()).extracting(News::getTitle)
+                .containsExactly(run + " 0", run + " 1", run + " 2");
+        assertThat(restored.getNews())
+                .allSatisfy(article -> assertThat(article.getScoreFor("sport")).isEqualTo(4));
+    }
+
+    /** Modèle qui donne 4 au premier thème de chaque article du prompt, 0 aux autres. */
+    private static ChatLanguageModel sportModel() {
+        return messages -> {
+            String prompt = ((UserMessage) messages.get(0)).singleText();
+            List<String> levels = new ArrayList<>(Collections.nCopies(Theme.jsonNames().size(), "0"));
+            levels.set(Theme.jsonNames().indexOf("sport"), "4");
+            Matcher article = Pattern.compile("(?m)^\\s*\"(\\d+)\": \"").matcher(prompt);
+            StringBuilder json = new StringBuilder("{");
+            while (article.find()) {
+                json.append(json.length() > 1 ? ", " : "").append('"').append(article.group(1))
+                        .append("\": [").append(String.join(", ", levels)).append(']');
+            }
+            return Response.from(AiMessage.from(json.append('}').toString()));
+        };
+    }
+}
@@ -0,0 +1,290 @@
+package api.service;
+
+import api.dto.NewsPage;
+import api.dto.PreferencesRequest;
+import api.util.ApiException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import model.News;
+import model.NewsCategoryScore;
+import rss.RssFetcher;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class NewsServiceTest {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private ScoredNewsIndex index;
+    private NewsService service;
+
+    @BeforeEach
+    void setUp() {
+        // Given : un index de 5 articles sport, scores décroissants
+        index = new ScoredNewsIndex(2);
+        List<News> news = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            News article = new News("n" + i, "l" + i, "d");
+            article.setCategoryScores(List.of(new NewsCategoryScore("sport", 4 - i)));
+            news.add(article);
+        }
+        index.publish(news);
+        NewsIngestionService ingestion = new NewsIngestionService(List.of(),
+                LLMScorer.chat(messages -> null), index, Duration.ofMinutes(5));
+        service = new NewsService(index, ingestion, Duration.ofDays(1), feeds -> false);
+    }
+
+    private static News article(final String title, final int sport) {
+        News article = new News(title, "l-" + title, "d");
+        article.setCategoryScores(List.of(new NewsCategoryScore("sport", sport)));
+        return article;
+    }
+
+    /** Service sur un index donné, dont l'ingestion lit un seul flux. */
+    private static NewsService service(final ScoredNewsIndex scoredIndex,
+                                       final Duration staleness,
+                                       final Supplier<List<Map<String, String>>> feed) {
+        RssFetcher fetcher = feed::get;
+        NewsIngestionService ingestion = new NewsIngestionService(List.of(fetcher),
+                LLMScorer.chat(messages -> null), scoredIndex, Duration.ofMinutes(5));
+        return new NewsService(scoredIndex, ingestion, staleness, feeds -> false);
+    }
+
+    /** Enregistre les classements diffusés et les attentes. */
+    private static class Recorder implements NewsService.RankingListener {
+
+        private final List<List<String>> rankings = new ArrayList<>();
+        private final List<Boolean> completes = new ArrayList<>();
+        private int waits;
+
+        @Override
+        public void onRanking(final NewsPage ranked, final boolean complete) {
+            rankings.add(ranked.getNewsCollection().stream().map(News::getTitle).toList());
+            completes.add(complete);
+        }
+
+        @Override
+        public void onWaiting() {
+            waits++;
+        }
+    }
+
+    private static PreferencesRequest request(final String extra) throws Exception {
+        return MAPPER.readValue("{\"themes\":{\"sport\":{\"level\":5}}" + extra + "}",
+                PreferencesRequest.class);
+    }
+
+    @Test
+    @DisplayName("Test sans limite : tous les articles, sans curseur")
+    void testAllResults() throws Exception {
+        NewsPage page = service.getNewsForPreferences(request(""));
+
+        assertThat(page.getNewsCollection()).hasSize(4);
+        assertThat(page.getNextCursor()).isNull();
+    }
+
+    @Test
+    @DisplayName("Test parcours des pages avec le curseur")
+    void testPagination() throws Exception {
+        // When
+        NewsPage first = service.getNewsForPreferences(request(",\"limit\":3"));
+        NewsPage second = service.getNewsForPreferences(request(
+                ",\"limit\":3,\"cursor\":\"" + first.getNextCursor() + "\""));
+
+        // Then : l'article de score 0 (n4) est écarté
+        assertThat(first.getNewsCollection()).extracting(News::getTitle)
+                .containsExactly("n0", "n1", "n2");
+        assertThat(second.getNewsCollection()).extracting(News::getTitle)
+                .containsExactly("n3");
+        assertThat(second.getNextCursor()).isNull();
+    }
+
+    @Test
+    @DisplayName("Test curseur invalide, expiré et limite hors bornes")
+    void testInvalidParameters() throws Exception {
+        String cursor = service.getNewsForPreferences(request(",\"limit\":1"))
+                .getNextCursor();
+        index.publish(List.of());
+        index.publish(List.of());
+
+        assertThatThrownBy(() -> service.getNewsForPreferences(
+                request(",\"cursor\":\"" + cursor + "\"")))
+                .isInstanceOf(ApiException.class)
+                .extracting("code").isEqualTo("cursor_expired");
+        assertThatThrownBy(() -> service.getNewsForPreferences(
+                request(",\"cursor\":\"%%%\"")))
+                .isInstanceOf(ApiException.class)
+                .extracting("code").isEqualTo("invalid_cursor");
+        assertThatThrownBy(() -> service.getNewsForPreferences(request(",\"limit\":0")))
+                .isInstanceOf(ApiException.class)
+                .extracting("code").isEqualTo("invalid_limit");
+    }
+
+    @Test
+    @DisplayName("Test profil répété servi par le cache, invalidé à la publication")
+    void testRankingCache() throws Exception {
+        // When
+        NewsPage first = service.getNewsForPreferences(request(""));
+        byte[] json = service.getNewsJsonForPreferences(request(""), MAPPER::writeValueAsBytes);
+        byte[] again = service.getNewsJsonForPreferences(request(""),
+                page -> { throw new AssertionError("déjà sérialisé"); });
+
+        // Then
+        assertThat(service.getCachedRankings()).isEqualTo(2);
+        assertThat(again).isSameAs(json);
+        assertThat(MAPPER.readTree(json).get("newsCollection")).hasSize(4);
+
+        // When : un nouvel instantané est publié
+        News article = new News("neuf", "l", "d");
+        article.setCategoryScores(List.of(new NewsCategoryScore("sport", 1)));
+        index.publish(List.of(article));
+        NewsPage updated = service.getNewsForPreferences(request(""));
+
+        // Then
+        assertThat(updated).isNotSameAs(first);
+        assertThat(updated.getNewsCollection()).extracting(News::getTitle)
+                .containsExactly("neuf");
+        assertThat(service.getCachedRankings()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Test diffusion : classement partiel, puis classement final")
+    void testStreamPartialThenFinal() throws Exception {
+        // Given : un instantané partiel ; le final est publié après le premier envoi
+        ScoredNewsIndex scoredIndex = new ScoredNewsIndex();
+        scoredIndex.publish(List.of(article("a", 2)), false);
+        NewsService streaming = service(scoredIndex, Duration.ofDays(1), List::of);
+        Recorder recorder = new Recorder() {
+            @Override
+            public void onRanking(final NewsPage ranked, final boolean complete) {
+                super.onRanking(ranked, complete);
+                if (!complete) {
+                    scoredIndex.publish(List.of(article("a", 2), article("b", 4)));
+                }
+            }
+        };
+
+        // When
+        streaming.streamNewsForPreferences(request(""), Duration.ofSeconds(5),
+                Duration.ofSeconds(5), recorder);
+
+        // Then
+        assertThat(recorder.completes).containsExactly(false, true);
+        assertThat(recorder.rankings).containsExactly(List.of("a"), List.of("b", "a"));
+    }
+
+    @Test
+    @DisplayName("Test diffusion close quand l'ingestion échoue (instantané partiel scellé)")
+    void testStreamSealedOnIngestionFailure() throws Exception {
+        // Given : un instantané partiel périmé, un flux en erreur
+        ScoredNewsIndex scoredIndex = new ScoredNewsIndex();
+        scoredIndex.publish(List.of(article("a", 2)), false);
+        NewsService streaming = service(scoredIndex, Duration.ZERO, () -> {
+            throw new IllegalStateException("flux injoignable");
+        });
+        Recorder recorder = new Recorder();
+
+        // When : le rafraîchissement demandé échoue
+        streaming.streamNewsForPreferences(request(""), Duration.ofSeconds(5),
+                Duration.ofSeconds(5), recorder);
+
+        // Then : le partiel, puis le même classement scellé
+        assertThat(recorder.completes).containsExactly(false, true);
+        assertThat(recorder.rankings).containsExactly(List.of("a"), List.of("a"));
+        assertThat(scoredIndex.snapshot().isComplete()).isTrue();
+    }
+
+    @Test
+    @DisplayName("Test fin de diffusion au délai maximal, avec maintien de connexion")
+    void testStreamTimeout() throws Exception {
+        // Given : rien de publié, puis un partiel jamais complété
+        NewsService empty = service(new ScoredNewsIndex(), Duration.ofDays(1), List::of);
+        ScoredNewsIndex partialIndex = new ScoredNewsIndex();
+        partialIndex.publish(List.of(article("a", 2)), false);
+        NewsService partial = service(partialIndex, Duration.ofDays(1), List::of);
+        Recorder nothing = new Recorder();
+        Recorder unfinished = new Recorder();
+
+        // When / Then : sans article, erreur 503 après des messages d'attente
+        assertThatThrownBy(() -> empty.streamNewsForPreferences(request(""),
+                Duration.ofMillis(200), Duration.ofMillis(50), nothing))
+                .isInstanceOf(ApiException.class)
+                .extracting("code").isEqualTo("news_not_ready");
+        assertThat(nothing.rankings).isEmpty();
+        assertThat(nothing.waits).isGreaterThanOrEqualTo(2);
+
+        // When / Then : le dernier classement partiel est envoyé comme final
+        partial.streamNewsForPreferences(request(""), Duration.ofMillis(200),
+                Duration.ofMillis(50), unfinished);
+        assertThat(unfinished.completes).containsExactly(false, true);
+        assertThat(unfinished.rankings).containsExactly(List.of("a"), List.of("a"));
+        assertThat(unfinished.waits).isPositive();
+    }
+
+    @Test
+    @DisplayName("Test index vide : 503 et ingestion demandée")
+    void testEmptyIndexNotReady() throws Exception {
+        // Given
+        CountDownLatch fetched = new CountDownLatch(1);
+        NewsService empty = service(new ScoredNewsIndex(), Duration.ofDays(1), () -> {
+            fetched.countDown();
+            return List.of();
+        });
+
+        // When / Then
+        assertThatThrownBy(() -> empty.getNewsForPreferences(request("")))
+                .isInstanceOf(ApiException.class)
+                .satisfies(e -> assertThat(((ApiException) e).getStatus()).isEqualTo(503))
+                .extracting("code").isEqualTo("news_not_ready");
+        assertThat(fetched.await(5, TimeUnit.SECONDS)).isTrue();
+    }
+
+    @Test
+    @DisplayName("Test instantané périmé servi pendant le rafraîchissement")
+    void testStaleSnapshotServedDuringRefresh() throws Exception {
+        // Given : un index périmé, un flux qui bloque l'ingestion
+        ScoredNewsIndex scoredIndex = new ScoredNewsIndex();
+        scoredIndex.publish(List.of(article("a", 2)));
+        AtomicInteger fetches = new AtomicInteger();
+        CountDownLatch fetching = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        NewsService stale = service(scoredIndex, Duration.ZERO, () -> {
+            fetches.incrementAndGet();
+            fetching.countDown();
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return List.of();
+        });
+
+        try {
+            // When : deux requêtes pendant l'ingestion
+            NewsPage first = stale.getNewsForPreferences(request(""));
+            assertThat(fetching.await(5, TimeUnit.SECONDS)).isTrue();
+            NewsPage second = stale.getNewsForPreferences(request(""));
+
+            // Then : l'ancien classement, sans attendre ; une seule ingestion
+            assertThat(first.getNewsCollection()).extracting(News::getTitle)
+                    .containsExactly("a");
+            assertThat(second.getNewsCollection()).extracting(News::getTitle)
+                    .containsExactly("a");
+            assertThat(fetches).hasValue(1);
+        } finally {
+            release.countDown();
+        }
+    }
+}
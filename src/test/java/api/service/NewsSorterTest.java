@@ -0,0 +1,115 @@
+package api.service;
+
+import api.util.ApiException;
+import model.News;
+import model.NewsCategoryScore;
+import model.NewsCollection;
+import model.PreferenceVector;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class NewsSorterTest {
+
+    private static News news(final String title, final NewsCategoryScore... scores) {
+        News news = new News(title, "l-" + title, "d");
+        news.setCategoryScores(List.of(scores));
+        return news;
+    }
+
+    @Test
+    @DisplayName("Test tri par score, ordre stable et filtrage")
+    void testSortByPreferences() throws ApiException {
+        // Given
+        List<News> news = List.of(
+                news("sport-2", new NewsCategoryScore("sport", 2)),
+                news("culture", new NewsCategoryScore("culture", 4)),
+                news("sport-4", new NewsCategoryScore("sport", 4)),
+                news("sport-2-bis", new NewsCategoryScore("sport", 2)),
+                news("politique", new NewsCategoryScore("politique", 4)),
+                new News("sans-score", "l", "d"));
+        Map<String, Integer> prefs = Map.of("sport", 5, "politique", 1);
+
+        // When
+        List<News> ranked = NewsSorter.sortByPreferences(new NewsCollection(news), prefs);
+
+        // Then : culture (pas de préférence), politique (négatif) et
+        // l'article sans score sont écartés
+        assertThat(ranked).extracting(News::getTitle)
+                .containsExactly("sport-4", "sport-2", "sport-2-bis");
+    }
+
+    @Test
+    @DisplayName("Test sélection top-K identique au début du tri complet")
+    void testTopK() throws ApiException {
+        // Given
+        Random random = new Random(42);
+        List<News> news = new ArrayList<>();
+        for (int i = 0; i < 500; i++) {
+            news.add(news("n" + i,
+                    new NewsCategoryScore("sport", random.nextInt(5)),
+                    new NewsCategoryScore("sciences", random.nextInt(5))));
+        }
+        Map<String, Integer> prefs = Map.of("sport", 4, "sciences", 3);
+        List<News> full = NewsSorter.sortByPreferences(news, prefs, Integer.MAX_VALUE);
+
+        // When
+        List<News> top = NewsSorter.sortByPreferences(news, prefs, 20);
+
+        // Then
+        assertThat(top).containsExactlyElementsOf(full.subList(0, 20));
+    }
+
+    @Test
+    @DisplayName("Test sélection des k plus petites clés")
+    void testSelectSmallest() {
+        // Given
+        long[] keys = {9, 3, 7, 1, 8, 2, 6};
+
+        // When
+        int count = NewsSorter.selectSmallest(keys, keys.length, 3);
+        long[] kept = Arrays.copyOf(keys, count);
+        Arrays.sort(kept);
+
+        // Then
+        assertThat(kept).containsExactly(1, 2, 3);
+    }
+
+    @Test
+    @DisplayName("Test aucun article correspondant")
+    void testNoMatch() {
+        List<News> news = List.of(news("culture", new NewsCategoryScore("culture", 4)));
+
+        assertThatThrownBy(() -> NewsSorter.sortByPreferences(news, Map.of("sport", 5), 10))
+                .isInstanceOf(ApiException.class)
+                .extracting("code").isEqualTo("no_matching_news");
+    }
+
+    @Test
+    @DisplayName("Test tri par vecteur de préférences identique au tri par map")
+    void testSortByPreferenceVector() throws ApiException {
+        // Given
+        List<News> news = List.of(
+                news("a", new NewsCategoryScore("sport", 2)),
+                news("b", new NewsCategoryScore("culture", 4)),
+                news("c", new NewsCategoryScore("sport", 4)));
+        Map<String, Integer> preferences = Map.of("sport", 5, "culture", 3);
+
+        // When
+        List<News> byMap = NewsSorter.sortByPreferences(news, preferences, 2);
+        List<News> byVector = NewsSorter.sortByPreferences(news,
+                PreferenceVector.fromLevels(preferences), 2);
+
+        // Then
+        assertThat(byVector).isEqualTo(byMap).extracting(News::getTitle)
+                .containsExactly("c", "a");
+    }
+}
@@ -0,0 +1,201 @@
+package api.service;
+
+import api.util.Metrics;
+import dev.langchain4j.data.message.AiMessage;
+import dev.langchain4j.model.StreamingResponseHandler;
+import dev.langchain4j.model.chat.ChatLanguageModel;
+import dev.langchain4j.model.chat.StreamingChatLanguageModel;
+import dev.langchain4j.model.ollama.OllamaChatModel;
+import dev.langchain4j.model.ollama.OllamaStreamingChatModel;
+import dev.langchain4j.model.output.Response;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class OllamaPoolTest {
+
+    private static final String PROMPT = """
+            thèmes: sport, culture
+            "1": "Finale de sport. Le match de la saison"
+            """;
+
+    private static OllamaPool pool(final List<String> hosts, final double hedgePercentile) {
+        return new OllamaPool(hosts,
+                host -> OllamaChatModel.builder().baseUrl(host).modelName("qwen2.5:7b")
+                        .timeout(Duration.ofSeconds(10)).maxRetries(0).build(),
+                host -> OllamaStreamingChatModel.builder().baseUrl(host).modelName("qwen2.5:7b")
+                        .timeout(Duration.ofSeconds(10)).build(),
+                2, Duration.ofMinutes(1), Duration.ZERO, hedgePercentile);
+    }
+
+    /** Modèle en streaming qui répond depuis un autre thread, après un délai. */
+    private static StreamingChatLanguageModel streaming(final AtomicBoolean slow) {
+        return (messages, handler) -> new Thread(() -> {
+            sleep(slow.get() ? 2_000 : 5);
+            handler.onNext("ok");
+            handler.onComplete(Response.from(AiMessage.from("ok")));
+        }).start();
+    }
+
+    private static ChatLanguageModel chat(final AtomicBoolean slow) {
+        return messages -> {
+            sleep(slow.get() ? 2_000 : 5);
+            return Response.from(AiMessage.from("ok"));
+        };
+    }
+
+    private static void sleep(final long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static double hedges() {
+        return Metrics.count("ollama.hedges");
+    }
+
+    @Test
+    @DisplayName("Test répartition vers le nœud le moins chargé")
+    void testLeastOutstanding() throws Exception {
+        // Given : deux nœuds lents, huit appels simultanés
+        FakeOllamaServer.Options options = FakeOllamaServer.Options.defaults()
+                .withLatency(new FakeOllamaServer.Latency(
+                        FakeOllamaServer.Distribution.FIXED, 200, 0, 0));
+        try (FakeOllamaServer first = FakeOllamaServer.start(options);
+             FakeOllamaServer second = FakeOllamaServer.start(options)) {
+            OllamaPool pool = pool(List.of(first.baseUrl(), second.baseUrl()), 0);
+
+            // When
+            List<CompletableFuture<String>> calls = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                calls.add(CompletableFuture.supplyAsync(() -> pool.generate(PROMPT)));
+            }
+            for (CompletableFuture<String> call : calls) {
+                assertThat(call.get(10, TimeUnit.SECONDS)).contains("\"1\"");
+            }
+
+            // Then
+            assertThat(first.getRequests()).isEqualTo(4);
+            assertThat(second.getRequests()).isEqualTo(4);
+        }
+    }
+
+    @Test
+    @DisplayName("Test disjoncteur : un nœud en échec est écarté")
+    void testCircuitBreaker() throws Exception {
+        try (FakeOllamaServer failing = FakeOllamaServer.start(
+                FakeOllamaServer.Options.defaults().withErrorRate(1));
+             FakeOllamaServer healthy = FakeOllamaServer.start(
+                FakeOllamaServer.Options.defaults())) {
+            OllamaPool pool = pool(List.of(failing.baseUrl(), healthy.baseUrl()), 0);
+
+            // When : appels successifs, en ignorant les échecs
+            int failures = 0;
+            for (int i = 0; i < 10; i++) {
+                try {
+                    pool.generate(PROMPT);
+                } catch (RuntimeException e) {
+                    failures++;
+                }
+            }
+
+            // Then : écarté après deux échecs consécutifs
+            assertThat(failures).isEqualTo(2);
+            assertThat(failing.getRequests()).isEqualTo(2);
+            assertThat(healthy.getRequests()).isEqualTo(8);
+            assertThat(pool.getAvailableBackends()).isEqualTo(1);
+        }
+    }
+
+    @Test
+    @DisplayName("Test doublement d'un appel lent vers un second nœud")
+    void testHedging() {
+        // Given : 20 appels rapides mesurés, puis le nœud "a" ralentit
+        AtomicBoolean slow = new AtomicBoolean();
+        OllamaPool pool = new OllamaPool(List.of("a", "b"),
+                host -> chat("a".equals(host) ? slow : new AtomicBoolean()),
+                host -> streaming("a".equals(host) ? slow : new AtomicBoolean()),
+                3, Duration.ofMinutes(1), Duration.ZERO, 0.9);
+        for (int i = 0; i < 20; i++) {
+            pool.generate(PROMPT);
+        }
+        slow.set(true);
+        double hedges = hedges();
+
+        // When : deux appels, l'un d'eux part vers "a"
+        long start = System.nanoTime();
+        pool.generate(PROMPT);
+        pool.generate(PROMPT);
+
+        // Then : "b" répond à la place de "a"
+        assertThat(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start)).isLessThan(1_000);
+        assertThat(hedges() - hedges).isGreaterThanOrEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Test doublement en streaming selon la latence du premier token")
+    void testStreamingHedging() throws Exception {
+        // Given
+        AtomicBoolean slow = new AtomicBoolean();
+        OllamaPool pool = new OllamaPool(List.of("a", "b"),
+                host -> chat("a".equals(host) ? slow : new AtomicBoolean()),
+                host -> streaming("a".equals(host) ? slow : new AtomicBoolean()),
+                3, Duration.ofMinutes(1), Duration.ZERO, 0.9);
+        for (int i = 0; i < 20; i++) {
+            stream(pool).get(5, TimeUnit.SECONDS);
+        }
+        slow.set(true);
+        double hedges = hedges();
+
+        // When
+        long start = System.nanoTime();
+        String first = stream(pool).get(5, TimeUnit.SECONDS);
+        String second = stream(pool).get(5, TimeUnit.SECONDS);
+
+        // Then : une seule réponse transmise par appel, sans attendre "a"
+        assertThat(first).isEqualTo("ok");
+        assertThat(second).isEqualTo("ok");
+        assertThat(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start)).isLessThan(1_000);
+        assertThat(hedges() - hedges).isGreaterThanOrEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Test pool sans serveur refusé")
+    void testNoHost() {
+        assertThatThrownBy(() -> pool(List.of(), 0)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    /** Lance un appel en streaming ; la réponse concatène les tokens reçus. */
+    private static CompletableFuture<String> stream(final OllamaPool pool) {
+        CompletableFuture<String> result = new CompletableFuture<>();
+        StringBuilder tokens = new StringBuilder();
+        pool.generate(PROMPT, new StreamingResponseHandler<AiMessage>() {
+            @Override
+            public void onNext(final String token) {
+                tokens.append(token);
+            }
+
+            @Override
+            public void onComplete(final Response<AiMessage> response) {
+                result.complete(tokens.toString());
+            }
+
+            @Override
+            public void onError(final Throwable error) {
+                result.completeExceptionally(error);
+            }
+        });
+        return result;
+    }
+}
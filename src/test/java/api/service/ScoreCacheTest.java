@@ -0,0 +1,76 @@
+package api.service;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class ScoreCacheTest {
+
+    @Test
+    @DisplayName("Test get/put et compteurs de succès/échecs")
+    void testHitAndMiss() {
+        // Given
+        ScoreCache cache = new ScoreCache(10, Duration.ofMinutes(1));
+        cache.put("a", List.of(1, 2, 3));
+
+        // When
+        List<Integer> hit = cache.get("a");
+        List<Integer> miss = cache.get("b");
+
+        // Then
+        assertThat(hit).containsExactly(1, 2, 3);
+        assertThat(miss).isNull();
+        assertThat(cache.getHits()).isEqualTo(1);
+        assertThat(cache.getMisses()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Test éviction LRU quand la taille maximale est dépassée")
+    void testSizeEviction() {
+        // Given
+        ScoreCache cache = new ScoreCache(2, Duration.ofMinutes(1));
+        cache.put("a", List.of(1));
+        cache.put("b", List.of(2));
+        cache.get("a"); // "a" devient la plus récemment utilisée
+
+        // When
+        cache.put("c", List.of(3));
+
+        // Then
+        assertThat(cache.size()).isEqualTo(2);
+        assertThat(cache.get("b")).isNull();
+        assertThat(cache.get("a")).containsExactly(1);
+        assertThat(cache.get("c")).containsExactly(3);
+        assertThat(cache.getEvictions()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Test expiration des entrées (TTL)")
+    void testTtlExpiration() {
+        // Given
+        AtomicLong now = new AtomicLong();
+        ScoreCache cache = new ScoreCache(10, Duration.ofSeconds(5), now::get);
+        cache.put("a", List.of(4));
+
+        // When
+        now.set(Duration.ofSeconds(6).toNanos());
+
+        // Then
+        assertThat(cache.get("a")).isNull();
+        assertThat(cache.size()).isZero();
+        assertThat(cache.getEvictions()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Test clé de cache (version + article)")
+    void testKey() {
+        // Then
+        assertThat(ScoreCache.key("v1", "http://lien#abc"))
+                .isEqualTo("v1|http://lien#abc");
+    }
+}
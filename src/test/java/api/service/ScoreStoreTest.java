@@ -0,0 +1,205 @@
+package api.service;
+
+import model.News;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class ScoreStoreTest {
+
+    private static final String V1 = "modele|p2|sport,culture";
+    private static final Duration RETENTION = Duration.ofDays(30);
+
+    @TempDir
+    Path dir;
+
+    private ScoreStore open(final String generation) {
+        return ScoreStore.open(dir, generation, RETENTION);
+    }
+
+    @Test
+    @DisplayName("Test relecture des scores après réouverture")
+    void testPersistAcrossReopen() {
+        // Given
+        News news = new News("Titre", "https://lien", "Description");
+        ScoreStore store = open("modele|p2|");
+        store.put(V1, news, List.of(4, 0));
+        store.close();
+
+        // When
+        ScoreStore reopened = open("modele|p2|");
+
+        // Then
+        assertThat(reopened.isEnabled()).isTrue();
+        assertThat(reopened.get(V1, ArticleKey.of(news))).containsExactly(4, 0);
+        assertThat(reopened.get("autre|p2|sport", ArticleKey.of(news))).isNull();
+    }
+
+    @Test
+    @DisplayName("Test invalidation des scores d'un autre modèle ou prompt")
+    void testGenerationInvalidation() {
+        // Given
+        News news = new News("Titre", "https://lien", "Description");
+        ScoreStore store = open("modele|p2|");
+        store.put(V1, news, List.of(4, 0));
+        store.close();
+
+        // When : changement de version de prompt
+        ScoreStore reopened = open("modele|p3|");
+
+        // Then
+        assertThat(reopened.size()).isZero();
+        assertThat(reopened.get(V1, ArticleKey.of(news))).isNull();
+    }
+
+    @Test
+    @DisplayName("Test invalidation des scores d'un autre moteur de même prompt")
+    void testExactGeneration() {
+        // Given : un score du moteur distillé, un score du chat
+        News news = new News("Titre", "https://lien", "Description");
+        String distilled = "modele|p2|d1:0.8|sport,culture";
+        ScoreStore store = open("modele|p2|d1:0.8|");
+        store.put(distilled, news, List.of(3, 1));
+        store.close();
+        ScoreStore chat = open("modele|p2|");
+        chat.put(V1, news, List.of(4, 0));
+        chat.close();
+
+        // When : réouverture sans le moteur distillé
+        ScoreStore reopened = open("modele|p2|");
+
+        // Then
+        assertThat(reopened.size()).isEqualTo(1);
+        assertThat(reopened.get(V1, ArticleKey.of(news))).containsExactly(4, 0);
+        assertThat(reopened.get(distilled, ArticleKey.of(news))).isNull();
+    }
+
+    @Test
+    @DisplayName("Test compaction des enregistrements remplacés")
+    void testCompaction() throws IOException {
+        // Given
+        News news = new News("Titre", "https://lien", "Description");
+        ScoreStore store = open("modele|p2|");
+        store.put(V1, news, List.of(1, 1));
+        store.put(V1, news, List.of(2, 3));
+
+        // When
+        store.compact();
+        store.put(V1, new News("Autre", "https://autre", "D"), List.of(0, 4));
+        store.close();
+        ScoreStore reopened = open("modele|p2|");
+
+        // Then
+        assertThat(reopened.size()).isEqualTo(2);
+        assertThat(reopened.get(V1, ArticleKey.of(news))).containsExactly(2, 3);
+    }
+
+    @Test
+    @DisplayName("Test enregistrement tronqué en fin de journal ignoré")
+    void testTruncatedTail() throws IOException {
+        // Given
+        News news = new News("Titre", "https://lien", "Description");
+        ScoreStore store = open("modele|p2|");
+        store.put(V1, news, List.of(4, 0));
+        store.put(V1, new News("B", "https://b", "D"), List.of(1, 1));
+        store.close();
+        Path log = dir.resolve("scores.log");
+        try (FileChannel channel = FileChannel.open(log, StandardOpenOption.WRITE)) {
+            channel.truncate(channel.size() - 3);
+        }
+
+        // When
+        ScoreStore reopened = open("modele|p2|");
+
+        // Then
+        assertThat(reopened.size()).isEqualTo(1);
+        assertThat(reopened.get(V1, ArticleKey.of(news))).containsExactly(4, 0);
+    }
+
+    @Test
+    @DisplayName("Test enregistrement illisible mais complet écarté avec la suite")
+    void testCorruptRecord() throws IOException {
+        // Given : la longueur de version du second enregistrement est négative
+        News news = new News("Titre", "https://lien", "Description");
+        ScoreStore store = open("modele|p2|");
+        store.put(V1, news, List.of(4, 0));
+        long second = dir.resolve("scores.log").toFile().length();
+        store.put(V1, new News("B", "https://b", "D"), List.of(1, 1));
+        store.put(V1, new News("C", "https://c", "D"), List.of(2, 2));
+        store.close();
+        try (FileChannel channel = FileChannel.open(dir.resolve("scores.log"),
+                StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.allocate(Integer.BYTES).putInt(-1).flip(),
+                    second + Integer.BYTES + Long.BYTES);
+        }
+
+        // When
+        ScoreStore reopened = open("modele|p2|");
+        reopened.put(V1, new News("D", "https://d", "D"), List.of(3, 3));
+        reopened.close();
+
+        // Then : le journal repart du dernier enregistrement lisible
+        ScoreStore again = open("modele|p2|");
+        assertThat(again.isEnabled()).isTrue();
+        assertThat(again.size()).isEqualTo(2);
+        assertThat(again.get(V1, ArticleKey.of(news))).containsExactly(4, 0);
+    }
+
+    @Test
+    @DisplayName("Test taille maximale du journal : compaction, puis scores non persistés")
+    void testMaxLogSize() {
+        // Given : un journal limité à 1 000 octets
+        News news = new News("Titre", "https://lien", "Description");
+        ScoreStore store = ScoreStore.open(dir, "modele|p2|", RETENTION, 1_000);
+
+        // When : réécritures d'un même article, puis des articles distincts
+        for (int i = 0; i < 50; i++) {
+            store.put(V1, news, List.of(i % 5, 0));
+        }
+        for (int i = 0; i < 20; i++) {
+            store.put(V1, new News("N" + i, "https://n/" + i, "D"), List.of(1, 1));
+        }
+        store.close();
+
+        // Then : les remplacés sont compactés, les ajouts en trop abandonnés
+        assertThat(dir.resolve("scores.log").toFile().length()).isLessThanOrEqualTo(1_000);
+        ScoreStore reopened = ScoreStore.open(dir, "modele|p2|", RETENTION, 1_000);
+        assertThat(reopened.get(V1, ArticleKey.of(news))).containsExactly(4, 0);
+        assertThat(reopened.size()).isBetween(2, 20);
+        assertThat(reopened.get(V1, ArticleKey.of(new News("N19", "https://n/19", "D"))))
+                .isNull();
+    }
+
+    @Test
+    @DisplayName("Test sauvegarde et relecture de l'instantané")
+    void testSnapshotRoundTrip() {
+        // Given
+        News first = new News("A", "https://a", "DA");
+        News second = new News("B", "https://b", "DB");
+        ScoreStore store = open("modele|p2|");
+        store.put(V1, first, List.of(4, 0));
+        store.put(V1, second, List.of(0, 2));
+        store.saveSnapshot(V1, List.of(second, first));
+        store.close();
+
+        // When
+        ScoreStore reopened = open("modele|p2|");
+        List<ScoreStore.StoredArticle> restored = reopened.loadSnapshot(V1);
+
+        // Then
+        assertThat(restored).extracting(ScoreStore.StoredArticle::title)
+                .containsExactly("B", "A");
+        assertThat(restored.get(0).scores()).containsExactly(0, 2);
+        assertThat(reopened.loadSnapshot("modele|p2|autres")).isEmpty();
+    }
+}
@@ -0,0 +1,62 @@
+package api.service;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class ScoreStreamParserTest {
+
+    @Test
+    @DisplayName("Test entrées signalées dès leur fermeture, caractère par caractère")
+    void testIncrementalEntries() {
+        // Given
+        List<String> closed = new ArrayList<>();
+        ScoreStreamParser parser = new ScoreStreamParser((id, scores) -> closed.add(id));
+        String response = "Voici les scores :\n```json\n{\n  \"1\": [4, 0 ,12],\n  \"2\":[0,3,1]\n}\n```";
+
+        // When : un caractère à la fois, en notant les entrées fermées à chaque étape
+        List<Integer> closedAt = new ArrayList<>();
+        for (int i = 0; i < response.length(); i++) {
+            parser.feed(response.substring(i, i + 1));
+            if (closedAt.size() < closed.size()) {
+                closedAt.add(i);
+            }
+        }
+
+        // Then
+        assertThat(closed).containsExactly("1", "2");
+        assertThat(closedAt).containsExactly(response.indexOf(']'), response.lastIndexOf(']'));
+        assertThat(parser.entries()).containsEntry("1", List.of(4, 0, 12))
+                .containsEntry("2", List.of(0, 3, 1));
+        assertThat(parser.isComplete()).isTrue();
+    }
+
+    @Test
+    @DisplayName("Test réponse tronquée : les entrées fermées sont conservées")
+    void testTruncated() {
+        ScoreStreamParser parser = new ScoreStreamParser((id, scores) -> { });
+
+        parser.feed("{\"1\": [4, 0], \"2\": [1, ");
+
+        assertThat(parser.entries()).containsOnlyKeys("1");
+        assertThat(parser.isComplete()).isFalse();
+    }
+
+    @Test
+    @DisplayName("Test arrêt au premier caractère inattendu")
+    void testMalformed() {
+        ScoreStreamParser parser = new ScoreStreamParser((id, scores) -> { });
+
+        parser.feed("{\"1\": [4, 0], \"2\": [1, \"3\"], \"3\": [2, 2]}");
+
+        assertThat(parser.entries()).containsOnlyKeys("1");
+        assertThat(parser.isComplete()).isFalse();
+        ScoreStreamParser other = new ScoreStreamParser((id, scores) -> { });
+        other.feed("{\"1\": [4 4]}");
+        assertThat(other.entries()).isEmpty();
+    }
+}
@@ -0,0 +1,58 @@
+package api.service;
+
+import model.News;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class ScoredNewsIndexTest {
+
+    @Test
+    @DisplayName("Test attente réveillée par une publication")
+    void testAwaitWokenByPublish() throws Exception {
+        // Given
+        ScoredNewsIndex index = new ScoredNewsIndex();
+        long known = index.snapshot().getVersion();
+        CompletableFuture<ScoredNewsIndex.Snapshot> waiting = CompletableFuture.supplyAsync(() -> {
+            try {
+                return index.awaitNewerThan(known, Duration.ofSeconds(30));
+            } catch (InterruptedException e) {
+                throw new IllegalStateException(e);
+            }
+        });
+
+        // When
+        index.publish(List.of(new News("a", "l", "d")), false);
+
+        // Then : réveil sans attendre le délai
+        ScoredNewsIndex.Snapshot snapshot = waiting.get(5, TimeUnit.SECONDS);
+        assertThat(snapshot.getVersion()).isEqualTo(known + 1);
+        assertThat(snapshot.isComplete()).isFalse();
+    }
+
+    @Test
+    @DisplayName("Test attente : version déjà dépassée ou délai écoulé")
+    void testAwaitImmediateAndTimeout() throws Exception {
+        // Given
+        ScoredNewsIndex index = new ScoredNewsIndex();
+        ScoredNewsIndex.Snapshot published = index.publish(List.of());
+
+        // When
+        ScoredNewsIndex.Snapshot immediate = index.awaitNewerThan(0, Duration.ofSeconds(30));
+        long start = System.nanoTime();
+        ScoredNewsIndex.Snapshot unchanged =
+                index.awaitNewerThan(published.getVersion(), Duration.ofMillis(100));
+
+        // Then
+        assertThat(immediate).isSameAs(published);
+        assertThat(unchanged).isSameAs(published);
+        assertThat(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start))
+                .isGreaterThanOrEqualTo(100);
+    }
+}
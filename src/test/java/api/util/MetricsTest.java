@@ -0,0 +1,38 @@
+package api.util;
+
+import io.micrometer.core.instrument.Timer;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class MetricsTest {
+
+    @Test
+    @DisplayName("Test export Prometheus : histogramme, compteur et jauge")
+    void testScrape() {
+        // Given
+        Timer timer = Metrics.timer("test.latency", "Latence de test", "outcome", "success");
+        AtomicInteger depth = Metrics.gauge("test.depth", "Profondeur de test",
+                new AtomicInteger(3), AtomicInteger::get);
+
+        // When
+        timer.record(Duration.ofMillis(250));
+        Metrics.counter("test.events", "Événements de test").increment(2);
+        String scrape = Metrics.scrape();
+
+        // Then
+        assertThat(Metrics.timer("test.latency", "Latence de test", "outcome", "success"))
+                .isSameAs(timer);
+        assertThat(scrape)
+                .contains("test_latency_seconds_bucket{outcome=\"success\",le=\"0.268435456\",} 1.0")
+                .contains("test_latency_seconds_count{outcome=\"success\",} 1.0")
+                .contains("test_events_total 2.0")
+                .contains("test_depth " + depth.get() + ".0")
+                .contains("jvm_memory_used_bytes");
+        assertThat(Metrics.contentType()).startsWith("text/plain");
+    }
+}
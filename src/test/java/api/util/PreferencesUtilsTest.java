@@ -0,0 +1,58 @@
+package api.util;
+
+import api.dto.Themes;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import model.PreferenceVector;
+import model.Theme;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class PreferencesUtilsTest {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private static Themes themes() throws Exception {
+        return MAPPER.readValue("""
+                {
+                  "sport": {"level": 5, "rss": " https://example.org/sport.xml "},
+                  "culture": {"level": 1, "rss": "https://example.org/sport.xml"},
+                  "idees": {"rss": "https://example.org/idees.xml"},
+                  "sante": {"level": 3, "rss": "  "}
+                }
+                """, Themes.class);
+    }
+
+    @Test
+    @DisplayName("Test projection des thèmes sur le vecteur de préférences")
+    void testPreferenceVector() throws Exception {
+        // When
+        long vector = PreferencesUtils.preferenceVector(themes());
+
+        // Then
+        assertThat(vector).isEqualTo(PreferenceVector.fromLevels(
+                PreferencesUtils.flattenPreferences(themes())));
+        assertThat(PreferenceVector.get(vector, Theme.SPORT.ordinal())).isEqualTo(5);
+        assertThat(PreferenceVector.get(vector, Theme.IDEES.ordinal()))
+                .isEqualTo(PreferenceVector.NONE);
+        assertThat(PreferencesUtils.preferenceVector(null)).isEqualTo(PreferenceVector.EMPTY);
+    }
+
+    @Test
+    @DisplayName("Test aplatissement des préférences et collecte des flux")
+    void testFlattenAndCollectFeeds() throws Exception {
+        // When
+        Map<String, Integer> preferences = PreferencesUtils.flattenPreferences(themes());
+
+        // Then : thèmes sans niveau ignorés, flux vides et doublons écartés
+        assertThat(preferences).containsExactlyInAnyOrderEntriesOf(
+                Map.of("sport", 5, "culture", 1, "sante", 3));
+        assertThat(PreferencesUtils.collectFeeds(themes())).containsExactly(
+                "https://example.org/sport.xml", "https://example.org/idees.xml");
+        assertThat(PreferencesUtils.flattenPreferences(null)).isEmpty();
+        assertThat(PreferencesUtils.collectFeeds(null)).isEmpty();
+    }
+}
@@ -0,0 +1,71 @@
+package api.util;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class SingleFlightTest {
+
+    @Test
+    @DisplayName("Test appels concurrents regroupés en un seul calcul")
+    void testCoalescing() throws Exception {
+        // Given
+        SingleFlight<String, Integer> flight = new SingleFlight<>();
+        AtomicInteger calls = new AtomicInteger();
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(4);
+
+        // When : un premier appel bloqué, puis trois appels identiques
+        List<Future<Integer>> results = new ArrayList<>();
+        results.add(pool.submit(() -> flight.execute("k", () -> {
+            calls.incrementAndGet();
+            started.countDown();
+            release.await();
+            return 42;
+        })));
+        started.await();
+        for (int i = 0; i < 3; i++) {
+            results.add(pool.submit(() -> flight.execute("k", () -> {
+                calls.incrementAndGet();
+                return -1;
+            })));
+        }
+        while (flight.getCoalesced() < 3) {
+            Thread.sleep(5);
+        }
+        release.countDown();
+
+        // Then
+        for (Future<Integer> result : results) {
+            assertThat(result.get(5, TimeUnit.SECONDS)).isEqualTo(42);
+        }
+        assertThat(calls.get()).isEqualTo(1);
+        pool.shutdown();
+    }
+
+    @Test
+    @DisplayName("Test exception propagée et nouveau calcul ensuite")
+    void testFailureNotCached() throws IOException {
+        // Given
+        SingleFlight<String, String> flight = new SingleFlight<>();
+
+        // When / Then
+        assertThatThrownBy(() -> flight.execute("k", () -> {
+            throw new IOException("boom");
+        })).isInstanceOf(IOException.class);
+        assertThat(flight.execute("k", () -> "ok")).isEqualTo("ok");
+    }
+}
@@ -53,7 +53,7 @@ public class NewsTest {
     void testSetters() {
         // Given
         News n = new News();
-        List<NewsCategoryScore> scores = List.of(new NewsCategoryScore("test", 1));
+        List<NewsCategoryScore> scores = List.of(new NewsCategoryScore("sport", 1));
 
         // When
         n.setTitle("Nouveau Titre");
@@ -94,6 +94,6 @@ public class NewsTest {
 
         // Then
         assertThat(s).contains("title='Titre Test'");
-        assertThat(s).contains("scores=[sport: 4, economie: 2]");
+        assertThat(s).contains("scores=[economie: 2, sport: 4]");
     }
 }
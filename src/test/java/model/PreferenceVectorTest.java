@@ -0,0 +1,53 @@
+package model;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class PreferenceVectorTest {
+
+    @Test
+    @DisplayName("Test écriture et lecture du niveau de chaque thème")
+    void testWithAndGet() {
+        // Given
+        long vector = PreferenceVector.EMPTY;
+
+        // When
+        for (Theme theme : Theme.values()) {
+            vector = PreferenceVector.with(vector, theme, theme.ordinal() % 5 + 1);
+        }
+        vector = PreferenceVector.with(vector, Theme.IDEES, 9);
+        vector = PreferenceVector.with(vector, Theme.SPORT, null);
+
+        // Then
+        for (Theme theme : Theme.values()) {
+            int expected = theme.ordinal() % 5 + 1;
+            if (theme == Theme.IDEES) {
+                expected = PreferenceVector.OUT_OF_RANGE;
+            } else if (theme == Theme.SPORT) {
+                expected = PreferenceVector.NONE;
+            }
+            assertThat(PreferenceVector.get(vector, theme.ordinal()))
+                    .isEqualTo(expected);
+        }
+    }
+
+    @Test
+    @DisplayName("Test vecteur canonique depuis une map de niveaux")
+    void testFromLevels() {
+        long vector = PreferenceVector.fromLevels(Map.of("sport", 5, "culture", 1));
+
+        // Thèmes inconnus ignorés, niveaux hors échelle confondus
+        assertThat(PreferenceVector.fromLevels(Map.of("culture", 1, "sport", 5, "inconnu", 3)))
+                .isEqualTo(vector);
+        assertThat(PreferenceVector.fromLevels(Map.of("sport", 5, "culture", 2)))
+                .isNotEqualTo(vector);
+        assertThat(PreferenceVector.fromLevels(Map.of("sport", 0)))
+                .isEqualTo(PreferenceVector.fromLevels(Map.of("sport", 9)))
+                .isNotEqualTo(PreferenceVector.fromLevels(Map.of()));
+        assertThat(PreferenceVector.fromLevels(Map.of())).isEqualTo(PreferenceVector.EMPTY);
+    }
+}
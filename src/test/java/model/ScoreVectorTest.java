@@ -0,0 +1,58 @@
+package model;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class ScoreVectorTest {
+
+    @Test
+    @DisplayName("Test écriture et lecture des scores de chaque thème")
+    void testWithAndGet() {
+        // Given
+        long vector = ScoreVector.EMPTY;
+
+        // When
+        for (Theme theme : Theme.values()) {
+            vector = ScoreVector.with(vector, theme, theme.ordinal() % 5);
+        }
+        vector = ScoreVector.with(vector, Theme.IDEES, 9);
+
+        // Then
+        for (Theme theme : Theme.values()) {
+            int expected = theme == Theme.IDEES ? 4 : theme.ordinal() % 5;
+            assertThat(ScoreVector.get(vector, theme)).isEqualTo(expected);
+        }
+    }
+
+    @Test
+    @DisplayName("Test distinction entre non scoré et vide")
+    void testNoneAndEmpty() {
+        assertThat(ScoreVector.toCategoryScores(ScoreVector.NONE)).isNull();
+        assertThat(ScoreVector.toCategoryScores(ScoreVector.EMPTY)).isEmpty();
+        assertThat(ScoreVector.isEmpty(ScoreVector.NONE)).isTrue();
+        assertThat(ScoreVector.get(ScoreVector.NONE, Theme.SPORT)).isZero();
+    }
+
+    @Test
+    @DisplayName("Test conversion depuis et vers la vue JSON")
+    void testCategoryScoresRoundTrip() {
+        // Given : catégorie inconnue et score nul ignorés
+        List<NewsCategoryScore> scores = List.of(
+                new NewsCategoryScore("sport", 3),
+                new NewsCategoryScore("inconnue", 4),
+                new NewsCategoryScore("Politique", 1),
+                new NewsCategoryScore("culture", 0));
+
+        // When
+        long vector = ScoreVector.fromCategoryScores(scores);
+
+        // Then
+        assertThat(ScoreVector.toCategoryScores(vector)).containsExactly(
+                new NewsCategoryScore("politique", 1),
+                new NewsCategoryScore("sport", 3));
+    }
+}
@@ -0,0 +1,29 @@
+package model;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class ThemeTest {
+
+    @Test
+    @DisplayName("Test ordre canonique des noms JSON")
+    void testJsonNamesOrder() {
+        // Then
+        assertThat(Theme.jsonNames())
+                .hasSize(12)
+                .startsWith("politique", "international", "economie")
+                .endsWith("sante", "education", "idees");
+    }
+
+    @Test
+    @DisplayName("Test fromJsonName() (trouvé, casse, inconnu)")
+    void testFromJsonName() {
+        // Then
+        assertThat(Theme.fromJsonName("sport")).isEqualTo(Theme.SPORT);
+        assertThat(Theme.fromJsonName("PLANETE")).isEqualTo(Theme.PLANETE);
+        assertThat(Theme.fromJsonName("inconnu")).isNull();
+        assertThat(Theme.fromJsonName(null)).isNull();
+    }
+}
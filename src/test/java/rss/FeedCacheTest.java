@@ -0,0 +1,125 @@
+package rss;
+
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.http.HttpClient;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.GZIPOutputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class FeedCacheTest {
+
+    private static final String BODY = "<rss><item><title>Été</title></item></rss>";
+
+    private HttpServer server;
+    private String url;
+    private final AtomicInteger fullResponses = new AtomicInteger();
+    private final AtomicLong now = new AtomicLong();
+
+    @BeforeEach
+    void setUp() throws IOException {
+        // Given : un serveur qui gère ETag/If-None-Match et gzip
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/feed.xml", exchange -> {
+            String etag = "\"v1\"";
+            if (etag.equals(exchange.getRequestHeaders().getFirst("If-None-Match"))) {
+                exchange.sendResponseHeaders(304, -1);
+                exchange.close();
+                return;
+            }
+            fullResponses.incrementAndGet();
+            ByteArrayOutputStream gz = new ByteArrayOutputStream();
+            try (GZIPOutputStream out = new GZIPOutputStream(gz)) {
+                out.write(BODY.getBytes(StandardCharsets.UTF_8));
+            }
+            exchange.getResponseHeaders().add("ETag", etag);
+            exchange.getResponseHeaders().add("Content-Encoding", "gzip");
+            exchange.sendResponseHeaders(200, gz.size());
+            try (OutputStream os = exchange.getResponseBody()) {
+                os.write(gz.toByteArray());
+            }
+        });
+        server.start();
+        url = "http://127.0.0.1:" + server.getAddress().getPort() + "/feed.xml";
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.stop(0);
+    }
+
+    @Test
+    @DisplayName("Test copie fraîche servie sans requête réseau")
+    void testFreshHit() throws IOException {
+        // Given
+        FeedCache cache = new FeedCache(HttpClient.newHttpClient(),
+                Duration.ofSeconds(60), Duration.ZERO, Duration.ofSeconds(5), now::get);
+
+        // When
+        List<Map<String, String>> first = cache.getItems(url);
+        List<Map<String, String>> second = cache.getItems(url);
+
+        // Then
+        assertThat(first).extracting(item -> item.get("title")).containsExactly("Été");
+        assertThat(second).isEqualTo(first);
+        assertThat(cache.getRequests()).isEqualTo(1);
+        assertThat(cache.getCacheHits()).isEqualTo(1);
+        assertThat(cache.getCacheMisses()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Test revalidation conditionnelle (304) après expiration")
+    void testConditionalRevalidation() throws IOException {
+        // Given
+        FeedCache cache = new FeedCache(HttpClient.newHttpClient(),
+                Duration.ofSeconds(60), Duration.ZERO, Duration.ofSeconds(5), now::get);
+        cache.getItems(url);
+
+        // When
+        now.set(Duration.ofSeconds(61).toNanos());
+        List<Map<String, String>> items = cache.getItems(url);
+
+        // Then
+        assertThat(items).extracting(item -> item.get("title")).containsExactly("Été");
+        assertThat(cache.getRequests()).isEqualTo(2);
+        assertThat(cache.getNotModified()).isEqualTo(1);
+        assertThat(cache.getNotModifiedRate()).isEqualTo(0.5);
+        assertThat(fullResponses.get()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Test revalidation en arrière-plan non comptée comme échec du cache")
+    void testStaleWhileRevalidateCounters() throws Exception {
+        // Given
+        FeedCache cache = new FeedCache(HttpClient.newHttpClient(),
+                Duration.ofSeconds(60), Duration.ofSeconds(60), Duration.ofSeconds(5), now::get);
+        cache.getItems(url);
+
+        // When : copie périmée servie, revalidée en arrière-plan
+        now.set(Duration.ofSeconds(61).toNanos());
+        cache.getItems(url);
+        long deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+        while (cache.getRequests() < 2 && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+
+        // Then
+        assertThat(cache.getRequests()).isEqualTo(2);
+        assertThat(cache.getCacheHits()).isEqualTo(1);
+        assertThat(cache.getCacheMisses()).isEqualTo(1);
+    }
+}
@@ -0,0 +1,117 @@
+package rss;
+
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.http.HttpClient;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class MultiFeedRssFetcherTest {
+
+    private HttpServer server;
+    private String base;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        // Given : deux flux valides et un flux en erreur
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        serve("/a.xml", 200, "<rss><item><title>A1</title></item></rss>");
+        serve("/b.xml", 200, "<rss><item><title>B1</title></item>"
+                + "<item><title>B2</title></item></rss>");
+        serve("/ko.xml", 500, "erreur");
+        serve("/gone.xml", 404, "absent");
+        server.start();
+        base = "http://127.0.0.1:" + server.getAddress().getPort();
+    }
+
+    private void serve(final String path, final int status, final String body) {
+        server.createContext(path, exchange -> {
+            byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(status, bytes.length);
+            try (OutputStream os = exchange.getResponseBody()) {
+                os.write(bytes);
+            }
+        });
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.stop(0);
+    }
+
+    private MultiFeedRssFetcher fetcher(final List<String> feeds) {
+        FeedCache cache = new FeedCache(HttpClient.newHttpClient(),
+                Duration.ZERO, Duration.ZERO, Duration.ofSeconds(5));
+        return new MultiFeedRssFetcher(cache, feeds, List.of(base + "/a.xml",
+                base + "/b.xml", base + "/ko.xml", base + "/gone.xml"),
+                10, 2, 4, Duration.ofSeconds(5));
+    }
+
+    @Test
+    @DisplayName("Test fusion des flux dans l'ordre, flux en erreur ignoré")
+    void testMergeFeeds() {
+        // Given
+        MultiFeedRssFetcher fetcher = fetcher(List.of(
+                base + "/a.xml", base + "/ko.xml", base + "/b.xml"));
+
+        // When
+        List<Map<String, String>> news = fetcher.fetchRawNews();
+
+        // Then
+        assertThat(news).extracting(item -> item.get("title"))
+                .containsExactly("A1", "B1", "B2");
+    }
+
+    @Test
+    @DisplayName("Test refus des flux inconnus")
+    void testRegisterOnlyKnownFeeds() {
+        // Given
+        MultiFeedRssFetcher fetcher = fetcher(List.of(base + "/a.xml"));
+
+        // When
+        boolean rejected = fetcher.registerFeeds(List.of(
+                "http://example.com/rss.xml", "file:///etc/passwd",
+                base + "/junk.xml", base + "/a.xml?x=1"));
+        boolean added = fetcher.registerFeeds(List.of(" " + base + "/b.xml "));
+        boolean again = fetcher.registerFeeds(List.of(base + "/b.xml"));
+
+        // Then
+        assertThat(rejected).isFalse();
+        assertThat(added).isTrue();
+        assertThat(again).isFalse();
+        assertThat(fetcher.getFeeds())
+                .containsExactly(base + "/a.xml", base + "/b.xml");
+    }
+
+    @Test
+    @DisplayName("Test retrait d'un flux ajouté après des échecs répétés")
+    void testEvictFailingFeed() {
+        // Given : un flux initial en erreur, un flux ajouté en erreur
+        MultiFeedRssFetcher fetcher = fetcher(List.of(
+                base + "/a.xml", base + "/ko.xml"));
+        fetcher.registerFeeds(List.of(base + "/gone.xml"));
+
+        // When
+        for (int i = 1; i < MultiFeedRssFetcher.MAX_CONSECUTIVE_FAILURES; i++) {
+            fetcher.fetchRawNews();
+        }
+        List<String> beforeLimit = fetcher.getFeeds();
+        fetcher.fetchRawNews();
+
+        // Then : seul le flux ajouté est retiré, au dernier échec
+        assertThat(beforeLimit).contains(base + "/gone.xml");
+        assertThat(fetcher.getFeeds())
+                .containsExactly(base + "/a.xml", base + "/ko.xml");
+    }
+}
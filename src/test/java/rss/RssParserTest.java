@@ -0,0 +1,67 @@
+package rss;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class RssParserTest {
+
+    private static final String FEED = "<?xml version=\"1.0\" encoding=\"UTF-8\"?>"
+            + "<rss xmlns:media=\"http://search.yahoo.com/mrss/\"><channel>"
+            + "<title>Le Monde</title>"
+            + "<item><title><![CDATA[Réforme & budget]]></title>"
+            + "<media:title>ignoré</media:title>"
+            + "<link> https://www.lemonde.fr/a </link>"
+            + "<description>Prix &lt; 5 &amp; taxes</description></item>"
+            + "<item><title>Second</title><category>sport</category></item>"
+            + "</channel></rss>";
+
+    @Test
+    @DisplayName("Test analyse des articles (CDATA, entités, espaces de noms)")
+    void testParseItems() throws IOException {
+        // When
+        List<Map<String, String>> items = RssParser.parse(FEED);
+
+        // Then
+        assertThat(items).hasSize(2);
+        assertThat(items.get(0))
+                .containsEntry("title", "Réforme & budget")
+                .containsEntry("link", "https://www.lemonde.fr/a")
+                .containsEntry("description", "Prix < 5 & taxes")
+                .containsEntry("category", "");
+        assertThat(items.get(1))
+                .containsEntry("title", "Second")
+                .containsEntry("category", "sport");
+    }
+
+    @Test
+    @DisplayName("Test analyse en flux depuis les octets")
+    void testParseStream() throws IOException {
+        // Given
+        List<Map<String, String>> items = new ArrayList<>();
+
+        // When
+        RssParser.parse(new ByteArrayInputStream(
+                FEED.getBytes(StandardCharsets.UTF_8)), items::add);
+
+        // Then
+        assertThat(items).extracting(item -> item.get("title"))
+                .containsExactly("Réforme & budget", "Second");
+    }
+
+    @Test
+    @DisplayName("Test document mal formé")
+    void testMalformed() {
+        assertThatThrownBy(() -> RssParser.parse("<rss><item><title>x</rss>"))
+                .isInstanceOf(IOException.class);
+    }
+}